@@ -0,0 +1,206 @@
+/*
+ * Copyright 2024 EPAM Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.ta.reportportal.auth;
+
+import com.epam.ta.reportportal.commons.ReportPortalUser;
+import com.epam.ta.reportportal.core.events.activity.ChangeUserTypeEvent;
+import com.epam.ta.reportportal.core.events.activity.UserDeletedEvent;
+import com.epam.ta.reportportal.core.events.activity.UsersDeletedEvent;
+import com.epam.ta.reportportal.dao.ApiKeyRepository;
+import com.epam.ta.reportportal.dao.UserRepository;
+import com.epam.ta.reportportal.entity.user.ApiKey;
+import com.epam.ta.reportportal.model.activity.UserActivityResource;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import javax.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Cache of the verified API keys, so requests authenticated with an API key don't hit the database.
+ * Entries are keyed by the key hash, hold the key owner and expire after a short TTL. Missing keys
+ * are not cached.
+ * <p>
+ * Entries are evicted after commit of the key deletion and of the owner deletion or role change.
+ * These changes made through other API instances are picked up after the TTL.
+ * <p>
+ * Last usage date of a key is updated at most once a day. Updates are collected in memory and
+ * flushed periodically in a single transaction, instead of a write within the request.
+ */
+@Component
+public class ApiKeyAuthenticationCache {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(ApiKeyAuthenticationCache.class);
+
+  public static final String CACHE_NAME = "api.key.authentication";
+
+  private final ApiKeyRepository apiKeyRepository;
+
+  private final UserRepository userRepository;
+
+  private final TransactionTemplate transactionTemplate;
+
+  private final Cache<String, VerifiedApiKey> cache;
+
+  private final Map<Long, VerifiedApiKey> pendingUsages = new ConcurrentHashMap<>();
+
+  public ApiKeyAuthenticationCache(ApiKeyRepository apiKeyRepository,
+      UserRepository userRepository, PlatformTransactionManager transactionManager,
+      MeterRegistry meterRegistry, @Value("${rp.apikey.cache.size:10000}") long size,
+      @Value("${rp.apikey.cache.ttl:30}") long ttl) {
+    this.apiKeyRepository = apiKeyRepository;
+    this.userRepository = userRepository;
+    this.transactionTemplate = new TransactionTemplate(transactionManager);
+    this.cache = Caffeine.newBuilder()
+        .maximumSize(size)
+        .expireAfterWrite(Duration.ofSeconds(ttl))
+        .recordStats()
+        .build();
+    CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+  }
+
+  /**
+   * Finds owner of the API key and records usage of the key
+   *
+   * @param hashedKey Hash of the API key
+   * @return {@link Optional} with the key owner. The instance is shared, so it should be copied
+   * before it's put into the security context
+   */
+  public Optional<ReportPortalUser> getUser(String hashedKey) {
+    VerifiedApiKey apiKey = cache.get(hashedKey, this::load);
+    if (apiKey == null) {
+      return Optional.empty();
+    }
+    LocalDate today = LocalDate.now();
+    if (!today.equals(apiKey.lastUsedAt)) {
+      apiKey.lastUsedAt = today;
+      pendingUsages.put(apiKey.id, apiKey);
+    }
+    return Optional.of(apiKey.user);
+  }
+
+  /**
+   * Evicts the API key after commit of the current transaction, if any
+   *
+   * @param apiKeyId Id of the API key
+   */
+  public void evictApiKey(Long apiKeyId) {
+    afterCommit(() -> {
+      pendingUsages.remove(apiKeyId);
+      cache.asMap().values().removeIf(apiKey -> Objects.equals(apiKeyId, apiKey.id));
+    });
+  }
+
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onUserDeleted(UserDeletedEvent event) {
+    Long userId = Optional.ofNullable(event.getBefore()).map(UserActivityResource::getId)
+        .orElse(null);
+    if (userId == null) {
+      cache.invalidateAll();
+    } else {
+      cache.asMap().values().removeIf(apiKey -> userId.equals(apiKey.user.getUserId()));
+    }
+  }
+
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onUsersDeleted(UsersDeletedEvent event) {
+    cache.invalidateAll();
+  }
+
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onChangeUserType(ChangeUserTypeEvent event) {
+    cache.invalidateAll();
+  }
+
+  /**
+   * Saves collected last usage dates of the API keys
+   */
+  @Scheduled(fixedDelayString = "${rp.apikey.last-used-flush:60000}")
+  @PreDestroy
+  public void flushUsages() {
+    if (pendingUsages.isEmpty()) {
+      return;
+    }
+    try {
+      transactionTemplate.executeWithoutResult(status -> pendingUsages.keySet().forEach(id -> {
+        VerifiedApiKey apiKey = pendingUsages.remove(id);
+        if (apiKey != null) {
+          apiKeyRepository.updateLastUsedAt(apiKey.id, apiKey.hash, apiKey.lastUsedAt);
+        }
+      }));
+    } catch (Exception e) {
+      LOGGER.warn("Unable to update last usage date of API keys: {}", e.getMessage());
+    }
+  }
+
+  private VerifiedApiKey load(String hashedKey) {
+    ApiKey apiKey = apiKeyRepository.findByHash(hashedKey);
+    if (apiKey == null) {
+      return null;
+    }
+    return userRepository.findReportPortalUser(apiKey.getUserId())
+        .map(user -> new VerifiedApiKey(apiKey, user))
+        .orElse(null);
+  }
+
+  private void afterCommit(Runnable action) {
+    if (TransactionSynchronizationManager.isSynchronizationActive()) {
+      TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+        @Override
+        public void afterCommit() {
+          action.run();
+        }
+      });
+    } else {
+      action.run();
+    }
+  }
+
+  private static class VerifiedApiKey {
+
+    private final Long id;
+
+    private final String hash;
+
+    private final ReportPortalUser user;
+
+    private volatile LocalDate lastUsedAt;
+
+    private VerifiedApiKey(ApiKey apiKey, ReportPortalUser user) {
+      this.id = apiKey.getId();
+      this.hash = apiKey.getHash();
+      this.user = user;
+      this.lastUsedAt = apiKey.getLastUsedAt();
+    }
+  }
+}
@@ -18,16 +18,11 @@ package com.epam.ta.reportportal.auth;
 
 import com.epam.ta.reportportal.auth.util.AuthUtils;
 import com.epam.ta.reportportal.commons.ReportPortalUser;
-import com.epam.ta.reportportal.dao.ApiKeyRepository;
-import com.epam.ta.reportportal.dao.UserRepository;
-import com.epam.ta.reportportal.entity.user.ApiKey;
 import com.google.common.collect.Maps;
-import java.time.LocalDate;
 import java.util.Collections;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.HashSet;
-import java.util.Optional;
 import java.util.Set;
 import javax.xml.bind.DatatypeConverter;
 import org.apache.commons.codec.digest.DigestUtils;
@@ -43,20 +38,15 @@ import org.springframework.security.oauth2.provider.OAuth2Request;
 import org.springframework.security.oauth2.provider.token.store.JwtAccessTokenConverter;
 import org.springframework.security.oauth2.provider.token.store.JwtTokenStore;
 import org.springframework.stereotype.Component;
-import org.springframework.transaction.annotation.Transactional;
 
 /**
  * @author <a href="mailto:pavel_bortnik@epam.com">Pavel Bortnik</a>
  */
 @Component(value = "combinedTokenStore")
-@Transactional(readOnly = true)
 public class CombinedTokenStore extends JwtTokenStore {
 
   @Autowired
-  private ApiKeyRepository apiKeyRepository;
-
-  @Autowired
-  private UserRepository userRepository;
+  private ApiKeyAuthenticationCache apiKeyAuthenticationCache;
 
   @Autowired
   public CombinedTokenStore(JwtAccessTokenConverter jwtTokenEnhancer) {
@@ -72,29 +62,22 @@ public class CombinedTokenStore extends JwtTokenStore {
     }
   }
 
-  @Transactional
   @Override
   public OAuth2Authentication readAuthentication(String tokenId) {
     try {
       return super.readAuthentication(tokenId);
     } catch (InvalidTokenException e) {
       String hashedKey = DatatypeConverter.printHexBinary(DigestUtils.sha3_256(tokenId));
-      ApiKey apiKey = apiKeyRepository.findByHash(hashedKey);
-      if (apiKey != null) {
-        Optional<ReportPortalUser> user = userRepository.findReportPortalUser(apiKey.getUserId());
-        if (user.isPresent()) {
-          LocalDate today = LocalDate.now();
-          if (apiKey.getLastUsedAt() == null || !apiKey.getLastUsedAt().equals(today)) {
-            apiKeyRepository.updateLastUsedAt(apiKey.getId(), hashedKey, today);
-          }
-          return getAuthentication(getUserWithAuthorities(user.get()));
-        }
-      }
-      return null;
+      return apiKeyAuthenticationCache.getUser(hashedKey)
+          .map(user -> getAuthentication(getUserWithAuthorities(user)))
+          .orElse(null);
     }
   }
 
-  @Transactional
+  /**
+   * API key is only checked for the format here. The key itself is verified and its usage is
+   * recorded when the authentication is read.
+   */
   @Override
   public OAuth2AccessToken readAccessToken(String tokenValue) {
     try {
@@ -104,14 +87,6 @@ public class CombinedTokenStore extends JwtTokenStore {
         DefaultOAuth2AccessToken defaultOAuth2AccessToken =
             new DefaultOAuth2AccessToken(tokenValue);
         defaultOAuth2AccessToken.setExpiration(new Date(System.currentTimeMillis() + 60 * 1000L));
-        String hashedKey = DatatypeConverter.printHexBinary(DigestUtils.sha3_256(tokenValue));
-        ApiKey apiKey = apiKeyRepository.findByHash(hashedKey);
-        if (apiKey != null) {
-          LocalDate today = LocalDate.now();
-          if (apiKey.getLastUsedAt() == null || !apiKey.getLastUsedAt().equals(today)) {
-            apiKeyRepository.updateLastUsedAt(apiKey.getId(), hashedKey, today);
-          }
-        }
         return defaultOAuth2AccessToken;
       }
       return null; //let spring security handle the invalid token
@@ -0,0 +1,221 @@
+/*
+ * Copyright 2024 EPAM Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.ta.reportportal.core.analyzer.auto.client;
+
+import com.rabbitmq.http.client.domain.ExchangeInfo;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.AmqpException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Exchanges of the deployed analyzers. The exchanges are requested from the RabbitMq management
+ * API in the background and read from memory, so the analyzer operations don't wait for the
+ * management API. The exchanges are refreshed right away when a message can't be published to
+ * them or a request gets no reply, e.g. an analyzer has been redeployed.
+ */
+@Component
+public class AnalyzerTopologyRegistry {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(AnalyzerTopologyRegistry.class);
+
+  /**
+   * Number of the refresh intervals after which the exchanges are reported as stale
+   */
+  private static final int STALE_INTERVALS = 3;
+
+  /**
+   * Minimal pause between the refreshes caused by the failed requests
+   */
+  private static final Duration FAILURE_REFRESH_PAUSE = Duration.ofSeconds(5);
+
+  private final RabbitMqManagementClient managementClient;
+
+  private final Duration staleAfter;
+
+  private final ReentrantLock refreshLock = new ReentrantLock();
+
+  private volatile List<ExchangeInfo> exchanges;
+
+  private volatile Instant refreshedAt;
+
+  private volatile Instant failureRefreshedAt = Instant.EPOCH;
+
+  private volatile String lastError;
+
+  public AnalyzerTopologyRegistry(RabbitMqManagementClient managementClient,
+      @Value("${rp.amqp.analyzer-topology.refresh-interval:30000}") long refreshInterval) {
+    this.managementClient = managementClient;
+    this.staleAfter = Duration.ofMillis(refreshInterval * STALE_INTERVALS);
+  }
+
+  /**
+   * @return Exchanges of the analyzers sorted by priority, as of the last successful refresh. The
+   * exchanges are loaded on startup; if that load has failed the first caller tries to load them,
+   * while the other callers and the callers after a failed load get no exchanges and the scheduled
+   * refresh retries.
+   */
+  public List<ExchangeInfo> getAnalyzerExchangesInfo() {
+    List<ExchangeInfo> current = exchanges;
+    if (current != null) {
+      return current;
+    }
+    if (refreshLock.tryLock()) {
+      try {
+        if (exchanges == null) {
+          tryLoad();
+        }
+      } finally {
+        refreshLock.unlock();
+      }
+    }
+    current = exchanges;
+    return current == null ? List.of() : current;
+  }
+
+  /**
+   * Loads the exchanges once on startup, so the analyzer operations find them in memory from the
+   * first request
+   */
+  @EventListener(ApplicationReadyEvent.class)
+  public void onApplicationReady() {
+    refresh();
+  }
+
+  @Scheduled(fixedDelayString = "${rp.amqp.analyzer-topology.refresh-interval:30000}")
+  public void refresh() {
+    refreshLock.lock();
+    try {
+      tryLoad();
+    } finally {
+      refreshLock.unlock();
+    }
+  }
+
+  /**
+   * Executes the operation with the analyzer exchanges and refreshes the exchanges if a message
+   * can't be published or no reply is received
+   *
+   * @param operation Operation publishing to the exchanges
+   * @param <T>       Type of the result
+   * @return Result of the operation
+   */
+  public <T> T call(Supplier<T> operation) {
+    T reply;
+    try {
+      reply = operation.get();
+    } catch (AmqpException e) {
+      onPublishFailure(e);
+      throw e;
+    }
+    if (reply == null) {
+      LOGGER.warn("No reply from the analyzer, refreshing analyzers");
+      refreshOnFailure();
+    }
+    return reply;
+  }
+
+  /**
+   * @param operation Operation publishing to the exchanges
+   * @see #call(Supplier)
+   */
+  public void send(Runnable operation) {
+    try {
+      operation.run();
+    } catch (AmqpException e) {
+      onPublishFailure(e);
+      throw e;
+    }
+  }
+
+  /**
+   * @return Time since the last successful refresh, or null if the exchanges haven't been loaded
+   */
+  public Duration getStaleness() {
+    Instant current = refreshedAt;
+    return current == null ? null : Duration.between(current, Instant.now());
+  }
+
+  public boolean isStale() {
+    Duration staleness = getStaleness();
+    return staleness == null || staleness.compareTo(staleAfter) > 0;
+  }
+
+  public Map<String, Object> getDetails() {
+    Map<String, Object> details = new LinkedHashMap<>();
+    List<ExchangeInfo> current = exchanges;
+    Duration staleness = getStaleness();
+    details.put("exchanges", current == null ? 0 : current.size());
+    details.put("refreshedAt", refreshedAt);
+    details.put("stalenessSeconds", staleness == null ? null : staleness.getSeconds());
+    details.put("stale", isStale());
+    details.put("lastError", lastError);
+    return details;
+  }
+
+  private void onPublishFailure(AmqpException e) {
+    LOGGER.warn("Unable to publish to the analyzer exchange, refreshing analyzers: {}",
+        e.getMessage());
+    refreshOnFailure();
+  }
+
+  /**
+   * Refreshes the exchanges unless they have been refreshed because of a failure recently. The
+   * refresh in progress will load the actual exchanges as well.
+   */
+  private void refreshOnFailure() {
+    Instant now = Instant.now();
+    if (failureRefreshedAt.plus(FAILURE_REFRESH_PAUSE).isAfter(now)) {
+      return;
+    }
+    if (refreshLock.tryLock()) {
+      try {
+        failureRefreshedAt = now;
+        tryLoad();
+      } finally {
+        refreshLock.unlock();
+      }
+    }
+  }
+
+  private void tryLoad() {
+    try {
+      load();
+    } catch (Exception e) {
+      lastError = e.getMessage();
+      LOGGER.warn("Unable to refresh the analyzer exchanges: {}", e.getMessage());
+    }
+  }
+
+  private void load() {
+    List<ExchangeInfo> loaded = List.copyOf(managementClient.getAnalyzerExchangesInfo());
+    exchanges = loaded;
+    refreshedAt = Instant.now();
+    lastError = null;
+  }
+}
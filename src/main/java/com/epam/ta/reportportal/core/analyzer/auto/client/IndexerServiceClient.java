@@ -49,6 +49,11 @@ public interface IndexerServiceClient {
    */
   void index(List<IndexLaunch> rq);
 
+  /**
+   * @return Number of the index requests waiting in the queues of the analyzers
+   */
+  long getIndexQueueDepth();
+
   /**
    * Sends a message to the queue with a map of items which must be updated with a new issue type
    *
@@ -26,4 +26,11 @@ public interface RabbitMqManagementClient {
 
   List<ExchangeInfo> getAnalyzerExchangesInfo();
 
+  /**
+   * @param exchange   Exchange name
+   * @param routingKey Routing key
+   * @return Number of the messages ready in the queues bound to the exchange by the routing key
+   */
+  long getQueueDepth(String exchange, String routingKey);
+
 }
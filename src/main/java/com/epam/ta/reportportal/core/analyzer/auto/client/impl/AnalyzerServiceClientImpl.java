@@ -20,10 +20,10 @@ import static com.epam.ta.reportportal.core.analyzer.auto.client.impl.AnalyzerUt
 import static com.epam.ta.reportportal.core.analyzer.auto.client.impl.AnalyzerUtils.DOES_SUPPORT_SEARCH;
 import static com.epam.ta.reportportal.core.analyzer.auto.client.impl.AnalyzerUtils.DOES_SUPPORT_SUGGEST;
 import static com.epam.ta.reportportal.core.analyzer.auto.client.impl.AnalyzerUtils.EXCHANGE_PRIORITY;
-import static java.util.stream.Collectors.toList;
+import static java.util.stream.Collectors.toSet;
 
 import com.epam.ta.reportportal.core.analyzer.auto.client.AnalyzerServiceClient;
-import com.epam.ta.reportportal.core.analyzer.auto.client.RabbitMqManagementClient;
+import com.epam.ta.reportportal.core.analyzer.auto.client.AnalyzerTopologyRegistry;
 import com.epam.ta.reportportal.core.analyzer.auto.client.model.SuggestInfo;
 import com.epam.ta.reportportal.core.analyzer.auto.client.model.SuggestRq;
 import com.epam.ta.reportportal.core.analyzer.auto.client.model.cluster.ClusterData;
@@ -41,6 +41,7 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.function.Predicate;
 import org.springframework.amqp.rabbit.core.RabbitTemplate;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -60,29 +61,29 @@ public class AnalyzerServiceClientImpl implements AnalyzerServiceClient {
   private static final String REMOVE_SUGGEST_ROUTE = "remove_suggest_info";
   private static final String CLUSTER_ROUTE = "cluster";
 
-  private final RabbitMqManagementClient rabbitMqManagementClient;
+  private final AnalyzerTopologyRegistry analyzerTopologyRegistry;
 
   private final RabbitTemplate rabbitTemplate;
 
   private String virtualHost;
 
   @Autowired
-  public AnalyzerServiceClientImpl(RabbitMqManagementClient rabbitMqManagementClient,
+  public AnalyzerServiceClientImpl(AnalyzerTopologyRegistry analyzerTopologyRegistry,
       @Qualifier("analyzerRabbitTemplate") RabbitTemplate rabbitTemplate,
       @Value("${rp.amqp.analyzer-vhost}") String virtualHost) {
-    this.rabbitMqManagementClient = rabbitMqManagementClient;
+    this.analyzerTopologyRegistry = analyzerTopologyRegistry;
     this.rabbitTemplate = rabbitTemplate;
     this.virtualHost = virtualHost;
   }
 
   @Override
   public boolean hasClients() {
-    return rabbitMqManagementClient.getAnalyzerExchangesInfo().size() != 0;
+    return analyzerTopologyRegistry.getAnalyzerExchangesInfo().size() != 0;
   }
 
   @Override
   public Map<String, List<AnalyzedItemRs>> analyze(IndexLaunch rq) {
-    List<ExchangeInfo> analyzerExchanges = rabbitMqManagementClient.getAnalyzerExchangesInfo();
+    List<ExchangeInfo> analyzerExchanges = analyzerTopologyRegistry.getAnalyzerExchangesInfo();
     Map<String, List<AnalyzedItemRs>> resultMap = new HashMap<>(analyzerExchanges.size());
     analyzerExchanges.forEach(exchange -> analyze(rq, resultMap, exchange));
     return resultMap;
@@ -95,31 +96,36 @@ public class AnalyzerServiceClientImpl implements AnalyzerServiceClient {
             ErrorType.UNABLE_INTERACT_WITH_INTEGRATION,
             "There are no analyzer services with search logs support deployed."
         ));
-    return rabbitTemplate.convertSendAndReceiveAsType(exchangeName, SEARCH_ROUTE, rq,
-        new ParameterizedTypeReference<>() {
-        }
-    );
+    return analyzerTopologyRegistry.call(
+        () -> rabbitTemplate.convertSendAndReceiveAsType(exchangeName, SEARCH_ROUTE, rq,
+            new ParameterizedTypeReference<List<SearchRs>>() {
+            }
+        ));
   }
 
   @Override
   public void removeSuggest(Long projectId) {
     resolveExchangeName(DOES_SUPPORT_SUGGEST).ifPresent(
-        suggestExchange -> rabbitTemplate.convertAndSend(suggestExchange, REMOVE_SUGGEST_ROUTE,
-            projectId
+        suggestExchange -> analyzerTopologyRegistry.send(
+            () -> rabbitTemplate.convertAndSend(suggestExchange, REMOVE_SUGGEST_ROUTE, projectId)
         ));
   }
 
   @Override
   public List<SuggestInfo> searchSuggests(SuggestRq rq) {
-    return rabbitTemplate.convertSendAndReceiveAsType(getSuggestExchangeName(), SUGGEST_ROUTE, rq,
-        new ParameterizedTypeReference<>() {
-        }
-    );
+    String exchangeName = getSuggestExchangeName();
+    return analyzerTopologyRegistry.call(
+        () -> rabbitTemplate.convertSendAndReceiveAsType(exchangeName, SUGGEST_ROUTE, rq,
+            new ParameterizedTypeReference<List<SuggestInfo>>() {
+            }
+        ));
   }
 
   @Override
   public void handleSuggestChoice(List<SuggestInfo> suggestInfos) {
-    rabbitTemplate.convertAndSend(getSuggestExchangeName(), SUGGEST_INFO_ROUTE, suggestInfos);
+    String exchangeName = getSuggestExchangeName();
+    analyzerTopologyRegistry.send(
+        () -> rabbitTemplate.convertAndSend(exchangeName, SUGGEST_INFO_ROUTE, suggestInfos));
   }
 
   @Override
@@ -129,14 +135,15 @@ public class AnalyzerServiceClientImpl implements AnalyzerServiceClient {
             ErrorType.UNABLE_INTERACT_WITH_INTEGRATION,
             "There are no analyzer services with clusters creation support deployed."
         ));
-    return rabbitTemplate.convertSendAndReceiveAsType(exchangeName, CLUSTER_ROUTE,
-        generateClustersRq, new ParameterizedTypeReference<>() {
-        }
-    );
+    return analyzerTopologyRegistry.call(
+        () -> rabbitTemplate.convertSendAndReceiveAsType(exchangeName, CLUSTER_ROUTE,
+            generateClustersRq, new ParameterizedTypeReference<ClusterData>() {
+            }
+        ));
   }
 
   private Optional<String> resolveExchangeName(Predicate<ExchangeInfo> supportCondition) {
-    return rabbitMqManagementClient.getAnalyzerExchangesInfo().stream().filter(supportCondition)
+    return analyzerTopologyRegistry.getAnalyzerExchangesInfo().stream().filter(supportCondition)
         .min(Comparator.comparingInt(EXCHANGE_PRIORITY)).map(ExchangeInfo::getName);
   }
 
@@ -149,11 +156,11 @@ public class AnalyzerServiceClientImpl implements AnalyzerServiceClient {
 
   private void analyze(IndexLaunch rq, Map<String, List<AnalyzedItemRs>> resultMap,
       ExchangeInfo exchangeInfo) {
-    List<AnalyzedItemRs> result =
-        rabbitTemplate.convertSendAndReceiveAsType(exchangeInfo.getName(), ANALYZE_ROUTE,
-            Collections.singletonList(rq), new ParameterizedTypeReference<>() {
+    List<AnalyzedItemRs> result = analyzerTopologyRegistry.call(
+        () -> rabbitTemplate.convertSendAndReceiveAsType(exchangeInfo.getName(), ANALYZE_ROUTE,
+            Collections.singletonList(rq), new ParameterizedTypeReference<List<AnalyzedItemRs>>() {
             }
-        );
+        ));
     if (!CollectionUtils.isEmpty(result)) {
       resultMap.put(
           (String) exchangeInfo.getArguments().getOrDefault(virtualHost, exchangeInfo.getName()),
@@ -170,7 +177,8 @@ public class AnalyzerServiceClientImpl implements AnalyzerServiceClient {
    * @param analyzed List of analyzer items
    */
   private void removeAnalyzedFromRq(IndexLaunch rq, List<AnalyzedItemRs> analyzed) {
-    List<Long> analyzedItemIds = analyzed.stream().map(AnalyzedItemRs::getItemId).collect(toList());
+    Set<Long> analyzedItemIds = analyzed.stream().map(AnalyzedItemRs::getItemId)
+        .collect(toSet());
     rq.getTestItems().removeIf(it -> analyzedItemIds.contains(it.getTestItemId()));
   }
 
@@ -21,6 +21,7 @@ import static com.epam.ta.reportportal.core.analyzer.auto.client.impl.AnalyzerUt
 import static java.util.Optional.ofNullable;
 import static java.util.stream.Collectors.toList;
 
+import com.epam.ta.reportportal.core.analyzer.auto.client.AnalyzerTopologyRegistry;
 import com.epam.ta.reportportal.core.analyzer.auto.client.IndexerServiceClient;
 import com.epam.ta.reportportal.core.analyzer.auto.client.RabbitMqManagementClient;
 import com.epam.ta.reportportal.core.analyzer.auto.client.model.IndexDefectsUpdate;
@@ -57,72 +58,87 @@ public class IndexerServiceClientImpl implements IndexerServiceClient {
   private static final String CLEAN_ROUTE = "clean";
   private static final Integer DELETE_INDEX_SUCCESS_CODE = 1;
 
-  private final RabbitMqManagementClient rabbitMqManagementClient;
+  private final AnalyzerTopologyRegistry analyzerTopologyRegistry;
 
   private final RabbitTemplate rabbitTemplate;
 
-  public IndexerServiceClientImpl(RabbitMqManagementClient rabbitMqManagementClient,
-      @Qualifier("analyzerRabbitTemplate") RabbitTemplate rabbitTemplate) {
-    this.rabbitMqManagementClient = rabbitMqManagementClient;
+  private final RabbitMqManagementClient managementClient;
+
+  public IndexerServiceClientImpl(AnalyzerTopologyRegistry analyzerTopologyRegistry,
+      @Qualifier("analyzerRabbitTemplate") RabbitTemplate rabbitTemplate,
+      RabbitMqManagementClient managementClient) {
+    this.analyzerTopologyRegistry = analyzerTopologyRegistry;
     this.rabbitTemplate = rabbitTemplate;
+    this.managementClient = managementClient;
   }
 
   @Override
   public void index(List<IndexLaunch> rq) {
-    rabbitMqManagementClient.getAnalyzerExchangesInfo().stream().filter(DOES_SUPPORT_INDEX)
-        .forEach(exchange -> {
+    analyzerTopologyRegistry.getAnalyzerExchangesInfo().stream().filter(DOES_SUPPORT_INDEX)
+        .forEach(exchange -> analyzerTopologyRegistry.send(() -> {
           rabbitTemplate.convertAndSend(exchange.getName(), NAMESPACE_FINDER_ROUTE, rq);
           rabbitTemplate.convertAndSend(exchange.getName(), INDEX_ROUTE, rq);
-        });
+        }));
+  }
+
+  @Override
+  public long getIndexQueueDepth() {
+    return analyzerTopologyRegistry.getAnalyzerExchangesInfo().stream().filter(DOES_SUPPORT_INDEX)
+        .mapToLong(exchange -> managementClient.getQueueDepth(exchange.getName(), INDEX_ROUTE))
+        .sum();
   }
 
   @Override
   public List<Long> indexDefectsUpdate(Long projectId, Map<Long, String> itemsForIndexUpdate) {
-    return rabbitMqManagementClient.getAnalyzerExchangesInfo().stream().filter(DOES_SUPPORT_INDEX)
-        .flatMap(exchange -> ofNullable(
-            rabbitTemplate.convertSendAndReceiveAsType(exchange.getName(), DEFECT_UPDATE_ROUTE,
-                new IndexDefectsUpdate(projectId, itemsForIndexUpdate),
+    return analyzerTopologyRegistry.getAnalyzerExchangesInfo().stream().filter(DOES_SUPPORT_INDEX)
+        .flatMap(exchange -> ofNullable(analyzerTopologyRegistry.call(
+            () -> rabbitTemplate.convertSendAndReceiveAsType(exchange.getName(),
+                DEFECT_UPDATE_ROUTE, new IndexDefectsUpdate(projectId, itemsForIndexUpdate),
                 new ParameterizedTypeReference<List<Long>>() {
                 }
-            )).orElse(Collections.emptyList()).stream()).collect(toList());
+            ))).orElse(Collections.emptyList()).stream()).collect(toList());
   }
 
   @Override
   public Integer indexItemsRemove(Long projectId, Collection<Long> itemsForIndexRemove) {
-    return rabbitMqManagementClient.getAnalyzerExchangesInfo().stream().filter(DOES_SUPPORT_INDEX)
-        .map(exchange -> ofNullable(
-            rabbitTemplate.convertSendAndReceiveAsType(exchange.getName(), ITEM_REMOVE_ROUTE,
-                new IndexItemsRemove(projectId, itemsForIndexRemove),
+    return analyzerTopologyRegistry.getAnalyzerExchangesInfo().stream().filter(DOES_SUPPORT_INDEX)
+        .map(exchange -> ofNullable(analyzerTopologyRegistry.call(
+            () -> rabbitTemplate.convertSendAndReceiveAsType(exchange.getName(),
+                ITEM_REMOVE_ROUTE, new IndexItemsRemove(projectId, itemsForIndexRemove),
                 new ParameterizedTypeReference<Integer>() {
                 }
-            )).orElse(0)).mapToInt(Integer::intValue).sum();
+            ))).orElse(0)).mapToInt(Integer::intValue).sum();
   }
 
   @Override
   public void indexItemsRemoveAsync(Long projectId, Collection<Long> itemsForIndexRemove) {
-    rabbitMqManagementClient.getAnalyzerExchangesInfo().stream().filter(DOES_SUPPORT_INDEX).forEach(
-        exchange -> rabbitTemplate.convertAndSend(exchange.getName(), ITEM_REMOVE_ROUTE,
-            new IndexItemsRemove(projectId, itemsForIndexRemove)
-        ));
+    analyzerTopologyRegistry.getAnalyzerExchangesInfo().stream().filter(DOES_SUPPORT_INDEX)
+        .forEach(exchange -> analyzerTopologyRegistry.send(
+            () -> rabbitTemplate.convertAndSend(exchange.getName(), ITEM_REMOVE_ROUTE,
+                new IndexItemsRemove(projectId, itemsForIndexRemove)
+            )));
   }
 
   @Override
   public void indexLaunchesRemove(Long projectId, Collection<Long> launchesForIndexRemove) {
-    rabbitMqManagementClient.getAnalyzerExchangesInfo().stream().filter(DOES_SUPPORT_INDEX).forEach(
-        exchange -> rabbitTemplate.convertAndSend(exchange.getName(), LAUNCH_REMOVE_ROUTE,
-            new IndexLaunchRemove(projectId, launchesForIndexRemove)
-        ));
+    analyzerTopologyRegistry.getAnalyzerExchangesInfo().stream().filter(DOES_SUPPORT_INDEX)
+        .forEach(exchange -> analyzerTopologyRegistry.send(
+            () -> rabbitTemplate.convertAndSend(exchange.getName(), LAUNCH_REMOVE_ROUTE,
+                new IndexLaunchRemove(projectId, launchesForIndexRemove)
+            )));
   }
 
   @Override
   public Long cleanIndex(Long index, List<Long> ids) {
     Map<Integer, Long> priorityToCleanedLogsCountMapping =
-        rabbitMqManagementClient.getAnalyzerExchangesInfo().stream().collect(
+        analyzerTopologyRegistry.getAnalyzerExchangesInfo().stream().collect(
             Collectors.toMap(EXCHANGE_PRIORITY::applyAsInt,
-                exchange -> rabbitTemplate.convertSendAndReceiveAsType(exchange.getName(),
-                    CLEAN_ROUTE, new CleanIndexRq(index, ids), new ParameterizedTypeReference<>() {
-                    }
-                )
+                exchange -> analyzerTopologyRegistry.call(
+                    () -> rabbitTemplate.convertSendAndReceiveAsType(exchange.getName(),
+                        CLEAN_ROUTE, new CleanIndexRq(index, ids),
+                        new ParameterizedTypeReference<Long>() {
+                        }
+                    ))
             ));
     return priorityToCleanedLogsCountMapping.entrySet().stream().min(Map.Entry.comparingByKey())
         .orElseGet(() -> new AbstractMap.SimpleEntry<>(0, 0L)).getValue();
@@ -130,11 +146,12 @@ public class IndexerServiceClientImpl implements IndexerServiceClient {
 
   @Override
   public void deleteIndex(Long index) {
-    rabbitMqManagementClient.getAnalyzerExchangesInfo().stream().map(
-        exchange -> rabbitTemplate.convertSendAndReceiveAsType(exchange.getName(), DELETE_ROUTE,
-            index, new ParameterizedTypeReference<Integer>() {
-            }
-        )).forEach(it -> {
+    analyzerTopologyRegistry.getAnalyzerExchangesInfo().stream().map(
+        exchange -> analyzerTopologyRegistry.call(
+            () -> rabbitTemplate.convertSendAndReceiveAsType(exchange.getName(), DELETE_ROUTE,
+                index, new ParameterizedTypeReference<Integer>() {
+                }
+            ))).forEach(it -> {
       if (DELETE_INDEX_SUCCESS_CODE.equals(it)) {
         LOGGER.info("Successfully deleted index '{}'", index);
       } else {
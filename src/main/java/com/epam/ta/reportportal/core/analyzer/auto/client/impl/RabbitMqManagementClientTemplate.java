@@ -24,8 +24,11 @@ import com.epam.ta.reportportal.core.analyzer.auto.client.RabbitMqManagementClie
 import com.epam.reportportal.rules.exception.ReportPortalException;
 import com.epam.reportportal.rules.exception.ErrorType;
 import com.rabbitmq.http.client.Client;
+import com.rabbitmq.http.client.domain.DestinationType;
 import com.rabbitmq.http.client.domain.ExchangeInfo;
+import com.rabbitmq.http.client.domain.QueueInfo;
 import java.util.List;
+import java.util.Objects;
 import java.util.stream.Collectors;
 
 /**
@@ -58,4 +61,15 @@ public class RabbitMqManagementClientTemplate implements RabbitMqManagementClien
         .sorted(comparingInt(EXCHANGE_PRIORITY))
         .collect(Collectors.toList());
   }
+
+  @Override
+  public long getQueueDepth(String exchange, String routingKey) {
+    return rabbitClient.getBindingsBySource(virtualHost, exchange).stream()
+        .filter(it -> it.getDestinationType() == DestinationType.QUEUE)
+        .filter(it -> routingKey.equals(it.getRoutingKey()))
+        .map(it -> rabbitClient.getQueue(virtualHost, it.getDestination()))
+        .filter(Objects::nonNull)
+        .mapToLong(QueueInfo::getMessagesReady)
+        .sum();
+  }
 }
@@ -0,0 +1,219 @@
+/*
+ * Copyright 2024 EPAM Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.ta.reportportal.core.analyzer.auto.impl;
+
+import com.google.common.annotations.VisibleForTesting;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import javax.sql.DataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+/**
+ * Analyses running on all the instances, stored in the 'analysis_state' table. An analysis of the
+ * launch is registered under a lease, the instance running it prolongs the lease by the heartbeat,
+ * so the analysis of the crashed instance expires and the launch can be analyzed again. Only one
+ * analysis of the launch by the analyzer can be registered at a time.
+ * <p>
+ * The analyzers shown with the launches are read from the snapshot refreshed by the heartbeat, the
+ * checks before the analysis start are done by the database. The registry uses its own connection
+ * pool, see {@link com.epam.ta.reportportal.core.configs.analyzer.AnalysisStateConfig}, and every
+ * update is committed right away, so the other instances see the analysis while the caller's
+ * transaction is running and the caller never waits for a second connection of the main pool.
+ */
+@Service
+public class AnalysisStateRegistry {
+
+  public static final String AUTO_ANALYZER_KEY = "autoAnalyzer";
+  public static final String PATTERN_ANALYZER_KEY = "patternAnalyzer";
+  public static final String CLUSTER_KEY = "cluster";
+
+  private static final Set<String> ANALYZERS = Set.of(AUTO_ANALYZER_KEY, PATTERN_ANALYZER_KEY,
+      CLUSTER_KEY);
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(AnalysisStateRegistry.class);
+
+  private static final String START_QUERY =
+      "INSERT INTO analysis_state (launch_id, analyzer, project_id, owner, lease_until) "
+          + "VALUES (:launchId, :analyzer, :projectId, :owner, "
+          + "now() + make_interval(secs => :lease)) "
+          + "ON CONFLICT (launch_id, analyzer) DO UPDATE SET project_id = excluded.project_id, "
+          + "owner = excluded.owner, started_at = now(), lease_until = excluded.lease_until "
+          + "WHERE analysis_state.lease_until < now()";
+
+  private static final String FINISH_QUERY =
+      "DELETE FROM analysis_state WHERE launch_id = :launchId AND analyzer = :analyzer "
+          + "AND owner = :owner";
+
+  private static final String CONTAINS_LAUNCH_QUERY =
+      "SELECT EXISTS (SELECT 1 FROM analysis_state WHERE launch_id = :launchId "
+          + "AND analyzer = :analyzer AND lease_until >= now())";
+
+  private static final String CONTAINS_PROJECT_QUERY =
+      "SELECT EXISTS (SELECT 1 FROM analysis_state WHERE project_id = :projectId "
+          + "AND analyzer = :analyzer AND lease_until >= now())";
+
+  private static final String RENEW_QUERY =
+      "UPDATE analysis_state SET lease_until = now() + make_interval(secs => :lease) "
+          + "WHERE owner = :owner";
+
+  private static final String EXPIRE_QUERY =
+      "DELETE FROM analysis_state WHERE lease_until < now()";
+
+  private static final String RUNNING_QUERY =
+      "SELECT launch_id, analyzer, project_id, owner, started_at, lease_until "
+          + "FROM analysis_state WHERE lease_until >= now() ORDER BY started_at";
+
+  private final NamedParameterJdbcTemplate jdbcTemplate;
+
+  private final long leaseSeconds;
+
+  private final String owner = UUID.randomUUID().toString();
+
+  /**
+   * Snapshot of the running analyses launchId - analyzers
+   */
+  private volatile Map<Long, Set<String>> started = new ConcurrentHashMap<>();
+
+  @Autowired
+  public AnalysisStateRegistry(@Qualifier("analysisStateDataSource") DataSource dataSource,
+      @Value("${rp.analysis.state.lease:60}") long leaseSeconds) {
+    this(new NamedParameterJdbcTemplate(dataSource), leaseSeconds);
+  }
+
+  @VisibleForTesting
+  AnalysisStateRegistry(NamedParameterJdbcTemplate jdbcTemplate, long leaseSeconds) {
+    this.jdbcTemplate = jdbcTemplate;
+    this.leaseSeconds = leaseSeconds;
+  }
+
+  /**
+   * Registers the analysis of the launch, unless the launch is being analyzed by the analyzer
+   *
+   * @param analyzerKey Analyzer key
+   * @param launchId    Launch id
+   * @param projectId   Project id
+   * @return true if the analysis is registered, false if the analyzer is unknown or the launch is
+   * being analyzed by it
+   */
+  public boolean analyzeStarted(String analyzerKey, Long launchId, Long projectId) {
+    if (!ANALYZERS.contains(analyzerKey)) {
+      return false;
+    }
+    boolean registered = update(START_QUERY, params(analyzerKey, launchId)
+        .addValue("projectId", projectId)
+        .addValue("lease", leaseSeconds)) > 0;
+    if (registered) {
+      started.merge(launchId, Set.of(analyzerKey), AnalysisStateRegistry::union);
+    }
+    return registered;
+  }
+
+  public boolean analyzeFinished(String analyzerKey, Long launchId) {
+    if (!ANALYZERS.contains(analyzerKey)) {
+      return false;
+    }
+    update(FINISH_QUERY, params(analyzerKey, launchId));
+    started.computeIfPresent(launchId, (id, analyzers) -> {
+      Set<String> left = new HashSet<>(analyzers);
+      left.remove(analyzerKey);
+      return left.isEmpty() ? null : Set.copyOf(left);
+    });
+    return true;
+  }
+
+  public boolean containsLaunchId(String analyzerKey, Long launchId) {
+    return ANALYZERS.contains(analyzerKey) && Boolean.TRUE.equals(
+        jdbcTemplate.queryForObject(CONTAINS_LAUNCH_QUERY, params(analyzerKey, launchId),
+            Boolean.class));
+  }
+
+  public boolean containsProjectId(String analyzerKey, Long projectId) {
+    return ANALYZERS.contains(analyzerKey) && Boolean.TRUE.equals(
+        jdbcTemplate.queryForObject(CONTAINS_PROJECT_QUERY, new MapSqlParameterSource()
+            .addValue("projectId", projectId)
+            .addValue("analyzer", analyzerKey), Boolean.class));
+  }
+
+  /**
+   * @param launchId Launch id
+   * @return Analyzers running for the launch as of the last heartbeat, along with the ones started
+   * by this instance since
+   */
+  public Set<String> getStartedAnalyzers(Long launchId) {
+    return started.getOrDefault(launchId, Set.of());
+  }
+
+  public Set<String> getAnalyzers() {
+    return ANALYZERS;
+  }
+
+  /**
+   * @return Analyses running on all the instances
+   */
+  public List<Map<String, Object>> getRunning() {
+    return jdbcTemplate.queryForList(RUNNING_QUERY, new MapSqlParameterSource());
+  }
+
+  /**
+   * Prolongs the leases of the analyses of this instance, removes the expired ones and refreshes
+   * the snapshot of the running analyses
+   */
+  @Scheduled(fixedDelayString = "${rp.analysis.state.heartbeat-interval:10000}")
+  public void heartbeat() {
+    try {
+      update(RENEW_QUERY, new MapSqlParameterSource().addValue("lease", leaseSeconds));
+      update(EXPIRE_QUERY, new MapSqlParameterSource());
+      Map<Long, Set<String>> running = new HashMap<>();
+      jdbcTemplate.query(RUNNING_QUERY, new MapSqlParameterSource(), rs -> {
+        running.merge(rs.getLong("launch_id"), Set.of(rs.getString("analyzer")),
+            AnalysisStateRegistry::union);
+      });
+      started = new ConcurrentHashMap<>(running);
+    } catch (Exception e) {
+      LOGGER.warn("Unable to refresh the running analyses: {}", e.getMessage());
+    }
+  }
+
+  private int update(String query, MapSqlParameterSource params) {
+    return jdbcTemplate.update(query, params.addValue("owner", owner));
+  }
+
+  private static MapSqlParameterSource params(String analyzerKey, Long launchId) {
+    return new MapSqlParameterSource()
+        .addValue("launchId", launchId)
+        .addValue("analyzer", analyzerKey);
+  }
+
+  private static Set<String> union(Set<String> first, Set<String> second) {
+    Set<String> union = new HashSet<>(first);
+    union.addAll(second);
+    return Set.copyOf(union);
+  }
+}
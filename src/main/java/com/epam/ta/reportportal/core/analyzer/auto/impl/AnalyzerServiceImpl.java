@@ -16,14 +16,16 @@
 
 package com.epam.ta.reportportal.core.analyzer.auto.impl;
 
-import static com.epam.ta.reportportal.core.analyzer.auto.impl.AnalyzerStatusCache.AUTO_ANALYZER_KEY;
+import static com.epam.ta.reportportal.core.analyzer.auto.impl.AnalysisStateRegistry.AUTO_ANALYZER_KEY;
 import static com.epam.ta.reportportal.ws.converter.converters.TestItemConverter.TO_ACTIVITY_RESOURCE;
 import static java.util.Optional.ofNullable;
-import static java.util.stream.Collectors.toList;
+import static java.util.stream.Collectors.toMap;
+import static java.util.stream.Collectors.toSet;
 
 import com.epam.ta.reportportal.core.analyzer.auto.AnalyzerService;
 import com.epam.ta.reportportal.core.analyzer.auto.client.AnalyzerServiceClient;
 import com.epam.ta.reportportal.core.analyzer.auto.impl.preparer.LaunchPreparerService;
+import com.epam.ta.reportportal.core.events.ActivityEvent;
 import com.epam.ta.reportportal.core.events.MessageBus;
 import com.epam.ta.reportportal.core.events.activity.ItemIssueTypeDefinedEvent;
 import com.epam.ta.reportportal.core.events.activity.LinkTicketEvent;
@@ -35,28 +37,60 @@ import com.epam.ta.reportportal.entity.item.TestItem;
 import com.epam.ta.reportportal.entity.item.issue.IssueEntity;
 import com.epam.ta.reportportal.entity.item.issue.IssueType;
 import com.epam.ta.reportportal.entity.launch.Launch;
+import com.epam.ta.reportportal.exception.AnalysisRejectedException;
 import com.epam.ta.reportportal.model.activity.TestItemActivityResource;
 import com.epam.ta.reportportal.model.analyzer.AnalyzedItemRs;
 import com.epam.ta.reportportal.model.analyzer.RelevantItemInfo;
 import com.epam.ta.reportportal.ws.converter.builders.IssueEntityBuilder;
 import com.epam.reportportal.model.analyzer.IndexLaunch;
 import com.epam.reportportal.model.project.AnalyzerConfig;
+import com.epam.reportportal.rules.commons.validation.Suppliers;
 import com.epam.reportportal.rules.exception.ErrorType;
+import com.google.common.annotations.VisibleForTesting;
 import com.google.common.collect.Iterables;
 import com.google.common.collect.Sets;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import javax.persistence.EntityManager;
 import org.apache.commons.collections.MapUtils;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import org.hibernate.Session;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskExecutor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 /**
  * Default implementation of {@link AnalyzerService}.
+ * <p>
+ * Item partitions are analyzed in a pipeline: the items of a partition are loaded and prepared
+ * while the analyzers process the previous partition, and the results of a partition are saved
+ * while the analyzers process the next one. Loading and saving stay in the transaction of the
+ * caller, only the analyzer requests are executed by the analyzerTaskExecutor. The analyzer
+ * requests in process are limited per launch by the pipeline depth and per project by the project
+ * concurrency. When a partition does not get a project permit within the permit timeout the run
+ * fails with {@link AnalysisRejectedException}, so the caller never holds its transaction for longer
+ * than that waiting for other launches and the results of the run are rolled back to be analyzed
+ * again as a whole.
  *
  * @author Ivan Sharamet
  * @author Pavel Bortnik
@@ -67,7 +101,15 @@ public class AnalyzerServiceImpl implements AnalyzerService {
 
   private static final Logger LOGGER = LogManager.getLogger(AnalyzerServiceImpl.class.getName());
 
-  private final AnalyzerStatusCache analyzerStatusCache;
+  public static final String STAGE_METRIC = "rp.analyzer.stage";
+  public static final String STAGE_TAG = "stage";
+
+  /**
+   * JDBC batch size of the flush that saves the analyzed items
+   */
+  static final int SAVE_BATCH_SIZE = 50;
+
+  private final AnalysisStateRegistry analysisStateRegistry;
 
   private final LaunchPreparerService launchPreparerService;
 
@@ -81,23 +123,58 @@ public class AnalyzerServiceImpl implements AnalyzerService {
 
   private final MessageBus messageBus;
 
+  private final EntityManager entityManager;
+
   private final Integer itemsBatchSize;
 
+  private final TaskExecutor analyzerTaskExecutor;
+
+  private final int pipelineDepth;
+
+  private final int projectConcurrency;
+
+  private final long permitTimeout;
+
+  private final Map<Long, ProjectPermits> projectPermits = new ConcurrentHashMap<>();
+
+  private final Timer prepareTimer;
+
+  private final Timer analyzeTimer;
+
+  private final Timer waitTimer;
+
+  private final Timer saveTimer;
+
   @Autowired
   public AnalyzerServiceImpl(
       @Value("${rp.environment.variable.item-analyze.batch-size}") Integer itemsBatchSize,
-      AnalyzerStatusCache analyzerStatusCache, LaunchPreparerService launchPreparerService,
+      AnalysisStateRegistry analysisStateRegistry, LaunchPreparerService launchPreparerService,
       AnalyzerServiceClient analyzerServicesClient, IssueTypeHandler issueTypeHandler,
       TestItemRepository testItemRepository,
-      MessageBus messageBus, LaunchRepository launchRepository) {
+      MessageBus messageBus, LaunchRepository launchRepository, EntityManager entityManager,
+      @Qualifier("analyzerTaskExecutor") TaskExecutor analyzerTaskExecutor,
+      MeterRegistry meterRegistry,
+      @Value("${rp.environment.variable.item-analyze.pipeline-depth:2}") int pipelineDepth,
+      @Value("${rp.environment.variable.item-analyze.project-concurrency:4}")
+      int projectConcurrency,
+      @Value("${rp.environment.variable.item-analyze.permit-timeout:30000}") long permitTimeout) {
     this.itemsBatchSize = itemsBatchSize;
-    this.analyzerStatusCache = analyzerStatusCache;
+    this.analysisStateRegistry = analysisStateRegistry;
     this.launchPreparerService = launchPreparerService;
     this.analyzerServicesClient = analyzerServicesClient;
     this.issueTypeHandler = issueTypeHandler;
     this.testItemRepository = testItemRepository;
     this.messageBus = messageBus;
     this.launchRepository = launchRepository;
+    this.entityManager = entityManager;
+    this.analyzerTaskExecutor = analyzerTaskExecutor;
+    this.pipelineDepth = Math.max(1, pipelineDepth);
+    this.projectConcurrency = Math.max(1, projectConcurrency);
+    this.permitTimeout = Math.max(0, permitTimeout);
+    this.prepareTimer = meterRegistry.timer(STAGE_METRIC, STAGE_TAG, "prepare");
+    this.analyzeTimer = meterRegistry.timer(STAGE_METRIC, STAGE_TAG, "analyze");
+    this.waitTimer = meterRegistry.timer(STAGE_METRIC, STAGE_TAG, "wait");
+    this.saveTimer = meterRegistry.timer(STAGE_METRIC, STAGE_TAG, "save");
   }
 
   @Override
@@ -107,89 +184,223 @@ public class AnalyzerServiceImpl implements AnalyzerService {
 
   @Override
   public void runAnalyzers(Launch launch, List<Long> testItemIds, AnalyzerConfig analyzerConfig) {
+    //items of the launch can be analyzed by several runs, the first one registers the analysis
+    boolean registered = false;
     try {
-      analyzerStatusCache.analyzeStarted(AUTO_ANALYZER_KEY, launch.getId(), launch.getProjectId());
+      registered = analysisStateRegistry.analyzeStarted(AUTO_ANALYZER_KEY, launch.getId(),
+          launch.getProjectId());
       Optional<Long> previousLaunchId = findPreviousLaunchId(launch, analyzerConfig);
-      Iterables.partition(testItemIds, itemsBatchSize)
-          .forEach(partition -> analyzeItemsPartition(launch, partition, analyzerConfig, previousLaunchId));
+      Deque<AnalyzedPartition> inProcess = new ArrayDeque<>(pipelineDepth);
+      for (List<Long> partition : Iterables.partition(testItemIds, itemsBatchSize)) {
+        inProcess.add(analyzeItemsPartition(launch, partition, analyzerConfig, previousLaunchId));
+        if (inProcess.size() >= pipelineDepth) {
+          saveResults(launch, inProcess.poll());
+        }
+      }
+      while (!inProcess.isEmpty()) {
+        saveResults(launch, inProcess.poll());
+      }
+    } catch (AnalysisRejectedException e) {
+      LOGGER.error(e.getMessage());
+      throw e;
     } catch (Exception e) {
       LOGGER.error(e.getMessage(), e);
     } finally {
-      analyzerStatusCache.analyzeFinished(AUTO_ANALYZER_KEY, launch.getId());
+      if (registered) {
+        analysisStateRegistry.analyzeFinished(AUTO_ANALYZER_KEY, launch.getId());
+      }
     }
   }
 
   /**
-   * Prepare and analyze the number of provided test item ids.
+   * Prepare the number of provided test item ids and send them to the analyzers.
    *
    * @param launch         Launch
    * @param testItemIds    Item ids for analyzing
    * @param analyzerConfig Analyzer config
+   * @return Partition with the pending results of the analyzers
    */
-  private void analyzeItemsPartition(Launch launch, List<Long> testItemIds,
+  private AnalyzedPartition analyzeItemsPartition(Launch launch, List<Long> testItemIds,
       AnalyzerConfig analyzerConfig, Optional<Long> previousLaunchId) {
     LOGGER.info("Start analysis of '{}' items for launch with id '{}'", testItemIds.size(),
         launch.getId());
+    long start = System.nanoTime();
     List<TestItem> toAnalyze = testItemRepository.findAllById(testItemIds);
     Optional<IndexLaunch> rqLaunch = launchPreparerService.prepare(launch, toAnalyze,
         analyzerConfig);
-    rqLaunch.ifPresent(rq -> {
+    prepareTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+    return new AnalyzedPartition(toAnalyze, rqLaunch.map(rq -> {
       previousLaunchId.ifPresent(rq::setPreviousLaunchId);
-      Map<String, List<AnalyzedItemRs>> analyzedMap = analyzerServicesClient.analyze(rq);
-      if (!MapUtils.isEmpty(analyzedMap)) {
-        analyzedMap.forEach(
-            (key, value) -> updateTestItems(key, value, toAnalyze, launch.getProjectId()));
+      return analyzeAsync(launch.getProjectId(), rq);
+    }).orElseGet(() -> CompletableFuture.completedFuture(Collections.emptyMap())));
+  }
+
+  /**
+   * Sends the request to the analyzers when the project has a free permit
+   *
+   * @throws AnalysisRejectedException if no permit is released within the permit timeout
+   */
+  private CompletableFuture<Map<String, List<AnalyzedItemRs>>> analyzeAsync(Long projectId,
+      IndexLaunch rq) {
+    Semaphore permits = enter(projectId);
+    if (!tryAcquire(permits)) {
+      leave(projectId);
+      throw new AnalysisRejectedException(Suppliers.formattedSupplier(
+          "Analysis of launch with id '{}' is rejected: project '{}' has no free analyzer permit "
+              + "within '{}' ms", rq.getLaunchId(), projectId, permitTimeout).get());
+    }
+    try {
+      return CompletableFuture.supplyAsync(
+              () -> analyzeTimer.record(() -> analyzerServicesClient.analyze(rq)),
+              analyzerTaskExecutor)
+          .whenComplete((result, e) -> {
+            permits.release();
+            leave(projectId);
+          });
+    } catch (RuntimeException e) {
+      permits.release();
+      leave(projectId);
+      throw e;
+    }
+  }
+
+  private boolean tryAcquire(Semaphore permits) {
+    try {
+      return permits.tryAcquire(permitTimeout, TimeUnit.MILLISECONDS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      return false;
+    }
+  }
+
+  /**
+   * Registers a pending analyzer request of the project and returns the permits of the project
+   */
+  private Semaphore enter(Long projectId) {
+    return projectPermits.compute(projectId, (id, permits) -> {
+      ProjectPermits result = permits == null ? new ProjectPermits(projectConcurrency) : permits;
+      result.users++;
+      return result;
+    }).semaphore;
+  }
+
+  /**
+   * Unregisters a request of the project, the permits are dropped when the project has no pending
+   * requests, so only the projects under analysis are kept
+   */
+  private void leave(Long projectId) {
+    projectPermits.computeIfPresent(projectId,
+        (id, permits) -> --permits.users == 0 ? null : permits);
+  }
+
+  @VisibleForTesting
+  int trackedProjects() {
+    return projectPermits.size();
+  }
+
+  private void saveResults(Launch launch, AnalyzedPartition partition) {
+    long start = System.nanoTime();
+    Map<String, List<AnalyzedItemRs>> analyzedMap = awaitResults(partition.getResults());
+    waitTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+    if (!MapUtils.isEmpty(analyzedMap)) {
+      saveTimer.record(() -> analyzedMap.forEach(
+          (key, value) -> updateTestItems(key, value, partition.getItemsById(),
+              launch.getProjectId())));
+    }
+  }
+
+  private static Map<String, List<AnalyzedItemRs>> awaitResults(
+      CompletableFuture<Map<String, List<AnalyzedItemRs>>> results) {
+    try {
+      return results.join();
+    } catch (CompletionException e) {
+      if (e.getCause() instanceof RuntimeException) {
+        throw (RuntimeException) e.getCause();
       }
-    });
+      throw e;
+    }
   }
 
   /**
-   * Update issue types for analyzed items and posted events for updated
+   * Update issue types for analyzed items, save them in one batch and publish the events of the
+   * updated items
    *
-   * @param rs        Results of analyzing
-   * @param testItems items to be updated
-   * @return List of updated items
+   * @param rs         Results of analyzing
+   * @param itemsById  Items to be updated by id
+   * @param projectId  Project id
    */
-  private List<TestItem> updateTestItems(String analyzerInstance, List<AnalyzedItemRs> rs,
-      List<TestItem> testItems, Long projectId) {
-    return rs.stream().map(analyzed -> {
-      Optional<TestItem> toUpdate = testItems.stream()
-          .filter(item -> item.getItemId().equals(analyzed.getItemId())).findAny();
-      toUpdate.ifPresent(testItem -> {
-        LOGGER.debug("Analysis has found a match: {}", analyzed);
-
-        if (!testItem.getItemResults().getIssue().getIssueType().getLocator()
-            .equals(analyzed.getLocator())) {
-          TestItemActivityResource before = TO_ACTIVITY_RESOURCE.apply(testItem, projectId);
-          RelevantItemInfo relevantItemInfo = updateTestItemIssue(projectId, analyzed, testItem);
-          TestItemActivityResource after = TO_ACTIVITY_RESOURCE.apply(testItem, projectId);
-
-          testItemRepository.save(testItem);
-          messageBus.publishActivity(
-              new ItemIssueTypeDefinedEvent(before, after, analyzerInstance, relevantItemInfo));
-          ofNullable(after.getTickets()).ifPresent(
-              it -> messageBus.publishActivity(new LinkTicketEvent(before,
-                  after,
-                  analyzerInstance,
-                  true
-              )));
-        }
-      });
-      return toUpdate;
-    }).filter(Optional::isPresent).map(Optional::get).collect(toList());
+  private void updateTestItems(String analyzerInstance, List<AnalyzedItemRs> rs,
+      Map<Long, TestItem> itemsById, Long projectId) {
+    Map<String, IssueType> issueTypes = new HashMap<>();
+    Map<Long, TestItem> relevantItems = getRelevantItems(rs);
+    List<TestItem> updated = new ArrayList<>(rs.size());
+    List<ActivityEvent> events = new ArrayList<>(rs.size());
+    rs.forEach(analyzed -> {
+      TestItem testItem = itemsById.get(analyzed.getItemId());
+      if (testItem == null || testItem.getItemResults().getIssue().getIssueType().getLocator()
+          .equals(analyzed.getLocator())) {
+        return;
+      }
+      LOGGER.debug("Analysis has found a match: {}", analyzed);
+      IssueType issueType = issueTypes.computeIfAbsent(analyzed.getLocator(),
+          locator -> issueTypeHandler.defineIssueType(projectId, locator));
+
+      TestItemActivityResource before = TO_ACTIVITY_RESOURCE.apply(testItem, projectId);
+      RelevantItemInfo relevantItemInfo = updateTestItemIssue(issueType, analyzed, testItem,
+          relevantItems);
+      TestItemActivityResource after = TO_ACTIVITY_RESOURCE.apply(testItem, projectId);
+
+      updated.add(testItem);
+      events.add(new ItemIssueTypeDefinedEvent(before, after, analyzerInstance, relevantItemInfo));
+      ofNullable(after.getTickets()).ifPresent(
+          it -> events.add(new LinkTicketEvent(before, after, analyzerInstance, true)));
+    });
+    if (!updated.isEmpty()) {
+      saveBatched(updated);
+      messageBus.publishActivities(events);
+    }
+  }
+
+  /**
+   * Saves and flushes the items with JDBC batching enabled for this flush only, the batch size of
+   * the rest of the transaction stays as configured
+   */
+  private void saveBatched(List<TestItem> items) {
+    Session session = entityManager.unwrap(Session.class);
+    Integer batchSize = session.getJdbcBatchSize();
+    session.setJdbcBatchSize(SAVE_BATCH_SIZE);
+    try {
+      testItemRepository.saveAll(items);
+      session.flush();
+    } finally {
+      session.setJdbcBatchSize(batchSize);
+    }
+  }
+
+  /**
+   * @return Relevant items of the results by id
+   */
+  private Map<Long, TestItem> getRelevantItems(List<AnalyzedItemRs> rs) {
+    Set<Long> relevantItemIds = rs.stream().map(AnalyzedItemRs::getRelevantItemId)
+        .filter(Objects::nonNull).collect(toSet());
+    if (relevantItemIds.isEmpty()) {
+      return Collections.emptyMap();
+    }
+    return testItemRepository.findAllById(relevantItemIds).stream()
+        .collect(toMap(TestItem::getItemId, Function.identity()));
   }
 
   /**
    * Updates issue for a specified test item
    *
-   * @param projectId - Project id
-   * @param rs        - Response from an analyzer
-   * @param testItem  - Test item to be updated
+   * @param issueType     - Issue type defined by the analyzer
+   * @param rs            - Response from an analyzer
+   * @param testItem      - Test item to be updated
+   * @param relevantItems - Relevant items of the results by id
    * @return Updated issue entity
    */
-  private RelevantItemInfo updateTestItemIssue(Long projectId, AnalyzedItemRs rs,
-      TestItem testItem) {
-    IssueType issueType = issueTypeHandler.defineIssueType(projectId, rs.getLocator());
+  private RelevantItemInfo updateTestItemIssue(IssueType issueType, AnalyzedItemRs rs,
+      TestItem testItem, Map<Long, TestItem> relevantItems) {
     IssueEntity issueEntity = new IssueEntityBuilder(
         testItem.getItemResults().getIssue()).addIssueType(issueType)
         .addIgnoreFlag(testItem.getItemResults().getIssue().getIgnoreAnalyzer())
@@ -201,9 +412,9 @@ public class AnalyzerServiceImpl implements AnalyzerService {
 
     RelevantItemInfo relevantItemInfo = null;
     if (rs.getRelevantItemId() != null) {
-      Optional<TestItem> relevantItemOptional = testItemRepository.findById(rs.getRelevantItemId());
-      if (relevantItemOptional.isPresent()) {
-        relevantItemInfo = updateIssueFromRelevantItem(issueEntity, relevantItemOptional.get());
+      TestItem relevantItem = relevantItems.get(rs.getRelevantItemId());
+      if (relevantItem != null) {
+        relevantItemInfo = updateIssueFromRelevantItem(issueEntity, relevantItem);
       } else {
         LOGGER.error(ErrorType.TEST_ITEM_NOT_FOUND.getDescription(), rs.getRelevantItemId());
       }
@@ -239,4 +450,44 @@ public class AnalyzerServiceImpl implements AnalyzerService {
     }
     return Optional.empty();
   }
+
+  /**
+   * Permits of a project with the count of the requests that use them. The count is changed only
+   * inside the compute methods of the map.
+   */
+  private static class ProjectPermits {
+
+    private final Semaphore semaphore;
+
+    private int users;
+
+    ProjectPermits(int permits) {
+      this.semaphore = new Semaphore(permits);
+    }
+  }
+
+  /**
+   * Items of the partition with the pending results of the analyzers
+   */
+  private static class AnalyzedPartition {
+
+    private final Map<Long, TestItem> itemsById;
+
+    private final CompletableFuture<Map<String, List<AnalyzedItemRs>>> results;
+
+    AnalyzedPartition(List<TestItem> items,
+        CompletableFuture<Map<String, List<AnalyzedItemRs>>> results) {
+      this.itemsById = items.stream()
+          .collect(toMap(TestItem::getItemId, Function.identity(), (first, second) -> first));
+      this.results = results;
+    }
+
+    Map<Long, TestItem> getItemsById() {
+      return itemsById;
+    }
+
+    CompletableFuture<Map<String, List<AnalyzedItemRs>>> getResults() {
+      return results;
+    }
+  }
 }
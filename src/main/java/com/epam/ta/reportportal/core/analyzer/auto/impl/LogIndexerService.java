@@ -16,12 +16,16 @@
 
 package com.epam.ta.reportportal.core.analyzer.auto.impl;
 
+import static com.epam.ta.reportportal.core.analyzer.auto.impl.AnalyzerUtils.getAnalyzerConfig;
+
 import com.epam.ta.reportportal.core.analyzer.auto.LogIndexer;
+import com.epam.ta.reportportal.core.analyzer.auto.client.AnalyzerServiceClient;
 import com.epam.ta.reportportal.core.analyzer.auto.client.IndexerServiceClient;
 import com.epam.ta.reportportal.core.analyzer.auto.impl.preparer.LaunchPreparerService;
 import com.epam.ta.reportportal.core.analyzer.auto.indexer.BatchLogIndexer;
 import com.epam.ta.reportportal.core.analyzer.auto.indexer.IndexerStatusCache;
 import com.epam.ta.reportportal.dao.LaunchRepository;
+import com.epam.ta.reportportal.dao.ProjectRepository;
 import com.epam.ta.reportportal.dao.TestItemRepository;
 import com.epam.ta.reportportal.entity.item.TestItem;
 import com.epam.ta.reportportal.entity.launch.Launch;
@@ -41,6 +45,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.core.task.TaskExecutor;
 import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -66,12 +71,17 @@ public class LogIndexerService implements LogIndexer {
 
   private final IndexerStatusCache indexerStatusCache;
 
+  private final ProjectRepository projectRepository;
+
+  private final AnalyzerServiceClient analyzerServiceClient;
+
   @Autowired
   public LogIndexerService(BatchLogIndexer batchLogIndexer,
       @Qualifier("logIndexTaskExecutor") TaskExecutor taskExecutor,
       LaunchRepository launchRepository, TestItemRepository testItemRepository,
       IndexerServiceClient indexerServiceClient,
-      LaunchPreparerService launchPreparerService, IndexerStatusCache indexerStatusCache) {
+      LaunchPreparerService launchPreparerService, IndexerStatusCache indexerStatusCache,
+      ProjectRepository projectRepository, AnalyzerServiceClient analyzerServiceClient) {
     this.batchLogIndexer = batchLogIndexer;
     this.taskExecutor = taskExecutor;
     this.launchRepository = launchRepository;
@@ -79,6 +89,8 @@ public class LogIndexerService implements LogIndexer {
     this.indexerServiceClient = indexerServiceClient;
     this.launchPreparerService = launchPreparerService;
     this.indexerStatusCache = indexerStatusCache;
+    this.projectRepository = projectRepository;
+    this.analyzerServiceClient = analyzerServiceClient;
   }
 
   @Override
@@ -131,8 +143,29 @@ public class LogIndexerService implements LogIndexer {
     }
   }
 
+  /**
+   * Resumes the indexing of the projects interrupted by a crash or a restart of the instance
+   */
+  @Scheduled(fixedDelayString = "${rp.environment.variable.log-index.resume-interval:300000}")
+  @Transactional(readOnly = true)
+  public void resumeInterrupted() {
+    if (!analyzerServiceClient.hasClients()) {
+      return;
+    }
+    batchLogIndexer.findInterrupted().forEach(projectId -> {
+      try {
+        projectRepository.findById(projectId).ifPresentOrElse(
+            project -> index(projectId, getAnalyzerConfig(project)),
+            () -> batchLogIndexer.reset(projectId));
+      } catch (Exception e) {
+        LOGGER.warn("Unable to resume indexing of the project {}: {}", projectId, e.getMessage());
+      }
+    });
+  }
+
   @Override
   public void deleteIndex(Long project) {
+    batchLogIndexer.reset(project);
     indexerServiceClient.deleteIndex(project);
   }
 
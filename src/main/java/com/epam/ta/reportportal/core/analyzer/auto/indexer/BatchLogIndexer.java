@@ -1,5 +1,11 @@
 package com.epam.ta.reportportal.core.analyzer.auto.indexer;
 
+import static com.epam.ta.reportportal.job.PageUtil.iterateOverKeyset;
+
+import com.epam.reportportal.model.analyzer.IndexLaunch;
+import com.epam.reportportal.model.analyzer.IndexTestItem;
+import com.epam.reportportal.model.project.AnalyzerConfig;
+import com.epam.reportportal.rules.exception.ReportPortalException;
 import com.epam.ta.reportportal.core.analyzer.auto.client.IndexerServiceClient;
 import com.epam.ta.reportportal.core.analyzer.auto.impl.preparer.LaunchPreparerService;
 import com.epam.ta.reportportal.dao.LaunchRepository;
@@ -8,25 +14,42 @@ import com.epam.ta.reportportal.entity.enums.LogLevel;
 import com.epam.ta.reportportal.entity.launch.Launch;
 import com.epam.ta.reportportal.jooq.enums.JLaunchModeEnum;
 import com.epam.ta.reportportal.jooq.enums.JStatusEnum;
-import com.epam.ta.reportportal.jooq.enums.JTestItemTypeEnum;
-import com.epam.reportportal.model.analyzer.IndexLaunch;
-import com.epam.reportportal.model.analyzer.IndexTestItem;
-import com.epam.reportportal.model.project.AnalyzerConfig;
 import com.google.common.collect.Iterables;
 import com.google.common.collect.Lists;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
 import java.util.stream.Collectors;
-import java.util.stream.StreamSupport;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 /**
+ * Indexes the logs of the projects and the launches.
+ * <p>
+ * A project is indexed launch batch by launch batch in the order of the launch id. The launches of
+ * a batch are prepared and sent to the analyzers by 'parallelism' tasks at a time, and the next
+ * batch waits while the index queues of the analyzers are too deep. The last indexed launch id is
+ * stored in the 'project_reindex' table after every batch, so the indexing interrupted by a crash
+ * is resumed from it by any instance after the lease expires. The lease of the running indexing is
+ * renewed by the heartbeat, so a batch taking longer than the lease isn't taken over. Every
+ * indexing claims the project with its own token, so the indexing taken over by another run stops
+ * at the next batch.
+ *
  * @author <a href="mailto:ivan_budayeu@epam.com">Ivan Budayeu</a>
  */
 @Service
@@ -34,12 +57,62 @@ public class BatchLogIndexer {
 
   private static final Logger LOGGER = LoggerFactory.getLogger(BatchLogIndexer.class);
 
+  private static final String CLAIM_QUERY =
+      "INSERT INTO project_reindex (project_id, owner, lease_until) "
+          + "VALUES (:projectId, :owner, now() + make_interval(secs => :lease)) "
+          + "ON CONFLICT (project_id) DO UPDATE SET owner = :owner, "
+          + "lease_until = EXCLUDED.lease_until, updated_at = now() "
+          + "WHERE project_reindex.lease_until < now() RETURNING last_launch_id, indexed";
+
+  private static final String ADVANCE_QUERY =
+      "UPDATE project_reindex SET last_launch_id = :lastLaunchId, indexed = :indexed, "
+          + "lease_until = now() + make_interval(secs => :lease), updated_at = now() "
+          + "WHERE project_id = :projectId AND owner = :owner";
+
+  private static final String RENEW_QUERY =
+      "UPDATE project_reindex SET lease_until = now() + make_interval(secs => :lease), "
+          + "updated_at = now() WHERE project_id = :projectId AND owner = :owner";
+
+  private static final String COMPLETE_QUERY =
+      "DELETE FROM project_reindex WHERE project_id = :projectId AND owner = :owner";
+
+  private static final String RESET_QUERY =
+      "DELETE FROM project_reindex WHERE project_id = :projectId";
+
+  private static final String INTERRUPTED_QUERY =
+      "SELECT project_id FROM project_reindex WHERE lease_until < now() ORDER BY project_id";
+
+  /**
+   * Launches of the batch having steps with the error logs
+   */
+  private static final String LAUNCHES_WITH_ERRORS_QUERY =
+      "SELECT l.id FROM launch l WHERE l.id IN (:ids) AND EXISTS (SELECT 1 FROM test_item ti "
+          + "JOIN log ON log.item_id = ti.item_id WHERE ti.launch_id = l.id "
+          + "AND ti.type = 'STEP' AND log.log_level >= :logLevel) ORDER BY l.id";
+
   private final Integer launchBatchSize;
   private final Integer itemsBatchSize;
   private final LaunchRepository launchRepository;
   private final TestItemRepository testItemRepository;
   private final LaunchPreparerService launchPreparerService;
   private final IndexerServiceClient indexerServiceClient;
+  private final NamedParameterJdbcTemplate jdbcTemplate;
+  private final IndexerStatusCache indexerStatusCache;
+  private final TaskExecutor executor;
+  private final int parallelism;
+  private final long maxQueueDepth;
+  private final long throttlePause;
+  private final long leaseSeconds;
+
+  /**
+   * Ids of the projects indexed by this instance, a project is never claimed twice by it
+   */
+  private final Set<Long> indexing = ConcurrentHashMap.newKeySet();
+
+  /**
+   * Claimed indexing of the projects, their leases are renewed by {@link #heartbeat()}
+   */
+  private final Map<Long, Checkpoint> running = new ConcurrentHashMap<>();
 
   @Autowired
   public BatchLogIndexer(
@@ -47,29 +120,118 @@ public class BatchLogIndexer {
       @Value("${rp.environment.variable.item-analyze.batch-size}") Integer itemsBatchSize,
       LaunchRepository launchRepository,
       TestItemRepository testItemRepository, LaunchPreparerService launchPreparerService,
-      IndexerServiceClient indexerServiceClient) {
+      IndexerServiceClient indexerServiceClient, NamedParameterJdbcTemplate jdbcTemplate,
+      IndexerStatusCache indexerStatusCache,
+      @Qualifier("logIndexWorkerTaskExecutor") TaskExecutor executor,
+      @Value("${rp.environment.variable.log-index.parallelism:4}") int parallelism,
+      @Value("${rp.environment.variable.log-index.max-queue-depth:1000}") long maxQueueDepth,
+      @Value("${rp.environment.variable.log-index.throttle-pause:5000}") long throttlePause,
+      @Value("${rp.environment.variable.log-index.lease:300}") long leaseSeconds) {
     this.launchBatchSize = launchBatchSize;
     this.itemsBatchSize = itemsBatchSize;
     this.launchRepository = launchRepository;
     this.testItemRepository = testItemRepository;
     this.launchPreparerService = launchPreparerService;
     this.indexerServiceClient = indexerServiceClient;
+    this.jdbcTemplate = jdbcTemplate;
+    this.indexerStatusCache = indexerStatusCache;
+    this.executor = executor;
+    this.parallelism = parallelism;
+    this.maxQueueDepth = maxQueueDepth;
+    this.throttlePause = throttlePause;
+    this.leaseSeconds = leaseSeconds;
   }
 
-  @Transactional(readOnly = true)
+  /**
+   * Indexes the launches of the project, continuing the interrupted indexing of the project if
+   * there is one. The indexing of the project running on another instance isn't duplicated.
+   *
+   * @param projectId      Project id
+   * @param analyzerConfig Analyzer config of the project
+   * @return Number of the indexed logs, including the logs indexed before the interruption
+   */
   public Long index(Long projectId, AnalyzerConfig analyzerConfig) {
-    final AtomicLong totalIndexed = new AtomicLong(0L);
+    if (!indexing.add(projectId)) {
+      LOGGER.info("Project {}. Indexing is in progress on this instance", projectId);
+      return 0L;
+    }
+    try {
+      Optional<Checkpoint> claimed = claim(projectId);
+      if (claimed.isEmpty()) {
+        LOGGER.info("Project {}. Indexing is in progress on another instance", projectId);
+        return 0L;
+      }
+      running.put(projectId, claimed.get());
+      return index(claimed.get(), analyzerConfig);
+    } finally {
+      running.remove(projectId);
+      indexing.remove(projectId);
+    }
+  }
 
-    List<Long> ids = getLaunchIds(projectId);
-    index(projectId, analyzerConfig, ids, totalIndexed);
+  /**
+   * Renews the leases of the indexing running on this instance. The indexing with the lost lease
+   * is stopped at the next batch.
+   */
+  @Scheduled(fixedDelayString = "${rp.environment.variable.log-index.heartbeat-interval:30000}")
+  public void heartbeat() {
+    running.values().forEach(checkpoint -> {
+      try {
+        int renewed = jdbcTemplate.update(RENEW_QUERY, new MapSqlParameterSource()
+            .addValue("lease", leaseSeconds)
+            .addValue("projectId", checkpoint.projectId)
+            .addValue("owner", checkpoint.token));
+        if (renewed == 0) {
+          checkpoint.lost = true;
+        }
+      } catch (Exception e) {
+        LOGGER.warn("Project {}. Unable to renew the lease of the indexing: {}",
+            checkpoint.projectId, e.getMessage());
+      }
+    });
+  }
 
-    while (launchBatchSize == ids.size()) {
-      final Long lastLaunchId = Iterables.getLast(ids);
-      ids = getLaunchIds(projectId, lastLaunchId);
-      index(projectId, analyzerConfig, ids, totalIndexed);
+  private Long index(Checkpoint checkpoint, AnalyzerConfig analyzerConfig) {
+    Long projectId = checkpoint.projectId;
+    if (checkpoint.lastLaunchId > 0) {
+      LOGGER.info("Project {}. Indexing is resumed after the launch {}, {} logs indexed before",
+          projectId, checkpoint.lastLaunchId, checkpoint.indexed);
     }
+    try {
+      iterateOverKeyset(checkpoint.lastLaunchId, launchBatchSize,
+          (lastId, limit) -> launchRepository.findIdsByProjectIdAndModeAndStatusNotEqAfterId(
+              projectId, JLaunchModeEnum.DEFAULT, JStatusEnum.IN_PROGRESS, lastId, limit),
+          Function.identity(), ids -> {
+            checkLease(checkpoint);
+            awaitAnalyzers(checkpoint);
+            checkpoint.indexed += index(projectId, analyzerConfig, ids);
+            checkpoint.lastLaunchId = Iterables.getLast(ids);
+            advance(checkpoint);
+            indexerStatusCache.indexingProgress(projectId, checkpoint.indexed);
+          });
+      complete(checkpoint);
+    } catch (LeaseLostException e) {
+      LOGGER.warn("Project {}. Indexing has been reset or taken over by another instance",
+          projectId);
+    }
+    return checkpoint.indexed;
+  }
 
-    return totalIndexed.get();
+  /**
+   * Removes the stored progress of the project indexing, e.g. when the index is deleted. The
+   * indexing of the project in progress is stopped after the current batch.
+   *
+   * @param projectId Project id
+   */
+  public void reset(Long projectId) {
+    jdbcTemplate.update(RESET_QUERY, new MapSqlParameterSource("projectId", projectId));
+  }
+
+  /**
+   * @return Ids of the projects with the interrupted indexing
+   */
+  public List<Long> findInterrupted() {
+    return jdbcTemplate.queryForList(INTERRUPTED_QUERY, new MapSqlParameterSource(), Long.class);
   }
 
   @Transactional(readOnly = true)
@@ -103,35 +265,46 @@ public class BatchLogIndexer {
         .sum();
   }
 
-  private void index(Long projectId, AnalyzerConfig analyzerConfig, List<Long> launchIds,
-      AtomicLong totalIndexed) {
-    if (launchIds.isEmpty()) {
-      return;
-    }
+  /**
+   * Indexes the batch of the launches, the launches with the error logs are split between
+   * 'parallelism' tasks preparing and sending them at the same time
+   *
+   * @return Number of the indexed logs
+   */
+  private long index(Long projectId, AnalyzerConfig analyzerConfig, List<Long> launchIds) {
     LOGGER.debug("Project {}. Found {} ids", projectId, launchIds.size());
     final List<Long> filteredIds = filterIds(launchIds);
     if (filteredIds.isEmpty()) {
-      return;
+      return 0L;
     }
     LOGGER.debug("Project {}. Found {} filtered ids", projectId, filteredIds.size());
+    int chunkSize = (filteredIds.size() + parallelism - 1) / parallelism;
+    final long indexed = Lists.partition(filteredIds, chunkSize).stream()
+        .map(chunk -> CompletableFuture.supplyAsync(() -> indexLaunches(chunk, analyzerConfig),
+            executor))
+        .collect(Collectors.toList())
+        .stream()
+        .mapToLong(CompletableFuture::join)
+        .sum();
+    LOGGER.debug("Project {}. Indexed {} logs", projectId, indexed);
+    return indexed;
+  }
+
+  private long indexLaunches(List<Long> launchIds, AnalyzerConfig analyzerConfig) {
     final List<IndexLaunch> preparedLaunches = launchPreparerService.prepare(launchIds,
         analyzerConfig);
     if (preparedLaunches.isEmpty()) {
-      return;
+      return 0L;
     }
-
-    LOGGER.debug("Project {}. Start indexing for {} launches", projectId, preparedLaunches.size());
-    indexByPartition(preparedLaunches);
     final long indexed = countLogs(preparedLaunches);
-    LOGGER.debug("Project {}. Indexed {} logs", projectId, indexed);
-    totalIndexed.addAndGet(indexed);
+    indexByPartition(preparedLaunches);
+    return indexed;
   }
 
   private void indexByPartition(List<IndexLaunch> preparedLaunches) {
     preparedLaunches.forEach(indexLaunch -> {
-      final Iterable<List<IndexTestItem>> lists = Iterables.partition(indexLaunch.getTestItems(),
-          itemsBatchSize);
-      StreamSupport.stream(lists.spliterator(), false).forEach(partition -> {
+      final List<IndexTestItem> items = indexLaunch.getTestItems();
+      Lists.partition(items, itemsBatchSize).forEach(partition -> {
         indexLaunch.setTestItems(partition);
         indexerServiceClient.index(Lists.newArrayList(indexLaunch));
       });
@@ -139,28 +312,101 @@ public class BatchLogIndexer {
   }
 
   private List<Long> filterIds(List<Long> launchIds) {
-    return launchIds.stream()
-        .filter(
-            id -> launchRepository.hasItemsWithLogsWithLogLevel(id, List.of(JTestItemTypeEnum.STEP),
-                LogLevel.ERROR_INT))
-        .collect(Collectors.toList());
+    return jdbcTemplate.queryForList(LAUNCHES_WITH_ERRORS_QUERY, new MapSqlParameterSource()
+        .addValue("ids", launchIds)
+        .addValue("logLevel", LogLevel.ERROR_INT), Long.class);
+  }
+
+  /**
+   * Waits while the analyzers have more than 'maxQueueDepth' index requests to process, keeping
+   * the lease of the indexing
+   */
+  private void awaitAnalyzers(Checkpoint checkpoint) {
+    if (maxQueueDepth <= 0) {
+      return;
+    }
+    long depth;
+    while ((depth = getQueueDepth()) > maxQueueDepth) {
+      LOGGER.debug("Project {}. Indexing is paused, {} index requests are in the queue",
+          checkpoint.projectId, depth);
+      advance(checkpoint);
+      try {
+        Thread.sleep(throttlePause);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new ReportPortalException(e.getMessage());
+      }
+    }
+  }
+
+  private long getQueueDepth() {
+    try {
+      return indexerServiceClient.getIndexQueueDepth();
+    } catch (Exception e) {
+      LOGGER.warn("Unable to get the depth of the analyzer index queues: {}", e.getMessage());
+      return 0L;
+    }
   }
 
-  private List<Long> getLaunchIds(Long projectId) {
-    return launchRepository.findIdsByProjectIdAndModeAndStatusNotEq(projectId,
-        JLaunchModeEnum.DEFAULT,
-        JStatusEnum.IN_PROGRESS,
-        launchBatchSize
-    );
+  private Optional<Checkpoint> claim(Long projectId) {
+    String token = UUID.randomUUID().toString();
+    return jdbcTemplate.query(CLAIM_QUERY, new MapSqlParameterSource()
+            .addValue("projectId", projectId)
+            .addValue("owner", token)
+            .addValue("lease", leaseSeconds),
+        (rs, rowNum) -> new Checkpoint(projectId, token, rs.getLong("last_launch_id"),
+            rs.getLong("indexed"))).stream().findFirst();
   }
 
-  private List<Long> getLaunchIds(Long projectId, Long launchId) {
-    return launchRepository.findIdsByProjectIdAndModeAndStatusNotEqAfterId(projectId,
-        JLaunchModeEnum.DEFAULT,
-        JStatusEnum.IN_PROGRESS,
-        launchId,
-        launchBatchSize
-    );
+  private void checkLease(Checkpoint checkpoint) {
+    if (checkpoint.lost) {
+      throw new LeaseLostException();
+    }
   }
 
+  private void advance(Checkpoint checkpoint) {
+    checkLease(checkpoint);
+    int advanced = jdbcTemplate.update(ADVANCE_QUERY, new MapSqlParameterSource()
+        .addValue("lastLaunchId", checkpoint.lastLaunchId)
+        .addValue("indexed", checkpoint.indexed)
+        .addValue("lease", leaseSeconds)
+        .addValue("projectId", checkpoint.projectId)
+        .addValue("owner", checkpoint.token));
+    if (advanced == 0) {
+      throw new LeaseLostException();
+    }
+  }
+
+  private void complete(Checkpoint checkpoint) {
+    jdbcTemplate.update(COMPLETE_QUERY, new MapSqlParameterSource()
+        .addValue("projectId", checkpoint.projectId)
+        .addValue("owner", checkpoint.token));
+  }
+
+  private static class Checkpoint {
+
+    private final Long projectId;
+
+    /**
+     * Owner of the claim, unique for every indexing run
+     */
+    private final String token;
+
+    private long lastLaunchId;
+
+    private long indexed;
+
+    private volatile boolean lost;
+
+    private Checkpoint(Long projectId, String token, long lastLaunchId, long indexed) {
+      this.projectId = projectId;
+      this.token = token;
+      this.lastLaunchId = lastLaunchId;
+      this.indexed = indexed;
+    }
+  }
+
+  private static class LeaseLostException extends RuntimeException {
+
+  }
 }
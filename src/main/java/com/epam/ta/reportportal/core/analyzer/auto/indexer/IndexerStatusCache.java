@@ -18,6 +18,7 @@ package com.epam.ta.reportportal.core.analyzer.auto.indexer;
 
 import com.google.common.cache.Cache;
 import com.google.common.cache.CacheBuilder;
+import java.util.Optional;
 import java.util.concurrent.TimeUnit;
 import org.springframework.stereotype.Service;
 
@@ -35,17 +36,40 @@ public class IndexerStatusCache {
    */
   private Cache<Long, Boolean> indexingStatus;
 
+  /**
+   * Contains number of the logs indexed so far by the indexing of the project projectId - logs
+   */
+  private Cache<Long, Long> indexingProgress;
+
   public IndexerStatusCache() {
     indexingStatus = CacheBuilder.newBuilder().maximumSize(MAXIMUM_SIZE)
         .expireAfterWrite(CACHE_ITEM_LIVE, TimeUnit.MINUTES).build();
+    indexingProgress = CacheBuilder.newBuilder().maximumSize(MAXIMUM_SIZE)
+        .expireAfterWrite(CACHE_ITEM_LIVE, TimeUnit.MINUTES).build();
   }
 
   public void indexingStarted(Long projectId) {
     indexingStatus.put(projectId, true);
   }
 
+  /**
+   * Updates the progress of the indexing, so the status of the long indexing doesn't expire
+   *
+   * @param projectId   Project id
+   * @param indexedLogs Number of the logs indexed so far
+   */
+  public void indexingProgress(Long projectId, long indexedLogs) {
+    indexingStatus.put(projectId, true);
+    indexingProgress.put(projectId, indexedLogs);
+  }
+
   public void indexingFinished(Long projectId) {
     indexingStatus.invalidate(projectId);
+    indexingProgress.invalidate(projectId);
+  }
+
+  public Optional<Long> getIndexingProgress(Long projectId) {
+    return Optional.ofNullable(indexingProgress.getIfPresent(projectId));
   }
 
   public Cache<Long, Boolean> getIndexingStatus() {
@@ -16,9 +16,6 @@
 
 package com.epam.ta.reportportal.core.analyzer.config;
 
-import com.epam.ta.reportportal.core.analyzer.pattern.selector.PatternAnalysisSelector;
-import com.epam.ta.reportportal.core.analyzer.pattern.selector.impl.RegexPatternAnalysisSelector;
-import com.epam.ta.reportportal.core.analyzer.pattern.selector.impl.StringPartPatternAnalysisSelector;
 import com.epam.ta.reportportal.core.analyzer.pattern.service.CreatePatternTemplateHandler;
 import com.epam.ta.reportportal.core.analyzer.pattern.service.impl.CreatePatternTemplateHandlerImpl;
 import com.epam.ta.reportportal.core.analyzer.pattern.service.impl.CreateRegexPatternTemplateHandler;
@@ -62,13 +59,4 @@ public class PatternAnalysisConfig implements ApplicationContextAware {
             applicationContext.getBean(CreateRegexPatternTemplateHandler.class)).build();
   }
 
-  @Bean("patternAnalysisSelectorMapping")
-  public Map<PatternTemplateType, PatternAnalysisSelector> patternAnalysisSelectorMapping() {
-    return ImmutableMap.<PatternTemplateType, PatternAnalysisSelector>builder()
-        .put(PatternTemplateType.STRING,
-            applicationContext.getBean(StringPartPatternAnalysisSelector.class)
-        ).put(PatternTemplateType.REGEX,
-            applicationContext.getBean(RegexPatternAnalysisSelector.class)).build();
-  }
-
 }
@@ -16,95 +16,166 @@
 
 package com.epam.ta.reportportal.core.analyzer.pattern.handler.impl;
 
-import com.epam.ta.reportportal.core.analyzer.pattern.selector.PatternAnalysisSelector;
+import com.epam.ta.reportportal.core.analyzer.pattern.matcher.PatternMatcher;
 import com.epam.ta.reportportal.core.events.MessageBus;
 import com.epam.ta.reportportal.core.events.activity.PatternMatchedEvent;
 import com.epam.ta.reportportal.dao.PatternTemplateRepository;
-import com.epam.ta.reportportal.dao.TestItemRepository;
+import com.epam.ta.reportportal.entity.enums.LogLevel;
 import com.epam.ta.reportportal.entity.pattern.PatternTemplate;
 import com.epam.ta.reportportal.entity.pattern.PatternTemplateTestItemPojo;
-import com.epam.ta.reportportal.entity.pattern.PatternTemplateType;
 import com.epam.ta.reportportal.model.activity.PatternTemplateActivityResource;
 import com.epam.ta.reportportal.ws.converter.converters.PatternTemplateConverter;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
 import org.apache.commons.lang3.StringUtils;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.util.CollectionUtils;
 
 /**
+ * Analyzes the items by all pattern templates of the project at once: the error logs of the items
+ * and of their descendants are read once per batch, the REGEX patterns are evaluated by the
+ * database in the same query and the STRING ones by {@link PatternMatcher}, then all new matches
+ * are saved by a single batch.
+ *
  * @author <a href="mailto:pavel_bortnik@epam.com">Pavel Bortnik</a>
  */
 @Service
 public class ItemsPatternAnalyzerImpl {
 
-  private final PatternTemplateRepository patternTemplateRepository;
+  private static final String MATCHED_QUERY =
+      "SELECT pattern_id, item_id FROM pattern_template_test_item "
+          + "WHERE item_id IN (:itemIds) AND pattern_id IN (:patternIds)";
+
+  private static final String ERROR_LOGS_QUERY =
+      "SELECT parent.item_id, log.log_message%s FROM test_item parent "
+          + "JOIN test_item child ON child.path <@ parent.path "
+          + "AND (child.item_id = parent.item_id OR child.launch_id = :launchId) "
+          + "JOIN log ON log.item_id = child.item_id "
+          + "WHERE parent.item_id IN (:itemIds) AND log.log_level >= :logLevel";
+
+  private static final String REGEX_MATCHES_COLUMN =
+      ", ARRAY(SELECT regex.position FROM (VALUES :regexes) AS regex(position, value) "
+          + "WHERE log.log_message ~ regex.value) AS regex_matches";
 
-  private final Map<PatternTemplateType, PatternAnalysisSelector> patternAnalysisSelectorMapping;
+  private static final String ITEM_NAMES_QUERY =
+      "SELECT item_id, name FROM test_item WHERE item_id IN (:itemIds)";
 
-  private final TestItemRepository testItemRepository;
+  private final PatternTemplateRepository patternTemplateRepository;
+
+  private final NamedParameterJdbcTemplate jdbcTemplate;
 
   private final MessageBus messageBus;
 
   public ItemsPatternAnalyzerImpl(PatternTemplateRepository patternTemplateRepository,
-      Map<PatternTemplateType, PatternAnalysisSelector> patternAnalysisSelectorMapping,
-      TestItemRepository testItemRepository, MessageBus messageBus) {
+      NamedParameterJdbcTemplate jdbcTemplate, MessageBus messageBus) {
     this.patternTemplateRepository = patternTemplateRepository;
-    this.patternAnalysisSelectorMapping = patternAnalysisSelectorMapping;
-    this.testItemRepository = testItemRepository;
+    this.jdbcTemplate = jdbcTemplate;
     this.messageBus = messageBus;
   }
 
   public void analyzeByPattern(PatternTemplate pattern, Long launchId, List<Long> itemIds) {
-    List<Long> filtered = filterAlreadyMatched(pattern, itemIds);
-    PatternAnalysisSelector patternAnalysisSelector = patternAnalysisSelectorMapping.get(
-        pattern.getTemplateType());
-    List<Long> matchedIds = patternAnalysisSelector.selectItemsByPattern(launchId, filtered,
-        pattern.getValue());
-    if (!CollectionUtils.isEmpty(matchedIds)) {
-      List<PatternTemplateTestItemPojo> patternTemplateTestItems = saveMatches(pattern, matchedIds);
-      publishEvents(pattern, patternTemplateTestItems);
-    }
+    analyze(launchId, itemIds, Collections.singletonList(pattern));
   }
 
-  private List<Long> filterAlreadyMatched(PatternTemplate pattern, List<Long> itemIds) {
-    List<Long> alreadyMatched = patternTemplateRepository.findMatchedItemIdsIn(pattern.getId(),
-        itemIds);
-    return itemIds.stream().filter(id -> !alreadyMatched.contains(id))
-        .collect(Collectors.toList());
-  }
+  /**
+   * Matches the items by the patterns, an item is matched by a pattern if the pattern is found in
+   * an error log of the item or of its descendants
+   *
+   * @param launchId Launch id
+   * @param itemIds  Ids of the items of the launch
+   * @param patterns Pattern templates
+   */
+  public void analyze(Long launchId, List<Long> itemIds, List<PatternTemplate> patterns) {
+    if (CollectionUtils.isEmpty(itemIds) || CollectionUtils.isEmpty(patterns)) {
+      return;
+    }
+    PatternMatcher matcher = new PatternMatcher(patterns);
+    Map<Long, BitSet> alreadyMatched = findAlreadyMatched(itemIds, patterns);
+    Map<Long, BitSet> matched = new HashMap<>();
+    alreadyMatched.forEach((itemId, found) -> matched.put(itemId, (BitSet) found.clone()));
+
+    List<String> regexes = matcher.getRegexes();
+    MapSqlParameterSource params = new MapSqlParameterSource()
+        .addValue("launchId", launchId)
+        .addValue("itemIds", itemIds)
+        .addValue("logLevel", LogLevel.ERROR_INT);
+    String query = ERROR_LOGS_QUERY;
+    if (regexes.isEmpty()) {
+      query = String.format(query, StringUtils.EMPTY);
+    } else {
+      query = String.format(query, REGEX_MATCHES_COLUMN);
+      List<Object[]> positions = new ArrayList<>(regexes.size());
+      for (int i = 0; i < regexes.size(); i++) {
+        positions.add(new Object[] { i, regexes.get(i) });
+      }
+      params.addValue("regexes", positions);
+    }
+    jdbcTemplate.query(query, params, rs -> {
+      BitSet found = matched.computeIfAbsent(rs.getLong(1), id -> new BitSet(patterns.size()));
+      if (!matcher.isCompleted(found)) {
+        matcher.match(rs.getString(2), found);
+        if (!regexes.isEmpty()) {
+          for (Integer position : (Integer[]) rs.getArray(3).getArray()) {
+            matcher.matchRegex(position, found);
+          }
+        }
+      }
+    });
 
-  private List<PatternTemplateTestItemPojo> saveMatches(PatternTemplate pattern,
-      List<Long> matchedIds) {
-    List<PatternTemplateTestItemPojo> patternTemplateTestItemPojos = convertToPojo(pattern,
-        matchedIds);
-    patternTemplateRepository.saveInBatch(patternTemplateTestItemPojos);
-    return patternTemplateTestItemPojos;
+    List<PatternTemplateTestItemPojo> matches = new ArrayList<>();
+    itemIds.forEach(itemId -> {
+      BitSet found = matched.getOrDefault(itemId, new BitSet());
+      found.andNot(alreadyMatched.getOrDefault(itemId, new BitSet()));
+      found.stream().forEach(index -> matches.add(
+          new PatternTemplateTestItemPojo(patterns.get(index).getId(), itemId)));
+    });
+    if (!matches.isEmpty()) {
+      patternTemplateRepository.saveInBatch(matches);
+      publishEvents(patterns, matches);
+    }
   }
 
-  private List<PatternTemplateTestItemPojo> convertToPojo(PatternTemplate patternTemplate,
-      List<Long> itemIds) {
-    return itemIds.stream()
-        .map(itemId -> new PatternTemplateTestItemPojo(patternTemplate.getId(), itemId))
-        .collect(Collectors.toList());
+  private Map<Long, BitSet> findAlreadyMatched(List<Long> itemIds,
+      List<PatternTemplate> patterns) {
+    Map<Long, Integer> indexes = new HashMap<>();
+    for (int i = 0; i < patterns.size(); i++) {
+      indexes.put(patterns.get(i).getId(), i);
+    }
+    Map<Long, BitSet> alreadyMatched = new HashMap<>();
+    jdbcTemplate.query(MATCHED_QUERY, new MapSqlParameterSource()
+        .addValue("itemIds", itemIds)
+        .addValue("patternIds", indexes.keySet()), rs -> {
+      alreadyMatched.computeIfAbsent(rs.getLong("item_id"), id -> new BitSet(patterns.size()))
+          .set(indexes.get(rs.getLong("pattern_id")));
+    });
+    return alreadyMatched;
   }
 
-  private void publishEvents(PatternTemplate patternTemplate,
-      List<PatternTemplateTestItemPojo> patternTemplateTestItems) {
-    final PatternTemplateActivityResource patternTemplateActivityResource = PatternTemplateConverter.TO_ACTIVITY_RESOURCE.apply(
-        patternTemplate);
-    patternTemplateTestItems.forEach(patternItem -> {
-      Long testItemId = patternItem.getTestItemId();
-      Optional<String> itemNameByItemId = testItemRepository.findItemNameByItemId(testItemId);
-      PatternMatchedEvent patternMatchedEvent = new PatternMatchedEvent(
-          itemNameByItemId.orElse(StringUtils.EMPTY),
-          testItemId,
-          patternTemplateActivityResource
-      );
-      messageBus.publishActivity(patternMatchedEvent);
+  private void publishEvents(List<PatternTemplate> patterns,
+      List<PatternTemplateTestItemPojo> matches) {
+    Map<Long, PatternTemplateActivityResource> resources = patterns.stream()
+        .collect(Collectors.toMap(PatternTemplate::getId,
+            PatternTemplateConverter.TO_ACTIVITY_RESOURCE, (first, second) -> first));
+    Map<Long, String> itemNames = new HashMap<>();
+    Set<Long> itemIds = matches.stream()
+        .map(PatternTemplateTestItemPojo::getTestItemId)
+        .collect(Collectors.toSet());
+    jdbcTemplate.query(ITEM_NAMES_QUERY, new MapSqlParameterSource("itemIds", itemIds), rs -> {
+      itemNames.put(rs.getLong("item_id"), rs.getString("name"));
     });
+    matches.forEach(match -> messageBus.publishActivity(new PatternMatchedEvent(
+        itemNames.getOrDefault(match.getTestItemId(), StringUtils.EMPTY),
+        match.getTestItemId(),
+        resources.get(match.getPatternTemplateId())
+    )));
   }
 
 }
@@ -16,11 +16,11 @@
 
 package com.epam.ta.reportportal.core.analyzer.pattern.handler.proxy;
 
-import static com.epam.ta.reportportal.core.analyzer.auto.impl.AnalyzerStatusCache.PATTERN_ANALYZER_KEY;
+import static com.epam.ta.reportportal.core.analyzer.auto.impl.AnalysisStateRegistry.PATTERN_ANALYZER_KEY;
 import static com.epam.ta.reportportal.core.analyzer.config.PatternAnalysisRabbitConfiguration.PATTERN_ANALYSIS_REGEX;
 import static com.epam.ta.reportportal.core.analyzer.config.PatternAnalysisRabbitConfiguration.PATTERN_ANALYSIS_STRING;
 
-import com.epam.ta.reportportal.core.analyzer.auto.impl.AnalyzerStatusCache;
+import com.epam.ta.reportportal.core.analyzer.auto.impl.AnalysisStateRegistry;
 import com.epam.ta.reportportal.core.analyzer.pattern.handler.impl.ItemsPatternAnalyzerImpl;
 import org.springframework.amqp.rabbit.annotation.RabbitListener;
 import org.springframework.stereotype.Component;
@@ -35,19 +35,22 @@ public class ItemsPatternAnalyzeConsumer {
 
   private final ItemsPatternAnalyzerImpl itemsPatternsAnalyzer;
 
-  private final AnalyzerStatusCache analyzerStatusCache;
+  private final AnalysisStateRegistry analysisStateRegistry;
 
   public ItemsPatternAnalyzeConsumer(ItemsPatternAnalyzerImpl itemsPatternsAnalyzer,
-      AnalyzerStatusCache analyzerStatusCache) {
+      AnalysisStateRegistry analysisStateRegistry) {
     this.itemsPatternsAnalyzer = itemsPatternsAnalyzer;
-    this.analyzerStatusCache = analyzerStatusCache;
+    this.analysisStateRegistry = analysisStateRegistry;
   }
 
   @RabbitListener(queues = {PATTERN_ANALYSIS_REGEX,
       PATTERN_ANALYSIS_STRING}, containerFactory = "patternAnalysisContainerFactory")
   public void handleEvent(ItemsPatternAnalyzeDto event) {
     if (event.isLastItem()) {
-      analyzerStatusCache.analyzeFinished(PATTERN_ANALYZER_KEY, event.getLaunchId());
+      analysisStateRegistry.analyzeFinished(PATTERN_ANALYZER_KEY, event.getLaunchId());
+    } else if (event.getPatternTemplates() != null) {
+      itemsPatternsAnalyzer.analyze(event.getLaunchId(), event.getItemIds(),
+          event.getPatternTemplates());
     } else {
       itemsPatternsAnalyzer.analyzeByPattern(event.getPatternTemplate(), event.getLaunchId(),
           event.getItemIds());
@@ -27,6 +27,7 @@ import java.util.List;
 public class ItemsPatternAnalyzeDto {
 
   private PatternTemplate patternTemplate;
+  private List<PatternTemplate> patternTemplates;
   private long projectId;
   private long launchId;
   private List<Long> itemIds;
@@ -43,6 +44,14 @@ public class ItemsPatternAnalyzeDto {
     this.patternTemplate = patternTemplate;
   }
 
+  public ItemsPatternAnalyzeDto(long projectId, long launchId, List<Long> itemIds,
+      List<PatternTemplate> patternTemplates) {
+    this.projectId = projectId;
+    this.launchId = launchId;
+    this.itemIds = itemIds;
+    this.patternTemplates = patternTemplates;
+  }
+
   public ItemsPatternAnalyzeDto(long projectId, long launchId, List<Long> itemIds,
       boolean isLastItem) {
     this.projectId = projectId;
@@ -59,6 +68,14 @@ public class ItemsPatternAnalyzeDto {
     this.patternTemplate = patternTemplate;
   }
 
+  public List<PatternTemplate> getPatternTemplates() {
+    return patternTemplates;
+  }
+
+  public void setPatternTemplates(List<PatternTemplate> patternTemplates) {
+    this.patternTemplates = patternTemplates;
+  }
+
   public long getProjectId() {
     return projectId;
   }
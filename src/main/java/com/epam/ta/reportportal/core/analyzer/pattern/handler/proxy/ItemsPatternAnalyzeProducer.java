@@ -56,20 +56,27 @@ public class ItemsPatternAnalyzeProducer implements ItemsPatternsAnalyzer {
   public void analyze(long projectId, long launchId, List<Long> itemIds) {
     List<PatternTemplate> patternTemplates = patternTemplateRepository.findAllByProjectIdAndEnabled(
         projectId, true);
-    patternTemplates.forEach(pattern -> publishMessage(pattern, projectId, launchId, itemIds));
+    if (!patternTemplates.isEmpty()) {
+      publishMessage(patternTemplates, projectId, launchId, itemIds);
+    }
     if (CollectionUtils.isEmpty(itemIds)) {
       sendFinishedEvent(projectId, launchId);
     }
   }
 
-  private void publishMessage(PatternTemplate pattern, long projectId, long launchId,
-      List<Long> itemIds) {
+  /**
+   * Publishes the items with all patterns of the project in one message, so their logs are read
+   * once. The messages are routed to the same queue as the finished event.
+   */
+  private void publishMessage(List<PatternTemplate> patternTemplates, long projectId,
+      long launchId, List<Long> itemIds) {
     if (isSingleItem) {
-      itemIds.forEach(id -> messageBus.publish(PATTERN_ANALYSIS, pattern.getTemplateType().name(),
-          new ItemsPatternAnalyzeDto(projectId, launchId, Collections.singletonList(id), pattern)));
-    } else {
-      messageBus.publish(PATTERN_ANALYSIS, pattern.getTemplateType().name(),
-          new ItemsPatternAnalyzeDto(projectId, launchId, itemIds, pattern));
+      itemIds.forEach(id -> messageBus.publish(PATTERN_ANALYSIS, PatternTemplateType.REGEX.name(),
+          new ItemsPatternAnalyzeDto(projectId, launchId, Collections.singletonList(id),
+              patternTemplates)));
+    } else if (!itemIds.isEmpty()) {
+      messageBus.publish(PATTERN_ANALYSIS, PatternTemplateType.REGEX.name(),
+          new ItemsPatternAnalyzeDto(projectId, launchId, itemIds, patternTemplates));
     }
   }
 
@@ -0,0 +1,131 @@
+/*
+ * Copyright 2024 EPAM Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.epam.ta.reportportal.core.analyzer.pattern.matcher;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.IntConsumer;
+
+/**
+ * Aho-Corasick automaton, finds all case sensitive occurrences of the set of strings in a text in
+ * a single pass over it.
+ */
+public final class AhoCorasick {
+
+  private static final int ROOT = 0;
+
+  private final char[][] keys;
+
+  private final int[][] targets;
+
+  private final int[] fail;
+
+  private final int[][] outputs;
+
+  /**
+   * @param patterns Strings to find, they are reported by their index in the list
+   */
+  public AhoCorasick(List<String> patterns) {
+    List<Map<Character, Integer>> trie = new ArrayList<>();
+    List<List<Integer>> found = new ArrayList<>();
+    trie.add(new TreeMap<>());
+    found.add(new ArrayList<>());
+    for (int i = 0; i < patterns.size(); i++) {
+      int state = ROOT;
+      for (char c : patterns.get(i).toCharArray()) {
+        Integer next = trie.get(state).get(c);
+        if (next == null) {
+          next = trie.size();
+          trie.get(state).put(c, next);
+          trie.add(new TreeMap<>());
+          found.add(new ArrayList<>());
+        }
+        state = next;
+      }
+      found.get(state).add(i);
+    }
+
+    int size = trie.size();
+    keys = new char[size][];
+    targets = new int[size][];
+    for (int state = 0; state < size; state++) {
+      Map<Character, Integer> transitions = trie.get(state);
+      keys[state] = new char[transitions.size()];
+      targets[state] = new int[transitions.size()];
+      int i = 0;
+      for (Map.Entry<Character, Integer> transition : transitions.entrySet()) {
+        keys[state][i] = transition.getKey();
+        targets[state][i++] = transition.getValue();
+      }
+    }
+
+    fail = new int[size];
+    Deque<Integer> queue = new ArrayDeque<>();
+    for (int child : targets[ROOT]) {
+      queue.add(child);
+    }
+    while (!queue.isEmpty()) {
+      int state = queue.poll();
+      for (int i = 0; i < keys[state].length; i++) {
+        int child = targets[state][i];
+        int next = step(fail[state], keys[state][i]);
+        fail[child] = next == child ? ROOT : next;
+        found.get(child).addAll(found.get(fail[child]));
+        queue.add(child);
+      }
+    }
+
+    outputs = new int[size][];
+    for (int state = 0; state < size; state++) {
+      outputs[state] = found.get(state).stream().mapToInt(Integer::intValue).toArray();
+    }
+  }
+
+  /**
+   * @param text    Text to search in
+   * @param matches Consumer of the indexes of the found strings, an index is reported for every
+   *                occurrence of its string
+   */
+  public void match(CharSequence text, IntConsumer matches) {
+    int state = ROOT;
+    for (int i = 0; i < text.length(); i++) {
+      state = step(state, text.charAt(i));
+      for (int pattern : outputs[state]) {
+        matches.accept(pattern);
+      }
+    }
+  }
+
+  private int step(int state, char c) {
+    while (true) {
+      int i = Arrays.binarySearch(keys[state], c);
+      if (i >= 0) {
+        return targets[state][i];
+      }
+      if (state == ROOT) {
+        return ROOT;
+      }
+      state = fail[state];
+    }
+  }
+}
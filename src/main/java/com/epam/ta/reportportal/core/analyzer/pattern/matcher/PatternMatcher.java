@@ -0,0 +1,114 @@
+/*
+ * Copyright 2024 EPAM Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.epam.ta.reportportal.core.analyzer.pattern.matcher;
+
+import com.epam.ta.reportportal.entity.pattern.PatternTemplate;
+import com.epam.ta.reportportal.entity.pattern.PatternTemplateType;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * Matches a log message against all pattern templates at once: the STRING patterns are found by
+ * the single {@link AhoCorasick} pass over the message. A STRING value is a plain substring, so
+ * like the escaped LIKE of the database matching '%' and '_' match only themselves.
+ * <p>
+ * The REGEX patterns are validated by PostgreSQL on save and its regex flavor differs from
+ * {@link java.util.regex.Pattern}, so they are evaluated by the '~' operator of the query which
+ * reads the logs, see {@link #getRegexes()}, and the matched ones are passed to
+ * {@link #matchRegex}.
+ */
+public class PatternMatcher {
+
+  private final List<PatternTemplate> patterns;
+
+  private final AhoCorasick strings;
+
+  private final int[] stringIndexes;
+
+  private final List<String> regexes;
+
+  private final int[] regexIndexes;
+
+  /**
+   * @param patterns Pattern templates, the matched ones are reported by their index in the list
+   */
+  public PatternMatcher(List<PatternTemplate> patterns) {
+    this.patterns = patterns;
+    List<String> stringValues = new ArrayList<>();
+    List<Integer> stringPositions = new ArrayList<>();
+    List<String> regexValues = new ArrayList<>();
+    List<Integer> regexPositions = new ArrayList<>();
+    for (int i = 0; i < patterns.size(); i++) {
+      PatternTemplate pattern = patterns.get(i);
+      if (PatternTemplateType.STRING == pattern.getTemplateType()) {
+        stringValues.add(pattern.getValue());
+        stringPositions.add(i);
+      } else {
+        regexValues.add(pattern.getValue());
+        regexPositions.add(i);
+      }
+    }
+    this.strings = new AhoCorasick(stringValues);
+    this.stringIndexes = stringPositions.stream().mapToInt(Integer::intValue).toArray();
+    this.regexes = regexValues;
+    this.regexIndexes = regexPositions.stream().mapToInt(Integer::intValue).toArray();
+  }
+
+  public List<PatternTemplate> getPatterns() {
+    return patterns;
+  }
+
+  /**
+   * @return Values of the REGEX patterns to be evaluated by the database
+   */
+  public List<String> getRegexes() {
+    return regexes;
+  }
+
+  /**
+   * @param matched Indexes of the patterns matched by the previous messages of the item
+   * @return true if all the patterns are matched, so the rest messages of the item can be skipped
+   */
+  public boolean isCompleted(BitSet matched) {
+    return matched.cardinality() == patterns.size();
+  }
+
+  /**
+   * Adds the indexes of the STRING patterns found in the message to the matched ones
+   *
+   * @param message Log message
+   * @param matched Indexes of the matched patterns
+   */
+  public void match(String message, BitSet matched) {
+    if (message == null || stringIndexes.length == 0) {
+      return;
+    }
+    strings.match(message, found -> matched.set(stringIndexes[found]));
+  }
+
+  /**
+   * Adds the index of the REGEX pattern matched by the database to the matched ones
+   *
+   * @param regex   Index of the regex in {@link #getRegexes()}
+   * @param matched Indexes of the matched patterns
+   */
+  public void matchRegex(int regex, BitSet matched) {
+    matched.set(regexIndexes[regex]);
+  }
+}
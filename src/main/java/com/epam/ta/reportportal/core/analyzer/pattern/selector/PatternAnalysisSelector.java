@@ -1,39 +0,0 @@
-/*
- * Copyright 2019 EPAM Systems
- *
- * Licensed under the Apache License, Version 2.0 (the "License");
- * you may not use this file except in compliance with the License.
- * You may obtain a copy of the License at
- *
- * http://www.apache.org/licenses/LICENSE-2.0
- *
- * Unless required by applicable law or agreed to in writing, software
- * distributed under the License is distributed on an "AS IS" BASIS,
- * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
- * See the License for the specific language governing permissions and
- * limitations under the License.
- */
-
-package com.epam.ta.reportportal.core.analyzer.pattern.selector;
-
-import com.epam.ta.reportportal.entity.item.TestItem;
-import com.epam.ta.reportportal.entity.launch.Launch;
-import com.epam.ta.reportportal.entity.pattern.PatternTemplate;
-import java.util.Collection;
-import java.util.List;
-
-/**
- * @author <a href="mailto:ivan_budayeu@epam.com">Ivan Budayeu</a>
- */
-public interface PatternAnalysisSelector {
-
-  /**
-   * Select {@link TestItem#getItemId()} with logs matched by pattern value
-   *
-   * @param launchId {@link Launch#getId()}
-   * @param itemIds  {@link Collection} with {@link TestItem#getItemId()}
-   * @param pattern  {@link PatternTemplate#getValue()}
-   * @return {@link List} of {@link TestItem#getItemId()}
-   */
-  List<Long> selectItemsByPattern(Long launchId, Collection<Long> itemIds, String pattern);
-}
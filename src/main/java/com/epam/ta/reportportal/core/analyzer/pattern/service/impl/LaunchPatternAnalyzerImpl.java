@@ -16,13 +16,15 @@
 
 package com.epam.ta.reportportal.core.analyzer.pattern.service.impl;
 
-import static com.epam.ta.reportportal.commons.Predicates.not;
-import static com.epam.ta.reportportal.core.analyzer.auto.impl.AnalyzerStatusCache.PATTERN_ANALYZER_KEY;
+import static com.epam.ta.reportportal.commons.querygen.constant.GeneralCriteriaConstant.CRITERIA_ID;
+import static com.epam.ta.reportportal.core.analyzer.auto.impl.AnalysisStateRegistry.PATTERN_ANALYZER_KEY;
 
+import com.epam.ta.reportportal.commons.querygen.Condition;
 import com.epam.ta.reportportal.commons.querygen.ConvertibleCondition;
 import com.epam.ta.reportportal.commons.querygen.Filter;
+import com.epam.ta.reportportal.commons.querygen.FilterCondition;
 import com.epam.reportportal.rules.commons.validation.BusinessRule;
-import com.epam.ta.reportportal.core.analyzer.auto.impl.AnalyzerStatusCache;
+import com.epam.ta.reportportal.core.analyzer.auto.impl.AnalysisStateRegistry;
 import com.epam.ta.reportportal.core.analyzer.auto.strategy.analyze.AnalyzeItemsMode;
 import com.epam.ta.reportportal.core.analyzer.pattern.handler.ItemsPatternsAnalyzer;
 import com.epam.ta.reportportal.core.analyzer.pattern.selector.condition.PatternConditionProviderChain;
@@ -30,12 +32,13 @@ import com.epam.ta.reportportal.core.analyzer.pattern.service.LaunchPatternAnaly
 import com.epam.ta.reportportal.dao.TestItemRepository;
 import com.epam.ta.reportportal.entity.item.TestItem;
 import com.epam.ta.reportportal.entity.launch.Launch;
+import com.epam.ta.reportportal.job.PageUtil;
 import com.epam.reportportal.rules.exception.ReportPortalException;
 import com.epam.reportportal.rules.exception.ErrorType;
 import java.util.Collections;
-import java.util.List;
 import java.util.Set;
-import org.apache.commons.collections4.CollectionUtils;
+import java.util.function.Function;
+import java.util.function.Predicate;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -55,7 +58,7 @@ public class LaunchPatternAnalyzerImpl implements LaunchPatternAnalyzer {
   private final TestItemRepository testItemRepository;
   private final PatternConditionProviderChain patternConditionProviderChain;
 
-  private final AnalyzerStatusCache analyzerStatusCache;
+  private final AnalysisStateRegistry analysisStateRegistry;
 
   private final ItemsPatternsAnalyzer itemsPatternsAnalyzer;
 
@@ -64,39 +67,35 @@ public class LaunchPatternAnalyzerImpl implements LaunchPatternAnalyzer {
       @Value("${rp.environment.variable.pattern-analysis.batch-size}") Integer batchSize,
       TestItemRepository testItemRepository,
       PatternConditionProviderChain patternConditionProviderChain,
-      AnalyzerStatusCache analyzerStatusCache, ItemsPatternsAnalyzer itemsPatternsAnalyzer) {
+      AnalysisStateRegistry analysisStateRegistry, ItemsPatternsAnalyzer itemsPatternsAnalyzer) {
     this.batchSize = batchSize;
     this.testItemRepository = testItemRepository;
     this.patternConditionProviderChain = patternConditionProviderChain;
-    this.analyzerStatusCache = analyzerStatusCache;
+    this.analysisStateRegistry = analysisStateRegistry;
     this.itemsPatternsAnalyzer = itemsPatternsAnalyzer;
   }
 
   @Override
   public void analyzeLaunch(Launch launch, Set<AnalyzeItemsMode> analyzeModes) {
-    BusinessRule.expect(analyzerStatusCache.getStartedAnalyzers(launch.getId()),
-            not(started -> started.contains(PATTERN_ANALYZER_KEY)))
+    BusinessRule.expect(analysisStateRegistry.analyzeStarted(PATTERN_ANALYZER_KEY, launch.getId(),
+            launch.getProjectId()), Predicate.isEqual(true))
         .verify(ErrorType.PATTERN_ANALYSIS_ERROR, "Pattern analysis is still in progress.");
-    analyzerStatusCache.analyzeStarted(PATTERN_ANALYZER_KEY, launch.getId(), launch.getProjectId());
     try {
       analyze(launch, buildItemsCondition(analyzeModes));
     } catch (Exception e) {
       LOGGER.error(e.getMessage(), e);
     } finally {
-      analyzerStatusCache.analyzeFinished(PATTERN_ANALYZER_KEY, launch.getId());
+      analysisStateRegistry.analyzeFinished(PATTERN_ANALYZER_KEY, launch.getId());
     }
   }
 
   private void analyze(Launch launch, ConvertibleCondition itemCondition) {
-    final Filter filter = createItemFilter(itemCondition);
-    int offset = 0;
-    List<Long> itemIds = testItemRepository.selectIdsByFilter(launch.getId(), filter, batchSize,
-        offset);
-    while (CollectionUtils.isNotEmpty(itemIds)) {
-      itemsPatternsAnalyzer.analyze(launch.getProjectId(), launch.getId(), itemIds);
-      offset += itemIds.size();
-      itemIds = testItemRepository.selectIdsByFilter(launch.getId(), filter, batchSize, offset);
-    }
+    PageUtil.iterateOverKeyset(batchSize,
+        (lastId, limit) -> testItemRepository.selectIdsByFilter(launch.getId(),
+            createItemFilter(itemCondition, lastId), limit, 0),
+        Function.identity(),
+        itemIds -> itemsPatternsAnalyzer.analyze(launch.getProjectId(), launch.getId(), itemIds)
+    );
     notifyAnalysisFinished(launch.getProjectId(), launch.getId());
   }
 
@@ -110,10 +109,12 @@ public class LaunchPatternAnalyzerImpl implements LaunchPatternAnalyzer {
             "Unable to resolve item search condition"));
   }
 
-  private Filter createItemFilter(ConvertibleCondition commonItemCondition) {
+  private Filter createItemFilter(ConvertibleCondition commonItemCondition, long lastId) {
     return Filter.builder()
         .withTarget(TestItem.class)
         .withCondition(commonItemCondition)
+        .withCondition(new FilterCondition(Condition.GREATER_THAN, false, String.valueOf(lastId),
+            CRITERIA_ID))
         .build();
   }
 }
@@ -16,9 +16,15 @@
 
 package com.epam.ta.reportportal.core.configs;
 
+import com.epam.ta.reportportal.core.log.impl.AttachmentSaveAdmission;
 import com.epam.ta.reportportal.core.log.impl.SaveLogBinaryDataTaskAsync;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadPoolExecutor;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.beans.factory.config.ConfigurableBeanFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Primary;
@@ -39,6 +45,30 @@ import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
 @EnableAsync
 public class ExecutorConfiguration {
 
+  public static final String SAVE_LOGS_THREAD_PREFIX = "logs-task-exec";
+
+  private final ExecutorMetrics executorMetrics;
+
+  private final boolean virtualThreads;
+
+  private final int virtualThreadPermits;
+
+  /**
+   * @param virtualThreads       Run the tasks of the blocking I/O executors in virtual threads
+   *                             instead of the thread pools
+   * @param virtualThreadPermits Number of the tasks of every such executor running at the same
+   *                             time, the database pool size by default
+   */
+  public ExecutorConfiguration(MeterRegistry meterRegistry,
+      @Value("${rp.environment.variable.executor.virtual-threads.enabled:false}")
+      boolean virtualThreads,
+      @Value("${rp.environment.variable.executor.virtual-threads.permits:27}")
+      int virtualThreadPermits) {
+    this.executorMetrics = new ExecutorMetrics(meterRegistry);
+    this.virtualThreads = virtualThreads;
+    this.virtualThreadPermits = virtualThreadPermits;
+  }
+
   @Bean
   @Primary
   public TaskScheduler taskScheduler() {
@@ -46,23 +76,37 @@ public class ExecutorConfiguration {
     scheduler.setPoolSize(5);
     scheduler.setThreadNamePrefix("default-task-sched");
     scheduler.setWaitForTasksToCompleteOnShutdown(true);
-    return scheduler;
+    return executorMetrics.monitor("default-task-sched", scheduler);
   }
 
+  /**
+   * Saturation of the executor is checked by {@link AttachmentSaveAdmission} before the tasks are
+   * submitted. Tasks rejected nevertheless fail fast instead of running in the request thread,
+   * except continuations submitted by the pool threads themselves.
+   */
   @Bean(name = "saveLogsTaskExecutor")
   public TaskExecutor saveLogsTaskExecutor(
       @Value("${rp.environment.variable.executor.pool.save-logs.core}") Integer corePoolSize,
       @Value("${rp.environment.variable.executor.pool.save-logs.max}") Integer maxPoolSize,
       @Value("${rp.environment.variable.executor.pool.save-logs.queue}") Integer queueCapacity) {
+    if (virtualThreads) {
+      return virtualThreadExecutor("save-logs", SAVE_LOGS_THREAD_PREFIX, queueCapacity);
+    }
     ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
     executor.setCorePoolSize(corePoolSize);
     executor.setMaxPoolSize(maxPoolSize);
     executor.setQueueCapacity(queueCapacity);
     executor.setAllowCoreThreadTimeOut(true);
-    executor.setThreadNamePrefix("logs-task-exec");
-    executor.setRejectedExecutionHandler(
-        new java.util.concurrent.ThreadPoolExecutor.CallerRunsPolicy());
-    return executor;
+    executor.setThreadNamePrefix(SAVE_LOGS_THREAD_PREFIX);
+    RejectedExecutionHandler callerRuns = new ThreadPoolExecutor.CallerRunsPolicy();
+    RejectedExecutionHandler abort = new ThreadPoolExecutor.AbortPolicy();
+    return executorMetrics.monitor("save-logs", executor, (task, pool) -> {
+      if (Thread.currentThread().getName().startsWith(SAVE_LOGS_THREAD_PREFIX)) {
+        callerRuns.rejectedExecution(task, pool);
+      } else {
+        abort.rejectedExecution(task, pool);
+      }
+    });
   }
 
   @Bean
@@ -81,13 +125,17 @@ public class ExecutorConfiguration {
       @Value("${rp.environment.variable.executor.pool.log-index.core}") Integer corePoolSize,
       @Value("${rp.environment.variable.executor.pool.log-index.max}") Integer maxPoolSize,
       @Value("${rp.environment.variable.executor.pool.log-index.queue}") Integer queueCapacity) {
+    if (virtualThreads) {
+      return virtualThreadExecutor("log-index", "log-index-exec", queueCapacity);
+    }
     final ThreadPoolTaskExecutor threadPoolTaskExecutor = new ThreadPoolTaskExecutor();
     threadPoolTaskExecutor.setCorePoolSize(corePoolSize);
     threadPoolTaskExecutor.setMaxPoolSize(maxPoolSize);
     threadPoolTaskExecutor.setQueueCapacity(queueCapacity);
     threadPoolTaskExecutor.setAllowCoreThreadTimeOut(true);
     threadPoolTaskExecutor.setThreadNamePrefix("log-index-exec");
-    return threadPoolTaskExecutor;
+    return executorMetrics.monitor("log-index", threadPoolTaskExecutor,
+        new ThreadPoolExecutor.AbortPolicy());
   }
 
   @Bean(name = "autoAnalyzeTaskExecutor")
@@ -95,13 +143,57 @@ public class ExecutorConfiguration {
       @Value("${rp.environment.variable.executor.pool.auto-analyze.core}") Integer corePoolSize,
       @Value("${rp.environment.variable.executor.pool.auto-analyze.max}") Integer maxPoolSize,
       @Value("${rp.environment.variable.executor.pool.auto-analyze.queue}") Integer queueCapacity) {
+    if (virtualThreads) {
+      return virtualThreadExecutor("auto-analyze", "auto-analyze-exec", queueCapacity);
+    }
     final ThreadPoolTaskExecutor threadPoolTaskExecutor = new ThreadPoolTaskExecutor();
     threadPoolTaskExecutor.setCorePoolSize(corePoolSize);
     threadPoolTaskExecutor.setMaxPoolSize(maxPoolSize);
     threadPoolTaskExecutor.setQueueCapacity(queueCapacity);
     threadPoolTaskExecutor.setAllowCoreThreadTimeOut(true);
     threadPoolTaskExecutor.setThreadNamePrefix("auto-analyze-exec");
-    return threadPoolTaskExecutor;
+    return executorMetrics.monitor("auto-analyze", threadPoolTaskExecutor,
+        new ThreadPoolExecutor.AbortPolicy());
+  }
+
+  /**
+   * Prepares and indexes the chunks of a launch batch in parallel, the caller indexes the chunk
+   * when the executor is full
+   */
+  @Bean(name = "logIndexWorkerTaskExecutor")
+  public TaskExecutor logIndexWorkerTaskExecutor(
+      @Value("${rp.environment.variable.executor.pool.log-index-worker.core}")
+      Integer corePoolSize,
+      @Value("${rp.environment.variable.executor.pool.log-index-worker.max}")
+      Integer maxPoolSize,
+      @Value("${rp.environment.variable.executor.pool.log-index-worker.queue}")
+      Integer queueCapacity) {
+    final ThreadPoolTaskExecutor threadPoolTaskExecutor = new ThreadPoolTaskExecutor();
+    threadPoolTaskExecutor.setCorePoolSize(corePoolSize);
+    threadPoolTaskExecutor.setMaxPoolSize(maxPoolSize);
+    threadPoolTaskExecutor.setQueueCapacity(queueCapacity);
+    threadPoolTaskExecutor.setAllowCoreThreadTimeOut(true);
+    threadPoolTaskExecutor.setThreadNamePrefix("log-index-worker-exec");
+    return executorMetrics.monitor("log-index-worker", threadPoolTaskExecutor,
+        new ThreadPoolExecutor.CallerRunsPolicy());
+  }
+
+  /**
+   * Executes the requests to the analyzers, the caller runs the request when the executor is full
+   */
+  @Bean(name = "analyzerTaskExecutor")
+  public TaskExecutor analyzerTaskExecutor(
+      @Value("${rp.environment.variable.executor.pool.analyzer.core}") Integer corePoolSize,
+      @Value("${rp.environment.variable.executor.pool.analyzer.max}") Integer maxPoolSize,
+      @Value("${rp.environment.variable.executor.pool.analyzer.queue}") Integer queueCapacity) {
+    final ThreadPoolTaskExecutor threadPoolTaskExecutor = new ThreadPoolTaskExecutor();
+    threadPoolTaskExecutor.setCorePoolSize(corePoolSize);
+    threadPoolTaskExecutor.setMaxPoolSize(maxPoolSize);
+    threadPoolTaskExecutor.setQueueCapacity(queueCapacity);
+    threadPoolTaskExecutor.setAllowCoreThreadTimeOut(true);
+    threadPoolTaskExecutor.setThreadNamePrefix("analyzer-exec");
+    return executorMetrics.monitor("analyzer", threadPoolTaskExecutor,
+        new ThreadPoolExecutor.CallerRunsPolicy());
   }
 
   @Bean(name = "demoDataTaskExecutor")
@@ -116,7 +208,8 @@ public class ExecutorConfiguration {
     threadPoolTaskExecutor.setAllowCoreThreadTimeOut(true);
     threadPoolTaskExecutor.setAwaitTerminationSeconds(60);
     threadPoolTaskExecutor.setThreadNamePrefix("demo-data-exec");
-    return threadPoolTaskExecutor;
+    return executorMetrics.monitor("demo-data", threadPoolTaskExecutor,
+        new ThreadPoolExecutor.AbortPolicy());
   }
 
   @Bean(name = "widgetViewExecutor")
@@ -130,9 +223,9 @@ public class ExecutorConfiguration {
     executor.setQueueCapacity(queueCapacity);
     executor.setAllowCoreThreadTimeOut(true);
     executor.setThreadNamePrefix("generate-widget-view-task");
-    executor.setRejectedExecutionHandler(
-        new java.util.concurrent.ThreadPoolExecutor.CallerRunsPolicy());
-    return executor;
+    //a rejected view would stay in the generating state, so it's generated by the caller
+    return executorMetrics.monitor("widget-view", executor,
+        new ThreadPoolExecutor.CallerRunsPolicy());
   }
 
   @Bean(name = "logClusterExecutor")
@@ -140,13 +233,17 @@ public class ExecutorConfiguration {
       @Value("${rp.environment.variable.executor.pool.log-cluster.core}") Integer corePoolSize,
       @Value("${rp.environment.variable.executor.pool.log-cluster.max}") Integer maxPoolSize,
       @Value("${rp.environment.variable.executor.pool.log-cluster.queue}") Integer queueCapacity) {
+    if (virtualThreads) {
+      return virtualThreadExecutor("log-cluster", "log-cluster-exec", queueCapacity);
+    }
     final ThreadPoolTaskExecutor threadPoolTaskExecutor = new ThreadPoolTaskExecutor();
     threadPoolTaskExecutor.setCorePoolSize(corePoolSize);
     threadPoolTaskExecutor.setMaxPoolSize(maxPoolSize);
     threadPoolTaskExecutor.setQueueCapacity(queueCapacity);
     threadPoolTaskExecutor.setAllowCoreThreadTimeOut(true);
     threadPoolTaskExecutor.setThreadNamePrefix("log-cluster-exec");
-    return threadPoolTaskExecutor;
+    return executorMetrics.monitor("log-cluster", threadPoolTaskExecutor,
+        new ThreadPoolExecutor.AbortPolicy());
   }
 
   @Bean(name = "eventListenerExecutor")
@@ -155,13 +252,96 @@ public class ExecutorConfiguration {
       @Value("${rp.environment.variable.executor.pool.event-listener.max}") Integer maxPoolSize,
       @Value("${rp.environment.variable.executor.pool.event-listener.queue}")
       Integer queueCapacity) {
+    if (virtualThreads) {
+      return virtualThreadExecutor("event-listener", "event-listener-exec", queueCapacity);
+    }
     final ThreadPoolTaskExecutor threadPoolTaskExecutor = new ThreadPoolTaskExecutor();
     threadPoolTaskExecutor.setCorePoolSize(corePoolSize);
     threadPoolTaskExecutor.setMaxPoolSize(maxPoolSize);
     threadPoolTaskExecutor.setQueueCapacity(queueCapacity);
     threadPoolTaskExecutor.setAllowCoreThreadTimeOut(true);
     threadPoolTaskExecutor.setThreadNamePrefix("event-listener-exec");
-    return threadPoolTaskExecutor;
+    return executorMetrics.monitor("event-listener", threadPoolTaskExecutor,
+        new ThreadPoolExecutor.AbortPolicy());
   }
 
+  /**
+   * Projects above the queue capacity are processed by the job thread itself
+   */
+  @Bean(name = "interruptLaunchesTaskExecutor")
+  public TaskExecutor interruptLaunchesTaskExecutor(
+      @Value("${rp.environment.variable.executor.pool.interrupt-launches.core}")
+      Integer corePoolSize,
+      @Value("${rp.environment.variable.executor.pool.interrupt-launches.max}")
+      Integer maxPoolSize,
+      @Value("${rp.environment.variable.executor.pool.interrupt-launches.queue}")
+      Integer queueCapacity) {
+    final ThreadPoolTaskExecutor threadPoolTaskExecutor = new ThreadPoolTaskExecutor();
+    threadPoolTaskExecutor.setCorePoolSize(corePoolSize);
+    threadPoolTaskExecutor.setMaxPoolSize(maxPoolSize);
+    threadPoolTaskExecutor.setQueueCapacity(queueCapacity);
+    threadPoolTaskExecutor.setAllowCoreThreadTimeOut(true);
+    threadPoolTaskExecutor.setThreadNamePrefix("interrupt-launches-exec");
+    return executorMetrics.monitor("interrupt-launches", threadPoolTaskExecutor,
+        new ThreadPoolExecutor.CallerRunsPolicy());
+  }
+
+  /**
+   * Runs the background deletion of the launches and the projects, so the long deletions don't
+   * occupy the shared scheduler. The running deletion is stopped after the current chunk on
+   * shutdown.
+   */
+  @Bean(name = "deletionTaskExecutor")
+  public TaskExecutor deletionTaskExecutor(
+      @Value("${rp.environment.variable.executor.pool.deletion.core}") Integer corePoolSize,
+      @Value("${rp.environment.variable.executor.pool.deletion.max}") Integer maxPoolSize,
+      @Value("${rp.environment.variable.executor.pool.deletion.queue}") Integer queueCapacity) {
+    final ThreadPoolTaskExecutor threadPoolTaskExecutor = new ThreadPoolTaskExecutor();
+    threadPoolTaskExecutor.setCorePoolSize(corePoolSize);
+    threadPoolTaskExecutor.setMaxPoolSize(maxPoolSize);
+    threadPoolTaskExecutor.setQueueCapacity(queueCapacity);
+    threadPoolTaskExecutor.setAllowCoreThreadTimeOut(true);
+    threadPoolTaskExecutor.setWaitForTasksToCompleteOnShutdown(true);
+    threadPoolTaskExecutor.setAwaitTerminationSeconds(60);
+    threadPoolTaskExecutor.setThreadNamePrefix("deletion-exec");
+    return executorMetrics.monitor("deletion", threadPoolTaskExecutor,
+        new ThreadPoolExecutor.AbortPolicy());
+  }
+
+  @Bean(name = "projectDeletionTaskExecutor")
+  public TaskExecutor projectDeletionTaskExecutor(
+      @Value("${rp.environment.variable.executor.pool.project-deletion.core}")
+      Integer corePoolSize,
+      @Value("${rp.environment.variable.executor.pool.project-deletion.max}")
+      Integer maxPoolSize,
+      @Value("${rp.environment.variable.executor.pool.project-deletion.queue}")
+      Integer queueCapacity) {
+    final ThreadPoolTaskExecutor threadPoolTaskExecutor = new ThreadPoolTaskExecutor();
+    threadPoolTaskExecutor.setCorePoolSize(corePoolSize);
+    threadPoolTaskExecutor.setMaxPoolSize(maxPoolSize);
+    threadPoolTaskExecutor.setQueueCapacity(queueCapacity);
+    threadPoolTaskExecutor.setAllowCoreThreadTimeOut(true);
+    threadPoolTaskExecutor.setThreadNamePrefix("project-deletion-exec");
+    return executorMetrics.monitor("project-deletion", threadPoolTaskExecutor,
+        new ThreadPoolExecutor.CallerRunsPolicy());
+  }
+
+  /**
+   * Runs the request processing threads of Tomcat as virtual threads, so the requests blocked on
+   * I/O don't hold the connector threads.
+   */
+  @Bean
+  @ConditionalOnProperty(name = "rp.environment.variable.executor.virtual-threads.tomcat",
+      havingValue = "true")
+  public TomcatProtocolHandlerCustomizer<?> virtualThreadsProtocolHandlerCustomizer() {
+    return protocolHandler -> protocolHandler.setExecutor(
+        executorMetrics.monitor("http", new VirtualThreadTaskExecutor("http-vt-exec",
+            Integer.MAX_VALUE, 0)));
+  }
+
+  private TaskExecutor virtualThreadExecutor(String name, String threadNamePrefix,
+      int queueCapacity) {
+    return executorMetrics.monitor(name,
+        new VirtualThreadTaskExecutor(threadNamePrefix, virtualThreadPermits, queueCapacity));
+  }
 }
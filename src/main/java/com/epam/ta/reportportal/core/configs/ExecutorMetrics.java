@@ -0,0 +1,140 @@
+/*
+ * Copyright 2024 EPAM Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.ta.reportportal.core.configs;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.function.ToIntFunction;
+import org.springframework.core.task.TaskDecorator;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+
+/**
+ * Metrics of the executors, tagged by the executor name: pool size, active threads, queue depth,
+ * rejected tasks and the time tasks wait in the queue.
+ */
+public class ExecutorMetrics {
+
+  public static final String POOL_SIZE_METRIC = "rp.executor.pool.size";
+  public static final String ACTIVE_METRIC = "rp.executor.active";
+  public static final String QUEUED_METRIC = "rp.executor.queued";
+  public static final String REJECTED_METRIC = "rp.executor.rejected";
+  public static final String WAIT_METRIC = "rp.executor.wait";
+  public static final String NAME_TAG = "name";
+
+  private final MeterRegistry meterRegistry;
+
+  public ExecutorMetrics(MeterRegistry meterRegistry) {
+    this.meterRegistry = meterRegistry;
+  }
+
+  /**
+   * Registers metrics of the executor. Has to be called before the executor is initialized.
+   *
+   * @param name            Executor name
+   * @param executor        {@link ThreadPoolTaskExecutor}
+   * @param rejectionPolicy Policy applied to the rejected tasks after they are counted
+   * @return The executor
+   */
+  public ThreadPoolTaskExecutor monitor(String name, ThreadPoolTaskExecutor executor,
+      RejectedExecutionHandler rejectionPolicy) {
+    executor.setRejectedExecutionHandler(counting(name, rejectionPolicy));
+    executor.setTaskDecorator(waitTimer(name));
+    registerGauges(name, executor::getThreadPoolExecutor);
+    return executor;
+  }
+
+  /**
+   * Registers metrics of the virtual thread executor. The pool size is the number of permits, the
+   * queue depth is the number of tasks waiting for a permit.
+   *
+   * @param name     Executor name
+   * @param executor {@link VirtualThreadTaskExecutor}
+   * @return The executor
+   */
+  public VirtualThreadTaskExecutor monitor(String name, VirtualThreadTaskExecutor executor) {
+    executor.setTaskDecorator(waitTimer(name));
+    FunctionCounter.builder(REJECTED_METRIC, executor,
+        VirtualThreadTaskExecutor::getRejectedCount).tag(NAME_TAG, name).register(meterRegistry);
+    Gauge.builder(POOL_SIZE_METRIC, executor, VirtualThreadTaskExecutor::getMaxConcurrency)
+        .tag(NAME_TAG, name).strongReference(true).register(meterRegistry);
+    Gauge.builder(ACTIVE_METRIC, executor, VirtualThreadTaskExecutor::getActiveCount)
+        .tag(NAME_TAG, name).strongReference(true).register(meterRegistry);
+    Gauge.builder(QUEUED_METRIC, executor, VirtualThreadTaskExecutor::getQueueSize)
+        .tag(NAME_TAG, name).strongReference(true).register(meterRegistry);
+    return executor;
+  }
+
+  /**
+   * Registers metrics of the scheduler. Has to be called before the scheduler is initialized.
+   *
+   * @param name      Scheduler name
+   * @param scheduler {@link ThreadPoolTaskScheduler}
+   * @return The scheduler
+   */
+  public ThreadPoolTaskScheduler monitor(String name, ThreadPoolTaskScheduler scheduler) {
+    scheduler.setRejectedExecutionHandler(
+        counting(name, new ThreadPoolExecutor.AbortPolicy()));
+    registerGauges(name, scheduler::getScheduledThreadPoolExecutor);
+    return scheduler;
+  }
+
+  private TaskDecorator waitTimer(String name) {
+    Timer wait = Timer.builder(WAIT_METRIC).tag(NAME_TAG, name).register(meterRegistry);
+    return task -> {
+      long submitted = System.nanoTime();
+      return () -> {
+        wait.record(System.nanoTime() - submitted, TimeUnit.NANOSECONDS);
+        task.run();
+      };
+    };
+  }
+
+  private RejectedExecutionHandler counting(String name, RejectedExecutionHandler policy) {
+    Counter rejected = meterRegistry.counter(REJECTED_METRIC, NAME_TAG, name);
+    return (task, pool) -> {
+      rejected.increment();
+      policy.rejectedExecution(task, pool);
+    };
+  }
+
+  private void registerGauges(String name, Supplier<? extends ThreadPoolExecutor> pool) {
+    Gauge.builder(POOL_SIZE_METRIC, pool, p -> stat(p, ThreadPoolExecutor::getPoolSize))
+        .tag(NAME_TAG, name).strongReference(true).register(meterRegistry);
+    Gauge.builder(ACTIVE_METRIC, pool, p -> stat(p, ThreadPoolExecutor::getActiveCount))
+        .tag(NAME_TAG, name).strongReference(true).register(meterRegistry);
+    Gauge.builder(QUEUED_METRIC, pool, p -> stat(p, executor -> executor.getQueue().size()))
+        .tag(NAME_TAG, name).strongReference(true).register(meterRegistry);
+  }
+
+  private static double stat(Supplier<? extends ThreadPoolExecutor> pool,
+      ToIntFunction<ThreadPoolExecutor> value) {
+    try {
+      return value.applyAsInt(pool.get());
+    } catch (IllegalStateException e) {
+      //not initialized yet
+      return Double.NaN;
+    }
+  }
+}
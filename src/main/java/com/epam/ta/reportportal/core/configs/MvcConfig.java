@@ -23,19 +23,25 @@ import com.epam.reportportal.rules.commons.exception.forwarding.ClientResponseFo
 import com.epam.reportportal.rules.commons.exception.rest.DefaultErrorResolver;
 import com.epam.reportportal.rules.commons.exception.rest.ReportPortalExceptionResolver;
 import com.epam.reportportal.rules.commons.exception.rest.RestExceptionHandler;
+import com.epam.ta.reportportal.core.log.impl.StreamingCreateLogHandler;
+import com.epam.ta.reportportal.core.project.impl.ProjectDeletionService;
 import com.epam.ta.reportportal.ws.resolver.ActiveUserWebArgumentResolver;
 import com.epam.ta.reportportal.ws.resolver.FilterCriteriaResolver;
 import com.epam.ta.reportportal.ws.resolver.JsonViewSupportFactoryBean;
 import com.epam.ta.reportportal.ws.resolver.PagingHandlerMethodArgumentResolver;
 import com.epam.ta.reportportal.ws.resolver.PredefinedFilterCriteriaResolver;
+import com.epam.ta.reportportal.ws.resolver.ProjectDeletionInterceptor;
+import com.epam.ta.reportportal.ws.resolver.RetryAfterExceptionResolver;
 import com.epam.ta.reportportal.ws.resolver.SortArgumentResolver;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.google.common.base.Preconditions;
 import java.nio.charset.StandardCharsets;
 import java.util.Collections;
 import java.util.List;
+import javax.servlet.http.HttpServletRequest;
 import org.apache.commons.fileupload.disk.DiskFileItemFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.http.HttpMessageConverters;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
@@ -57,6 +63,7 @@ import org.springframework.web.multipart.support.MultipartFilter;
 import org.springframework.web.servlet.DispatcherServlet;
 import org.springframework.web.servlet.HandlerExceptionResolver;
 import org.springframework.web.servlet.config.annotation.ContentNegotiationConfigurer;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
 import org.springframework.web.servlet.config.annotation.PathMatchConfigurer;
 import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
@@ -76,6 +83,12 @@ public class MvcConfig implements WebMvcConfigurer {
   @Autowired
   private List<HttpMessageConverter<?>> converters;
 
+  @Autowired
+  private ProjectDeletionService projectDeletionService;
+
+  @Value("${rp.upload.admission.retry-after:5}")
+  private long retryAfterSeconds;
+
   private static final String[] CLASSPATH_RESOURCE_LOCATIONS =
       { "classpath:/public/", "classpath:/META-INF/resources/", "classpath:/resources/" };
 
@@ -118,6 +131,11 @@ public class MvcConfig implements WebMvcConfigurer {
     argumentResolvers.add(new PredefinedFilterCriteriaResolver());
   }
 
+  @Override
+  public void addInterceptors(InterceptorRegistry registry) {
+    registry.addInterceptor(new ProjectDeletionInterceptor(projectDeletionService));
+  }
+
   @Override
   public void configureMessageConverters(List<HttpMessageConverter<?>> converters) {
     converters.clear();
@@ -136,6 +154,9 @@ public class MvcConfig implements WebMvcConfigurer {
     forwardingExceptionHandler.setOrder(Ordered.HIGHEST_PRECEDENCE);
     exceptionResolvers.add(forwardingExceptionHandler);
 
+    /* to ask clients to retry requests rejected because of the load */
+    exceptionResolvers.add(new RetryAfterExceptionResolver(jsonConverter(), retryAfterSeconds));
+
     RestExceptionHandler handler = new RestExceptionHandler();
     handler.setOrder(Ordered.HIGHEST_PRECEDENCE + 1);
 
@@ -215,6 +236,12 @@ public class MvcConfig implements WebMvcConfigurer {
       public void cleanupMultipart(MultipartHttpServletRequest request) {
         //
       }
+
+      @Override
+      public boolean isMultipart(HttpServletRequest request) {
+        //Streaming uploads are read by the handler part by part
+        return super.isMultipart(request) && !StreamingCreateLogHandler.isStreamingRequest(request);
+      }
     };
 
     //Lazy resolving gives a way to process file limits inside a controller
@@ -232,6 +259,14 @@ public class MvcConfig implements WebMvcConfigurer {
     long maxUploadSize = 128L * 1024L * 1024L;
     long maxFileSize = 128L * 1024L * 1024L;
 
+    public long getMaxUploadSize() {
+      return maxUploadSize;
+    }
+
+    public long getMaxFileSize() {
+      return maxFileSize;
+    }
+
     public void setMaxUploadSize(String maxUploadSize) {
       this.maxUploadSize = parseSize(maxUploadSize);
     }
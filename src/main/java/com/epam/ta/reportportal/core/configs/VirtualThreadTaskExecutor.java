@@ -0,0 +1,111 @@
+/*
+ * Copyright 2024 EPAM Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.ta.reportportal.core.configs;
+
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import org.springframework.core.task.TaskDecorator;
+import org.springframework.core.task.TaskExecutor;
+
+/**
+ * Runs every task in a new virtual thread. Tasks running at the same time are limited by the
+ * number of permits, so the blocking I/O they do can't exhaust the database pool. Tasks waiting for
+ * a permit are limited by the queue capacity, tasks above it are rejected unless they are
+ * submitted by the tasks of this executor.
+ */
+public class VirtualThreadTaskExecutor implements TaskExecutor {
+
+  private final String threadNamePrefix;
+
+  private final ThreadFactory threadFactory;
+
+  private final int maxConcurrency;
+
+  private final int queueCapacity;
+
+  private final Semaphore permits;
+
+  private final AtomicInteger submitted = new AtomicInteger();
+
+  private final LongAdder rejected = new LongAdder();
+
+  private volatile TaskDecorator taskDecorator;
+
+  public VirtualThreadTaskExecutor(String threadNamePrefix, int maxConcurrency,
+      int queueCapacity) {
+    this.threadNamePrefix = threadNamePrefix;
+    this.threadFactory = Thread.ofVirtual().name(threadNamePrefix, 1).factory();
+    this.maxConcurrency = maxConcurrency;
+    this.queueCapacity = queueCapacity;
+    this.permits = new Semaphore(maxConcurrency, true);
+  }
+
+  public void setTaskDecorator(TaskDecorator taskDecorator) {
+    this.taskDecorator = taskDecorator;
+  }
+
+  @Override
+  public void execute(Runnable task) {
+    if (submitted.incrementAndGet() > (long) maxConcurrency + queueCapacity
+        && !Thread.currentThread().getName().startsWith(threadNamePrefix)) {
+      submitted.decrementAndGet();
+      rejected.increment();
+      throw new RejectedExecutionException(
+          "Executor " + threadNamePrefix + " has " + maxConcurrency + " tasks running and "
+              + queueCapacity + " waiting");
+    }
+    TaskDecorator decorator = taskDecorator;
+    Runnable decorated = decorator == null ? task : decorator.decorate(task);
+    try {
+      threadFactory.newThread(() -> {
+        permits.acquireUninterruptibly();
+        try {
+          decorated.run();
+        } finally {
+          permits.release();
+          submitted.decrementAndGet();
+        }
+      }).start();
+    } catch (RuntimeException | Error e) {
+      submitted.decrementAndGet();
+      throw e;
+    }
+  }
+
+  public int getMaxConcurrency() {
+    return maxConcurrency;
+  }
+
+  public int getQueueCapacity() {
+    return queueCapacity;
+  }
+
+  public int getActiveCount() {
+    return maxConcurrency - permits.availablePermits();
+  }
+
+  public int getQueueSize() {
+    return Math.max(0, submitted.get() - getActiveCount());
+  }
+
+  public long getRejectedCount() {
+    return rejected.sum();
+  }
+}
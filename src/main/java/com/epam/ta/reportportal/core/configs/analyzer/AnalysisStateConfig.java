@@ -0,0 +1,52 @@
+/*
+ * Copyright 2024 EPAM Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.ta.reportportal.core.configs.analyzer;
+
+import com.epam.ta.reportportal.core.analyzer.auto.impl.AnalysisStateRegistry;
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Connection pool of {@link AnalysisStateRegistry}. The registry commits its updates right away
+ * while the analysis runs in the caller's transaction, so it takes the connections from its own
+ * small pool instead of waiting for a second connection of the main pool, which could be taken by
+ * the callers holding their first ones.
+ */
+@Configuration
+public class AnalysisStateConfig {
+
+  @Bean(name = "analysisStateDataSource", destroyMethod = "close")
+  public HikariDataSource analysisStateDataSource(
+      @Value("${rp.datasource.driverClassName}") String driverClassName,
+      @Value("${rp.datasource.jdbcUrl}") String jdbcUrl,
+      @Value("${rp.datasource.username}") String username,
+      @Value("${rp.datasource.password}") String password,
+      @Value("${rp.analysis.state.pool-size:2}") int poolSize) {
+    HikariDataSource dataSource = new HikariDataSource();
+    dataSource.setPoolName("analysis-state");
+    dataSource.setDriverClassName(driverClassName);
+    dataSource.setJdbcUrl(jdbcUrl);
+    dataSource.setUsername(username);
+    dataSource.setPassword(password);
+    dataSource.setMaximumPoolSize(Math.max(1, poolSize));
+    dataSource.setMinimumIdle(1);
+    dataSource.setAutoCommit(true);
+    return dataSource;
+  }
+}
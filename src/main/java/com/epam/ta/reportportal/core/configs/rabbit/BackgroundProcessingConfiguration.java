@@ -5,7 +5,10 @@ import org.springframework.amqp.core.Binding;
 import org.springframework.amqp.core.BindingBuilder;
 import org.springframework.amqp.core.DirectExchange;
 import org.springframework.amqp.core.Queue;
+import org.springframework.amqp.core.QueueBuilder;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Conditional;
 import org.springframework.context.annotation.Configuration;
@@ -18,6 +21,14 @@ public class BackgroundProcessingConfiguration {
   public static final String LOG_MESSAGE_SAVING_ROUTING_KEY = "log_message_saving";
   public static final String PROCESSING_EXCHANGE_NAME = "processing";
 
+  public static final String LOG_MESSAGE_BULK_SAVING_QUEUE_NAME = "log_message_bulk_saving";
+  public static final String LOG_MESSAGE_BULK_SAVING_ROUTING_KEY = "log_message_bulk_saving";
+  public static final String LOG_MESSAGE_BULK_RETRY_QUEUE_NAME = "log_message_bulk_saving.retry";
+  public static final String LOG_MESSAGE_BULK_RETRY_ROUTING_KEY = "log_message_bulk_saving.retry";
+  public static final String LOG_MESSAGE_BULK_PARKING_QUEUE_NAME = "log_message_bulk_saving.parking";
+  public static final String LOG_MESSAGE_BULK_PARKING_ROUTING_KEY =
+      "log_message_bulk_saving.parking";
+
   @Bean
   Queue logMessageSavingQueue() {
     return new Queue(LOG_MESSAGE_SAVING_QUEUE_NAME);
@@ -33,4 +44,59 @@ public class BackgroundProcessingConfiguration {
       @Qualifier("exchangeProcessing") DirectExchange exchange) {
     return BindingBuilder.bind(queue).to(exchange).with(LOG_MESSAGE_SAVING_ROUTING_KEY);
   }
+
+  /**
+   * Bulks failed to be indexed are dead-lettered to the retry queue
+   */
+  @Bean
+  @ConditionalOnProperty(prefix = "rp.searchengine", name = {"host", "bulk.enabled"})
+  Queue logMessageBulkSavingQueue() {
+    return QueueBuilder.durable(LOG_MESSAGE_BULK_SAVING_QUEUE_NAME)
+        .deadLetterExchange(PROCESSING_EXCHANGE_NAME)
+        .deadLetterRoutingKey(LOG_MESSAGE_BULK_RETRY_ROUTING_KEY)
+        .build();
+  }
+
+  /**
+   * Bulks wait in the retry queue for the delay and are dead-lettered back to the saving queue
+   */
+  @Bean
+  @ConditionalOnProperty(prefix = "rp.searchengine", name = {"host", "bulk.enabled"})
+  Queue logMessageBulkRetryQueue(@Value("${rp.searchengine.bulk.retry-delay:10000}") int delay) {
+    return QueueBuilder.durable(LOG_MESSAGE_BULK_RETRY_QUEUE_NAME)
+        .deadLetterExchange(PROCESSING_EXCHANGE_NAME)
+        .deadLetterRoutingKey(LOG_MESSAGE_BULK_SAVING_ROUTING_KEY)
+        .ttl(delay)
+        .build();
+  }
+
+  /**
+   * Bulks failed to be indexed after all the retries are parked for the investigation
+   */
+  @Bean
+  @ConditionalOnProperty(prefix = "rp.searchengine", name = {"host", "bulk.enabled"})
+  Queue logMessageBulkParkingQueue() {
+    return QueueBuilder.durable(LOG_MESSAGE_BULK_PARKING_QUEUE_NAME).build();
+  }
+
+  @Bean
+  @ConditionalOnProperty(prefix = "rp.searchengine", name = {"host", "bulk.enabled"})
+  Binding bindingBulkSavingLogs(@Qualifier("logMessageBulkSavingQueue") Queue queue,
+      @Qualifier("exchangeProcessing") DirectExchange exchange) {
+    return BindingBuilder.bind(queue).to(exchange).with(LOG_MESSAGE_BULK_SAVING_ROUTING_KEY);
+  }
+
+  @Bean
+  @ConditionalOnProperty(prefix = "rp.searchengine", name = {"host", "bulk.enabled"})
+  Binding bindingBulkRetryLogs(@Qualifier("logMessageBulkRetryQueue") Queue queue,
+      @Qualifier("exchangeProcessing") DirectExchange exchange) {
+    return BindingBuilder.bind(queue).to(exchange).with(LOG_MESSAGE_BULK_RETRY_ROUTING_KEY);
+  }
+
+  @Bean
+  @ConditionalOnProperty(prefix = "rp.searchengine", name = {"host", "bulk.enabled"})
+  Binding bindingBulkParkingLogs(@Qualifier("logMessageBulkParkingQueue") Queue queue,
+      @Qualifier("exchangeProcessing") DirectExchange exchange) {
+    return BindingBuilder.bind(queue).to(exchange).with(LOG_MESSAGE_BULK_PARKING_ROUTING_KEY);
+  }
 }
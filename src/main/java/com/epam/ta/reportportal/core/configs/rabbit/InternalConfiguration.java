@@ -53,6 +53,7 @@ public class InternalConfiguration {
    * Queues
    */
   public static final String KEY_EVENTS = "broadcast.events";
+  public static final String KEY_LOG_CACHE_EVICTION = "broadcast.log-cache-eviction";
   public static final String QUEUE_ACTIVITY = "activity";
   public static final String QUEUE_ACTIVITY_KEY = "activity.#";
   public static final String QUEUE_ATTACHMENT_DELETE = "attachment.delete";
@@ -95,6 +96,14 @@ public class InternalConfiguration {
     return new AnonymousQueue(new Base64UrlNamingStrategy(KEY_EVENTS + "."));
   }
 
+  /**
+   * Evictions of the log cache made by the other instances, every instance has its own queue
+   */
+  @Bean
+  public Queue logCacheEvictionQueue() {
+    return new AnonymousQueue(new Base64UrlNamingStrategy(KEY_LOG_CACHE_EVICTION + "."));
+  }
+
   @Bean
   public Queue activityQueue() {
     return new Queue(QUEUE_ACTIVITY);
@@ -122,6 +131,11 @@ public class InternalConfiguration {
     return BindingBuilder.bind(eventsQueue()).to(eventsExchange());
   }
 
+  @Bean
+  public Binding logCacheEvictionBinding() {
+    return BindingBuilder.bind(logCacheEvictionQueue()).to(eventsExchange());
+  }
+
   @Bean
   public Binding eventsActivityBinding() {
     return BindingBuilder.bind(activityQueue()).to(activityExchange()).with(QUEUE_ACTIVITY_KEY);
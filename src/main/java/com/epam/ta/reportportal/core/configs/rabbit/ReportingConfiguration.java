@@ -17,17 +17,26 @@
 package com.epam.ta.reportportal.core.configs.rabbit;
 
 import com.epam.ta.reportportal.core.configs.Conditions;
+import com.epam.ta.reportportal.core.log.impl.BatchLogSaver;
+import com.epam.ta.reportportal.ws.rabbit.AsyncReportingBatchListener;
 import com.epam.ta.reportportal.ws.rabbit.AsyncReportingListener;
+import com.epam.ta.reportportal.ws.rabbit.ReportingPrefetchTuner;
+import com.epam.ta.reportportal.ws.rabbit.ReportingQueueCoordinator;
+import com.epam.ta.reportportal.ws.rabbit.ReportingQueueLeaseService;
+import com.epam.ta.reportportal.ws.rabbit.ReportingQueueMetrics;
+import java.lang.management.ManagementFactory;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.UUID;
+import javax.sql.DataSource;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.amqp.core.AcknowledgeMode;
 import org.springframework.amqp.core.AmqpAdmin;
 import org.springframework.amqp.core.Binding;
 import org.springframework.amqp.core.BindingBuilder;
 import org.springframework.amqp.core.Exchange;
 import org.springframework.amqp.core.ExchangeBuilder;
-import org.springframework.amqp.core.MessageListener;
 import org.springframework.amqp.core.Queue;
 import org.springframework.amqp.core.QueueBuilder;
 import org.springframework.amqp.rabbit.connection.ConnectionFactory;
@@ -37,11 +46,14 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.ApplicationContext;
 import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Conditional;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
 
 /**
  * @author Konstantin Antipin
@@ -79,6 +91,57 @@ public class ReportingConfiguration {
   @Value("${rp.amqp.queuesPerPod:1000000}")
   private int queuesPerPod;
 
+  /**
+   * Enables batch consuming of the reporting queues: up to {@link #batchSize} messages, or as many
+   * as were received within {@link #batchTimeout} milliseconds, are applied in a single transaction
+   */
+  @Value("${rp.amqp.reporting.batch.enabled:false}")
+  private boolean batchEnabled;
+
+  @Value("${rp.amqp.reporting.batch.size:50}")
+  private int batchSize;
+
+  @Value("${rp.amqp.reporting.batch.timeout:100}")
+  private long batchTimeout;
+
+  /**
+   * Enables distribution of the reporting queues between the service-api pods with leases stored
+   * in the database. Each pod consumes its fair share of the queues, limited by
+   * {@link #queuesPerPod}, instead of the fixed first {@link #queuesPerPod} queues
+   */
+  @Value("${rp.amqp.reporting.lease.enabled:false}")
+  private boolean leaseEnabled;
+
+  @Value("${rp.amqp.reporting.lease.ttl:30}")
+  private long leaseTtl;
+
+  /**
+   * Enables adaptive prefetch of the reporting consumers, see {@link ReportingPrefetchTuner}
+   */
+  @Value("${rp.amqp.reporting.prefetch.adaptive:false}")
+  private boolean adaptivePrefetch;
+
+  @Value("${rp.amqp.reporting.prefetch.min:10}")
+  private int minPrefetch;
+
+  @Value("${rp.amqp.reporting.prefetch.max:250}")
+  private int maxPrefetch;
+
+  @Value("${rp.amqp.reporting.prefetch.latency-target:500}")
+  private double latencyTarget;
+
+  @Value("${rp.amqp.reporting.prefetch.pool-saturation:0.9}")
+  private double poolSaturation;
+
+  @Autowired
+  private PlatformTransactionManager transactionManager;
+
+  @Autowired
+  private ReportingQueueMetrics reportingQueueMetrics;
+
+  @Autowired
+  private BatchLogSaver batchLogSaver;
+
   @Autowired
   private ApplicationContext applicationContext;
 
@@ -193,7 +256,8 @@ public class ReportingConfiguration {
       @Qualifier("queues") List<Queue> queues) {
     List<AbstractMessageListenerContainer> containers = new ArrayList<>();
     int consumersCount = 0;
-    while (consumersCount < queuesPerPod) {
+    int containersCount = leaseEnabled ? queues.size() : queuesPerPod;
+    while (consumersCount < containersCount) {
       SimpleMessageListenerContainer listenerContainer = new SimpleMessageListenerContainer(
           connectionFactory);
       containers.add(listenerContainer);
@@ -202,7 +266,24 @@ public class ReportingConfiguration {
       listenerContainer.setExclusive(true);
       listenerContainer.setMissingQueuesFatal(false);
       listenerContainer.setApplicationEventPublisher(applicationEventPublisher);
-      listenerContainer.setupMessageListener(reportingListener());
+      if (leaseEnabled) {
+        // let messages in process finish before the queue is released
+        listenerContainer.setForceCloseChannel(false);
+        listenerContainer.setShutdownTimeout(leaseTtl * 1000 / 2);
+      }
+      if (batchEnabled) {
+        listenerContainer.setConsumerBatchEnabled(true);
+        listenerContainer.setBatchSize(batchSize);
+        listenerContainer.setReceiveTimeout(batchTimeout);
+        listenerContainer.setAcknowledgeMode(AcknowledgeMode.MANUAL);
+        listenerContainer.setupMessageListener(
+            reportingQueueMetrics.measured(reportingBatchListener()));
+      } else {
+        listenerContainer.setupMessageListener(reportingQueueMetrics.measured(reportingListener()));
+      }
+      if (adaptivePrefetch) {
+        listenerContainer.setPrefetchCount(maxPrefetch);
+      }
       listenerContainer.afterPropertiesSet();
       consumersCount++;
       logger.info("Consumer is created, current consumers count is {}", consumersCount);
@@ -211,10 +292,39 @@ public class ReportingConfiguration {
   }
 
   @Bean
-  public MessageListener reportingListener() {
+  @ConditionalOnProperty(name = "rp.amqp.reporting.lease.enabled", havingValue = "true")
+  public ReportingQueueLeaseService reportingQueueLeaseService(JdbcTemplate jdbcTemplate) {
+    String consumerId = ManagementFactory.getRuntimeMXBean().getName() + "-" + UUID.randomUUID();
+    return new ReportingQueueLeaseService(jdbcTemplate, consumerId, leaseTtl);
+  }
+
+  @Bean
+  @ConditionalOnProperty(name = "rp.amqp.reporting.lease.enabled", havingValue = "true")
+  public ReportingQueueCoordinator reportingQueueCoordinator(
+      ReportingQueueLeaseService reportingQueueLeaseService,
+      @Qualifier("reportingListenerContainers") List<AbstractMessageListenerContainer> containers) {
+    return new ReportingQueueCoordinator(reportingQueueLeaseService, containers, queuesPerPod);
+  }
+
+  @Bean
+  @ConditionalOnProperty(name = "rp.amqp.reporting.prefetch.adaptive", havingValue = "true")
+  public ReportingPrefetchTuner reportingPrefetchTuner(AmqpAdmin amqpAdmin, DataSource dataSource,
+      @Qualifier("reportingListenerContainers") List<AbstractMessageListenerContainer> containers) {
+    return new ReportingPrefetchTuner(containers, reportingQueueMetrics, amqpAdmin, dataSource,
+        minPrefetch, maxPrefetch, latencyTarget, poolSaturation);
+  }
+
+  @Bean
+  public AsyncReportingListener reportingListener() {
     return new AsyncReportingListener();
   }
 
+  @Bean
+  public AsyncReportingBatchListener reportingBatchListener() {
+    return new AsyncReportingBatchListener(reportingListener(), batchLogSaver,
+        transactionManager);
+  }
+
   private void registerSingleton(String name, Object bean) {
     configurableBeanFactory.registerSingleton(name.trim(), bean);
     applicationContext.getAutowireCapableBeanFactory().autowireBean(bean);
@@ -16,6 +16,8 @@
 
 package com.epam.ta.reportportal.core.events;
 
+import java.util.Collection;
+
 /**
  * MessageBus is an abstraction for dealing with events over external event-streaming system
  *
@@ -47,4 +49,11 @@ public interface MessageBus {
    */
   void publishActivity(ActivityEvent o);
 
+  /**
+   * Sends activities in one batch
+   *
+   * @param events Payloads
+   */
+  void publishActivities(Collection<? extends ActivityEvent> events);
+
 }
@@ -19,8 +19,12 @@ package com.epam.ta.reportportal.core.events;
 import static com.epam.ta.reportportal.core.configs.rabbit.InternalConfiguration.EXCHANGE_ACTIVITY;
 
 import com.epam.ta.reportportal.entity.activity.Activity;
+import java.util.Collection;
+import java.util.List;
 import java.util.Objects;
+import java.util.stream.Collectors;
 import org.springframework.amqp.core.AmqpTemplate;
+import org.springframework.amqp.rabbit.core.RabbitOperations;
 
 public class MessageBusImpl implements MessageBus {
 
@@ -54,6 +58,31 @@ public class MessageBusImpl implements MessageBus {
     }
   }
 
+  /**
+   * Publishes activities through one channel, every activity is sent as a separate message
+   *
+   * @param events Activity events to be converted to Activity objects
+   * @see #publishActivity(ActivityEvent)
+   */
+  @Override
+  public void publishActivities(Collection<? extends ActivityEvent> events) {
+    List<Activity> activities = events.stream().map(ActivityEvent::toActivity)
+        .filter(Objects::nonNull).collect(Collectors.toList());
+    if (activities.isEmpty()) {
+      return;
+    }
+    if (amqpTemplate instanceof RabbitOperations) {
+      ((RabbitOperations) amqpTemplate).invoke(operations -> {
+        activities.forEach(activity -> operations.convertAndSend(EXCHANGE_ACTIVITY,
+            generateKey(activity), activity));
+        return null;
+      });
+    } else {
+      activities.forEach(activity -> amqpTemplate.convertAndSend(EXCHANGE_ACTIVITY,
+          generateKey(activity), activity));
+    }
+  }
+
   private String generateKey(Activity activity) {
     return String.format("activity.%d.%s.%s",
         activity.getProjectId(),
@@ -18,19 +18,18 @@ package com.epam.ta.reportportal.core.events.handler;
 
 import static com.epam.ta.reportportal.commons.Predicates.equalTo;
 import static com.epam.reportportal.rules.commons.validation.BusinessRule.expect;
-import static com.epam.ta.reportportal.core.analyzer.auto.impl.AnalyzerStatusCache.AUTO_ANALYZER_KEY;
+import static com.epam.ta.reportportal.core.analyzer.auto.impl.AnalysisStateRegistry.AUTO_ANALYZER_KEY;
 import static com.epam.ta.reportportal.core.analyzer.auto.impl.AnalyzerUtils.getAnalyzerConfig;
 
 import com.epam.ta.reportportal.core.analyzer.auto.LogIndexer;
 import com.epam.ta.reportportal.core.analyzer.auto.client.AnalyzerServiceClient;
-import com.epam.ta.reportportal.core.analyzer.auto.impl.AnalyzerStatusCache;
+import com.epam.ta.reportportal.core.analyzer.auto.impl.AnalysisStateRegistry;
 import com.epam.ta.reportportal.core.events.activity.DefectTypeDeletedEvent;
 import com.epam.ta.reportportal.dao.LaunchRepository;
 import com.epam.ta.reportportal.dao.ProjectRepository;
 import com.epam.ta.reportportal.entity.project.Project;
 import com.epam.reportportal.rules.exception.ReportPortalException;
 import com.epam.reportportal.rules.exception.ErrorType;
-import com.google.common.cache.Cache;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.retry.annotation.Backoff;
 import org.springframework.retry.annotation.Retryable;
@@ -45,7 +44,7 @@ import org.springframework.transaction.event.TransactionalEventListener;
 @Transactional
 public class DefectTypeDeletedHandler {
 
-  private final AnalyzerStatusCache analyzerStatusCache;
+  private final AnalysisStateRegistry analysisStateRegistry;
 
   private final AnalyzerServiceClient analyzerServiceClient;
 
@@ -56,11 +55,11 @@ public class DefectTypeDeletedHandler {
   private final ProjectRepository projectRepository;
 
   @Autowired
-  public DefectTypeDeletedHandler(AnalyzerStatusCache analyzerStatusCache,
+  public DefectTypeDeletedHandler(AnalysisStateRegistry analysisStateRegistry,
       AnalyzerServiceClient analyzerServiceClient,
       LaunchRepository launchRepository, LogIndexer logIndexer,
       ProjectRepository projectRepository) {
-    this.analyzerStatusCache = analyzerStatusCache;
+    this.analysisStateRegistry = analysisStateRegistry;
     this.analyzerServiceClient = analyzerServiceClient;
     this.launchRepository = launchRepository;
     this.logIndexer = logIndexer;
@@ -76,10 +75,8 @@ public class DefectTypeDeletedHandler {
             () -> new ReportPortalException(ErrorType.PROJECT_NOT_FOUND, event.getProjectId()));
 
     if (analyzerServiceClient.hasClients()) {
-      Cache<Long, Long> analyzeStatus = analyzerStatusCache.getAnalyzeStatus(AUTO_ANALYZER_KEY)
-          .orElseThrow(
-              () -> new ReportPortalException(ErrorType.ANALYZER_NOT_FOUND, AUTO_ANALYZER_KEY));
-      expect(analyzeStatus.asMap().containsValue(event.getProjectId()), equalTo(false)).verify(
+      expect(analysisStateRegistry.containsProjectId(AUTO_ANALYZER_KEY, event.getProjectId()),
+          equalTo(false)).verify(
           ErrorType.FORBIDDEN_OPERATION,
           "Index can not be removed until auto-analysis proceeds."
       );
@@ -17,15 +17,12 @@
 package com.epam.ta.reportportal.core.hierarchy;
 
 import static com.epam.reportportal.rules.commons.validation.BusinessRule.expect;
+import static com.epam.reportportal.rules.exception.ErrorType.INCORRECT_REQUEST;
 import static com.epam.ta.reportportal.core.item.impl.status.ToSkippedStatusChangingStrategy.SKIPPED_ISSUE_KEY;
-import static com.epam.ta.reportportal.entity.enums.StatusEnum.FAILED;
 import static com.epam.ta.reportportal.entity.enums.StatusEnum.IN_PROGRESS;
-import static com.epam.ta.reportportal.entity.enums.StatusEnum.PASSED;
 import static com.epam.ta.reportportal.entity.enums.StatusEnum.SKIPPED;
 import static com.epam.ta.reportportal.entity.enums.TestItemIssueGroup.TO_INVESTIGATE;
 import static com.epam.ta.reportportal.entity.enums.TestItemTypeEnum.SUITE;
-import static com.epam.reportportal.rules.exception.ErrorType.INCORRECT_REQUEST;
-import static java.util.Optional.ofNullable;
 
 import com.epam.ta.reportportal.commons.ReportPortalUser;
 import com.epam.ta.reportportal.core.item.impl.IssueTypeHandler;
@@ -35,34 +32,97 @@ import com.epam.ta.reportportal.dao.IssueEntityRepository;
 import com.epam.ta.reportportal.dao.ItemAttributeRepository;
 import com.epam.ta.reportportal.dao.LaunchRepository;
 import com.epam.ta.reportportal.dao.TestItemRepository;
-import com.epam.ta.reportportal.entity.ItemAttribute;
 import com.epam.ta.reportportal.entity.enums.StatusEnum;
+import com.epam.ta.reportportal.entity.enums.TestItemTypeEnum;
 import com.epam.ta.reportportal.entity.item.TestItem;
-import com.epam.ta.reportportal.entity.item.issue.IssueEntity;
+import com.epam.ta.reportportal.entity.item.TestItemResults;
 import com.epam.ta.reportportal.entity.item.issue.IssueType;
 import com.epam.ta.reportportal.job.PageUtil;
 import com.epam.ta.reportportal.jooq.enums.JStatusEnum;
+import com.google.common.collect.Lists;
+import java.sql.Timestamp;
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
-import java.util.concurrent.atomic.AtomicInteger;
-import java.util.function.Consumer;
+import java.util.TreeMap;
+import java.util.function.BiFunction;
 import java.util.function.Function;
 import java.util.stream.Collectors;
+import javax.persistence.EntityManager;
 import org.apache.commons.lang3.BooleanUtils;
-import org.springframework.data.domain.Pageable;
+import org.hibernate.Hibernate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
 
 /**
+ * Finishes the descendants of a launch or an item which are in progress. The descendants are
+ * updated with set-based statements: items without children get the requested status, items with
+ * children get the status resolved from their children level by level from the deepest one.
+ *
  * @author <a href="mailto:ivan_budayeu@epam.com">Ivan Budayeu</a>
  */
 public abstract class AbstractFinishHierarchyHandler<T> implements FinishHierarchyHandler<T> {
 
-  public static final int ITEM_PAGE_SIZE = 50;
+  public static final int ITEM_PAGE_SIZE = 500;
 
   public static final String ATTRIBUTE_KEY_STATUS = "status";
   public static final String ATTRIBUTE_VALUE_INTERRUPTED = "interrupted";
 
+  private static final String ITEM_IDS_PARAM = "itemIds";
+
+  private static final List<String> SUITE_LEVEL_TYPES = Arrays.stream(TestItemTypeEnum.values())
+      .filter(SUITE::sameLevel).map(Enum::name).collect(Collectors.toList());
+
+  private static final String INSERT_ISSUE_QUERY =
+      "INSERT INTO issue (issue_id, issue_type, auto_analyzed, ignore_analyzer) "
+          + "SELECT ti.item_id, :issueTypeId, FALSE, FALSE FROM test_item ti "
+          + "WHERE ti.item_id IN (:itemIds) AND ti.has_stats "
+          + "AND CAST(ti.type AS VARCHAR) NOT IN (:suiteLevelTypes) "
+          + "AND NOT EXISTS(SELECT 1 FROM issue WHERE issue.issue_id = ti.item_id)";
+
+  private static final String INSERT_INTERRUPTED_ATTRIBUTE_QUERY =
+      "INSERT INTO item_attribute (key, value, item_id, system) "
+          + "SELECT :key, :value, ti.item_id, FALSE FROM test_item ti "
+          + "WHERE ti.item_id IN (:itemIds)";
+
+  private static final String UPDATE_STATUS_QUERY =
+      "UPDATE test_item_results SET status = CAST(:status AS STATUS_ENUM), end_time = :endTime "
+          + "WHERE result_id IN (:itemIds)";
+
+  private static final String UPDATE_RESOLVED_STATUS_QUERY =
+      "UPDATE test_item_results result SET end_time = :endTime, status = CASE WHEN EXISTS("
+          + "SELECT 1 FROM test_item ti JOIN test_item_results tir ON ti.item_id = tir.result_id "
+          + "WHERE ti.parent_id = result.result_id AND ti.retry_of IS NULL "
+          + "AND CAST(tir.status AS VARCHAR) NOT IN ('PASSED', 'INFO', 'WARN')) "
+          + "THEN CAST('FAILED' AS STATUS_ENUM) ELSE CAST('PASSED' AS STATUS_ENUM) END "
+          + "WHERE result.result_id IN (:itemIds)";
+
+  private static final String SELECT_IDS_AFTER_QUERY =
+      "SELECT ti.item_id FROM test_item ti "
+          + "JOIN test_item_results tir ON ti.item_id = tir.result_id WHERE %s AND ti.has_children = :hasChildren "
+          + "AND tir.status = CAST(:status AS STATUS_ENUM) AND ti.item_id > :lastId "
+          + "ORDER BY ti.item_id LIMIT :limit";
+
+  private static final String SELECT_LEVELS_QUERY =
+      "SELECT ti.item_id, nlevel(ti.path) AS level FROM test_item ti "
+          + "WHERE ti.item_id IN (:itemIds)";
+
+  private static final String SELECT_WITH_RETRIES_QUERY =
+      "SELECT ti.item_id, CAST(result.status AS VARCHAR) AS status FROM test_item ti "
+          + "JOIN test_item_results result ON ti.item_id = result.result_id "
+          + "WHERE ti.item_id IN (:itemIds) AND ti.has_retries";
+
+  private static final String SELECT_CHILD_PER_PARENT_QUERY =
+      "SELECT DISTINCT ON (ti.parent_id) ti.parent_id, ti.item_id, ti.launch_id, "
+          + "CAST(ti.path AS VARCHAR) AS path FROM test_item ti "
+          + "WHERE ti.item_id IN (:itemIds) AND ti.parent_id IS NOT NULL "
+          + "ORDER BY ti.parent_id, ti.item_id";
+
   protected final LaunchRepository launchRepository;
   protected final TestItemRepository testItemRepository;
   protected final ItemAttributeRepository itemAttributeRepository;
@@ -70,13 +130,16 @@ public abstract class AbstractFinishHierarchyHandler<T> implements FinishHierarc
   private final RetryHandler retryHandler;
   private final IssueTypeHandler issueTypeHandler;
   private final ChangeStatusHandler changeStatusHandler;
+  private final NamedParameterJdbcTemplate jdbcTemplate;
+  private final EntityManager entityManager;
 
   public AbstractFinishHierarchyHandler(LaunchRepository launchRepository,
       TestItemRepository testItemRepository,
       ItemAttributeRepository itemAttributeRepository, IssueEntityRepository issueEntityRepository,
       RetryHandler retryHandler,
       IssueTypeHandler issueTypeHandler,
-      ChangeStatusHandler changeStatusHandler) {
+      ChangeStatusHandler changeStatusHandler, NamedParameterJdbcTemplate jdbcTemplate,
+      EntityManager entityManager) {
     this.launchRepository = launchRepository;
     this.testItemRepository = testItemRepository;
     this.itemAttributeRepository = itemAttributeRepository;
@@ -84,13 +147,40 @@ public abstract class AbstractFinishHierarchyHandler<T> implements FinishHierarc
     this.retryHandler = retryHandler;
     this.issueTypeHandler = issueTypeHandler;
     this.changeStatusHandler = changeStatusHandler;
+    this.jdbcTemplate = jdbcTemplate;
+    this.entityManager = entityManager;
   }
 
   protected abstract boolean isIssueRequired(StatusEnum status, T entity);
 
-  protected abstract Function<Pageable, List<Long>> getItemIdsFunction(boolean hasChildren,
+  /**
+   * @return Function of the last id of the previous page and the page size which selects the ids
+   * of the descendants ordered by id, see {@link #selectItemIdsAfter}
+   */
+  protected abstract BiFunction<Long, Integer, List<Long>> getItemIdsFunction(boolean hasChildren,
       T entity, StatusEnum status);
 
+  /**
+   * Selects the page of the descendant ids after the last id of the previous page
+   *
+   * @param scopeCondition Condition of the descendants on the 'ti' test item alias
+   * @param scopeParams    Parameters of the condition
+   * @param hasChildren    Whether the descendants have children
+   * @param status         Status of the descendants
+   * @param lastId         Last id of the previous page
+   * @param limit          Page size
+   * @return Ids ordered by id
+   */
+  protected List<Long> selectItemIdsAfter(String scopeCondition, MapSqlParameterSource scopeParams,
+      boolean hasChildren, StatusEnum status, Long lastId, int limit) {
+    return jdbcTemplate.queryForList(String.format(SELECT_IDS_AFTER_QUERY, scopeCondition),
+        new MapSqlParameterSource(scopeParams.getValues())
+            .addValue("hasChildren", hasChildren)
+            .addValue("status", status.name())
+            .addValue("lastId", lastId)
+            .addValue("limit", limit), Long.class);
+  }
+
   protected boolean evaluateSkippedAttributeValue(StatusEnum status, Long launchId) {
     if (SKIPPED.equals(status)) {
       return itemAttributeRepository.findByLaunchIdAndKeyAndSystem(launchId, SKIPPED_ISSUE_KEY,
@@ -118,6 +208,9 @@ public abstract class AbstractFinishHierarchyHandler<T> implements FinishHierarc
     expect(status, s -> s != IN_PROGRESS).verify(INCORRECT_REQUEST,
         "Unable to update current status to - " + IN_PROGRESS);
 
+    //changes of the loaded entities have to be visible to the statements below
+    testItemRepository.flush();
+
     final int withoutChildren = updateDescendantsWithoutChildren(parentEntity,
         projectDetails.getProjectId(), status, endDate, user);
     final int withChildren = updateDescendantsWithChildren(parentEntity, endDate);
@@ -126,107 +219,117 @@ public abstract class AbstractFinishHierarchyHandler<T> implements FinishHierarc
 
   private int updateDescendantsWithoutChildren(T entity, Long projectId, StatusEnum status,
       Instant endTime, ReportPortalUser user) {
-    AtomicInteger updatedCount = new AtomicInteger(0);
-    getIssueType(isIssueRequired(status, entity),
-        projectId,
-        TO_INVESTIGATE.getLocator()
-    ).ifPresentOrElse(issueType -> PageUtil.iterateOverContent(ITEM_PAGE_SIZE,
-            getItemIdsFunction(false, entity, IN_PROGRESS),
-            itemIdsWithoutChildrenHandler(issueType, status, endTime, projectId, user, updatedCount)
-        ),
-        () -> PageUtil.iterateOverContent(ITEM_PAGE_SIZE,
-            getItemIdsFunction(false, entity, IN_PROGRESS),
-            itemIdsWithoutChildrenHandler(status, endTime, projectId, user, updatedCount)
-        )
-    );
-    return updatedCount.get();
-  }
-
-  private Consumer<List<Long>> itemIdsWithoutChildrenHandler(IssueType issueType, StatusEnum status,
-      Instant endTime,
-      Long projectId, ReportPortalUser user, AtomicInteger updatedCount) {
-    return itemIds -> {
-      Map<Long, TestItem> itemMapping = getItemMapping(itemIds);
-      itemIds.forEach(itemId -> ofNullable(itemMapping.get(itemId)).ifPresent(testItem -> {
-        finishItem(testItem, status, endTime);
-        attachIssue(testItem, issueType);
-        changeStatusHandler.changeParentStatus(testItem, projectId, user);
-      }));
-      updatedCount.addAndGet(itemIds.size());
-    };
-  }
-
-  private Consumer<List<Long>> itemIdsWithoutChildrenHandler(StatusEnum status,
-      Instant endTime, Long projectId,
-      ReportPortalUser user, AtomicInteger updatedCount) {
-    return itemIds -> {
-      Map<Long, TestItem> itemMapping = getItemMapping(itemIds);
-      itemIds.forEach(itemId -> ofNullable(itemMapping.get(itemId)).ifPresent(testItem -> {
-        finishItem(testItem, status, endTime);
-        changeStatusHandler.changeParentStatus(testItem, projectId, user);
-      }));
-      updatedCount.addAndGet(itemIds.size());
-    };
+    List<Long> itemIds = getItemIds(false, entity);
+    if (itemIds.isEmpty()) {
+      return 0;
+    }
+    Optional<IssueType> issueType = getIssueType(isIssueRequired(status, entity), projectId,
+        TO_INVESTIGATE.getLocator());
+    Map<Long, TestItem> childPerParent = new LinkedHashMap<>();
+    Lists.partition(itemIds, ITEM_PAGE_SIZE).forEach(ids -> {
+      issueType.ifPresent(type -> attachIssues(ids, type));
+      insertInterruptedAttributes(ids);
+      jdbcTemplate.update(UPDATE_STATUS_QUERY, params(ids)
+          .addValue("status", status.name())
+          .addValue("endTime", Timestamp.from(endTime)));
+      finishRetries(ids, endTime);
+      detachItems(ids);
+      getChildPerParent(ids).forEach(child -> childPerParent.putIfAbsent(child.getParentId(),
+          child));
+    });
+    changeStatusHandler.changeParentsStatus(childPerParent.values(), projectId, user);
+    return itemIds.size();
   }
 
   /**
-   * Attach default issue to the item only if it wasn't already created
+   * Attach default issue to the items which have no issue yet
    *
-   * @param testItem  {@link TestItem}
+   * @param itemIds   Ids of the items
    * @param issueType {@link IssueType}
    */
-  private void attachIssue(TestItem testItem, IssueType issueType) {
-    if (!SUITE.sameLevel(testItem.getType()) && testItem.isHasStats()) {
-      issueEntityRepository.findById(testItem.getItemId()).ifPresentOrElse(issue -> {
-      }, () -> {
-        IssueEntity issueEntity = new IssueEntity();
-        issueEntity.setIssueType(issueType);
-        issueEntity.setTestItemResults(testItem.getItemResults());
-        issueEntityRepository.save(issueEntity);
-        testItem.getItemResults().setIssue(issueEntity);
-      });
-    }
+  private void attachIssues(List<Long> itemIds, IssueType issueType) {
+    jdbcTemplate.update(INSERT_ISSUE_QUERY, params(itemIds)
+        .addValue("issueTypeId", issueType.getId())
+        .addValue("suiteLevelTypes", SUITE_LEVEL_TYPES));
   }
 
   private int updateDescendantsWithChildren(T entity, Instant endTime) {
-    AtomicInteger updatedCount = new AtomicInteger(0);
-    PageUtil.iterateOverContent(ITEM_PAGE_SIZE,
-        getItemIdsFunction(true, entity, IN_PROGRESS),
-        itemIdsWithChildrenHandler(endTime, updatedCount)
-    );
-    return updatedCount.get();
+    List<Long> itemIds = getItemIds(true, entity);
+    if (itemIds.isEmpty()) {
+      return 0;
+    }
+    Map<Integer, List<Long>> idsByLevel = new TreeMap<>(Collections.reverseOrder());
+    Lists.partition(itemIds, ITEM_PAGE_SIZE).forEach(ids -> jdbcTemplate.query(
+        SELECT_LEVELS_QUERY, params(ids), rs -> {
+          idsByLevel.computeIfAbsent(rs.getInt("level"), level -> new ArrayList<>())
+              .add(rs.getLong("item_id"));
+        }));
+    //the status of a level is resolved from the statuses of the level below
+    idsByLevel.values().forEach(levelIds -> Lists.partition(levelIds, ITEM_PAGE_SIZE)
+        .forEach(ids -> {
+          insertInterruptedAttributes(ids);
+          jdbcTemplate.update(UPDATE_RESOLVED_STATUS_QUERY,
+              params(ids).addValue("endTime", Timestamp.from(endTime)));
+          finishRetries(ids, endTime);
+          detachItems(ids);
+        }));
+    return itemIds.size();
   }
 
-  private Consumer<List<Long>> itemIdsWithChildrenHandler(Instant endTime,
-      AtomicInteger updatedCount) {
-    return itemIds -> {
-      Map<Long, TestItem> itemMapping = getItemMapping(itemIds);
-      itemIds.forEach(itemId -> ofNullable(itemMapping.get(itemId)).ifPresent(testItem -> {
-        boolean isFailed = testItemRepository.hasDescendantsNotInStatus(testItem.getItemId(),
-            StatusEnum.PASSED.name(),
-            StatusEnum.INFO.name(),
-            StatusEnum.WARN.name()
-        );
-        finishItem(testItem, isFailed ? FAILED : PASSED, endTime);
-      }));
-      updatedCount.addAndGet(itemIds.size());
-    };
+  private List<Long> getItemIds(boolean hasChildren, T entity) {
+    List<Long> itemIds = new ArrayList<>();
+    PageUtil.iterateOverKeyset(ITEM_PAGE_SIZE, getItemIdsFunction(hasChildren, entity,
+        IN_PROGRESS), Function.identity(), itemIds::addAll);
+    return itemIds;
   }
 
-  private Map<Long, TestItem> getItemMapping(List<Long> itemIds) {
-    return testItemRepository.findAllById(itemIds).stream()
-        .collect(Collectors.toMap(TestItem::getItemId, i -> i));
+  private void insertInterruptedAttributes(List<Long> itemIds) {
+    jdbcTemplate.update(INSERT_INTERRUPTED_ATTRIBUTE_QUERY, params(itemIds)
+        .addValue("key", ATTRIBUTE_KEY_STATUS)
+        .addValue("value", ATTRIBUTE_VALUE_INTERRUPTED));
   }
 
-  private void finishItem(TestItem testItem, StatusEnum status, Instant endTime) {
-    testItem.getItemResults().setStatus(status);
-    testItem.getItemResults().setEndTime(endTime);
-    ItemAttribute interruptedAttribute = new ItemAttribute(ATTRIBUTE_KEY_STATUS,
-        ATTRIBUTE_VALUE_INTERRUPTED, false);
-    interruptedAttribute.setTestItem(testItem);
-    testItem.getAttributes().add(interruptedAttribute);
-    if (testItem.isHasRetries()) {
-      retryHandler.finishRetries(testItem.getItemId(), JStatusEnum.valueOf(status.name()), endTime);
-    }
+  private void finishRetries(List<Long> itemIds, Instant endTime) {
+    Map<Long, JStatusEnum> statuses = new LinkedHashMap<>();
+    jdbcTemplate.query(SELECT_WITH_RETRIES_QUERY, params(itemIds),
+        rs -> {
+          statuses.put(rs.getLong("item_id"), JStatusEnum.valueOf(rs.getString("status")));
+        });
+    statuses.forEach((itemId, status) -> retryHandler.finishRetries(itemId, status, endTime));
+  }
+
+  /**
+   * Detaches the items updated by the statements from the persistence context, so the state loaded
+   * earlier in the transaction is neither read nor flushed back over the statements' changes. The
+   * issue is not cascaded from the item results, so it is detached separately.
+   *
+   * @param itemIds Ids of the items
+   */
+  private void detachItems(List<Long> itemIds) {
+    itemIds.forEach(id -> {
+      TestItem item = entityManager.getReference(TestItem.class, id);
+      if (Hibernate.isInitialized(item)) {
+        Optional.ofNullable(item.getItemResults()).filter(Hibernate::isInitialized)
+            .map(TestItemResults::getIssue).ifPresent(entityManager::detach);
+      }
+      entityManager.detach(item);
+    });
+  }
+
+  /**
+   * @return An item of every parent of the items, with the parent id and the path
+   */
+  private List<TestItem> getChildPerParent(List<Long> itemIds) {
+    return jdbcTemplate.query(SELECT_CHILD_PER_PARENT_QUERY, params(itemIds), (rs, rowNum) -> {
+      TestItem child = new TestItem(rs.getLong("item_id"));
+      child.setParentId(rs.getLong("parent_id"));
+      child.setLaunchId(rs.getLong("launch_id"));
+      child.setPath(rs.getString("path"));
+      return child;
+    });
+  }
+
+  private static MapSqlParameterSource params(List<Long> itemIds) {
+    return new MapSqlParameterSource(ITEM_IDS_PARAM, itemIds);
   }
 }
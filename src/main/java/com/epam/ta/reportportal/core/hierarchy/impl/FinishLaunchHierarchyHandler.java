@@ -29,9 +29,11 @@ import com.epam.ta.reportportal.dao.TestItemRepository;
 import com.epam.ta.reportportal.entity.enums.StatusEnum;
 import com.epam.ta.reportportal.entity.launch.Launch;
 import java.util.List;
-import java.util.function.Function;
+import java.util.function.BiFunction;
+import javax.persistence.EntityManager;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
 import org.springframework.stereotype.Service;
 
 /**
@@ -40,19 +42,24 @@ import org.springframework.stereotype.Service;
 @Service("finishLaunchHierarchyHandler")
 public class FinishLaunchHierarchyHandler extends AbstractFinishHierarchyHandler<Launch> {
 
+  private static final String LAUNCH_SCOPE_CONDITION = "ti.launch_id = :launchId";
+
   @Autowired
   public FinishLaunchHierarchyHandler(LaunchRepository launchRepository,
       TestItemRepository testItemRepository,
       ItemAttributeRepository itemAttributeRepository, RetryHandler retryHandler,
       IssueTypeHandler issueTypeHandler,
-      IssueEntityRepository issueEntityRepository, ChangeStatusHandler changeStatusHandler) {
+      IssueEntityRepository issueEntityRepository, ChangeStatusHandler changeStatusHandler,
+      NamedParameterJdbcTemplate jdbcTemplate, EntityManager entityManager) {
     super(launchRepository,
         testItemRepository,
         itemAttributeRepository,
         issueEntityRepository,
         retryHandler,
         issueTypeHandler,
-        changeStatusHandler
+        changeStatusHandler,
+        jdbcTemplate,
+        entityManager
     );
   }
 
@@ -62,20 +69,11 @@ public class FinishLaunchHierarchyHandler extends AbstractFinishHierarchyHandler
   }
 
   @Override
-  protected Function<Pageable, List<Long>> getItemIdsFunction(boolean hasChildren, Launch launch,
-      StatusEnum status) {
-    return hasChildren ?
-        pageable -> testItemRepository.findIdsByHasChildrenAndLaunchIdAndStatusOrderedByPathLevel(
-            launch.getId(),
-            status,
-            pageable.getPageSize(),
-            pageable.getOffset()
-        ) :
-        pageable -> testItemRepository.findIdsByNotHasChildrenAndLaunchIdAndStatus(launch.getId(),
-            status,
-            pageable.getPageSize(),
-            pageable.getOffset()
-        );
+  protected BiFunction<Long, Integer, List<Long>> getItemIdsFunction(boolean hasChildren,
+      Launch launch, StatusEnum status) {
+    MapSqlParameterSource scopeParams = new MapSqlParameterSource("launchId", launch.getId());
+    return (lastId, limit) -> selectItemIdsAfter(LAUNCH_SCOPE_CONDITION, scopeParams, hasChildren,
+        status, lastId, limit);
   }
 
 }
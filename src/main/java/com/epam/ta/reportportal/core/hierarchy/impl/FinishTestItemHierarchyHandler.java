@@ -30,8 +30,10 @@ import com.epam.ta.reportportal.dao.TestItemRepository;
 import com.epam.ta.reportportal.entity.enums.StatusEnum;
 import com.epam.ta.reportportal.entity.item.TestItem;
 import java.util.List;
-import java.util.function.Function;
-import org.springframework.data.domain.Pageable;
+import java.util.function.BiFunction;
+import javax.persistence.EntityManager;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
 import org.springframework.stereotype.Service;
 
 /**
@@ -40,18 +42,24 @@ import org.springframework.stereotype.Service;
 @Service("finishTestItemHierarchyHandler")
 public class FinishTestItemHierarchyHandler extends AbstractFinishHierarchyHandler<TestItem> {
 
+  private static final String DESCENDANTS_SCOPE_CONDITION =
+      "CAST(:parentPath AS LTREE) @> ti.path AND CAST(:parentPath AS LTREE) != ti.path";
+
   public FinishTestItemHierarchyHandler(LaunchRepository launchRepository,
       TestItemRepository testItemRepository,
       ItemAttributeRepository itemAttributeRepository, IssueEntityRepository issueEntityRepository,
       RetryHandler retryHandler,
-      IssueTypeHandler issueTypeHandler, ChangeStatusHandler changeStatusHandler) {
+      IssueTypeHandler issueTypeHandler, ChangeStatusHandler changeStatusHandler,
+      NamedParameterJdbcTemplate jdbcTemplate, EntityManager entityManager) {
     super(launchRepository,
         testItemRepository,
         itemAttributeRepository,
         issueEntityRepository,
         retryHandler,
         issueTypeHandler,
-        changeStatusHandler
+        changeStatusHandler,
+        jdbcTemplate,
+        entityManager
     );
   }
 
@@ -63,21 +71,13 @@ public class FinishTestItemHierarchyHandler extends AbstractFinishHierarchyHandl
   }
 
   @Override
-  protected Function<Pageable, List<Long>> getItemIdsFunction(boolean hasChildren,
+  protected BiFunction<Long, Integer, List<Long>> getItemIdsFunction(boolean hasChildren,
       TestItem testItem, StatusEnum status) {
-    return hasChildren ?
-        pageable -> testItemRepository.findIdsByHasChildrenAndParentPathAndStatusOrderedByPathLevel(
-            testItem.getPath(),
-            StatusEnum.IN_PROGRESS,
-            pageable.getPageSize(),
-            pageable.getOffset()
-        ) :
-        pageable -> testItemRepository.findIdsByNotHasChildrenAndParentPathAndStatus(
-            testItem.getPath(),
-            status,
-            pageable.getPageSize(),
-            pageable.getOffset()
-        );
+    MapSqlParameterSource scopeParams = new MapSqlParameterSource("parentPath",
+        testItem.getPath());
+    StatusEnum descendantStatus = hasChildren ? StatusEnum.IN_PROGRESS : status;
+    return (lastId, limit) -> selectItemIdsAfter(DESCENDANTS_SCOPE_CONDITION, scopeParams,
+        hasChildren, descendantStatus, lastId, limit);
   }
 
 }
@@ -0,0 +1,119 @@
+/*
+ * Copyright 2024 EPAM Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.epam.ta.reportportal.core.item.identity;
+
+import com.epam.ta.reportportal.core.events.activity.LaunchFinishedEvent;
+import com.epam.ta.reportportal.dao.TestItemRepository;
+import com.epam.ta.reportportal.entity.item.TestItem;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Names of the items which have children, by the launch. Unique id and test case hash of every
+ * started item are generated from the names of its ancestors, so the ancestors are read once per
+ * launch instead of twice per item. Items are cached when their first child is saved and the
+ * launch entry is dropped when the launch is finished.
+ */
+@Component
+public class ItemPathNameCache {
+
+  private final TestItemRepository testItemRepository;
+
+  /**
+   * Item names by the item id, by the launch id
+   */
+  private final Cache<Long, Map<Long, String>> names;
+
+  public ItemPathNameCache(TestItemRepository testItemRepository,
+      @Value("${rp.item.path-name.cache.launches:1000}") long maxLaunches,
+      @Value("${rp.item.path-name.cache.ttl:3600}") long ttl) {
+    this.testItemRepository = testItemRepository;
+    this.names = Caffeine.newBuilder()
+        .maximumSize(maxLaunches)
+        .expireAfterAccess(Duration.ofSeconds(ttl))
+        .build();
+  }
+
+  /**
+   * Caches the name of the item which got a child
+   *
+   * @param parent {@link TestItem}
+   */
+  public void put(TestItem parent) {
+    if (parent.getLaunchId() != null && parent.getItemId() != null) {
+      names.get(parent.getLaunchId(), id -> new ConcurrentHashMap<>())
+          .putIfAbsent(parent.getItemId(), String.valueOf(parent.getName()));
+    }
+  }
+
+  /**
+   * Names of the ancestors ordered by the item id. The ancestors which aren't cached are read with
+   * a single query and cached.
+   *
+   * @param launchId  Launch id of the item, null if unknown
+   * @param parentIds Ids of the item ancestors
+   * @return Names of the ancestors
+   */
+  public List<String> getPathNames(Long launchId, List<Long> parentIds) {
+    if (parentIds.isEmpty()) {
+      return Collections.emptyList();
+    }
+    Map<Long, String> launchNames = launchId == null
+        ? new ConcurrentHashMap<>()
+        : names.get(launchId, id -> new ConcurrentHashMap<>());
+    List<Long> missing = new ArrayList<>();
+    for (Long parentId : parentIds) {
+      if (!launchNames.containsKey(parentId)) {
+        missing.add(parentId);
+      }
+    }
+    if (!missing.isEmpty()) {
+      for (TestItem parent : testItemRepository.findAllById(missing)) {
+        launchNames.put(parent.getItemId(), String.valueOf(parent.getName()));
+      }
+    }
+    List<Long> sortedIds = new ArrayList<>(parentIds);
+    Collections.sort(sortedIds);
+    List<String> pathNames = new ArrayList<>(sortedIds.size());
+    for (Long parentId : sortedIds) {
+      String name = launchNames.get(parentId);
+      if (name != null) {
+        pathNames.add(name);
+      }
+    }
+    return pathNames;
+  }
+
+  public void evict(Long launchId) {
+    names.invalidate(launchId);
+  }
+
+  @EventListener
+  public void onLaunchFinished(LaunchFinishedEvent event) {
+    evict(event.getId());
+  }
+}
@@ -16,13 +16,10 @@
 
 package com.epam.ta.reportportal.core.item.identity;
 
-import com.epam.ta.reportportal.dao.TestItemRepository;
+import com.epam.ta.reportportal.entity.item.Parameter;
 import com.epam.ta.reportportal.entity.item.TestItem;
-import com.google.api.client.util.Lists;
 import com.google.common.base.Strings;
-import java.util.Comparator;
 import java.util.List;
-import java.util.stream.Collectors;
 import org.apache.commons.lang3.StringUtils;
 import org.springframework.stereotype.Service;
 
@@ -32,10 +29,10 @@ import org.springframework.stereotype.Service;
 @Service
 public class TestCaseHashGeneratorImpl implements TestCaseHashGenerator {
 
-  private final TestItemRepository testItemRepository;
+  private final ItemPathNameCache itemPathNameCache;
 
-  public TestCaseHashGeneratorImpl(TestItemRepository testItemRepository) {
-    this.testItemRepository = testItemRepository;
+  public TestCaseHashGeneratorImpl(ItemPathNameCache itemPathNameCache) {
+    this.itemPathNameCache = itemPathNameCache;
   }
 
   @Override
@@ -44,26 +41,20 @@ public class TestCaseHashGeneratorImpl implements TestCaseHashGenerator {
   }
 
   private String prepare(TestItem item, List<Long> parentIds, Long projectId) {
-    List<CharSequence> elements = Lists.newArrayList();
-
-    elements.add(projectId.toString());
-    getPathNames(parentIds).stream().filter(StringUtils::isNotEmpty).forEach(elements::add);
-    elements.add(item.getName());
-    item.getParameters()
-        .stream()
-        .map(parameter ->
-            (!Strings.isNullOrEmpty(parameter.getKey()) ? parameter.getKey() + "=" : "")
-                + parameter.getValue())
-        .forEach(elements::add);
-
-    return String.join(";", elements);
-  }
-
-  private List<String> getPathNames(List<Long> parentIds) {
-    return testItemRepository.findAllById(parentIds)
-        .stream()
-        .sorted(Comparator.comparingLong(TestItem::getItemId))
-        .map(TestItem::getName)
-        .collect(Collectors.toList());
+    StringBuilder builder = new StringBuilder(128).append(projectId);
+    for (String pathName : itemPathNameCache.getPathNames(item.getLaunchId(), parentIds)) {
+      if (StringUtils.isNotEmpty(pathName)) {
+        builder.append(';').append(pathName);
+      }
+    }
+    builder.append(';').append(item.getName());
+    for (Parameter parameter : item.getParameters()) {
+      builder.append(';');
+      if (!Strings.isNullOrEmpty(parameter.getKey())) {
+        builder.append(parameter.getKey()).append('=');
+      }
+      builder.append(parameter.getValue());
+    }
+    return builder.toString();
   }
 }
@@ -16,16 +16,12 @@
 
 package com.epam.ta.reportportal.core.item.identity;
 
-import com.epam.ta.reportportal.dao.TestItemRepository;
 import com.epam.ta.reportportal.entity.item.Parameter;
 import com.epam.ta.reportportal.entity.item.TestItem;
 import com.epam.ta.reportportal.entity.launch.Launch;
 import com.google.common.base.Strings;
-import java.util.Comparator;
 import java.util.List;
 import java.util.Set;
-import java.util.StringJoiner;
-import java.util.stream.Collectors;
 import org.apache.commons.codec.digest.DigestUtils;
 import org.apache.commons.collections.CollectionUtils;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -43,11 +39,11 @@ public class TestItemUniqueIdGenerator implements UniqueIdGenerator {
 
   private static final String TRAIT = "auto:";
 
-  private TestItemRepository testItemRepository;
+  private ItemPathNameCache itemPathNameCache;
 
   @Autowired
-  public void setTestItemRepository(TestItemRepository testItemRepository) {
-    this.testItemRepository = testItemRepository;
+  public void setItemPathNameCache(ItemPathNameCache itemPathNameCache) {
+    this.itemPathNameCache = itemPathNameCache;
   }
 
   @Override
@@ -62,32 +58,28 @@ public class TestItemUniqueIdGenerator implements UniqueIdGenerator {
   }
 
   private String prepareForEncoding(TestItem testItem, List<Long> parentIds, Launch launch) {
-    Long projectId = launch.getProjectId();
-    String launchName = launch.getName();
-    List<String> pathNames = getPathNames(parentIds);
-    String itemName = testItem.getName();
-    StringJoiner joiner = new StringJoiner(";");
-    joiner.add(projectId.toString()).add(launchName);
-    if (!CollectionUtils.isEmpty(pathNames)) {
-      joiner.add(String.join(";", pathNames));
+    List<String> pathNames = itemPathNameCache.getPathNames(testItem.getLaunchId(), parentIds);
+    StringBuilder builder = new StringBuilder(128);
+    builder.append(launch.getProjectId()).append(';').append(launch.getName());
+    for (String pathName : pathNames) {
+      builder.append(';').append(pathName);
     }
-    joiner.add(itemName);
+    builder.append(';').append(testItem.getName());
     Set<Parameter> parameters = testItem.getParameters();
     if (!CollectionUtils.isEmpty(parameters)) {
-      joiner.add(parameters.stream()
-          .map(parameter ->
-              (!Strings.isNullOrEmpty(parameter.getKey()) ? parameter.getKey() + "=" : "")
-                  + parameter.getValue())
-          .collect(Collectors.joining(",")));
+      builder.append(';');
+      boolean first = true;
+      for (Parameter parameter : parameters) {
+        if (!first) {
+          builder.append(',');
+        }
+        first = false;
+        if (!Strings.isNullOrEmpty(parameter.getKey())) {
+          builder.append(parameter.getKey()).append('=');
+        }
+        builder.append(parameter.getValue());
+      }
     }
-    return joiner.toString();
+    return builder.toString();
   }
-
-  private List<String> getPathNames(List<Long> parentIds) {
-    return testItemRepository.findAllById(parentIds)
-        .stream()
-        .sorted(Comparator.comparingLong(TestItem::getItemId))
-        .map(TestItem::getName)
-        .collect(Collectors.toList());
-  }
-}
\ No newline at end of file
+}
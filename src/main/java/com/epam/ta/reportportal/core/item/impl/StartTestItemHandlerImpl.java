@@ -30,6 +30,7 @@ import com.epam.ta.reportportal.commons.Preconditions;
 import com.epam.ta.reportportal.commons.ReportPortalUser;
 import com.epam.ta.reportportal.core.item.StartTestItemHandler;
 import com.epam.ta.reportportal.core.item.identity.IdentityUtil;
+import com.epam.ta.reportportal.core.item.identity.ItemPathNameCache;
 import com.epam.ta.reportportal.core.item.identity.TestCaseHashGenerator;
 import com.epam.ta.reportportal.core.item.identity.UniqueIdGenerator;
 import com.epam.ta.reportportal.core.item.impl.retry.RetryHandler;
@@ -87,6 +88,8 @@ class StartTestItemHandlerImpl implements StartTestItemHandler {
   private final RetrySearcher retrySearcher;
   private final RetryHandler retryHandler;
 
+  private final ItemPathNameCache itemPathNameCache;
+
   @Autowired
   public StartTestItemHandlerImpl(TestItemRepository testItemRepository,
       LaunchRepository launchRepository,
@@ -94,7 +97,7 @@ class StartTestItemHandlerImpl implements StartTestItemHandler {
       RerunHandler rerunHandler,
       List<ParentItemValidator> parentItemValidators,
       @Qualifier("uniqueIdRetrySearcher") RetrySearcher retrySearcher,
-      RetryHandler retryHandler) {
+      RetryHandler retryHandler, ItemPathNameCache itemPathNameCache) {
     this.testItemRepository = testItemRepository;
     this.launchRepository = launchRepository;
     this.uniqueIdGenerator = uniqueIdGenerator;
@@ -103,6 +106,7 @@ class StartTestItemHandlerImpl implements StartTestItemHandler {
     this.parentItemValidators = parentItemValidators;
     this.retrySearcher = retrySearcher;
     this.retryHandler = retryHandler;
+    this.itemPathNameCache = itemPathNameCache;
   }
 
   @Override
@@ -187,6 +191,7 @@ class StartTestItemHandlerImpl implements StartTestItemHandler {
   private TestItem saveChildItem(Launch launch, TestItem childItem, TestItem parentItem) {
     childItem.setParentId(parentItem.getItemId());
     testItemRepository.save(childItem);
+    itemPathNameCache.put(parentItem);
     generateUniqueId(launch, childItem, parentItem.getPath() + "." + childItem.getItemId());
     return childItem;
   }
@@ -19,13 +19,37 @@ package com.epam.ta.reportportal.core.item.impl.status;
 import com.epam.ta.reportportal.commons.ReportPortalUser;
 import com.epam.ta.reportportal.entity.item.TestItem;
 import com.epam.ta.reportportal.entity.launch.Launch;
+import java.util.Collection;
 
 /**
  * @author <a href="mailto:ivan_budayeu@epam.com">Ivan Budayeu</a>
  */
 public interface ChangeStatusHandler {
 
+  /**
+   * Resolves the status of the item parent and its ancestors. In a transaction the parent is
+   * resolved before the commit, together with the parents of the other items changed in it.
+   *
+   * @param childItem Item with the changed status
+   * @param projectId Project id
+   * @param user      {@link ReportPortalUser}
+   */
   void changeParentStatus(TestItem childItem, Long projectId, ReportPortalUser user);
 
+  /**
+   * Resolves the status of the items parents and their ancestors right away, every parent once
+   *
+   * @param childItems Items with the changed status
+   * @param projectId  Project id
+   * @param user       {@link ReportPortalUser}
+   */
+  void changeParentsStatus(Collection<TestItem> childItems, Long projectId,
+      ReportPortalUser user);
+
+  /**
+   * Resolves the launch status after the statuses of the parents changed with it
+   *
+   * @param launch {@link Launch}
+   */
   void changeLaunchStatus(Launch launch);
 }
@@ -0,0 +1,273 @@
+/*
+ * Copyright 2024 EPAM Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.epam.ta.reportportal.core.item.impl.status;
+
+import static com.epam.ta.reportportal.entity.enums.StatusEnum.FAILED;
+import static com.epam.ta.reportportal.entity.enums.StatusEnum.INFO;
+import static com.epam.ta.reportportal.entity.enums.StatusEnum.PASSED;
+import static com.epam.ta.reportportal.entity.enums.StatusEnum.SKIPPED;
+import static com.epam.ta.reportportal.entity.enums.StatusEnum.WARN;
+import static com.epam.ta.reportportal.ws.converter.converters.TestItemConverter.TO_ACTIVITY_RESOURCE;
+import static java.util.Optional.ofNullable;
+
+import com.epam.ta.reportportal.commons.ReportPortalUser;
+import com.epam.ta.reportportal.core.events.MessageBus;
+import com.epam.ta.reportportal.core.events.activity.item.TestItemStatusChangedEvent;
+import com.epam.ta.reportportal.dao.IssueEntityRepository;
+import com.epam.ta.reportportal.dao.LaunchRepository;
+import com.epam.ta.reportportal.dao.TestItemRepository;
+import com.epam.ta.reportportal.entity.enums.StatusEnum;
+import com.epam.ta.reportportal.entity.item.TestItem;
+import com.epam.ta.reportportal.entity.item.issue.IssueEntity;
+import com.epam.ta.reportportal.entity.launch.Launch;
+import com.epam.ta.reportportal.jooq.enums.JStatusEnum;
+import com.epam.ta.reportportal.model.activity.TestItemActivityResource;
+import com.google.common.collect.Lists;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.Set;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Rolls the statuses of the finished items up to their parents and the launch. The parents of the
+ * items changed in a transaction are collected by the launch and re-evaluated once before the
+ * transaction commits, the deepest parents first, so an ancestor of many items finished together
+ * is evaluated once instead of once per item. Outside a transaction the parents are evaluated
+ * right away.
+ */
+@Service
+public class ParentStatusRollup {
+
+  private final TestItemRepository testItemRepository;
+  private final IssueEntityRepository issueEntityRepository;
+  private final MessageBus messageBus;
+  private final LaunchRepository launchRepository;
+  private final Map<StatusEnum, StatusChangingStrategy> statusChangingStrategyMapping;
+
+  public ParentStatusRollup(TestItemRepository testItemRepository,
+      IssueEntityRepository issueEntityRepository, MessageBus messageBus,
+      LaunchRepository launchRepository,
+      Map<StatusEnum, StatusChangingStrategy> statusChangingStrategyMapping) {
+    this.testItemRepository = testItemRepository;
+    this.issueEntityRepository = issueEntityRepository;
+    this.messageBus = messageBus;
+    this.launchRepository = launchRepository;
+    this.statusChangingStrategyMapping = statusChangingStrategyMapping;
+  }
+
+  /**
+   * Marks the parent of the item to be re-evaluated
+   *
+   * @param childItem Item with the changed status
+   * @param projectId Project id
+   * @param user      User changed the status
+   */
+  public void addParent(TestItem childItem, Long projectId, ReportPortalUser user) {
+    if (childItem.getParentId() == null) {
+      return;
+    }
+    Rollup rollup = currentRollup();
+    rollup.addParent(childItem.getLaunchId(), childItem.getParentId(), projectId, user);
+    flushIfNotDeferred(rollup);
+  }
+
+  /**
+   * Marks the launch status to be re-evaluated after the parents of its items
+   *
+   * @param launch {@link Launch}
+   */
+  public void addLaunch(Launch launch) {
+    Rollup rollup = currentRollup();
+    rollup.addLaunch(launch);
+    flushIfNotDeferred(rollup);
+  }
+
+  /**
+   * Re-evaluates the parents and the launches collected in the current transaction
+   */
+  public void flush() {
+    ofNullable((Rollup) TransactionSynchronizationManager.getResource(this)).ifPresent(
+        Rollup::flush);
+  }
+
+  private Rollup currentRollup() {
+    if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+      return new Rollup(false);
+    }
+    Rollup rollup = (Rollup) TransactionSynchronizationManager.getResource(this);
+    if (rollup == null) {
+      rollup = new Rollup(true);
+      TransactionSynchronizationManager.bindResource(this, rollup);
+      TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+        @Override
+        public void beforeCommit(boolean readOnly) {
+          ParentStatusRollup.this.flush();
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+          TransactionSynchronizationManager.unbindResourceIfPossible(ParentStatusRollup.this);
+        }
+      });
+    }
+    return rollup;
+  }
+
+  private void flushIfNotDeferred(Rollup rollup) {
+    if (!rollup.deferred) {
+      rollup.flush();
+    }
+  }
+
+  private void rollUp(LaunchRollup launchRollup) {
+    PriorityQueue<TestItem> parents = new PriorityQueue<>(
+        Comparator.comparingInt((TestItem item) -> StringUtils.countMatches(item.getPath(), '.'))
+            .reversed().thenComparing(TestItem::getItemId));
+    Set<Long> queued = new HashSet<>(launchRollup.parentIds);
+    Lists.partition(new ArrayList<>(launchRollup.parentIds), 500)
+        .forEach(ids -> parents.addAll(testItemRepository.findAllById(ids)));
+    while (!parents.isEmpty()) {
+      TestItem parent = parents.poll();
+      if (changeStatus(parent, launchRollup.projectId, launchRollup.user)
+          && parent.getParentId() != null && queued.add(parent.getParentId())) {
+        testItemRepository.findById(parent.getParentId()).ifPresent(parents::add);
+      }
+    }
+    ofNullable(launchRollup.launch).ifPresent(this::changeLaunchStatus);
+  }
+
+  /**
+   * @return true if the status of the parent is changed
+   */
+  private boolean changeStatus(TestItem parent, Long projectId, ReportPortalUser user) {
+    if (parent.isHasChildren()) {
+      ofNullable(parent.getItemResults().getIssue()).map(IssueEntity::getIssueId)
+          .ifPresent(issueEntityRepository::deleteById);
+    }
+    if (isParentStatusUpdateRequired(parent)) {
+      StatusEnum resolvedStatus = resolveStatus(parent.getItemId());
+      if (parent.getItemResults().getStatus() != resolvedStatus) {
+        TestItemActivityResource before = TO_ACTIVITY_RESOURCE.apply(parent, projectId);
+        changeStatus(parent, resolvedStatus, user);
+        messageBus.publishActivity(
+            new TestItemStatusChangedEvent(before, TO_ACTIVITY_RESOURCE.apply(parent, projectId),
+                user.getUserId(), user.getUsername()
+            ));
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private boolean isParentStatusUpdateRequired(TestItem parent) {
+    return parent.getItemResults().getStatus() != StatusEnum.IN_PROGRESS
+        && parent.getItemResults().getStatus() != PASSED
+        && parent.getItemResults().getStatus() != FAILED
+        && parent.getItemResults().getStatus() != SKIPPED
+        && !testItemRepository.hasItemsInStatusByParent(parent.getItemId(), parent.getPath(),
+        StatusEnum.IN_PROGRESS.name());
+  }
+
+  private StatusEnum resolveStatus(Long itemId) {
+    return
+        testItemRepository.hasDescendantsNotInStatus(itemId, StatusEnum.PASSED.name(), INFO.name(),
+            WARN.name()
+        ) ? FAILED : PASSED;
+  }
+
+  private void changeStatus(TestItem parent, StatusEnum resolvedStatus, ReportPortalUser user) {
+    if (parent.isHasChildren() || !parent.isHasStats()) {
+      parent.getItemResults().setStatus(resolvedStatus);
+    } else {
+      Optional<StatusChangingStrategy> statusChangingStrategy =
+          ofNullable(statusChangingStrategyMapping.get(resolvedStatus));
+      if (statusChangingStrategy.isPresent()) {
+        statusChangingStrategy.get().changeStatus(parent, resolvedStatus, user, false);
+      } else {
+        parent.getItemResults().setStatus(resolvedStatus);
+      }
+    }
+  }
+
+  private void changeLaunchStatus(Launch launch) {
+    if (launch.getStatus() != StatusEnum.IN_PROGRESS) {
+      if (!launchRepository.hasItemsInStatuses(launch.getId(),
+          Lists.newArrayList(JStatusEnum.IN_PROGRESS)
+      )) {
+        StatusEnum launchStatus = launchRepository.hasRootItemsWithStatusNotEqual(launch.getId(),
+            StatusEnum.PASSED.name(), INFO.name(), WARN.name()
+        ) ? FAILED : PASSED;
+        launch.setStatus(launchStatus);
+      }
+    }
+  }
+
+  /**
+   * Parents and launches to re-evaluate, by the launch id
+   */
+  private class Rollup {
+
+    private final boolean deferred;
+
+    private final Map<Long, LaunchRollup> launches = new LinkedHashMap<>();
+
+    private Rollup(boolean deferred) {
+      this.deferred = deferred;
+    }
+
+    private void addParent(Long launchId, Long parentId, Long projectId, ReportPortalUser user) {
+      LaunchRollup launchRollup = launches.computeIfAbsent(launchId, id -> new LaunchRollup());
+      launchRollup.parentIds.add(parentId);
+      launchRollup.projectId = projectId;
+      launchRollup.user = user;
+    }
+
+    private void addLaunch(Launch launch) {
+      launches.computeIfAbsent(launch.getId(), id -> new LaunchRollup()).launch = launch;
+    }
+
+    private void flush() {
+      while (!launches.isEmpty()) {
+        Map<Long, LaunchRollup> flushed = new HashMap<>(launches);
+        launches.clear();
+        flushed.values().forEach(ParentStatusRollup.this::rollUp);
+      }
+    }
+  }
+
+  private static class LaunchRollup {
+
+    private final Set<Long> parentIds = new HashSet<>();
+
+    private Long projectId;
+
+    private ReportPortalUser user;
+
+    private Launch launch;
+  }
+}
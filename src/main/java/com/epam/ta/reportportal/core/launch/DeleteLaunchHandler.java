@@ -19,6 +19,7 @@ package com.epam.ta.reportportal.core.launch;
 import com.epam.ta.reportportal.commons.ReportPortalUser;
 import com.epam.ta.reportportal.model.DeleteBulkRQ;
 import com.epam.ta.reportportal.model.DeleteBulkRS;
+import com.epam.ta.reportportal.model.launch.LaunchDeletionRS;
 import com.epam.ta.reportportal.ws.reporting.OperationCompletionRS;
 import java.util.List;
 
@@ -43,7 +44,7 @@ public interface DeleteLaunchHandler {
       ReportPortalUser user);
 
   /**
-   * Bulk launches delete.
+   * Bulk launches delete. Launches are hidden from the launch lists and deleted in background.
    *
    * @param ids   list of launch ids
    * @param projectDetails Project Details
@@ -52,4 +53,14 @@ public interface DeleteLaunchHandler {
    */
   DeleteBulkRS deleteLaunches(List<Long> ids,
       ReportPortalUser.ProjectDetails projectDetails, ReportPortalUser user);
+
+  /**
+   * Progress of the launches deletion.
+   *
+   * @param ids            list of launch ids
+   * @param projectDetails Project Details
+   * @return Progress of the deletion of the launches requested for deletion
+   */
+  List<LaunchDeletionRS> getDeletionProgress(List<Long> ids,
+      ReportPortalUser.ProjectDetails projectDetails);
 }
\ No newline at end of file
@@ -18,7 +18,7 @@ package com.epam.ta.reportportal.core.launch.cluster;
 
 import static com.epam.reportportal.rules.commons.validation.BusinessRule.expect;
 
-import com.epam.ta.reportportal.core.analyzer.auto.impl.AnalyzerStatusCache;
+import com.epam.ta.reportportal.core.analyzer.auto.impl.AnalysisStateRegistry;
 import com.epam.ta.reportportal.core.launch.cluster.config.ClusterEntityContext;
 import com.epam.ta.reportportal.core.launch.cluster.config.GenerateClustersConfig;
 import com.epam.ta.reportportal.pipeline.PipelineConstructor;
@@ -40,16 +40,16 @@ public class UniqueErrorGenerator implements ClusterGenerator {
 
   private static final Logger LOGGER = LoggerFactory.getLogger(UniqueErrorGeneratorAsync.class);
 
-  private final AnalyzerStatusCache analyzerStatusCache;
+  private final AnalysisStateRegistry analysisStateRegistry;
 
   private final PipelineConstructor<GenerateClustersConfig> generateClustersPipelineConstructor;
   private final TransactionalPipeline transactionalPipeline;
 
   @Autowired
-  public UniqueErrorGenerator(AnalyzerStatusCache analyzerStatusCache,
+  public UniqueErrorGenerator(AnalysisStateRegistry analysisStateRegistry,
       PipelineConstructor<GenerateClustersConfig> generateClustersPipelineConstructor,
       TransactionalPipeline transactionalPipeline) {
-    this.analyzerStatusCache = analyzerStatusCache;
+    this.analysisStateRegistry = analysisStateRegistry;
     this.generateClustersPipelineConstructor = generateClustersPipelineConstructor;
     this.transactionalPipeline = transactionalPipeline;
   }
@@ -61,15 +61,9 @@ public class UniqueErrorGenerator implements ClusterGenerator {
   }
 
   protected void fillCache(ClusterEntityContext entityContext) {
-    checkDuplicate(entityContext);
-    analyzerStatusCache.analyzeStarted(AnalyzerStatusCache.CLUSTER_KEY, entityContext.getLaunchId(),
-        entityContext.getProjectId());
-  }
-
-  private void checkDuplicate(ClusterEntityContext entityContext) {
-    expect(analyzerStatusCache.containsLaunchId(AnalyzerStatusCache.CLUSTER_KEY,
-            entityContext.getLaunchId()),
-        Predicate.isEqual(false)
+    expect(analysisStateRegistry.analyzeStarted(AnalysisStateRegistry.CLUSTER_KEY,
+            entityContext.getLaunchId(), entityContext.getProjectId()),
+        Predicate.isEqual(true)
     ).verify(ErrorType.UNABLE_INTERACT_WITH_INTEGRATION, "Clusters creation is in progress.");
   }
 
@@ -86,7 +80,7 @@ public class UniqueErrorGenerator implements ClusterGenerator {
   }
 
   protected void cleanCache(ClusterEntityContext entityContext) {
-    analyzerStatusCache.analyzeFinished(AnalyzerStatusCache.CLUSTER_KEY,
+    analysisStateRegistry.analyzeFinished(AnalysisStateRegistry.CLUSTER_KEY,
         entityContext.getLaunchId());
   }
 
@@ -16,7 +16,7 @@
 
 package com.epam.ta.reportportal.core.launch.cluster;
 
-import com.epam.ta.reportportal.core.analyzer.auto.impl.AnalyzerStatusCache;
+import com.epam.ta.reportportal.core.analyzer.auto.impl.AnalysisStateRegistry;
 import com.epam.ta.reportportal.core.launch.cluster.config.GenerateClustersConfig;
 import com.epam.ta.reportportal.pipeline.PipelineConstructor;
 import com.epam.ta.reportportal.pipeline.TransactionalPipeline;
@@ -38,11 +38,11 @@ public class UniqueErrorGeneratorAsync extends UniqueErrorGenerator {
   private final TaskExecutor logClusterExecutor;
 
   @Autowired
-  public UniqueErrorGeneratorAsync(AnalyzerStatusCache analyzerStatusCache,
+  public UniqueErrorGeneratorAsync(AnalysisStateRegistry analysisStateRegistry,
       PipelineConstructor<GenerateClustersConfig> generateClustersPipelineConstructor,
       TransactionalPipeline transactionalPipeline,
       @Qualifier(value = "logClusterExecutor") TaskExecutor logClusterExecutor) {
-    super(analyzerStatusCache, generateClustersPipelineConstructor, transactionalPipeline);
+    super(analysisStateRegistry, generateClustersPipelineConstructor, transactionalPipeline);
     this.logClusterExecutor = logClusterExecutor;
   }
 
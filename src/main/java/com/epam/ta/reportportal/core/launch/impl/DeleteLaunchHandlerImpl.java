@@ -42,7 +42,7 @@ import com.epam.ta.reportportal.entity.launch.Launch;
 import com.epam.ta.reportportal.entity.user.UserRole;
 import com.epam.reportportal.rules.exception.ReportPortalException;
 import com.epam.ta.reportportal.model.DeleteBulkRS;
-import com.epam.ta.reportportal.model.activity.LaunchActivityResource;
+import com.epam.ta.reportportal.model.launch.LaunchDeletionRS;
 import com.epam.reportportal.rules.exception.ErrorRS;
 import com.epam.reportportal.rules.exception.ErrorType;
 import com.epam.ta.reportportal.ws.reporting.OperationCompletionRS;
@@ -84,11 +84,14 @@ public class DeleteLaunchHandlerImpl implements DeleteLaunchHandler {
 
   private final LogService logService;
 
+  private final LaunchDeletionService launchDeletionService;
+
   @Autowired
   public DeleteLaunchHandlerImpl(ContentRemover<Launch> launchContentRemover,
       LaunchRepository launchRepository, MessageBus messageBus, LogIndexer logIndexer,
       AttachmentRepository attachmentRepository, ApplicationEventPublisher eventPublisher,
-      ElementsCounterService elementsCounterService, LogService logService) {
+      ElementsCounterService elementsCounterService, LogService logService,
+      LaunchDeletionService launchDeletionService) {
     this.launchContentRemover = launchContentRemover;
     this.launchRepository = launchRepository;
     this.messageBus = messageBus;
@@ -97,6 +100,7 @@ public class DeleteLaunchHandlerImpl implements DeleteLaunchHandler {
     this.eventPublisher = eventPublisher;
     this.elementsCounterService = elementsCounterService;
     this.logService = logService;
+    this.launchDeletionService = launchDeletionService;
   }
 
   public OperationCompletionRS deleteLaunch(Long launchId,
@@ -148,23 +152,9 @@ public class DeleteLaunchHandlerImpl implements DeleteLaunchHandler {
     });
 
     if (CollectionUtils.isNotEmpty(launchIds)) {
-      logIndexer.indexLaunchesRemove(projectDetails.getProjectId(), launchIds);
-      toDelete.keySet().forEach(launchContentRemover::remove);
-      logService.deleteLogMessageByLaunchList(projectDetails.getProjectId(), launchIds);
-      launchRepository.deleteAll(toDelete.keySet());
-      attachmentRepository.moveForDeletionByLaunchIds(launchIds);
+      launchDeletionService.schedule(toDelete, user);
     }
 
-    toDelete.entrySet().forEach(entry -> {
-      LaunchActivityResource launchActivity = TO_ACTIVITY_RESOURCE.apply(entry.getKey());
-      messageBus.publishActivity(
-          new LaunchDeletedEvent(launchActivity, user.getUserId(), user.getUsername()));
-      eventPublisher.publishEvent(
-          new ElementsDeletedEvent(entry.getKey().getId(), entry.getKey().getProjectId(),
-              entry.getValue()
-          ));
-    });
-
     return new DeleteBulkRS(launchIds, notFound, exceptions.stream().map(ex -> {
       ErrorRS errorResponse = new ErrorRS();
       errorResponse.setErrorType(ex.getErrorType());
@@ -173,6 +163,12 @@ public class DeleteLaunchHandlerImpl implements DeleteLaunchHandler {
     }).collect(Collectors.toList()));
   }
 
+  @Override
+  public List<LaunchDeletionRS> getDeletionProgress(List<Long> ids,
+      ReportPortalUser.ProjectDetails projectDetails) {
+    return launchDeletionService.getProgress(projectDetails.getProjectId(), ids);
+  }
+
   /**
    * Validate user credentials and {@link Launch#getStatus()}
    *
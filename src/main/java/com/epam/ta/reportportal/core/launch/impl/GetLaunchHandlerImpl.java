@@ -120,6 +120,7 @@ public class GetLaunchHandlerImpl implements GetLaunchHandler {
   private final GetJasperReportHandler<Launch> jasperReportHandler;
   private final LaunchConverter launchConverter;
   private final ApplicationEventPublisher applicationEventPublisher;
+  private final LaunchDeletionService launchDeletionService;
 
   @Autowired
   public GetLaunchHandlerImpl(GetClusterHandler getClusterHandler,
@@ -128,7 +129,8 @@ public class GetLaunchHandlerImpl implements GetLaunchHandler {
       WidgetContentRepository widgetContentRepository, UserRepository userRepository,
       JasperDataProvider dataProvider,
       @Qualifier("launchJasperReportHandler") GetJasperReportHandler<Launch> jasperReportHandler,
-      LaunchConverter launchConverter, ApplicationEventPublisher applicationEventPublisher) {
+      LaunchConverter launchConverter, ApplicationEventPublisher applicationEventPublisher,
+      LaunchDeletionService launchDeletionService) {
     this.getClusterHandler = getClusterHandler;
     this.launchRepository = launchRepository;
     this.testItemRepository = testItemRepository;
@@ -140,6 +142,7 @@ public class GetLaunchHandlerImpl implements GetLaunchHandler {
     this.jasperReportHandler = jasperReportHandler;
     this.launchConverter = launchConverter;
     this.applicationEventPublisher = applicationEventPublisher;
+    this.launchDeletionService = launchDeletionService;
   }
 
   @Override
@@ -194,7 +197,7 @@ public class GetLaunchHandlerImpl implements GetLaunchHandler {
             projectDetails.getProjectId()
         ));
 
-    filter = addLaunchCommonCriteria(Mode.DEFAULT, filter);
+    filter = addLaunchCommonCriteria(Mode.DEFAULT, filter, project.getId());
     Page<Launch> launches =
         launchRepository.findByFilter(ProjectFilter.of(filter, project.getId()), pageable);
     return getLaunchResources(launches);
@@ -208,7 +211,7 @@ public class GetLaunchHandlerImpl implements GetLaunchHandler {
   public Iterable<LaunchResource> getDebugLaunches(ReportPortalUser.ProjectDetails projectDetails,
       Filter filter, Pageable pageable) {
     validateModeConditions(filter);
-    filter = addLaunchCommonCriteria(Mode.DEBUG, filter);
+    filter = addLaunchCommonCriteria(Mode.DEBUG, filter, projectDetails.getProjectId());
     Page<Launch> launches =
         launchRepository.findByFilter(ProjectFilter.of(filter, projectDetails.getProjectId()),
             pageable
@@ -243,7 +246,7 @@ public class GetLaunchHandlerImpl implements GetLaunchHandler {
             projectDetails.getProjectId()
         ));
 
-    filter = addLaunchCommonCriteria(Mode.DEFAULT, filter);
+    filter = addLaunchCommonCriteria(Mode.DEFAULT, filter, project.getId());
 
     Page<Launch> launches =
         launchRepository.findAllLatestByFilter(ProjectFilter.of(filter, project.getId()), pageable);
@@ -372,14 +375,24 @@ public class GetLaunchHandlerImpl implements GetLaunchHandler {
   }
 
   /**
-   * Add to filter project and mode criteria
+   * Add to filter the mode criteria and hide the launches of the project which are being deleted
    *
-   * @param filter Filter to update
+   * @param mode      Launch mode to filter by
+   * @param filter    Filter to update
+   * @param projectId Id of the project whose deleting launches are hidden
    * @return Updated filter
    */
-  private Filter addLaunchCommonCriteria(Mode mode, Filter filter) {
-    return ofNullable(filter).orElseGet(() -> new Filter(Launch.class, Lists.newArrayList()))
-        .withCondition(FilterCondition.builder().eq(CRITERIA_LAUNCH_MODE, mode.name()).build());
+  private Filter addLaunchCommonCriteria(Mode mode, Filter filter, Long projectId) {
+    Filter launchFilter =
+        ofNullable(filter).orElseGet(() -> new Filter(Launch.class, Lists.newArrayList()))
+            .withCondition(
+                FilterCondition.builder().eq(CRITERIA_LAUNCH_MODE, mode.name()).build());
+    List<Long> deletingIds = launchDeletionService.getDeletingIds(projectId);
+    if (!deletingIds.isEmpty()) {
+      launchFilter.withCondition(
+          FilterCondition.builder().in(CRITERIA_ID, deletingIds).withNegative(true).build());
+    }
+    return launchFilter;
   }
 
   /**
@@ -0,0 +1,553 @@
+/*
+ * Copyright 2024 EPAM Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.ta.reportportal.core.launch.impl;
+
+import static com.epam.reportportal.rules.commons.validation.BusinessRule.expect;
+import static com.epam.reportportal.rules.commons.validation.Suppliers.formattedSupplier;
+import static com.epam.reportportal.rules.exception.ErrorType.FORBIDDEN_OPERATION;
+
+import com.epam.reportportal.events.ElementsDeletedEvent;
+import com.epam.ta.reportportal.commons.ReportPortalUser;
+import com.epam.ta.reportportal.core.analyzer.auto.LogIndexer;
+import com.epam.ta.reportportal.core.events.MessageBus;
+import com.epam.ta.reportportal.core.events.activity.LaunchDeletedEvent;
+import com.epam.ta.reportportal.core.log.LogService;
+import com.epam.ta.reportportal.core.remover.ContentRemover;
+import com.epam.ta.reportportal.dao.AttachmentRepository;
+import com.epam.ta.reportportal.entity.launch.Launch;
+import com.epam.ta.reportportal.model.activity.LaunchActivityResource;
+import com.epam.ta.reportportal.model.launch.LaunchDeletionRS;
+import com.google.common.collect.Lists;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+import javax.annotation.PreDestroy;
+import org.apache.commons.lang3.exception.ExceptionUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Deletes launches in background. A launch requested for deletion is stored in the
+ * 'launch_deletion' table, hidden from the launch lists and locked for the changes, then its
+ * items, logs and attachments are removed in chunks, every chunk in its own transaction, level by
+ * level starting from the deepest one. The launch is deleted by the instance holding its lease,
+ * which is prolonged with every chunk, so a deletion interrupted by a crash is resumed by any
+ * instance after the lease expires. A failed deletion is retried 'max-attempts' times, after that
+ * the launch is shown again along with the error of the deletion.
+ * <p>
+ * The deletions are performed by the dedicated executor, a limited number of launches per run, and
+ * an instance being stopped releases the launch it deletes.
+ */
+@Service
+public class LaunchDeletionService {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(LaunchDeletionService.class);
+
+  /**
+   * Deletion which is performed or is going to be retried
+   */
+  private static final String DELETING_CONDITION =
+      "(state IN ('QUEUED', 'IN_PROGRESS') OR (state = 'FAILED' AND attempts < :maxAttempts))";
+
+  private static final String SCHEDULE_QUERY =
+      "INSERT INTO launch_deletion (launch_id, project_id, elements, state, launch_name, "
+          + "user_id, user_login) VALUES (:launchId, :projectId, :elements, 'QUEUED', "
+          + ":launchName, :userId, :userLogin) "
+          + "ON CONFLICT (launch_id) DO UPDATE SET state = 'QUEUED', error = NULL, attempts = 0, "
+          + "user_id = excluded.user_id, user_login = excluded.user_login, updated_at = now() "
+          + "WHERE launch_deletion.state = 'FAILED'";
+
+  private static final String SCHEDULE_BY_PROJECT_QUERY =
+      "INSERT INTO launch_deletion (launch_id, project_id, state) "
+          + "SELECT l.id, l.project_id, 'QUEUED' FROM launch l WHERE l.project_id = :projectId "
+          + "AND NOT EXISTS (SELECT 1 FROM launch_deletion d WHERE d.launch_id = l.id) "
+          + "ORDER BY l.id LIMIT :limit ON CONFLICT (launch_id) DO NOTHING";
+
+  private static final String RETRY_FAILED_QUERY =
+      "UPDATE launch_deletion SET state = 'QUEUED', error = NULL, attempts = 0, "
+          + "updated_at = now() WHERE project_id = :projectId AND state = 'FAILED'";
+
+  private static final String DELETING_IDS_QUERY =
+      "SELECT launch_id FROM launch_deletion WHERE project_id = :projectId AND "
+          + DELETING_CONDITION;
+
+  private static final String DELETING_OF_QUERY =
+      "SELECT launch_id FROM launch_deletion WHERE launch_id IN (:launchIds) AND "
+          + DELETING_CONDITION + " ORDER BY launch_id";
+
+  private static final String FAILED_OF_PROJECT_QUERY =
+      "SELECT launch_id, error FROM launch_deletion WHERE project_id = :projectId "
+          + "AND state = 'FAILED' AND attempts >= :maxAttempts ORDER BY launch_id LIMIT 1";
+
+  private static final String PROGRESS_QUERY =
+      "SELECT launch_id, state, items_total, items_deleted, error FROM launch_deletion "
+          + "WHERE project_id = :projectId AND launch_id IN (:launchIds) ORDER BY launch_id";
+
+  private static final String CLAIM_QUERY =
+      "UPDATE launch_deletion SET state = 'IN_PROGRESS', owner = :owner, "
+          + "lease_until = now() + make_interval(secs => :lease), updated_at = now() "
+          + "WHERE launch_id = (SELECT launch_id FROM launch_deletion WHERE state = 'QUEUED' "
+          + "OR (state = 'IN_PROGRESS' AND lease_until < now()) "
+          + "OR (state = 'FAILED' AND attempts < :maxAttempts "
+          + "AND updated_at < now() - make_interval(secs => :retryDelay)) "
+          + "ORDER BY created_at LIMIT 1 FOR UPDATE SKIP LOCKED) "
+          + "RETURNING launch_id, project_id, elements, launch_name, user_id, user_login";
+
+  private static final String COUNT_ITEMS_QUERY =
+      "UPDATE launch_deletion SET items_total = (SELECT count(*) FROM test_item "
+          + "WHERE launch_id = :launchId) WHERE launch_id = :launchId AND items_total IS NULL";
+
+  private static final String LEVELS_QUERY =
+      "SELECT DISTINCT nlevel(path) AS level FROM test_item WHERE launch_id = :launchId "
+          + "ORDER BY level DESC";
+
+  private static final String LEVEL_ITEMS_QUERY =
+      "SELECT item_id FROM test_item WHERE launch_id = :launchId AND nlevel(path) = :level "
+          + "ORDER BY item_id";
+
+  private static final String RETRIES_QUERY =
+      "SELECT item_id FROM test_item WHERE retry_of IN (:itemIds)";
+
+  private static final String DELETE_ITEM_LOGS_QUERY =
+      "DELETE FROM log WHERE item_id IN (:itemIds)";
+
+  private static final String DELETE_ITEMS_QUERY =
+      "DELETE FROM test_item WHERE item_id IN (:itemIds)";
+
+  private static final String DELETE_LAUNCH_LOGS_QUERY =
+      "DELETE FROM log WHERE id IN (SELECT id FROM log WHERE launch_id = :launchId "
+          + "LIMIT :limit)";
+
+  private static final String RENEW_QUERY =
+      "UPDATE launch_deletion SET items_deleted = items_deleted + :deleted, "
+          + "lease_until = now() + make_interval(secs => :lease), updated_at = now() "
+          + "WHERE launch_id = :launchId AND owner = :owner AND state = 'IN_PROGRESS'";
+
+  private static final String DELETE_LAUNCH_QUERY = "DELETE FROM launch WHERE id = :launchId";
+
+  private static final String FINISH_QUERY =
+      "UPDATE launch_deletion SET state = :state, error = :error, attempts = attempts + :failed, "
+          + "owner = NULL, lease_until = NULL, updated_at = now() "
+          + "WHERE launch_id = :launchId AND owner = :owner";
+
+  private static final String RELEASE_QUERY =
+      "UPDATE launch_deletion SET state = 'QUEUED', owner = NULL, lease_until = NULL, "
+          + "updated_at = now() WHERE launch_id = :launchId AND owner = :owner";
+
+  private static final String CLEAN_QUERY =
+      "DELETE FROM launch_deletion WHERE state = 'DONE' "
+          + "AND updated_at < now() - interval '1 day'";
+
+  public enum State {
+    QUEUED, IN_PROGRESS, DONE, FAILED
+  }
+
+  private final NamedParameterJdbcTemplate jdbcTemplate;
+
+  private final TransactionTemplate transactionTemplate;
+
+  private final ContentRemover<Launch> launchContentRemover;
+
+  private final LogIndexer logIndexer;
+
+  private final LogService logService;
+
+  private final AttachmentRepository attachmentRepository;
+
+  private final ApplicationEventPublisher eventPublisher;
+
+  private final MessageBus messageBus;
+
+  private final TaskExecutor executor;
+
+  private final String owner = UUID.randomUUID().toString();
+
+  private final AtomicBoolean running = new AtomicBoolean();
+
+  private volatile boolean stopping;
+
+  private final int chunkSize;
+
+  private final long leaseSeconds;
+
+  private final int launchesPerRun;
+
+  private final int maxAttempts;
+
+  private final long retryDelaySeconds;
+
+  public LaunchDeletionService(NamedParameterJdbcTemplate jdbcTemplate,
+      PlatformTransactionManager transactionManager, ContentRemover<Launch> launchContentRemover,
+      LogIndexer logIndexer, LogService logService, AttachmentRepository attachmentRepository,
+      ApplicationEventPublisher eventPublisher, MessageBus messageBus,
+      @Qualifier("deletionTaskExecutor") TaskExecutor executor,
+      @Value("${rp.launch.deletion.chunk-size:500}") int chunkSize,
+      @Value("${rp.launch.deletion.lease:300}") long leaseSeconds,
+      @Value("${rp.launch.deletion.launches-per-run:20}") int launchesPerRun,
+      @Value("${rp.launch.deletion.max-attempts:3}") int maxAttempts,
+      @Value("${rp.launch.deletion.retry-delay:300}") long retryDelaySeconds) {
+    this.jdbcTemplate = jdbcTemplate;
+    this.transactionTemplate = new TransactionTemplate(transactionManager);
+    this.launchContentRemover = launchContentRemover;
+    this.logIndexer = logIndexer;
+    this.logService = logService;
+    this.attachmentRepository = attachmentRepository;
+    this.eventPublisher = eventPublisher;
+    this.messageBus = messageBus;
+    this.executor = executor;
+    this.chunkSize = chunkSize;
+    this.leaseSeconds = leaseSeconds;
+    this.launchesPerRun = launchesPerRun;
+    this.maxAttempts = maxAttempts;
+    this.retryDelaySeconds = retryDelaySeconds;
+  }
+
+  /**
+   * Stops the deletion after the current chunk, the launch is released to be resumed by another
+   * instance
+   */
+  @PreDestroy
+  public void stop() {
+    stopping = true;
+  }
+
+  /**
+   * Queues the launches for deletion, in the transaction of the caller. A launch with the failed
+   * deletion is queued again. The activity of the deletion is published when the launch is
+   * deleted.
+   *
+   * @param launches Launches with the number of their elements
+   * @param user     User requested the deletion
+   */
+  public void schedule(Map<Launch, Long> launches, ReportPortalUser user) {
+    jdbcTemplate.batchUpdate(SCHEDULE_QUERY, launches.entrySet().stream()
+        .map(entry -> new MapSqlParameterSource()
+            .addValue("launchId", entry.getKey().getId())
+            .addValue("projectId", entry.getKey().getProjectId())
+            .addValue("elements", entry.getValue())
+            .addValue("launchName", entry.getKey().getName() + " #" + entry.getKey().getNumber())
+            .addValue("userId", user.getUserId())
+            .addValue("userLogin", user.getUsername()))
+        .toArray(SqlParameterSource[]::new));
+  }
+
+  /**
+   * Queues the launches of the project which are not queued yet. The failed deletions are retried
+   * by the deletion itself.
+   *
+   * @param projectId Project id
+   * @param limit     Max number of the launches to queue
+   * @return Number of the queued launches
+   */
+  public int scheduleByProject(Long projectId, int limit) {
+    return jdbcTemplate.update(SCHEDULE_BY_PROJECT_QUERY, new MapSqlParameterSource()
+        .addValue("projectId", projectId)
+        .addValue("limit", limit));
+  }
+
+  /**
+   * Queues the failed deletions of the launches of the project again, with all the attempts
+   *
+   * @param projectId Project id
+   */
+  public void retryFailed(Long projectId) {
+    jdbcTemplate.update(RETRY_FAILED_QUERY, new MapSqlParameterSource("projectId", projectId));
+  }
+
+  /**
+   * @param projectId Project id
+   * @return Ids of the launches of the project which are being deleted or which deletion is going
+   * to be retried
+   */
+  public List<Long> getDeletingIds(Long projectId) {
+    return jdbcTemplate.queryForList(DELETING_IDS_QUERY, new MapSqlParameterSource()
+        .addValue("projectId", projectId)
+        .addValue("maxAttempts", maxAttempts), Long.class);
+  }
+
+  /**
+   * Verifies that none of the launches is being deleted, so the launch can be changed
+   *
+   * @param launchIds Launch ids
+   */
+  public void verifyNotDeleting(Collection<Long> launchIds) {
+    if (launchIds.isEmpty()) {
+      return;
+    }
+    List<Long> deleting = jdbcTemplate.queryForList(DELETING_OF_QUERY, new MapSqlParameterSource()
+        .addValue("launchIds", launchIds)
+        .addValue("maxAttempts", maxAttempts), Long.class);
+    expect(deleting, List::isEmpty).verify(FORBIDDEN_OPERATION,
+        formattedSupplier("Launches '{}' are being deleted", deleting));
+  }
+
+  /**
+   * @param projectId Project id
+   * @return Error of a launch of the project which deletion has failed all the attempts
+   */
+  public Optional<String> getFailure(Long projectId) {
+    return jdbcTemplate.query(FAILED_OF_PROJECT_QUERY, new MapSqlParameterSource()
+            .addValue("projectId", projectId)
+            .addValue("maxAttempts", maxAttempts),
+        (rs, rowNum) -> "Deletion of the launch " + rs.getLong("launch_id") + " has failed: "
+            + rs.getString("error")).stream().findFirst();
+  }
+
+  /**
+   * @param projectId Project id
+   * @param launchIds Ids of the launches requested for deletion
+   * @return Progress of the deletion of every launch requested for deletion
+   */
+  public List<LaunchDeletionRS> getProgress(Long projectId, Collection<Long> launchIds) {
+    return jdbcTemplate.query(PROGRESS_QUERY, new MapSqlParameterSource()
+        .addValue("projectId", projectId)
+        .addValue("launchIds", launchIds), (rs, rowNum) -> new LaunchDeletionRS(
+        rs.getLong("launch_id"),
+        rs.getString("state"),
+        (Long) rs.getObject("items_total"),
+        rs.getLong("items_deleted"),
+        rs.getString("error")
+    ));
+  }
+
+  /**
+   * Starts the deletion of the queued launches by the dedicated executor, unless the previous run
+   * is still in progress
+   */
+  @Scheduled(fixedDelayString = "${rp.launch.deletion.interval:10000}")
+  public void deleteQueued() {
+    if (stopping || !running.compareAndSet(false, true)) {
+      return;
+    }
+    try {
+      executor.execute(() -> {
+        try {
+          deleteBatch();
+        } finally {
+          running.set(false);
+        }
+      });
+    } catch (TaskRejectedException e) {
+      running.set(false);
+      LOGGER.warn("Deletion of the launches has been rejected: {}", e.getMessage());
+    }
+  }
+
+  /**
+   * Deletes up to 'launches-per-run' of the queued launches, the failed launches to be retried and
+   * the launches with the expired lease, one by one
+   */
+  private void deleteBatch() {
+    jdbcTemplate.update(CLEAN_QUERY, new MapSqlParameterSource());
+    Optional<Deletion> deletion;
+    for (int deleted = 0; deleted < launchesPerRun && !stopping; deleted++) {
+      deletion = claim();
+      if (deletion.isEmpty()) {
+        return;
+      }
+      delete(deletion.get());
+    }
+  }
+
+  private Optional<Deletion> claim() {
+    return jdbcTemplate.query(CLAIM_QUERY, new MapSqlParameterSource()
+        .addValue("owner", owner)
+        .addValue("lease", leaseSeconds)
+        .addValue("maxAttempts", maxAttempts)
+        .addValue("retryDelay", retryDelaySeconds), (rs, rowNum) -> {
+      Deletion deletion = new Deletion(rs.getLong("launch_id"), rs.getLong("project_id"),
+          rs.getLong("elements"));
+      deletion.launchName = rs.getString("launch_name");
+      deletion.userId = (Long) rs.getObject("user_id");
+      deletion.userLogin = rs.getString("user_login");
+      return deletion;
+    }).stream().findFirst();
+  }
+
+  private void delete(Deletion deletion) {
+    try {
+      logIndexer.indexLaunchesRemove(deletion.projectId, List.of(deletion.launchId));
+      logService.deleteLogMessageByLaunch(deletion.projectId, deletion.launchId);
+      transactionTemplate.executeWithoutResult(status -> {
+        launchContentRemover.remove(new Launch(deletion.launchId));
+        jdbcTemplate.update(COUNT_ITEMS_QUERY,
+            new MapSqlParameterSource("launchId", deletion.launchId));
+      });
+      deleteItems(deletion);
+      while (deleteLaunchLogs(deletion) > 0) {
+        LOGGER.debug("Chunk of logs of the launch {} has been deleted", deletion.launchId);
+      }
+      transactionTemplate.executeWithoutResult(status -> {
+        attachmentRepository.moveForDeletionByLaunchId(deletion.launchId);
+        jdbcTemplate.update(DELETE_LAUNCH_QUERY,
+            new MapSqlParameterSource("launchId", deletion.launchId));
+        finish(deletion, State.DONE, null);
+        eventPublisher.publishEvent(
+            new ElementsDeletedEvent(deletion.launchId, deletion.projectId, deletion.elements));
+      });
+      publishActivity(deletion);
+    } catch (LeaseLostException e) {
+      LOGGER.warn("Deletion of the launch {} has been taken over by another instance",
+          deletion.launchId);
+    } catch (StoppedException e) {
+      LOGGER.info("Deletion of the launch {} has been stopped", deletion.launchId);
+      jdbcTemplate.update(RELEASE_QUERY, new MapSqlParameterSource()
+          .addValue("launchId", deletion.launchId)
+          .addValue("owner", owner));
+    } catch (Exception e) {
+      LOGGER.error("Deletion of the launch {} has been failed", deletion.launchId, e);
+      finish(deletion, State.FAILED, ExceptionUtils.getMessage(e));
+    }
+  }
+
+  /**
+   * Deletes the items level by level starting from the deepest one, so the items of a chunk don't
+   * have the descendants left. The ids of every level are read once.
+   */
+  private void deleteItems(Deletion deletion) {
+    MapSqlParameterSource params = new MapSqlParameterSource("launchId", deletion.launchId);
+    List<Integer> levels = jdbcTemplate.queryForList(LEVELS_QUERY, params, Integer.class);
+    for (Integer level : levels) {
+      List<Long> itemIds = jdbcTemplate.queryForList(LEVEL_ITEMS_QUERY,
+          new MapSqlParameterSource("launchId", deletion.launchId).addValue("level", level),
+          Long.class);
+      for (List<Long> chunk : Lists.partition(itemIds, chunkSize)) {
+        checkStopping();
+        int deleted = deleteItems(deletion, chunk);
+        LOGGER.debug("{} items of the launch {} have been deleted", deleted, deletion.launchId);
+      }
+    }
+  }
+
+  /**
+   * @return Number of the deleted items
+   */
+  private int deleteItems(Deletion deletion, List<Long> itemIds) {
+    return transactionTemplate.execute(status -> {
+      List<Long> withRetries = new ArrayList<>(itemIds);
+      withRetries.addAll(jdbcTemplate.queryForList(RETRIES_QUERY,
+          new MapSqlParameterSource("itemIds", itemIds), Long.class));
+      attachmentRepository.moveForDeletionByItems(withRetries);
+      MapSqlParameterSource params = new MapSqlParameterSource("itemIds", withRetries);
+      jdbcTemplate.update(DELETE_ITEM_LOGS_QUERY, params);
+      int deleted = jdbcTemplate.update(DELETE_ITEMS_QUERY, params);
+      renew(deletion, deleted);
+      return deleted;
+    });
+  }
+
+  /**
+   * @return Number of the deleted logs
+   */
+  private int deleteLaunchLogs(Deletion deletion) {
+    checkStopping();
+    return transactionTemplate.execute(status -> {
+      int deleted = jdbcTemplate.update(DELETE_LAUNCH_LOGS_QUERY, new MapSqlParameterSource()
+          .addValue("launchId", deletion.launchId)
+          .addValue("limit", chunkSize));
+      renew(deletion, 0);
+      return deleted;
+    });
+  }
+
+  private void checkStopping() {
+    if (stopping) {
+      throw new StoppedException();
+    }
+  }
+
+  private void renew(Deletion deletion, int deleted) {
+    int renewed = jdbcTemplate.update(RENEW_QUERY, new MapSqlParameterSource()
+        .addValue("deleted", deleted)
+        .addValue("lease", leaseSeconds)
+        .addValue("launchId", deletion.launchId)
+        .addValue("owner", owner));
+    if (renewed == 0) {
+      throw new LeaseLostException();
+    }
+  }
+
+  private void finish(Deletion deletion, State state, String error) {
+    jdbcTemplate.update(FINISH_QUERY, new MapSqlParameterSource()
+        .addValue("state", state.name())
+        .addValue("error", error)
+        .addValue("failed", state == State.FAILED ? 1 : 0)
+        .addValue("launchId", deletion.launchId)
+        .addValue("owner", owner));
+  }
+
+  /**
+   * Publishes the activity of the launch deleted by the user, the launches of the deleted project
+   * don't have it
+   */
+  private void publishActivity(Deletion deletion) {
+    if (deletion.userId == null) {
+      return;
+    }
+    LaunchActivityResource resource = new LaunchActivityResource();
+    resource.setId(deletion.launchId);
+    resource.setProjectId(deletion.projectId);
+    resource.setName(deletion.launchName);
+    messageBus.publishActivity(
+        new LaunchDeletedEvent(resource, deletion.userId, deletion.userLogin));
+  }
+
+  private static class Deletion {
+
+    private final Long launchId;
+
+    private final Long projectId;
+
+    private final Long elements;
+
+    private String launchName;
+
+    private Long userId;
+
+    private String userLogin;
+
+    private Deletion(Long launchId, Long projectId, Long elements) {
+      this.launchId = launchId;
+      this.projectId = projectId;
+      this.elements = elements;
+    }
+  }
+
+  private static class LeaseLostException extends RuntimeException {
+
+  }
+
+  private static class StoppedException extends RuntimeException {
+
+  }
+}
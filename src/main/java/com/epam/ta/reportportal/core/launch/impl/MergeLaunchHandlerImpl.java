@@ -72,16 +72,19 @@ public class MergeLaunchHandlerImpl implements MergeLaunchHandler {
 
   private final LogIndexer logIndexer;
 
+  private final LaunchDeletionService launchDeletionService;
+
   @Autowired
   public MergeLaunchHandlerImpl(LaunchRepository launchRepository,
       ProjectRepository projectRepository,
       LaunchMergeFactory launchMergeFactory, LaunchConverter launchConverter,
-      LogIndexer logIndexer) {
+      LogIndexer logIndexer, LaunchDeletionService launchDeletionService) {
     this.launchRepository = launchRepository;
     this.projectRepository = projectRepository;
     this.launchMergeFactory = launchMergeFactory;
     this.launchConverter = launchConverter;
     this.logIndexer = logIndexer;
+    this.launchDeletionService = launchDeletionService;
   }
 
   @Override
@@ -106,6 +109,7 @@ public class MergeLaunchHandlerImpl implements MergeLaunchHandler {
     );
 
     validateMergingLaunches(launchesList, user, projectDetails);
+    launchDeletionService.verifyNotDeleting(launchesIds);
 
     MergeStrategyType type = MergeStrategyType.fromValue(rq.getMergeStrategyType());
     expect(type, notNull()).verify(UNSUPPORTED_MERGE_STRATEGY_TYPE, type);
@@ -91,13 +91,16 @@ public class UpdateLaunchHandlerImpl implements UpdateLaunchHandler {
 
   private final UniqueErrorAnalysisStarter uniqueErrorAnalysisStarter;
 
+  private final LaunchDeletionService launchDeletionService;
+
   @Autowired
   public UpdateLaunchHandlerImpl(GetProjectHandler getProjectHandler,
       GetLaunchHandler getLaunchHandler, LaunchAccessValidator launchAccessValidator,
       LaunchRepository launchRepository, LogIndexer logIndexer,
       Map<AnalyzerType, LaunchAnalysisStrategy> launchAnalysisStrategyMapping,
       @Qualifier("uniqueErrorAnalysisStarterAsync")
-      UniqueErrorAnalysisStarter uniqueErrorAnalysisStarter) {
+      UniqueErrorAnalysisStarter uniqueErrorAnalysisStarter,
+      LaunchDeletionService launchDeletionService) {
     this.getProjectHandler = getProjectHandler;
     this.getLaunchHandler = getLaunchHandler;
     this.launchAccessValidator = launchAccessValidator;
@@ -105,6 +108,7 @@ public class UpdateLaunchHandlerImpl implements UpdateLaunchHandler {
     this.launchAnalysisStrategyMapping = launchAnalysisStrategyMapping;
     this.logIndexer = logIndexer;
     this.uniqueErrorAnalysisStarter = uniqueErrorAnalysisStarter;
+    this.launchDeletionService = launchDeletionService;
   }
 
   @Override
@@ -114,6 +118,7 @@ public class UpdateLaunchHandlerImpl implements UpdateLaunchHandler {
     Launch launch = launchRepository.findById(launchId)
         .orElseThrow(() -> new ReportPortalException(LAUNCH_NOT_FOUND, launchId.toString()));
     validate(launch, user, projectDetails, rq.getMode());
+    launchDeletionService.verifyNotDeleting(List.of(launchId));
 
     LaunchModeEnum previousMode = launch.getMode();
 
@@ -181,6 +186,7 @@ public class UpdateLaunchHandlerImpl implements UpdateLaunchHandler {
     expect(getProjectHandler.exists(projectDetails.getProjectId()), Predicate.isEqual(true)).verify(
         PROJECT_NOT_FOUND, projectDetails.getProjectId());
 
+    launchDeletionService.verifyNotDeleting(bulkUpdateRq.getIds());
     List<Launch> launches = launchRepository.findAllById(bulkUpdateRq.getIds());
     launches.forEach(
         it -> ItemInfoUtils.updateDescription(bulkUpdateRq.getDescription(), it.getDescription())
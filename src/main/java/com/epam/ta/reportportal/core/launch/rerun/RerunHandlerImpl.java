@@ -35,6 +35,7 @@ import com.epam.ta.reportportal.core.item.identity.UniqueIdGenerator;
 import com.epam.ta.reportportal.core.item.impl.rerun.RerunSearcher;
 import com.epam.ta.reportportal.core.item.impl.retry.RetryHandler;
 import com.epam.ta.reportportal.core.item.validator.parent.ParentItemValidator;
+import com.epam.ta.reportportal.core.launch.impl.LaunchDeletionService;
 import com.epam.ta.reportportal.dao.LaunchRepository;
 import com.epam.ta.reportportal.dao.TestItemRepository;
 import com.epam.ta.reportportal.entity.enums.StatusEnum;
@@ -70,12 +71,14 @@ public class RerunHandlerImpl implements RerunHandler {
   private final RerunSearcher rerunSearcher;
   private final List<ParentItemValidator> parentItemValidators;
   private final RetryHandler retryHandler;
+  private final LaunchDeletionService launchDeletionService;
 
   @Autowired
   public RerunHandlerImpl(TestItemRepository testItemRepository, LaunchRepository launchRepository,
       UniqueIdGenerator uniqueIdGenerator, TestCaseHashGenerator testCaseHashGenerator,
       ApplicationEventPublisher eventPublisher, RerunSearcher rerunSearcher,
-      List<ParentItemValidator> parentItemValidators, RetryHandler retryHandler) {
+      List<ParentItemValidator> parentItemValidators, RetryHandler retryHandler,
+      LaunchDeletionService launchDeletionService) {
     this.testItemRepository = testItemRepository;
     this.launchRepository = launchRepository;
     this.uniqueIdGenerator = uniqueIdGenerator;
@@ -84,6 +87,7 @@ public class RerunHandlerImpl implements RerunHandler {
     this.rerunSearcher = rerunSearcher;
     this.parentItemValidators = parentItemValidators;
     this.retryHandler = retryHandler;
+    this.launchDeletionService = launchDeletionService;
   }
 
   @Override
@@ -95,6 +99,7 @@ public class RerunHandlerImpl implements RerunHandler {
         () -> new ReportPortalException(ErrorType.LAUNCH_NOT_FOUND,
             ofNullable(request.getRerunOf()).orElse(request.getName())
         ));
+    launchDeletionService.verifyNotDeleting(List.of(existingLaunch.getId()));
 
     LaunchBuilder launchBuilder =
         new LaunchBuilder(existingLaunch).addDescription(request.getDescription())
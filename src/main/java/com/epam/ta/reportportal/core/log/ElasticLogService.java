@@ -20,6 +20,7 @@ import com.epam.ta.reportportal.entity.log.LogMessage;
 import com.epam.reportportal.model.analyzer.IndexLog;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -30,12 +31,15 @@ import java.util.stream.Collectors;
 import org.apache.commons.collections.CollectionUtils;
 import org.apache.logging.log4j.util.Strings;
 import org.springframework.amqp.core.AmqpTemplate;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Primary;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 @Primary
 @Service
@@ -47,29 +51,60 @@ public class ElasticLogService implements LogService {
   private final LogRepository logRepository;
   private final LaunchRepository launchRepository;
   private final TestItemRepository testItemRepository;
+  private final LogMessageHydrator logMessageHydrator;
+
+  @Autowired(required = false)
+  private LogMessageBulkAggregator logMessageBulkAggregator;
 
   public ElasticLogService(@Qualifier(value = "rabbitTemplate") AmqpTemplate amqpTemplate,
       ElasticSearchClient elasticSearchClient, LogRepository logRepository,
-      LaunchRepository launchRepository, TestItemRepository testItemRepository) {
+      LaunchRepository launchRepository, TestItemRepository testItemRepository,
+      LogMessageHydrator logMessageHydrator) {
     this.amqpTemplate = amqpTemplate;
     this.elasticSearchClient = elasticSearchClient;
     this.logRepository = logRepository;
     this.launchRepository = launchRepository;
     this.testItemRepository = testItemRepository;
+    this.logMessageHydrator = logMessageHydrator;
   }
 
+  /**
+   * Publishes log message for saving. If called within a transaction, publishing is postponed until
+   * the transaction is committed, so messages of rolled back logs never reach the search engine.
+   *
+   * @param logFull  Log info for saving
+   * @param launchId Log's launch id
+   */
   public void saveLogMessage(LogFull logFull, Long launchId) {
     if (Objects.isNull(logFull)) {
       return;
     }
+    LogMessage logMessage = convertLogToLogMessage(logFull, launchId);
+    if (TransactionSynchronizationManager.isSynchronizationActive()) {
+      TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+        @Override
+        public void afterCommit() {
+          sendLogMessage(logMessage);
+        }
+      });
+    } else {
+      sendLogMessage(logMessage);
+    }
+  }
+
+  private void sendLogMessage(LogMessage logMessage) {
+    if (logMessageBulkAggregator != null) {
+      logMessageBulkAggregator.add(logMessage);
+      return;
+    }
     amqpTemplate.convertAndSend(PROCESSING_EXCHANGE_NAME, LOG_MESSAGE_SAVING_ROUTING_KEY,
-        convertLogToLogMessage(logFull, launchId)
-    );
+        logMessage);
   }
 
   /**
    * Used only for generation demo data, that send all per message to avoid some object/collection
-   * wrapping during reporting.
+   * wrapping during reporting. Messages are sent in bulks if {@link LogMessageBulkAggregator} is
+   * enabled.
    *
    * @param logFullList list of {@link LogFull}
    */
@@ -84,6 +119,7 @@ public class ElasticLogService implements LogService {
   @Override
   public void deleteLogMessage(Long projectId, Long logId) {
     elasticSearchClient.deleteLogsByLogIdAndProjectId(projectId, logId);
+    logMessageHydrator.evict(logId);
   }
 
   @Override
@@ -124,14 +160,13 @@ public class ElasticLogService implements LogService {
       List<Long> logIds =
           indexLogMap.values().stream().flatMap(Collection::stream).map(IndexLog::getLogId)
               .collect(Collectors.toList());
-      Map<Long, LogMessage> logMessageMap =
-          elasticSearchClient.getLogMessagesByProjectIdAndIds(projectId, logIds);
+      Map<Long, String> logMessageMap = logMessageHydrator.getMessages(projectId, logIds);
 
       wrappedMap = indexLogMap.entrySet().stream().peek(indexLogEntry -> {
         List<IndexLog> indexLogList = indexLogEntry.getValue().stream().peek(indexLog -> {
-          LogMessage logMessage = logMessageMap.get(indexLog.getLogId());
+          String logMessage = logMessageMap.get(indexLog.getLogId());
           if (logMessage != null) {
-            indexLog.setMessage(logMessage.getLogMessage());
+            indexLog.setMessage(logMessage);
           }
         }).collect(toList());
         indexLogEntry.setValue(indexLogList);
@@ -148,8 +183,8 @@ public class ElasticLogService implements LogService {
     List<Long> logIds =
         logRepository.findIdsByLaunchIdAndItemIdAndPathAndLevelGte(launchId, itemId, path, level);
 
-    return elasticSearchClient.getLogMessagesByProjectIdAndIds(projectId, logIds).values().stream()
-        .map(LogMessage::getLogMessage).collect(toList());
+    Map<Long, String> logMessageMap = logMessageHydrator.getMessages(projectId, logIds);
+    return logIds.stream().map(logMessageMap::get).filter(Objects::nonNull).collect(toList());
   }
 
   @Override
@@ -197,7 +232,8 @@ public class ElasticLogService implements LogService {
   // Possibly need to be refactored after filter investigation
   public Page<LogFull> findByFilter(Queryable filter, Pageable pageable) {
     Page<Log> byFilter = logRepository.findByFilter(filter, pageable);
-    return byFilter.map(this::getLogFull);
+    Map<Long, String> logMessageMap = getLogMessages(byFilter.getContent());
+    return byFilter.map(log -> getLogFull(log, logMessageMap.get(log.getId())));
   }
 
   @Override
@@ -207,12 +243,12 @@ public class ElasticLogService implements LogService {
 
   @Override
   public Optional<LogFull> findById(Long id) {
-    return logRepository.findById(id).map(this::getLogFull);
+    return logRepository.findById(id).map(this::wrapLogWithLogMessage);
   }
 
   @Override
   public Optional<LogFull> findByUuid(String uuid) {
-    return logRepository.findByUuid(uuid).map(this::getLogFull);
+    return logRepository.findByUuid(uuid).map(this::wrapLogWithLogMessage);
   }
 
   @Override
@@ -260,40 +296,30 @@ public class ElasticLogService implements LogService {
     List<LogFull> logFullList = new ArrayList<>();
 
     if (CollectionUtils.isNotEmpty(logList)) {
-      // This part of code for optimization receiving all needed message from elastic
-      // instead of get by single
-      // And for getting message from elastic we need projectId
-      // we get all message per projectId
       logFullList = new ArrayList<>(logList.size());
-      Map<Long, LogMessage> logMessageMap = new HashMap<>();
-      Map<Long, List<Long>> logIdsGroupByProject = logList.stream()
-          .collect(groupingBy(Log::getProjectId, mapping(Log::getId, Collectors.toList())));
-
-      for (Map.Entry<Long, List<Long>> logIdsPerProject : logIdsGroupByProject.entrySet()) {
-        Long projectId = logIdsPerProject.getKey();
-        List<Long> logIds = logIdsPerProject.getValue();
-        logMessageMap.putAll(
-            elasticSearchClient.getLogMessagesByProjectIdAndIds(projectId, logIds));
-      }
-
+      Map<Long, String> logMessageMap = getLogMessages(logList);
       for (Log log : logList) {
-        String logMessage = (logMessageMap.get(log.getId()) != null) ?
-            logMessageMap.get(log.getId()).getLogMessage() : log.getLogMessage();
-        LogFull logFull = getLogFull(log, logMessage);
-
-        logFullList.add(logFull);
+        logFullList.add(getLogFull(log, logMessageMap.get(log.getId())));
       }
     }
 
     return logFullList;
   }
 
-  private LogFull getLogFull(Log log) {
-    LogMessage logMessage =
-        elasticSearchClient.getLogMessageByProjectIdAndId(log.getProjectId(), log.getId());
-    String message = (logMessage != null) ? logMessage.getLogMessage() : null;
+  private LogFull wrapLogWithLogMessage(Log log) {
+    return getLogFull(log, getLogMessages(List.of(log)).get(log.getId()));
+  }
 
-    return getLogFull(log, message);
+  /**
+   * Messages are requested from the search engine with a single request per project, since the
+   * index is per project
+   */
+  private Map<Long, String> getLogMessages(List<Log> logList) {
+    if (logList.isEmpty()) {
+      return Collections.emptyMap();
+    }
+    return logMessageHydrator.getMessages(logList.stream()
+        .collect(groupingBy(Log::getProjectId, mapping(Log::getId, Collectors.toList()))));
   }
 
   private LogFull getLogFull(Log log, String logMessage) {
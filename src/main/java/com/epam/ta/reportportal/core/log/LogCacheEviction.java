@@ -0,0 +1,84 @@
+/*
+ * Copyright 2024 EPAM Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.ta.reportportal.core.log;
+
+import java.io.Serializable;
+import java.util.Set;
+
+/**
+ * Evictions of {@link LogFullCache} broadcast to the other instances: the logs by id and the
+ * latest logs by the item id, or everything
+ */
+public class LogCacheEviction implements Serializable {
+
+  private String origin;
+
+  private Set<Long> logIds;
+
+  private Set<Long> itemIds;
+
+  private boolean all;
+
+  public LogCacheEviction() {
+  }
+
+  public LogCacheEviction(Set<Long> logIds, Set<Long> itemIds) {
+    this.logIds = logIds;
+    this.itemIds = itemIds;
+  }
+
+  public static LogCacheEviction all() {
+    LogCacheEviction eviction = new LogCacheEviction(Set.of(), Set.of());
+    eviction.setAll(true);
+    return eviction;
+  }
+
+  /**
+   * @return Id of the instance made the evictions
+   */
+  public String getOrigin() {
+    return origin;
+  }
+
+  public void setOrigin(String origin) {
+    this.origin = origin;
+  }
+
+  public Set<Long> getLogIds() {
+    return logIds;
+  }
+
+  public void setLogIds(Set<Long> logIds) {
+    this.logIds = logIds;
+  }
+
+  public Set<Long> getItemIds() {
+    return itemIds;
+  }
+
+  public void setItemIds(Set<Long> itemIds) {
+    this.itemIds = itemIds;
+  }
+
+  public boolean isAll() {
+    return all;
+  }
+
+  public void setAll(boolean all) {
+    this.all = all;
+  }
+}
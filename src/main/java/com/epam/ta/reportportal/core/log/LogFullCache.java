@@ -0,0 +1,369 @@
+/*
+ * Copyright 2024 EPAM Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.ta.reportportal.core.log;
+
+import com.epam.reportportal.events.ElementsDeletedEvent;
+import com.epam.ta.reportportal.entity.item.TestItem;
+import com.epam.ta.reportportal.entity.log.LogFull;
+import com.epam.ta.reportportal.model.log.LogResource;
+import com.epam.ta.reportportal.ws.converter.converters.LogConverter;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Cache of the logs requested by the log view over and over while failed items are triaged: logs
+ * by id and the latest logs under an item by the log level. The logs are cached as the detached
+ * {@link CachedLog} resources, both caches are bounded by their estimated size in bytes.
+ * <p>
+ * A saved, attached or deleted log evicts itself and the latest logs of its item and the item
+ * ancestors after commit. Deletion of launches and items evicts everything. The evictions are
+ * collected to be broadcast to the other instances, see {@link #drainEvictions()}.
+ */
+@Component
+public class LogFullCache {
+
+  public static final String REQUESTS_METRIC = "rp.log.cache.requests";
+  public static final String HIT_RATIO_METRIC = "rp.log.cache.hit.ratio";
+  public static final String SIZE_METRIC = "rp.log.cache.size.bytes";
+  public static final String CACHE_TAG = "cache";
+  public static final String RESULT_TAG = "result";
+
+  /**
+   * Estimated size of a log without the message and the attachment
+   */
+  private static final int LOG_OVERHEAD = 512;
+
+  private static final int ATTACHMENT_OVERHEAD = 256;
+
+  /**
+   * Maximal number of the ids of the collected evictions, everything is evicted on the other
+   * instances when there are more
+   */
+  private static final int MAX_PENDING_IDS = 10_000;
+
+  private final Cache<Long, CachedLog> logs;
+
+  /**
+   * Latest logs by the log level, by the item id
+   */
+  private final Cache<Long, Map<Integer, List<CachedLog>>> latestLogs;
+
+  private final Set<Long> pendingLogIds = ConcurrentHashMap.newKeySet();
+
+  private final Set<Long> pendingItemIds = ConcurrentHashMap.newKeySet();
+
+  private volatile boolean pendingAll;
+
+  private final Stats logsStats;
+
+  private final Stats latestLogsStats;
+
+  public LogFullCache(MeterRegistry meterRegistry,
+      @Value("${rp.log.cache.max-bytes:33554432}") long maxBytes,
+      @Value("${rp.log.cache.latest-max-bytes:16777216}") long latestMaxBytes,
+      @Value("${rp.log.cache.ttl:300}") long ttl) {
+    this.logs = Caffeine.newBuilder()
+        .maximumWeight(maxBytes)
+        .weigher((Long id, CachedLog log) -> weigh(log))
+        .expireAfterWrite(Duration.ofSeconds(ttl))
+        .build();
+    this.latestLogs = Caffeine.newBuilder()
+        .maximumWeight(latestMaxBytes)
+        .weigher((Long id, Map<Integer, List<CachedLog>> byLevel) -> byLevel.values().stream()
+            .flatMap(Collection::stream).mapToInt(LogFullCache::weigh).sum())
+        .expireAfterWrite(Duration.ofSeconds(ttl))
+        .build();
+    this.logsStats = new Stats(meterRegistry, "logs", logs);
+    this.latestLogsStats = new Stats(meterRegistry, "latest", latestLogs);
+  }
+
+  /**
+   * @param logId  Log id
+   * @param loader Loads the log if it isn't cached
+   * @return The log
+   */
+  public Optional<CachedLog> getLog(Long logId, Function<Long, Optional<LogFull>> loader) {
+    CachedLog log = logs.getIfPresent(logId);
+    logsStats.record(log != null);
+    if (log != null) {
+      return Optional.of(log);
+    }
+    Optional<CachedLog> loaded = loader.apply(logId).map(CachedLog::of);
+    loaded.ifPresent(it -> logs.put(logId, it));
+    return loaded;
+  }
+
+  /**
+   * @param logIds Log ids
+   * @param loader Loads the logs which aren't cached
+   * @return Found logs by the log id
+   */
+  public Map<Long, CachedLog> getLogs(Collection<Long> logIds,
+      Function<Set<Long>, List<LogFull>> loader) {
+    Map<Long, CachedLog> result = new HashMap<>(logs.getAllPresent(logIds));
+    Set<Long> missing = logIds.stream().filter(id -> !result.containsKey(id))
+        .collect(Collectors.toSet());
+    logsStats.record(result.size(), missing.size());
+    if (!missing.isEmpty()) {
+      Map<Long, CachedLog> loaded = loader.apply(missing).stream().map(CachedLog::of)
+          .collect(Collectors.toMap(CachedLog::getId, Function.identity(),
+              (first, second) -> first));
+      logs.putAll(loaded);
+      result.putAll(loaded);
+    }
+    return result;
+  }
+
+  /**
+   * @param itemId   Item id
+   * @param logLevel Minimal log level
+   * @param loader   Loads the latest logs under the item if they aren't cached
+   * @return The latest logs under the item
+   */
+  public List<CachedLog> getLatestLogs(Long itemId, int logLevel,
+      Supplier<List<LogFull>> loader) {
+    List<CachedLog> cached = Optional.ofNullable(latestLogs.getIfPresent(itemId))
+        .map(byLevel -> byLevel.get(logLevel))
+        .orElse(null);
+    latestLogsStats.record(cached != null);
+    if (cached != null) {
+      return cached;
+    }
+    List<CachedLog> loaded = loader.get().stream().map(CachedLog::of)
+        .collect(Collectors.toUnmodifiableList());
+    latestLogs.asMap().merge(itemId, Map.of(logLevel, loaded), (current, added) -> {
+      Map<Integer, List<CachedLog>> byLevel = new HashMap<>(current);
+      byLevel.putAll(added);
+      return Collections.unmodifiableMap(byLevel);
+    });
+    return loaded;
+  }
+
+  /**
+   * Evicts the log and the latest logs of its item and the item ancestors after commit
+   *
+   * @param logId Log id
+   * @param item  Item of the log, null for the launch logs
+   */
+  public void evict(Long logId, @Nullable TestItem item) {
+    Set<Long> itemIds = item == null ? Collections.emptySet() : getPathIds(item);
+    afterCommit(() -> {
+      invalidate(Set.of(logId), itemIds);
+      addPending(logId, itemIds);
+    });
+  }
+
+  public void evict(LogFull logFull) {
+    evict(logFull.getId(), logFull.getTestItem());
+  }
+
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onElementsDeleted(ElementsDeletedEvent event) {
+    invalidateAll();
+    pendingAll = true;
+  }
+
+  /**
+   * Takes the evictions collected since the previous call, to be applied by the other instances
+   *
+   * @return The evictions, or {@link Optional#empty()} if there are none
+   */
+  public Optional<LogCacheEviction> drainEvictions() {
+    boolean all = pendingAll;
+    pendingAll = false;
+    Set<Long> logIds = drain(pendingLogIds);
+    Set<Long> itemIds = drain(pendingItemIds);
+    if (all) {
+      return Optional.of(LogCacheEviction.all());
+    }
+    if (logIds.isEmpty() && itemIds.isEmpty()) {
+      return Optional.empty();
+    }
+    return Optional.of(new LogCacheEviction(logIds, itemIds));
+  }
+
+  /**
+   * Applies the evictions made by another instance
+   *
+   * @param eviction Evictions of another instance
+   */
+  public void apply(LogCacheEviction eviction) {
+    if (eviction.isAll()) {
+      invalidateAll();
+    } else {
+      invalidate(eviction.getLogIds(), eviction.getItemIds());
+    }
+  }
+
+  private void invalidate(Collection<Long> logIds, Collection<Long> itemIds) {
+    if (logIds != null && !logIds.isEmpty()) {
+      logs.invalidateAll(logIds);
+    }
+    if (itemIds != null && !itemIds.isEmpty()) {
+      latestLogs.invalidateAll(itemIds);
+    }
+  }
+
+  private void invalidateAll() {
+    logs.invalidateAll();
+    latestLogs.invalidateAll();
+  }
+
+  private void addPending(Long logId, Set<Long> itemIds) {
+    if (pendingAll) {
+      return;
+    }
+    pendingLogIds.add(logId);
+    pendingItemIds.addAll(itemIds);
+    if (pendingLogIds.size() + pendingItemIds.size() > MAX_PENDING_IDS) {
+      pendingAll = true;
+      pendingLogIds.clear();
+      pendingItemIds.clear();
+    }
+  }
+
+  private static Set<Long> drain(Set<Long> pending) {
+    Set<Long> drained = new HashSet<>();
+    pending.removeIf(drained::add);
+    return drained;
+  }
+
+  private static Set<Long> getPathIds(TestItem item) {
+    Set<Long> ids = new HashSet<>();
+    ids.add(item.getItemId());
+    if (StringUtils.isNotEmpty(item.getPath())) {
+      Arrays.stream(item.getPath().split("\\.")).map(Long::valueOf).forEach(ids::add);
+    }
+    return ids;
+  }
+
+  private static int weigh(CachedLog log) {
+    LogResource resource = log.getResource();
+    long bytes = LOG_OVERHEAD + 2L * (StringUtils.length(resource.getMessage())
+        + StringUtils.length(resource.getUuid()));
+    LogResource.BinaryContent binaryContent = resource.getBinaryContent();
+    if (binaryContent != null) {
+      bytes += ATTACHMENT_OVERHEAD + 2L * (StringUtils.length(binaryContent.getBinaryDataId())
+          + StringUtils.length(binaryContent.getThumbnailId())
+          + StringUtils.length(binaryContent.getContentType()));
+    }
+    return (int) Math.min(bytes, Integer.MAX_VALUE);
+  }
+
+  private static void afterCommit(Runnable action) {
+    if (TransactionSynchronizationManager.isSynchronizationActive()) {
+      TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+        @Override
+        public void afterCommit() {
+          action.run();
+        }
+      });
+    } else {
+      action.run();
+    }
+  }
+
+  /**
+   * Log detached from the persistence context: its resource and the project for the access
+   * validation. The resource is shared by the requests and must not be modified.
+   */
+  public static final class CachedLog {
+
+    private final LogResource resource;
+
+    private final Long projectId;
+
+    private CachedLog(LogResource resource, Long projectId) {
+      this.resource = resource;
+      this.projectId = projectId;
+    }
+
+    public static CachedLog of(LogFull log) {
+      return new CachedLog(LogConverter.TO_RESOURCE.apply(log), log.getProjectId());
+    }
+
+    public Long getId() {
+      return resource.getId();
+    }
+
+    public LogResource getResource() {
+      return resource;
+    }
+
+    public Long getProjectId() {
+      return projectId;
+    }
+  }
+
+  /**
+   * Requests and hit ratio of a cache, the ratio counts every requested log
+   */
+  private static class Stats {
+
+    private final Counter hits;
+
+    private final Counter misses;
+
+    private Stats(MeterRegistry meterRegistry, String cache, Cache<?, ?> entries) {
+      this.hits = meterRegistry.counter(REQUESTS_METRIC, CACHE_TAG, cache, RESULT_TAG, "hit");
+      this.misses = meterRegistry.counter(REQUESTS_METRIC, CACHE_TAG, cache, RESULT_TAG, "miss");
+      Gauge.builder(HIT_RATIO_METRIC, this, Stats::hitRatio)
+          .tag(CACHE_TAG, cache).register(meterRegistry);
+      Gauge.builder(SIZE_METRIC, entries, it -> it.policy().eviction()
+              .map(eviction -> (double) eviction.weightedSize().orElse(0L)).orElse(0d))
+          .tag(CACHE_TAG, cache).strongReference(true).register(meterRegistry);
+    }
+
+    private void record(boolean hit) {
+      record(hit ? 1 : 0, hit ? 0 : 1);
+    }
+
+    private void record(int hitCount, int missCount) {
+      hits.increment(hitCount);
+      misses.increment(missCount);
+    }
+
+    private double hitRatio() {
+      double requests = hits.count() + misses.count();
+      return requests == 0 ? Double.NaN : hits.count() / requests;
+    }
+  }
+}
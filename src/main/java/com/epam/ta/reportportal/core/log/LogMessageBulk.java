@@ -0,0 +1,128 @@
+/*
+ * Copyright 2024 EPAM Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.ta.reportportal.core.log;
+
+import com.epam.ta.reportportal.entity.log.LogMessage;
+import java.io.Serializable;
+import java.time.Instant;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Log messages of a project indexed in the search engine with a single bulk request
+ */
+public class LogMessageBulk implements Serializable {
+
+  private Long projectId;
+
+  private List<Entry> logs;
+
+  public LogMessageBulk() {
+  }
+
+  public LogMessageBulk(Long projectId, List<LogMessage> logMessages) {
+    this.projectId = projectId;
+    this.logs = logMessages.stream().map(Entry::new).collect(Collectors.toList());
+  }
+
+  public Long getProjectId() {
+    return projectId;
+  }
+
+  public void setProjectId(Long projectId) {
+    this.projectId = projectId;
+  }
+
+  public List<Entry> getLogs() {
+    return logs;
+  }
+
+  public void setLogs(List<Entry> logs) {
+    this.logs = logs;
+  }
+
+  public List<LogMessage> toLogMessages() {
+    return logs.stream()
+        .map(log -> new LogMessage(log.id, log.logTime, log.message, log.itemId, log.launchId,
+            projectId))
+        .collect(Collectors.toList());
+  }
+
+  public static class Entry implements Serializable {
+
+    private Long id;
+
+    private Instant logTime;
+
+    private String message;
+
+    private Long itemId;
+
+    private Long launchId;
+
+    public Entry() {
+    }
+
+    Entry(LogMessage logMessage) {
+      this.id = logMessage.getId();
+      this.logTime = logMessage.getLogTime();
+      this.message = logMessage.getLogMessage();
+      this.itemId = logMessage.getItemId();
+      this.launchId = logMessage.getLaunchId();
+    }
+
+    public Long getId() {
+      return id;
+    }
+
+    public void setId(Long id) {
+      this.id = id;
+    }
+
+    public Instant getLogTime() {
+      return logTime;
+    }
+
+    public void setLogTime(Instant logTime) {
+      this.logTime = logTime;
+    }
+
+    public String getMessage() {
+      return message;
+    }
+
+    public void setMessage(String message) {
+      this.message = message;
+    }
+
+    public Long getItemId() {
+      return itemId;
+    }
+
+    public void setItemId(Long itemId) {
+      this.itemId = itemId;
+    }
+
+    public Long getLaunchId() {
+      return launchId;
+    }
+
+    public void setLaunchId(Long launchId) {
+      this.launchId = launchId;
+    }
+  }
+}
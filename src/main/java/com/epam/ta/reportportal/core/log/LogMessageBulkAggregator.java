@@ -0,0 +1,188 @@
+/*
+ * Copyright 2024 EPAM Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.ta.reportportal.core.log;
+
+import static com.epam.ta.reportportal.core.configs.rabbit.BackgroundProcessingConfiguration.LOG_MESSAGE_BULK_SAVING_ROUTING_KEY;
+import static com.epam.ta.reportportal.core.configs.rabbit.BackgroundProcessingConfiguration.PROCESSING_EXCHANGE_NAME;
+
+import com.epam.ta.reportportal.entity.log.LogMessage;
+import com.google.common.collect.Lists;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.AmqpException;
+import org.springframework.amqp.core.AmqpTemplate;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Collects log messages per project and publishes them as {@link LogMessageBulk} payloads, when a
+ * project has collected the maximum number or size of messages, or when the flush interval passes.
+ * <p>
+ * Messages which failed to be published are kept for the next flush, and everything collected is
+ * published on shutdown. Payloads are persistent, so they survive the broker restart until indexed
+ * by {@link com.epam.ta.reportportal.ws.rabbit.LogMessageBulkConsumer}.
+ */
+@Component
+@ConditionalOnProperty(prefix = "rp.searchengine", name = {"host", "bulk.enabled"})
+public class LogMessageBulkAggregator {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(LogMessageBulkAggregator.class);
+
+  public static final String SIZE_METRIC = "rp.searchengine.bulk.size";
+  public static final String FLUSH_METRIC = "rp.searchengine.bulk.flush";
+  public static final String FAILED_METRIC = "rp.searchengine.bulk.failed";
+  public static final String PARKED_METRIC = "rp.searchengine.bulk.parked";
+  public static final String BUFFERED_METRIC = "rp.searchengine.bulk.buffered";
+  public static final String STAGE_TAG = "stage";
+  public static final String PUBLISH_STAGE = "publish";
+  public static final String INDEX_STAGE = "index";
+
+  /**
+   * Estimated size of the log message fields other than the message itself, in the payload
+   */
+  private static final int ENTRY_OVERHEAD = 128;
+
+  private final AmqpTemplate amqpTemplate;
+
+  private final int maxSize;
+
+  private final long maxBytes;
+
+  private final Map<Long, Buffer> buffers = new ConcurrentHashMap<>();
+
+  private final AtomicInteger buffered = new AtomicInteger();
+
+  private final DistributionSummary bulkSize;
+
+  private final Timer flushTimer;
+
+  private final Counter failed;
+
+  public LogMessageBulkAggregator(@Qualifier("rabbitTemplate") AmqpTemplate amqpTemplate,
+      MeterRegistry meterRegistry, @Value("${rp.searchengine.bulk.size:500}") int maxSize,
+      @Value("${rp.searchengine.bulk.max-bytes:5242880}") long maxBytes) {
+    this.amqpTemplate = amqpTemplate;
+    this.maxSize = maxSize;
+    this.maxBytes = maxBytes;
+    this.bulkSize = meterRegistry.summary(SIZE_METRIC, STAGE_TAG, PUBLISH_STAGE);
+    this.flushTimer = meterRegistry.timer(FLUSH_METRIC, STAGE_TAG, PUBLISH_STAGE);
+    this.failed = meterRegistry.counter(FAILED_METRIC, STAGE_TAG, PUBLISH_STAGE);
+    Gauge.builder(BUFFERED_METRIC, buffered, AtomicInteger::get).register(meterRegistry);
+  }
+
+  /**
+   * Adds the log message to the bulk of its project, publishes the bulk if it's full
+   *
+   * @param logMessage {@link LogMessage}
+   */
+  public void add(LogMessage logMessage) {
+    Long projectId = logMessage.getProjectId();
+    Buffer[] full = new Buffer[1];
+    buffers.compute(projectId, (id, buffer) -> {
+      Buffer current = buffer == null ? new Buffer() : buffer;
+      current.add(logMessage);
+      if (current.messages.size() >= maxSize || current.bytes >= maxBytes) {
+        full[0] = current;
+        return null;
+      }
+      return current;
+    });
+    buffered.incrementAndGet();
+    if (full[0] != null) {
+      publish(projectId, full[0]);
+    }
+  }
+
+  /**
+   * Publishes collected bulks of all projects
+   */
+  @Scheduled(fixedDelayString = "${rp.searchengine.bulk.flush-interval:1000}")
+  public void flush() {
+    buffers.keySet().forEach(projectId -> {
+      Buffer buffer = buffers.remove(projectId);
+      if (buffer != null) {
+        publish(projectId, buffer);
+      }
+    });
+  }
+
+  @PreDestroy
+  public void shutdown() {
+    flush();
+    if (buffered.get() > 0) {
+      LOGGER.error("{} log messages were not published to the search engine", buffered.get());
+    }
+  }
+
+  private void publish(Long projectId, Buffer buffer) {
+    List<List<LogMessage>> bulks = Lists.partition(buffer.messages, maxSize);
+    for (int i = 0; i < bulks.size(); i++) {
+      List<LogMessage> bulk = bulks.get(i);
+      long start = System.nanoTime();
+      try {
+        amqpTemplate.convertAndSend(PROCESSING_EXCHANGE_NAME, LOG_MESSAGE_BULK_SAVING_ROUTING_KEY,
+            new LogMessageBulk(projectId, bulk));
+      } catch (AmqpException e) {
+        failed.increment();
+        LOGGER.warn("Unable to publish log messages of the project {}, retrying on next flush: {}",
+            projectId, e.getMessage());
+        restore(projectId, buffer.messages.subList(i * maxSize, buffer.messages.size()));
+        return;
+      }
+      flushTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+      bulkSize.record(bulk.size());
+      buffered.addAndGet(-bulk.size());
+    }
+  }
+
+  private void restore(Long projectId, List<LogMessage> messages) {
+    Buffer restored = new Buffer();
+    messages.forEach(restored::add);
+    buffers.merge(projectId, restored, (current, failed) -> {
+      current.messages.forEach(failed::add);
+      return failed;
+    });
+  }
+
+  private static class Buffer {
+
+    private final List<LogMessage> messages = new ArrayList<>();
+
+    private long bytes;
+
+    private void add(LogMessage logMessage) {
+      messages.add(logMessage);
+      String message = logMessage.getLogMessage();
+      bytes += ENTRY_OVERHEAD + (message == null ? 0 : message.length());
+    }
+  }
+}
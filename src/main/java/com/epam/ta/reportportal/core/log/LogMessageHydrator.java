@@ -0,0 +1,97 @@
+/*
+ * Copyright 2024 EPAM Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.ta.reportportal.core.log;
+
+import com.epam.ta.reportportal.dao.custom.ElasticSearchClient;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * Loads messages of the logs from the search engine with a single request per project. Recently
+ * loaded messages are cached, logs not indexed yet are not.
+ * <p>
+ * Messages of the saved logs don't change, and logs are always read from the database first, so
+ * messages of the deleted logs are never requested and the cache needs no invalidation on delete.
+ */
+@Component
+@ConditionalOnProperty(prefix = "rp.searchengine", name = "host")
+public class LogMessageHydrator {
+
+  public static final String CACHE_NAME = "log.message.hydration";
+
+  private final ElasticSearchClient elasticSearchClient;
+
+  private final Cache<Long, String> cache;
+
+  public LogMessageHydrator(ElasticSearchClient elasticSearchClient, MeterRegistry meterRegistry,
+      @Value("${rp.searchengine.hydration.cache.size:5000}") long size,
+      @Value("${rp.searchengine.hydration.cache.ttl:300}") long ttl) {
+    this.elasticSearchClient = elasticSearchClient;
+    this.cache = Caffeine.newBuilder()
+        .maximumSize(size)
+        .expireAfterWrite(Duration.ofSeconds(ttl))
+        .recordStats()
+        .build();
+    CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+  }
+
+  /**
+   * @param logIdsByProject Log ids grouped by the project id
+   * @return Messages of the found logs by the log id
+   */
+  public Map<Long, String> getMessages(Map<Long, ? extends Collection<Long>> logIdsByProject) {
+    Map<Long, String> messages = new HashMap<>();
+    logIdsByProject.forEach((projectId, logIds) -> messages.putAll(getMessages(projectId, logIds)));
+    return messages;
+  }
+
+  /**
+   * @param projectId Project id
+   * @param logIds    Ids of the project logs
+   * @return Messages of the found logs by the log id
+   */
+  public Map<Long, String> getMessages(Long projectId, Collection<Long> logIds) {
+    Map<Long, String> messages = new HashMap<>(cache.getAllPresent(logIds));
+    List<Long> missing = new ArrayList<>(logIds.size() - messages.size());
+    logIds.stream().filter(id -> !messages.containsKey(id)).distinct().forEach(missing::add);
+    if (!missing.isEmpty()) {
+      elasticSearchClient.getLogMessagesByProjectIdAndIds(projectId, missing).forEach((id, log) -> {
+        String message = log.getLogMessage();
+        if (message != null) {
+          messages.put(id, message);
+          cache.put(id, message);
+        }
+      });
+    }
+    return messages;
+  }
+
+  public void evict(Long logId) {
+    cache.invalidate(logId);
+  }
+}
@@ -0,0 +1,138 @@
+/*
+ * Copyright 2024 EPAM Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.ta.reportportal.core.log.impl;
+
+import com.epam.ta.reportportal.core.configs.VirtualThreadTaskExecutor;
+import com.epam.ta.reportportal.exception.AdmissionRejectedException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadPoolExecutor;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+
+/**
+ * Admission control of the attachment saving. Every project may have a limited number of
+ * attachments in process, so a single project can't occupy the whole saveLogsTaskExecutor, and
+ * requests with attachments are rejected up front while the executor is saturated.
+ */
+@Component
+public class AttachmentSaveAdmission {
+
+  public static final String REJECTED_METRIC = "rp.upload.admission.rejected";
+  public static final String REASON_TAG = "reason";
+
+  private final TaskExecutor executor;
+
+  private final int projectQuota;
+
+  private final double saturation;
+
+  private final long retryAfterSeconds;
+
+  private final Map<Long, Integer> inProcess = new ConcurrentHashMap<>();
+
+  private final Counter saturatedRejections;
+
+  private final Counter quotaRejections;
+
+  public AttachmentSaveAdmission(
+      @Qualifier("saveLogsTaskExecutor") TaskExecutor executor,
+      MeterRegistry meterRegistry,
+      @Value("${rp.upload.admission.project-quota:500}") int projectQuota,
+      @Value("${rp.upload.admission.saturation:0.9}") double saturation,
+      @Value("${rp.upload.admission.retry-after:5}") long retryAfterSeconds) {
+    this.executor = executor;
+    this.projectQuota = projectQuota;
+    this.saturation = saturation;
+    this.retryAfterSeconds = retryAfterSeconds;
+    this.saturatedRejections = meterRegistry.counter(REJECTED_METRIC, REASON_TAG, "saturated");
+    this.quotaRejections = meterRegistry.counter(REJECTED_METRIC, REASON_TAG, "project-quota");
+  }
+
+  /**
+   * Verifies that the request with attachments of the project can be accepted
+   *
+   * @param projectId Project id
+   * @throws AdmissionRejectedException with 503 status if the executor is saturated, with 429
+   *                                    status if the project has used its quota
+   */
+  public void check(Long projectId) {
+    if (isSaturated()) {
+      saturatedRejections.increment();
+      throw new AdmissionRejectedException(HttpStatus.SERVICE_UNAVAILABLE, retryAfterSeconds,
+          "Attachments can't be accepted now, the service is overloaded");
+    }
+    if (inProcess.getOrDefault(projectId, 0) >= projectQuota) {
+      throw quotaExceeded(projectId);
+    }
+  }
+
+  /**
+   * Takes a slot of the project quota for an attachment, it has to be released when the
+   * attachment is saved
+   *
+   * @param projectId Project id
+   * @throws AdmissionRejectedException with 429 status if the project has used its quota
+   */
+  public void acquire(Long projectId) {
+    boolean[] acquired = new boolean[1];
+    inProcess.compute(projectId, (id, count) -> {
+      int current = count == null ? 0 : count;
+      if (current >= projectQuota) {
+        return count;
+      }
+      acquired[0] = true;
+      return current + 1;
+    });
+    if (!acquired[0]) {
+      throw quotaExceeded(projectId);
+    }
+  }
+
+  public void release(Long projectId) {
+    inProcess.computeIfPresent(projectId, (id, count) -> count > 1 ? count - 1 : null);
+  }
+
+  private AdmissionRejectedException quotaExceeded(Long projectId) {
+    quotaRejections.increment();
+    return new AdmissionRejectedException(HttpStatus.TOO_MANY_REQUESTS, retryAfterSeconds,
+        "Too many attachments of the project " + projectId + " are in process");
+  }
+
+  private boolean isSaturated() {
+    if (executor instanceof VirtualThreadTaskExecutor) {
+      VirtualThreadTaskExecutor virtualThreads = (VirtualThreadTaskExecutor) executor;
+      return virtualThreads.getActiveCount() >= virtualThreads.getMaxConcurrency()
+          && virtualThreads.getQueueSize() >= virtualThreads.getQueueCapacity() * saturation;
+    }
+    if (!(executor instanceof ThreadPoolTaskExecutor)) {
+      return false;
+    }
+    ThreadPoolExecutor pool = ((ThreadPoolTaskExecutor) executor).getThreadPoolExecutor();
+    BlockingQueue<Runnable> queue = pool.getQueue();
+    long capacity = (long) queue.size() + queue.remainingCapacity();
+    return pool.getActiveCount() >= pool.getMaximumPoolSize()
+        && queue.size() >= capacity * saturation;
+  }
+}
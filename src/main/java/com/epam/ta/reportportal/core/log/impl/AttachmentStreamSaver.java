@@ -0,0 +1,101 @@
+/*
+ * Copyright 2024 EPAM Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.ta.reportportal.core.log.impl;
+
+import static com.epam.ta.reportportal.binary.impl.DataStoreUtils.isContentTypePresent;
+import static com.epam.ta.reportportal.binary.impl.DataStoreUtils.resolveExtension;
+
+import com.epam.reportportal.commons.ContentTypeResolver;
+import com.epam.ta.reportportal.binary.DataStoreService;
+import com.epam.ta.reportportal.commons.BinaryDataMetaInfo;
+import com.epam.ta.reportportal.entity.attachment.AttachmentMetaInfo;
+import com.epam.ta.reportportal.entity.enums.FeatureFlag;
+import com.epam.ta.reportportal.filesystem.FilePathGenerator;
+import com.epam.ta.reportportal.util.FeatureFlagHandler;
+import com.google.common.base.Strings;
+import com.google.common.io.CountingInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.nio.file.Paths;
+import org.apache.commons.io.FilenameUtils;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Component;
+
+/**
+ * Saves attachments into the data store directly from a stream. Files get the same paths, names
+ * and meta info as ones saved by
+ * {@link com.epam.ta.reportportal.binary.AttachmentBinaryDataService#saveAttachment}, but only the
+ * head of the content used to detect its type is kept in memory.
+ */
+@Component
+public class AttachmentStreamSaver {
+
+  private static final int CONTENT_TYPE_DETECTION_BYTES = 64 * 1024;
+
+  private static final String PROJECT_DATA_PATH = "project-data";
+
+  private final ContentTypeResolver contentTypeResolver;
+
+  private final FilePathGenerator filePathGenerator;
+
+  private final DataStoreService dataStoreService;
+
+  private final FeatureFlagHandler featureFlagHandler;
+
+  public AttachmentStreamSaver(ContentTypeResolver contentTypeResolver,
+      FilePathGenerator filePathGenerator,
+      @Qualifier("attachmentDataStoreService") DataStoreService dataStoreService,
+      FeatureFlagHandler featureFlagHandler) {
+    this.contentTypeResolver = contentTypeResolver;
+    this.filePathGenerator = filePathGenerator;
+    this.dataStoreService = dataStoreService;
+    this.featureFlagHandler = featureFlagHandler;
+  }
+
+  /**
+   * @param metaInfo         {@link AttachmentMetaInfo}
+   * @param name             Name of the request part
+   * @param originalFilename Original name of the file
+   * @param contentType      Content type provided by the client
+   * @param content          Content of the file, read once
+   * @return {@link BinaryDataMetaInfo} of the saved file
+   */
+  public BinaryDataMetaInfo save(AttachmentMetaInfo metaInfo, String name,
+      String originalFilename, String contentType, InputStream content) throws IOException {
+    byte[] head = content.readNBytes(CONTENT_TYPE_DETECTION_BYTES);
+    String resolvedContentType = isContentTypePresent(contentType) ? contentType
+        : contentTypeResolver.detectContentType(head);
+    String fileName = metaInfo.getLogUuid() + "-" + name + resolveExtension(
+        resolvedContentType).orElse(
+        "." + Strings.nullToEmpty(FilenameUtils.getExtension(originalFilename)));
+
+    String directory = featureFlagHandler.isEnabled(FeatureFlag.SINGLE_BUCKET)
+        ? Paths.get(PROJECT_DATA_PATH, filePathGenerator.generate(metaInfo)).toString()
+        : filePathGenerator.generate(metaInfo);
+    try (CountingInputStream stream = new CountingInputStream(
+        new SequenceInputStream(new ByteArrayInputStream(head), content))) {
+      String fileId = dataStoreService.save(Paths.get(directory, fileName).toString(), stream);
+      return BinaryDataMetaInfo.BinaryDataMetaInfoBuilder.aBinaryDataMetaInfo()
+          .withFileId(fileId)
+          .withContentType(resolvedContentType)
+          .withFileSize(stream.getCount())
+          .build();
+    }
+  }
+}
@@ -0,0 +1,180 @@
+/*
+ * Copyright 2024 EPAM Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.ta.reportportal.core.log.impl;
+
+import static java.util.stream.Collectors.groupingBy;
+import static java.util.stream.Collectors.toList;
+
+import com.epam.reportportal.rules.exception.ErrorType;
+import com.epam.reportportal.rules.exception.ReportPortalException;
+import com.epam.ta.reportportal.core.item.TestItemService;
+import com.epam.ta.reportportal.core.log.LogFullCache;
+import com.epam.ta.reportportal.core.log.LogService;
+import com.epam.ta.reportportal.dao.LaunchRepository;
+import com.epam.ta.reportportal.dao.LogRepository;
+import com.epam.ta.reportportal.dao.TestItemRepository;
+import com.epam.ta.reportportal.entity.item.TestItem;
+import com.epam.ta.reportportal.entity.launch.Launch;
+import com.epam.ta.reportportal.entity.log.LogFull;
+import com.epam.ta.reportportal.ws.converter.builders.LogFullBuilder;
+import com.epam.ta.reportportal.ws.reporting.SaveLogRQ;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+/**
+ * Saves logs without attachments reported through the reporting queues with a single JDBC batch
+ * insert. Logs are grouped by item (or by launch for launch-level logs), so the item and its
+ * effective launch are resolved once per group instead of once per log.
+ */
+@Service
+public class BatchLogSaver {
+
+  public static final String LOGS_SAVED_METRIC = "rp.reporting.logs.saved";
+  public static final String LOGS_BATCH_INSERT_METRIC = "rp.reporting.logs.batch.insert";
+  public static final String MODE_TAG = "mode";
+
+  private static final String ALLOCATE_IDS_QUERY =
+      "SELECT nextval('log_id_seq') FROM generate_series(1, ?)";
+
+  private static final String INSERT_LOG_QUERY =
+      "INSERT INTO log (id, uuid, log_time, log_message, item_id, launch_id, last_modified, "
+          + "log_level, project_id) VALUES (?, ?, ?, ?, ?, ?, now(), ?, ?)";
+
+  private final JdbcTemplate jdbcTemplate;
+  private final TestItemRepository testItemRepository;
+  private final TestItemService testItemService;
+  private final LaunchRepository launchRepository;
+  private final LogRepository logRepository;
+  private final LogService logService;
+  private final LogFullCache logFullCache;
+
+  private final Counter savedLogsCounter;
+  private final Timer batchInsertTimer;
+
+  public BatchLogSaver(JdbcTemplate jdbcTemplate, TestItemRepository testItemRepository,
+      TestItemService testItemService, LaunchRepository launchRepository,
+      LogRepository logRepository, LogService logService, LogFullCache logFullCache,
+      MeterRegistry meterRegistry) {
+    this.jdbcTemplate = jdbcTemplate;
+    this.testItemRepository = testItemRepository;
+    this.testItemService = testItemService;
+    this.launchRepository = launchRepository;
+    this.logRepository = logRepository;
+    this.logService = logService;
+    this.logFullCache = logFullCache;
+    this.savedLogsCounter = meterRegistry.counter(LOGS_SAVED_METRIC, MODE_TAG, "batch");
+    this.batchInsertTimer = meterRegistry.timer(LOGS_BATCH_INSERT_METRIC);
+  }
+
+  /**
+   * Saves logs of the project. Requests with files are not supported and should be saved one by
+   * one, with their attachments.
+   *
+   * @param projectId Project id
+   * @param requests  {@link SaveLogRQ} without files
+   */
+  public void saveLogs(Long projectId, List<SaveLogRQ> requests) {
+    if (requests.isEmpty()) {
+      return;
+    }
+    List<LogFull> logs = new ArrayList<>(requests.size());
+    List<Long> launchIds = new ArrayList<>(requests.size());
+
+    Map<String, List<SaveLogRQ>> itemLogs = requests.stream()
+        .filter(rq -> StringUtils.isNotEmpty(rq.getItemUuid()))
+        .collect(groupingBy(SaveLogRQ::getItemUuid, LinkedHashMap::new, toList()));
+    itemLogs.forEach((itemUuid, itemRequests) -> {
+      TestItem item = testItemRepository.findByUuid(itemUuid)
+          .orElseThrow(() -> new ReportPortalException(ErrorType.TEST_ITEM_NOT_FOUND, itemUuid));
+      Long launchId = testItemService.getEffectiveLaunch(item).getId();
+      itemRequests.forEach(rq -> {
+        logs.add(new LogFullBuilder().addSaveLogRq(rq).addTestItem(item).addProjectId(projectId)
+            .get());
+        launchIds.add(launchId);
+      });
+    });
+
+    Map<String, List<SaveLogRQ>> launchLogs = requests.stream()
+        .filter(rq -> StringUtils.isEmpty(rq.getItemUuid()))
+        .collect(groupingBy(SaveLogRQ::getLaunchUuid, LinkedHashMap::new, toList()));
+    launchLogs.forEach((launchUuid, launchRequests) -> {
+      Launch launch = launchRepository.findByUuid(launchUuid)
+          .orElseThrow(() -> new ReportPortalException(ErrorType.LAUNCH_NOT_FOUND, launchUuid));
+      launchRequests.forEach(rq -> {
+        logs.add(new LogFullBuilder().addSaveLogRq(rq).addLaunch(launch).addProjectId(projectId)
+            .get());
+        launchIds.add(launch.getId());
+      });
+    });
+
+    batchInsertTimer.record(() -> insert(logs));
+    savedLogsCounter.increment(logs.size());
+
+    for (int i = 0; i < logs.size(); i++) {
+      logService.saveLogMessage(logs.get(i), launchIds.get(i));
+      logFullCache.evict(logs.get(i));
+    }
+  }
+
+  private void insert(List<LogFull> logs) {
+    // items started within the same transaction have to reach the database before their logs
+    logRepository.flush();
+    List<Long> ids = jdbcTemplate.queryForList(ALLOCATE_IDS_QUERY, Long.class, logs.size());
+    for (int i = 0; i < logs.size(); i++) {
+      logs.get(i).setId(ids.get(i));
+    }
+    jdbcTemplate.batchUpdate(INSERT_LOG_QUERY, new BatchPreparedStatementSetter() {
+      @Override
+      public void setValues(PreparedStatement ps, int i) throws SQLException {
+        LogFull log = logs.get(i);
+        ps.setLong(1, log.getId());
+        ps.setString(2, log.getUuid());
+        ps.setTimestamp(3, Timestamp.from(log.getLogTime()));
+        ps.setString(4, log.getLogMessage());
+        if (Objects.nonNull(log.getTestItem())) {
+          ps.setLong(5, log.getTestItem().getItemId());
+          ps.setNull(6, Types.BIGINT);
+        } else {
+          ps.setNull(5, Types.BIGINT);
+          ps.setLong(6, log.getLaunch().getId());
+        }
+        ps.setInt(7, log.getLogLevel());
+        ps.setLong(8, log.getProjectId());
+      }
+
+      @Override
+      public int getBatchSize() {
+        return logs.size();
+      }
+    });
+  }
+
+}
@@ -30,6 +30,7 @@ import com.epam.ta.reportportal.ws.rabbit.RequestType;
 import java.util.Map;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
 import javax.annotation.Nonnull;
 import javax.inject.Provider;
 import org.springframework.amqp.core.AmqpTemplate;
@@ -63,6 +64,9 @@ public class CreateLogHandlerAsyncImpl implements CreateLogHandler {
   @Autowired
   private ReportingQueueService reportingQueueService;
 
+  @Autowired
+  private AttachmentSaveAdmission attachmentSaveAdmission;
+
   @Autowired
   @Qualifier(value = "rabbitTemplate")
   AmqpTemplate amqpTemplate;
@@ -77,11 +81,19 @@ public class CreateLogHandlerAsyncImpl implements CreateLogHandler {
     request.setUuid(UUID.randomUUID().toString());
 
     if (file != null) {
-      CompletableFuture.supplyAsync(saveLogBinaryDataTask.get()
-              .withRequest(request)
-              .withFile(file)
-              .withProjectId(projectDetails.getProjectId()), taskExecutor)
-          .thenAccept(metaInfo -> sendMessage(request, metaInfo, projectDetails.getProjectId()));
+      Long projectId = projectDetails.getProjectId();
+      attachmentSaveAdmission.acquire(projectId);
+      try {
+        CompletableFuture.supplyAsync(saveLogBinaryDataTask.get()
+                .withRequest(request)
+                .withFile(file)
+                .withProjectId(projectId), taskExecutor)
+            .whenComplete((metaInfo, e) -> attachmentSaveAdmission.release(projectId))
+            .thenAccept(metaInfo -> sendMessage(request, metaInfo, projectId));
+      } catch (RejectedExecutionException e) {
+        attachmentSaveAdmission.release(projectId);
+        throw e;
+      }
     } else {
       sendMessage(request, null, projectDetails.getProjectId());
     }
@@ -23,6 +23,7 @@ import com.epam.ta.reportportal.binary.AttachmentBinaryDataService;
 import com.epam.ta.reportportal.commons.ReportPortalUser;
 import com.epam.ta.reportportal.core.item.TestItemService;
 import com.epam.ta.reportportal.core.log.CreateLogHandler;
+import com.epam.ta.reportportal.core.log.LogFullCache;
 import com.epam.ta.reportportal.core.log.LogService;
 import com.epam.ta.reportportal.dao.LaunchRepository;
 import com.epam.ta.reportportal.dao.LogRepository;
@@ -39,6 +40,7 @@ import com.epam.reportportal.rules.exception.ErrorType;
 import com.epam.ta.reportportal.ws.reporting.SaveLogRQ;
 import java.time.Instant;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
 import javax.annotation.Nonnull;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -81,10 +83,16 @@ public class CreateLogHandlerImpl implements CreateLogHandler {
   @Autowired
   private LogService logService;
 
+  @Autowired
+  private LogFullCache logFullCache;
+
   @Autowired
   @Qualifier("saveLogsTaskExecutor")
   private TaskExecutor taskExecutor;
 
+  @Autowired
+  private AttachmentSaveAdmission attachmentSaveAdmission;
+
   @Override
   @Nonnull
   //TODO check saving an attachment of the item of the project A in the project's B directory
@@ -106,19 +114,38 @@ public class CreateLogHandlerImpl implements CreateLogHandler {
 
     final LogFull logFull = logFullBuilder.get();
     final Log log = LOG_FULL_TO_LOG.apply(logFull);
-    CompletableFuture.supplyAsync(() -> logRepository.saveAndFlush(log), taskExecutor)
-        .thenAcceptAsync(savedLog -> {
-          logFull.setId(savedLog.getId());
-          logService.saveLogMessage(logFull, launch.getId());
-          if (file != null) {
-            saveBinaryData(file, launch, savedLog);
-          }
-        }, taskExecutor)
-        .exceptionally(e -> {
-              LOGGER.error("Failed to save log with attachments", e);
-              return null;
+    final Long projectId = projectDetails.getProjectId();
+    if (file != null) {
+      attachmentSaveAdmission.acquire(projectId);
+    }
+    try {
+      //the log, its message and its binary data are saved by one task, so a rejected task never
+      //leaves a saved log without them
+      CompletableFuture.runAsync(() -> {
+            Log savedLog = logRepository.saveAndFlush(log);
+            logFull.setId(savedLog.getId());
+            logService.saveLogMessage(logFull, launch.getId());
+            if (file != null) {
+              saveBinaryData(file, launch, savedLog);
+            }
+            logFullCache.evict(logFull);
+          }, taskExecutor)
+          .whenComplete((result, e) -> {
+            if (file != null) {
+              attachmentSaveAdmission.release(projectId);
             }
-        );
+          })
+          .exceptionally(e -> {
+                LOGGER.error("Failed to save log with attachments", e);
+                return null;
+              }
+          );
+    } catch (RejectedExecutionException e) {
+      if (file != null) {
+        attachmentSaveAdmission.release(projectId);
+      }
+      throw e;
+    }
 
     return new EntryCreatedAsyncRS(log.getUuid());
   }
@@ -34,6 +34,7 @@ import com.epam.reportportal.rules.commons.validation.BusinessRule;
 import com.epam.ta.reportportal.core.analyzer.auto.LogIndexer;
 import com.epam.ta.reportportal.core.item.TestItemService;
 import com.epam.ta.reportportal.core.log.DeleteLogHandler;
+import com.epam.ta.reportportal.core.log.LogFullCache;
 import com.epam.ta.reportportal.core.log.LogService;
 import com.epam.ta.reportportal.dao.AttachmentRepository;
 import com.epam.ta.reportportal.dao.LogRepository;
@@ -75,15 +76,19 @@ public class DeleteLogHandlerImpl implements DeleteLogHandler {
 
   private final LogService logService;
 
+  private final LogFullCache logFullCache;
+
   public DeleteLogHandlerImpl(LogRepository logRepository, ProjectRepository projectRepository,
       TestItemService testItemService,
-      LogIndexer logIndexer, AttachmentRepository attachmentRepository, LogService logService) {
+      LogIndexer logIndexer, AttachmentRepository attachmentRepository, LogService logService,
+      LogFullCache logFullCache) {
     this.logRepository = logRepository;
     this.projectRepository = projectRepository;
     this.testItemService = testItemService;
     this.logIndexer = logIndexer;
     this.attachmentRepository = attachmentRepository;
     this.logService = logService;
+    this.logFullCache = logFullCache;
   }
 
   @Override
@@ -99,6 +104,7 @@ public class DeleteLogHandlerImpl implements DeleteLogHandler {
       logRepository.delete(log);
       ofNullable(log.getAttachment()).ifPresent(
           attachment -> attachmentRepository.moveForDeletion(attachment.getId()));
+      logFullCache.evict(log.getId(), log.getTestItem());
     } catch (Exception exc) {
       throw new ReportPortalException("Error while Log instance deleting.", exc);
     }
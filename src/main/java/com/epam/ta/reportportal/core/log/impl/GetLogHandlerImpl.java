@@ -39,6 +39,8 @@ import com.epam.ta.reportportal.commons.querygen.ProjectFilter;
 import com.epam.ta.reportportal.commons.querygen.Queryable;
 import com.epam.ta.reportportal.core.item.TestItemService;
 import com.epam.ta.reportportal.core.log.GetLogHandler;
+import com.epam.ta.reportportal.core.log.LogFullCache;
+import com.epam.ta.reportportal.core.log.LogFullCache.CachedLog;
 import com.epam.ta.reportportal.core.log.LogService;
 import com.epam.ta.reportportal.dao.LogRepository;
 import com.epam.ta.reportportal.dao.TestItemRepository;
@@ -102,13 +104,17 @@ public class GetLogHandlerImpl implements GetLogHandler {
 
   private final TestItemService testItemService;
 
+  private final LogFullCache logFullCache;
+
   @Autowired
   public GetLogHandlerImpl(LogRepository logRepository, LogService logService,
-      TestItemRepository testItemRepository, TestItemService testItemService) {
+      TestItemRepository testItemRepository, TestItemService testItemService,
+      LogFullCache logFullCache) {
     this.logRepository = logRepository;
     this.logService = logService;
     this.testItemRepository = testItemRepository;
     this.testItemService = testItemService;
+    this.logFullCache = logFullCache;
   }
 
   @Override
@@ -133,9 +139,11 @@ public class GetLogHandlerImpl implements GetLogHandler {
         .collect(toMap(TestItem::getItemId, item -> {
           final Launch launch = testItemService.getEffectiveLaunch(item);
           validate(launch, projectDetails);
-          return logService.findLatestUnderTestItemByLaunchIdAndTestItemIdsAndLogLevelGte(
-                  launch.getId(), item.getItemId(), logLevel.toInt(), LOG_UNDER_ITEM_BATCH_SIZE)
-              .stream().map(LogConverter.TO_RESOURCE).collect(Collectors.toList());
+          return logFullCache.getLatestLogs(item.getItemId(), logLevel.toInt(),
+                  () -> logService.findLatestUnderTestItemByLaunchIdAndTestItemIdsAndLogLevelGte(
+                      launch.getId(), item.getItemId(), logLevel.toInt(),
+                      LOG_UNDER_ITEM_BATCH_SIZE))
+              .stream().map(CachedLog::getResource).collect(Collectors.toList());
         }));
   }
 
@@ -148,14 +156,14 @@ public class GetLogHandlerImpl implements GetLogHandler {
   @Override
   public LogResource getLog(String logId, ReportPortalUser.ProjectDetails projectDetails,
       ReportPortalUser user) {
-    LogFull logFull;
+    CachedLog log;
     try {
-      logFull = findById(Long.parseLong(logId));
+      log = findById(Long.parseLong(logId));
     } catch (NumberFormatException e) {
-      logFull = findByUuid(logId);
+      log = CachedLog.of(withProjectId(findByUuid(logId)));
     }
-    validate(logFull, projectDetails);
-    return LogConverter.TO_RESOURCE.apply(logFull);
+    validate(log, projectDetails);
+    return log.getResource();
   }
 
   @Override
@@ -181,10 +189,10 @@ public class GetLogHandlerImpl implements GetLogHandler {
     Map<String, List<NestedItem>> result =
         content.stream().collect(groupingBy(NestedItem::getType));
 
-    Map<Long, LogFull> logMap = ofNullable(result.get(LogRepositoryConstants.LOG)).map(
-        logs -> logService.findAllById(
-                logs.stream().map(NestedItem::getId).collect(Collectors.toSet())).stream()
-            .collect(toMap(LogFull::getId, l -> l))).orElseGet(Collections::emptyMap);
+    Map<Long, CachedLog> logMap = ofNullable(result.get(LogRepositoryConstants.LOG)).map(
+        logs -> logFullCache.getLogs(
+            logs.stream().map(NestedItem::getId).collect(Collectors.toSet()),
+            logService::findAllById)).orElseGet(Collections::emptyMap);
 
     queryable.getFilterConditions().add(getLaunchCondition(launch.getId()));
     queryable.getFilterConditions().add(getParentPathCondition(parentItem));
@@ -197,7 +205,7 @@ public class GetLogHandlerImpl implements GetLogHandler {
     List<Object> resources = Lists.newArrayListWithExpectedSize(content.size());
     content.forEach(nestedItem -> {
       if (LogRepositoryConstants.LOG.equals(nestedItem.getType())) {
-        ofNullable(logMap.get(nestedItem.getId())).map(LogConverter.TO_RESOURCE)
+        ofNullable(logMap.get(nestedItem.getId())).map(CachedLog::getResource)
             .ifPresent(resources::add);
       } else if (LogRepositoryConstants.ITEM.equals(nestedItem.getType())) {
         ofNullable(nestedStepMap.get(nestedItem.getId())).map(
@@ -234,13 +242,11 @@ public class GetLogHandlerImpl implements GetLogHandler {
     );
 
     if (!excludeLogContent) {
-      Map<Long, LogFull> logMap = logService.findAllById(
-              loadedLogs.stream().map(PagedLogResource::getId).collect(Collectors.toSet())).stream()
-          .collect(toMap(LogFull::getId, l -> l));
-      loadedLogs.forEach(resource -> {
-        final LogFull model = logMap.get(resource.getId());
-        LogConverter.FILL_WITH_LOG_CONTENT.apply(model, resource);
-      });
+      Map<Long, CachedLog> logMap = logFullCache.getLogs(
+          loadedLogs.stream().map(PagedLogResource::getId).collect(Collectors.toSet()),
+          logService::findAllById);
+      loadedLogs.forEach(resource -> ofNullable(logMap.get(resource.getId())).ifPresent(
+          log -> LogConverter.FILL_WITH_RESOURCE_CONTENT.apply(log.getResource(), resource)));
     }
     return loadedLogs;
   }
@@ -281,15 +287,11 @@ public class GetLogHandlerImpl implements GetLogHandler {
   /**
    * Validate log item on existence, availability under specified project, etc.
    *
-   * @param log            - logFull item
+   * @param log            - cached log
    * @param projectDetails Project details
    */
-  private void validate(LogFull log, ReportPortalUser.ProjectDetails projectDetails) {
-    Long launchProjectId = ofNullable(log.getTestItem()).map(
-            it -> testItemService.getEffectiveLaunch(it).getProjectId())
-        .orElseGet(() -> log.getLaunch().getProjectId());
-
-    expect(launchProjectId, equalTo(projectDetails.getProjectId())).verify(FORBIDDEN_OPERATION,
+  private void validate(CachedLog log, ReportPortalUser.ProjectDetails projectDetails) {
+    expect(log.getProjectId(), equalTo(projectDetails.getProjectId())).verify(FORBIDDEN_OPERATION,
         formattedSupplier("Log '{}' is not under '{}' project", log.getId(),
             projectDetails.getProjectName()
         )
@@ -311,11 +313,22 @@ public class GetLogHandlerImpl implements GetLogHandler {
    * @param logId - log ID
    * @return - log item
    */
-  private LogFull findById(Long logId) {
-    return logService.findById(logId)
+  private CachedLog findById(Long logId) {
+    return logFullCache.getLog(logId, id -> logService.findById(id).map(this::withProjectId))
         .orElseThrow(() -> new ReportPortalException(LOG_NOT_FOUND, logId));
   }
 
+  /**
+   * Sets the project of the log to the project of its effective launch, so the cached log is
+   * validated without loading the launch
+   */
+  private LogFull withProjectId(LogFull log) {
+    log.setProjectId(ofNullable(log.getTestItem()).map(
+            it -> testItemService.getEffectiveLaunch(it).getProjectId())
+        .orElseGet(() -> log.getLaunch().getProjectId()));
+    return log;
+  }
+
   /**
    * Find logFull item by uuid
    *
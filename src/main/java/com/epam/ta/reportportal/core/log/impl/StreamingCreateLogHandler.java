@@ -0,0 +1,245 @@
+/*
+ * Copyright 2024 EPAM Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.ta.reportportal.core.log.impl;
+
+import static com.epam.ta.reportportal.util.ControllerUtils.validateSaveRQ;
+
+import com.epam.reportportal.rules.commons.validation.Suppliers;
+import com.epam.reportportal.rules.exception.ErrorType;
+import com.epam.reportportal.rules.exception.ReportPortalException;
+import com.epam.ta.reportportal.commons.BinaryDataMetaInfo;
+import com.epam.ta.reportportal.commons.ReportPortalUser;
+import com.epam.ta.reportportal.core.configs.MvcConfig;
+import com.epam.ta.reportportal.entity.attachment.AttachmentMetaInfo;
+import com.epam.ta.reportportal.ws.reporting.BatchElementCreatedRS;
+import com.epam.ta.reportportal.ws.reporting.BatchSaveOperatingRS;
+import com.epam.ta.reportportal.ws.reporting.Constants;
+import com.epam.ta.reportportal.ws.reporting.SaveLogRQ;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import javax.servlet.http.HttpServletRequest;
+import javax.validation.Validator;
+import org.apache.commons.fileupload.FileItemIterator;
+import org.apache.commons.fileupload.FileItemStream;
+import org.apache.commons.fileupload.FileUploadException;
+import org.apache.commons.fileupload.servlet.ServletFileUpload;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.exception.ExceptionUtils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+/**
+ * Saves a batch of logs reading the multipart request as a stream: every attachment is written to
+ * the data store while its part is read, so neither heap nor temporary files hold the request.
+ * <p>
+ * Attachments are matched to the log requests by the file name as they arrive, so
+ * {@link Constants#LOG_REQUEST_JSON_PART} has to be the first part of the request, the parts
+ * before it are skipped. The number of attachments written at the same time is limited on the
+ * instance level and counted in the project quota of {@link AttachmentSaveAdmission}.
+ */
+@Service
+public class StreamingCreateLogHandler {
+
+  /**
+   * Path of the streaming endpoint, requests to it are not resolved by the multipart resolver
+   */
+  public static final String STREAMING_PATH = "/log/stream";
+
+  private final CreateLogHandlerAsyncImpl createLogHandler;
+
+  private final AttachmentStreamSaver attachmentStreamSaver;
+
+  private final AttachmentSaveAdmission attachmentSaveAdmission;
+
+  private final ObjectMapper objectMapper;
+
+  private final Validator validator;
+
+  private final MvcConfig.MultipartConfig multipartConfig;
+
+  private final Semaphore uploads;
+
+  private final long acquireTimeout;
+
+  public StreamingCreateLogHandler(CreateLogHandlerAsyncImpl createLogHandler,
+      AttachmentStreamSaver attachmentStreamSaver, AttachmentSaveAdmission attachmentSaveAdmission,
+      ObjectMapper objectMapper, Validator validator,
+      MvcConfig.MultipartConfig multipartConfig,
+      @Value("${rp.upload.streaming.concurrency:100}") int concurrency,
+      @Value("${rp.upload.streaming.acquire-timeout:30000}") long acquireTimeout) {
+    this.createLogHandler = createLogHandler;
+    this.attachmentStreamSaver = attachmentStreamSaver;
+    this.attachmentSaveAdmission = attachmentSaveAdmission;
+    this.objectMapper = objectMapper;
+    this.validator = validator;
+    this.multipartConfig = multipartConfig;
+    this.uploads = new Semaphore(concurrency, true);
+    this.acquireTimeout = acquireTimeout;
+  }
+
+  public static boolean isStreamingRequest(HttpServletRequest request) {
+    return request.getRequestURI().endsWith(STREAMING_PATH);
+  }
+
+  /**
+   * @param request        Multipart request
+   * @param projectDetails Project details
+   * @return Result of every log request in the order of the json part
+   */
+  public BatchSaveOperatingRS createLogs(HttpServletRequest request,
+      ReportPortalUser.ProjectDetails projectDetails) {
+    ServletFileUpload upload = new ServletFileUpload();
+    upload.setSizeMax(multipartConfig.getMaxUploadSize());
+    upload.setFileSizeMax(multipartConfig.getMaxFileSize());
+
+    SaveLogRQ[] requests = null;
+    BatchElementCreatedRS[] responses = null;
+    Map<String, Deque<Integer>> awaiting = new HashMap<>();
+    Exception failure = null;
+    try {
+      FileItemIterator parts = upload.getItemIterator(request);
+      while (parts.hasNext()) {
+        FileItemStream part = parts.next();
+        if (requests == null && Constants.LOG_REQUEST_JSON_PART.equals(part.getFieldName())) {
+          try (InputStream json = part.openStream()) {
+            requests = objectMapper.readValue(json, SaveLogRQ[].class);
+          }
+          responses = new BatchElementCreatedRS[requests.length];
+          for (int i = 0; i < requests.length; i++) {
+            responses[i] = register(requests[i], i, awaiting, projectDetails);
+          }
+        } else if (requests != null && !part.isFormField()) {
+          Integer index = match(part, awaiting);
+          if (index != null) {
+            responses[index] = createLog(requests[index], part, projectDetails);
+          }
+        }
+      }
+    } catch (FileUploadException | IOException e) {
+      failure = e;
+    }
+
+    if (requests == null) {
+      throw new ReportPortalException(ErrorType.INCORRECT_REQUEST, failure == null
+          ? "Required request part '" + Constants.LOG_REQUEST_JSON_PART + "' is not present"
+          : failure.getMessage());
+    }
+    for (int i = 0; i < responses.length; i++) {
+      if (responses[i] == null) {
+        responses[i] = failed(failure != null ? failure : new ReportPortalException(
+            ErrorType.BINARY_DATA_CANNOT_BE_SAVED,
+            Suppliers.formattedSupplier("There is no request part or file with name {}",
+                requests[i].getFile().getName()
+            ).get()
+        ));
+      }
+    }
+    BatchSaveOperatingRS response = new BatchSaveOperatingRS();
+    Arrays.stream(responses).forEach(response::addResponse);
+    return response;
+  }
+
+  /**
+   * Saves the log without attachment right away, or puts it to wait for its attachment
+   *
+   * @return Result of the log request, or null if it waits for the attachment
+   */
+  private BatchElementCreatedRS register(SaveLogRQ request, int index,
+      Map<String, Deque<Integer>> awaiting, ReportPortalUser.ProjectDetails projectDetails) {
+    try {
+      validateSaveRQ(validator, request);
+      String filename = request.getFile() == null ? null : request.getFile().getName();
+      if (StringUtils.isEmpty(filename)) {
+        return new BatchElementCreatedRS(
+            createLogHandler.createLog(request, null, projectDetails).getId());
+      }
+      awaiting.computeIfAbsent(filename, name -> new ArrayDeque<>()).add(index);
+      return null;
+    } catch (Exception e) {
+      return failed(e);
+    }
+  }
+
+  /**
+   * Finds the log request waiting for the part, by file name or by part name
+   */
+  private Integer match(FileItemStream part, Map<String, Deque<Integer>> awaiting) {
+    Deque<Integer> byFileName = awaiting.get(part.getName());
+    if (byFileName != null && !byFileName.isEmpty()) {
+      return byFileName.poll();
+    }
+    Deque<Integer> byPartName = awaiting.get(part.getFieldName());
+    return byPartName == null ? null : byPartName.poll();
+  }
+
+  private BatchElementCreatedRS createLog(SaveLogRQ request, FileItemStream part,
+      ReportPortalUser.ProjectDetails projectDetails) {
+    try {
+      createLogHandler.validate(request);
+      request.setUuid(UUID.randomUUID().toString());
+      BinaryDataMetaInfo metaInfo = saveAttachment(request, part, projectDetails.getProjectId());
+      createLogHandler.sendMessage(request, metaInfo, projectDetails.getProjectId());
+      return new BatchElementCreatedRS(request.getUuid());
+    } catch (Exception e) {
+      return failed(e);
+    }
+  }
+
+  private BinaryDataMetaInfo saveAttachment(SaveLogRQ request, FileItemStream part,
+      Long projectId) throws IOException {
+    attachmentSaveAdmission.acquire(projectId);
+    try {
+      acquire();
+      try (InputStream content = part.openStream()) {
+        return attachmentStreamSaver.save(AttachmentMetaInfo.builder()
+            .withProjectId(projectId)
+            .withLaunchUuid(request.getLaunchUuid())
+            .withLogUuid(request.getUuid())
+            .build(), part.getFieldName(), part.getName(), part.getContentType(), content);
+      } finally {
+        uploads.release();
+      }
+    } finally {
+      attachmentSaveAdmission.release(projectId);
+    }
+  }
+
+  private void acquire() {
+    try {
+      if (!uploads.tryAcquire(acquireTimeout, TimeUnit.MILLISECONDS)) {
+        throw new ReportPortalException(ErrorType.BINARY_DATA_CANNOT_BE_SAVED,
+            "Too many attachments are being uploaded, try again later");
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new ReportPortalException(ErrorType.BINARY_DATA_CANNOT_BE_SAVED, e.getMessage());
+    }
+  }
+
+  private BatchElementCreatedRS failed(Exception e) {
+    return new BatchElementCreatedRS(ExceptionUtils.getStackTrace(e), ExceptionUtils.getMessage(e));
+  }
+}
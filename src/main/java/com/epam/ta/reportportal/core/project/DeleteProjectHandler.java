@@ -30,7 +30,8 @@ import java.util.List;
 public interface DeleteProjectHandler {
 
   /**
-   * Delete specified project.
+   * Delete specified project. The project content is deleted in background by
+   * {@link com.epam.ta.reportportal.core.project.impl.ProjectDeletionService}.
    *
    * @param projectId Project id
    * @param user      {@link ReportPortalUser}
@@ -40,7 +41,7 @@ public interface DeleteProjectHandler {
   OperationCompletionRS deleteProject(Long projectId, ReportPortalUser user);
 
   /**
-   * Delete specified project.
+   * Delete specified projects in background.
    *
    * @param ids  projects ids
    * @param user {@link ReportPortalUser}
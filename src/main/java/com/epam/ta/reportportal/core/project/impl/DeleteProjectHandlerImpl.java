@@ -17,36 +17,28 @@
 package com.epam.ta.reportportal.core.project.impl;
 
 import static com.epam.reportportal.rules.commons.validation.BusinessRule.expect;
-import static com.epam.ta.reportportal.core.analyzer.auto.impl.AnalyzerStatusCache.AUTO_ANALYZER_KEY;
+import static com.epam.ta.reportportal.core.analyzer.auto.impl.AnalysisStateRegistry.AUTO_ANALYZER_KEY;
 import static com.epam.ta.reportportal.core.events.activity.util.ActivityDetailsUtil.RP_SUBJECT_NAME;
 import static com.epam.ta.reportportal.ws.converter.converters.ExceptionConverter.TO_ERROR_RS;
 
-import com.epam.ta.reportportal.binary.AttachmentBinaryDataService;
 import com.epam.ta.reportportal.commons.ReportPortalUser;
 import com.epam.ta.reportportal.core.analyzer.auto.LogIndexer;
 import com.epam.ta.reportportal.core.analyzer.auto.client.AnalyzerServiceClient;
-import com.epam.ta.reportportal.core.analyzer.auto.impl.AnalyzerStatusCache;
+import com.epam.ta.reportportal.core.analyzer.auto.impl.AnalysisStateRegistry;
 import com.epam.ta.reportportal.core.analyzer.auto.impl.AnalyzerUtils;
 import com.epam.ta.reportportal.core.events.MessageBus;
 import com.epam.ta.reportportal.core.events.activity.ProjectBulkDeletedEvent;
 import com.epam.ta.reportportal.core.events.activity.ProjectDeletedEvent;
 import com.epam.ta.reportportal.core.events.activity.ProjectIndexEvent;
 import com.epam.ta.reportportal.core.project.DeleteProjectHandler;
-import com.epam.ta.reportportal.core.remover.ContentRemover;
-import com.epam.ta.reportportal.dao.IssueTypeRepository;
-import com.epam.ta.reportportal.dao.LogRepository;
 import com.epam.ta.reportportal.dao.ProjectRepository;
 import com.epam.ta.reportportal.dao.UserRepository;
-import com.epam.ta.reportportal.entity.item.issue.IssueType;
 import com.epam.ta.reportportal.entity.project.Project;
-import com.epam.ta.reportportal.entity.project.ProjectIssueType;
 import com.epam.ta.reportportal.entity.user.User;
 import com.epam.reportportal.rules.exception.ReportPortalException;
 import com.epam.ta.reportportal.model.DeleteBulkRS;
-import com.epam.ta.reportportal.util.FeatureFlagHandler;
 import com.epam.reportportal.rules.exception.ErrorType;
 import com.epam.ta.reportportal.ws.reporting.OperationCompletionRS;
-import com.google.common.cache.Cache;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
 import java.util.Collection;
@@ -54,7 +46,6 @@ import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
-import java.util.Set;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -76,38 +67,24 @@ public class DeleteProjectHandlerImpl implements DeleteProjectHandler {
 
   private final AnalyzerServiceClient analyzerServiceClient;
 
-  private final AnalyzerStatusCache analyzerStatusCache;
+  private final AnalysisStateRegistry analysisStateRegistry;
 
   private final MessageBus messageBus;
 
-  private final IssueTypeRepository issueTypeRepository;
-
-  private final ContentRemover<Project> projectContentRemover;
-
-  private final LogRepository logRepository;
-
-  private final AttachmentBinaryDataService attachmentBinaryDataService;
-
-  private final FeatureFlagHandler featureFlagHandler;
+  private final ProjectDeletionService projectDeletionService;
 
   @Autowired
   public DeleteProjectHandlerImpl(ProjectRepository projectRepository,
       UserRepository userRepository, LogIndexer logIndexer,
-      AnalyzerServiceClient analyzerServiceClient, AnalyzerStatusCache analyzerStatusCache,
-      MessageBus messageBus, AttachmentBinaryDataService attachmentBinaryDataService,
-      IssueTypeRepository issueTypeRepository, ContentRemover<Project> projectContentRemover,
-      LogRepository logRepository, FeatureFlagHandler featureFlagHandler) {
+      AnalyzerServiceClient analyzerServiceClient, AnalysisStateRegistry analysisStateRegistry,
+      MessageBus messageBus, ProjectDeletionService projectDeletionService) {
     this.projectRepository = projectRepository;
     this.userRepository = userRepository;
     this.logIndexer = logIndexer;
     this.analyzerServiceClient = analyzerServiceClient;
-    this.analyzerStatusCache = analyzerStatusCache;
+    this.analysisStateRegistry = analysisStateRegistry;
     this.messageBus = messageBus;
-    this.issueTypeRepository = issueTypeRepository;
-    this.projectContentRemover = projectContentRemover;
-    this.logRepository = logRepository;
-    this.featureFlagHandler = featureFlagHandler;
-    this.attachmentBinaryDataService = attachmentBinaryDataService;
+    this.projectDeletionService = projectDeletionService;
   }
 
   @Override
@@ -183,10 +160,8 @@ public class DeleteProjectHandlerImpl implements DeleteProjectHandler {
         "Index can not be removed until index generation proceeds."
     );
 
-    Cache<Long, Long> analyzeStatus = analyzerStatusCache.getAnalyzeStatus(AUTO_ANALYZER_KEY)
-        .orElseThrow(
-            () -> new ReportPortalException(ErrorType.ANALYZER_NOT_FOUND, AUTO_ANALYZER_KEY));
-    expect(analyzeStatus.asMap().containsValue(project.getId()), Predicate.isEqual(false)).verify(
+    expect(analysisStateRegistry.containsProjectId(AUTO_ANALYZER_KEY, project.getId()),
+        Predicate.isEqual(false)).verify(
         ErrorType.FORBIDDEN_OPERATION, "Index can not be removed until index generation proceeds.");
 
     logIndexer.deleteIndex(project.getId());
@@ -199,22 +174,9 @@ public class DeleteProjectHandlerImpl implements DeleteProjectHandler {
   }
 
   private OperationCompletionRS deleteProject(Project project) {
-    Set<Long> defaultIssueTypeIds =
-        issueTypeRepository.getDefaultIssueTypes().stream().map(IssueType::getId)
-            .collect(Collectors.toSet());
-    Set<IssueType> issueTypesToRemove =
-        project.getProjectIssueTypes().stream().map(ProjectIssueType::getIssueType)
-            .filter(issueType -> !defaultIssueTypeIds.contains(issueType.getId()))
-            .collect(Collectors.toSet());
-    projectContentRemover.remove(project);
-    projectRepository.delete(project);
-    issueTypeRepository.deleteAll(issueTypesToRemove);
-    logIndexer.deleteIndex(project.getId());
-    analyzerServiceClient.removeSuggest(project.getId());
-    logRepository.deleteByProjectId(project.getId());
-    attachmentBinaryDataService.deleteAllByProjectId(project.getId());
+    projectDeletionService.schedule(project);
 
     return new OperationCompletionRS(
-        "Project with id = '" + project.getId() + "' has been successfully deleted.");
+        "Project with id = '" + project.getId() + "' has been scheduled for deletion.");
   }
 }
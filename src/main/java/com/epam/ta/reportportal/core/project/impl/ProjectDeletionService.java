@@ -0,0 +1,524 @@
+/*
+ * Copyright 2024 EPAM Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.ta.reportportal.core.project.impl;
+
+import static com.epam.ta.reportportal.commons.EntityUtils.normalizeId;
+
+import com.epam.ta.reportportal.binary.DataStoreService;
+import com.epam.ta.reportportal.commons.EntityUtils;
+import com.epam.ta.reportportal.core.analyzer.auto.LogIndexer;
+import com.epam.ta.reportportal.core.analyzer.auto.client.AnalyzerServiceClient;
+import com.epam.ta.reportportal.core.launch.impl.LaunchDeletionService;
+import com.epam.ta.reportportal.core.remover.ContentRemover;
+import com.epam.ta.reportportal.dao.IssueTypeRepository;
+import com.epam.ta.reportportal.dao.ProjectRepository;
+import com.epam.ta.reportportal.entity.enums.FeatureFlag;
+import com.epam.ta.reportportal.entity.item.issue.IssueType;
+import com.epam.ta.reportportal.entity.project.Project;
+import com.epam.ta.reportportal.entity.project.ProjectIssueType;
+import com.epam.ta.reportportal.util.FeatureFlagHandler;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import javax.annotation.PreDestroy;
+import org.apache.commons.lang3.exception.ExceptionUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Deletes projects in background, stage by stage. The launches of the project are passed to
+ * {@link LaunchDeletionService} a limited number per run, so they are deleted launch by launch in
+ * chunks along with the launches deleted by the users, then the remaining logs are deleted in
+ * chunks, the attachments are purged from the data store in parallel, the index is dropped and the
+ * project is deleted. The stage is stored in the 'project_deletion' table after it is completed,
+ * so a deletion interrupted by a crash is resumed from it by any instance after the lease
+ * expires.
+ * <p>
+ * A project being deleted is locked for the changes, see {@link #isDeleting(String)}. The deletion
+ * fails when the deletion of a launch of the project has failed all its attempts, a new request
+ * for the deletion of the project retries the launches.
+ */
+@Service
+public class ProjectDeletionService {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(ProjectDeletionService.class);
+
+  private static final String SCHEDULE_QUERY =
+      "INSERT INTO project_deletion (project_id, stage, state) "
+          + "VALUES (:projectId, 'LAUNCHES', 'QUEUED') "
+          + "ON CONFLICT (project_id) DO UPDATE SET state = 'QUEUED', error = NULL, "
+          + "updated_at = now() WHERE project_deletion.state = 'FAILED'";
+
+  private static final String DELETING_NAMES_QUERY =
+      "SELECT p.name FROM project_deletion d JOIN project p ON p.id = d.project_id "
+          + "WHERE d.state <> 'DONE'";
+
+  private static final String WAKE_UP_QUERY =
+      "UPDATE project_deletion SET state = 'QUEUED', updated_at = now() WHERE state = 'WAITING'";
+
+  private static final String CLAIM_QUERY =
+      "UPDATE project_deletion SET state = 'IN_PROGRESS', owner = :owner, "
+          + "lease_until = now() + make_interval(secs => :lease), updated_at = now() "
+          + "WHERE project_id = (SELECT project_id FROM project_deletion WHERE state = 'QUEUED' "
+          + "OR (state = 'IN_PROGRESS' AND lease_until < now()) ORDER BY created_at LIMIT 1 "
+          + "FOR UPDATE SKIP LOCKED) RETURNING project_id, stage";
+
+  private static final String COUNT_LAUNCHES_QUERY =
+      "SELECT count(*) FROM launch WHERE project_id = :projectId";
+
+  private static final String DELETE_LOGS_QUERY =
+      "DELETE FROM log WHERE id IN (SELECT id FROM log WHERE project_id = :projectId "
+          + "LIMIT :limit)";
+
+  private static final String ATTACHMENTS_PAGE_QUERY =
+      "SELECT id, file_id, thumbnail_id FROM attachment WHERE project_id = :projectId "
+          + "AND id > :after ORDER BY id LIMIT :limit";
+
+  private static final String DELETE_ATTACHMENTS_QUERY =
+      "DELETE FROM attachment WHERE id IN (:ids)";
+
+  private static final String DELETE_PROJECT_ATTACHMENTS_QUERY =
+      "DELETE FROM attachment WHERE id IN (SELECT id FROM attachment "
+          + "WHERE project_id = :projectId LIMIT :limit)";
+
+  private static final String ADVANCE_QUERY =
+      "UPDATE project_deletion SET stage = :stage, "
+          + "lease_until = now() + make_interval(secs => :lease), updated_at = now() "
+          + "WHERE project_id = :projectId AND owner = :owner AND state = 'IN_PROGRESS'";
+
+  private static final String FINISH_QUERY =
+      "UPDATE project_deletion SET state = :state, error = :error, owner = NULL, "
+          + "lease_until = NULL, updated_at = now() "
+          + "WHERE project_id = :projectId AND owner = :owner";
+
+  private static final String RELEASE_QUERY =
+      "UPDATE project_deletion SET state = 'QUEUED', owner = NULL, lease_until = NULL, "
+          + "updated_at = now() WHERE project_id = :projectId AND owner = :owner";
+
+  private static final String CLEAN_QUERY =
+      "DELETE FROM project_deletion WHERE state = 'DONE' "
+          + "AND updated_at < now() - interval '1 day'";
+
+  public enum State {
+    QUEUED, IN_PROGRESS, WAITING, DONE, FAILED
+  }
+
+  /**
+   * Stages of the deletion in the order they are performed
+   */
+  public enum Stage {
+    LAUNCHES, LOGS, ATTACHMENTS, INDEX, PROJECT, DONE
+  }
+
+  private final NamedParameterJdbcTemplate jdbcTemplate;
+
+  private final TransactionTemplate transactionTemplate;
+
+  private final LaunchDeletionService launchDeletionService;
+
+  private final ProjectRepository projectRepository;
+
+  private final IssueTypeRepository issueTypeRepository;
+
+  private final ContentRemover<Project> projectContentRemover;
+
+  private final LogIndexer logIndexer;
+
+  private final AnalyzerServiceClient analyzerServiceClient;
+
+  private final DataStoreService dataStoreService;
+
+  private final FeatureFlagHandler featureFlagHandler;
+
+  private final TaskExecutor executor;
+
+  private final TaskExecutor deletionExecutor;
+
+  private final String owner = UUID.randomUUID().toString();
+
+  private final AtomicBoolean running = new AtomicBoolean();
+
+  private volatile boolean stopping;
+
+  /**
+   * Names of the projects being deleted, refreshed periodically
+   */
+  private volatile Set<String> deleting = Set.of();
+
+  private final int chunkSize;
+
+  private final int launchBatch;
+
+  private final int parallelism;
+
+  private final long leaseSeconds;
+
+  public ProjectDeletionService(NamedParameterJdbcTemplate jdbcTemplate,
+      PlatformTransactionManager transactionManager, LaunchDeletionService launchDeletionService,
+      ProjectRepository projectRepository, IssueTypeRepository issueTypeRepository,
+      ContentRemover<Project> projectContentRemover, LogIndexer logIndexer,
+      AnalyzerServiceClient analyzerServiceClient,
+      @Qualifier("attachmentDataStoreService") DataStoreService dataStoreService,
+      FeatureFlagHandler featureFlagHandler,
+      @Qualifier("projectDeletionTaskExecutor") TaskExecutor executor,
+      @Qualifier("deletionTaskExecutor") TaskExecutor deletionExecutor,
+      @Value("${rp.project.deletion.chunk-size:500}") int chunkSize,
+      @Value("${rp.project.deletion.launch-batch:20}") int launchBatch,
+      @Value("${rp.project.deletion.parallelism:4}") int parallelism,
+      @Value("${rp.project.deletion.lease:300}") long leaseSeconds) {
+    this.jdbcTemplate = jdbcTemplate;
+    this.transactionTemplate = new TransactionTemplate(transactionManager);
+    this.launchDeletionService = launchDeletionService;
+    this.projectRepository = projectRepository;
+    this.issueTypeRepository = issueTypeRepository;
+    this.projectContentRemover = projectContentRemover;
+    this.logIndexer = logIndexer;
+    this.analyzerServiceClient = analyzerServiceClient;
+    this.dataStoreService = dataStoreService;
+    this.featureFlagHandler = featureFlagHandler;
+    this.executor = executor;
+    this.deletionExecutor = deletionExecutor;
+    this.chunkSize = chunkSize;
+    this.launchBatch = launchBatch;
+    this.parallelism = parallelism;
+    this.leaseSeconds = leaseSeconds;
+  }
+
+  /**
+   * Stops the deletion after the current chunk, the project is released to be resumed by another
+   * instance
+   */
+  @PreDestroy
+  public void stop() {
+    stopping = true;
+  }
+
+  /**
+   * Queues the project for deletion, in the transaction of the caller, and locks it for the
+   * changes. A project with the failed deletion is queued again along with its failed launches.
+   *
+   * @param project Project
+   */
+  public void schedule(Project project) {
+    jdbcTemplate.update(SCHEDULE_QUERY, new MapSqlParameterSource("projectId", project.getId()));
+    launchDeletionService.retryFailed(project.getId());
+    Set<String> names = new HashSet<>(deleting);
+    names.add(normalizeId(project.getName()));
+    deleting = Set.copyOf(names);
+  }
+
+  /**
+   * @param projectName Project name
+   * @return true if the project is being deleted on any instance, as of the last refresh
+   */
+  public boolean isDeleting(String projectName) {
+    return deleting.contains(normalizeId(projectName));
+  }
+
+  @Scheduled(fixedDelayString = "${rp.project.deletion.refresh-interval:10000}")
+  public void refreshDeleting() {
+    try {
+      deleting = jdbcTemplate.queryForList(DELETING_NAMES_QUERY, new MapSqlParameterSource(),
+          String.class).stream().map(EntityUtils::normalizeId).collect(Collectors.toSet());
+    } catch (Exception e) {
+      LOGGER.warn("Unable to refresh the projects being deleted: {}", e.getMessage());
+    }
+  }
+
+  /**
+   * Starts the deletion of the queued projects by the dedicated executor, unless the previous run
+   * is still in progress
+   */
+  @Scheduled(fixedDelayString = "${rp.project.deletion.interval:30000}")
+  public void deleteQueued() {
+    if (stopping || !running.compareAndSet(false, true)) {
+      return;
+    }
+    try {
+      deletionExecutor.execute(() -> {
+        try {
+          deleteBatch();
+        } finally {
+          running.set(false);
+        }
+      });
+    } catch (TaskRejectedException e) {
+      running.set(false);
+      LOGGER.warn("Deletion of the projects has been rejected: {}", e.getMessage());
+    }
+  }
+
+  /**
+   * Deletes the queued projects and the projects with the expired lease, one by one. A project
+   * waiting for its launches to be deleted is taken again by the next run.
+   */
+  private void deleteBatch() {
+    MapSqlParameterSource noParams = new MapSqlParameterSource();
+    jdbcTemplate.update(CLEAN_QUERY, noParams);
+    jdbcTemplate.update(WAKE_UP_QUERY, noParams);
+    Optional<Deletion> deletion;
+    while (!stopping && (deletion = claim()).isPresent()) {
+      delete(deletion.get());
+    }
+  }
+
+  private Optional<Deletion> claim() {
+    return jdbcTemplate.query(CLAIM_QUERY, new MapSqlParameterSource()
+            .addValue("owner", owner)
+            .addValue("lease", leaseSeconds),
+        (rs, rowNum) -> new Deletion(rs.getLong("project_id"),
+            Stage.valueOf(rs.getString("stage")))).stream().findFirst();
+  }
+
+  private void delete(Deletion deletion) {
+    try {
+      while (deletion.stage != Stage.DONE) {
+        checkStopping();
+        if (!perform(deletion)) {
+          finish(deletion, State.WAITING, null);
+          return;
+        }
+        Stage next = Stage.values()[deletion.stage.ordinal() + 1];
+        if (next == Stage.DONE) {
+          finish(deletion, State.DONE, null);
+        } else {
+          advance(deletion, next);
+        }
+        deletion.stage = next;
+      }
+    } catch (LeaseLostException e) {
+      LOGGER.warn("Deletion of the project {} has been taken over by another instance",
+          deletion.projectId);
+    } catch (StoppedException e) {
+      LOGGER.info("Deletion of the project {} has been stopped", deletion.projectId);
+      jdbcTemplate.update(RELEASE_QUERY, new MapSqlParameterSource()
+          .addValue("projectId", deletion.projectId)
+          .addValue("owner", owner));
+    } catch (LaunchesFailedException e) {
+      LOGGER.error("Deletion of the project {} has been failed: {}", deletion.projectId,
+          e.getMessage());
+      finish(deletion, State.FAILED, e.getMessage());
+    } catch (Exception e) {
+      LOGGER.error("Deletion of the project {} has been failed on the stage {}",
+          deletion.projectId, deletion.stage, e);
+      finish(deletion, State.FAILED, ExceptionUtils.getMessage(e));
+    }
+  }
+
+  /**
+   * @return true if the stage is completed, false if it has to be continued by the next run
+   */
+  private boolean perform(Deletion deletion) {
+    switch (deletion.stage) {
+      case LAUNCHES:
+        return deleteLaunches(deletion);
+      case LOGS:
+        while (deleteChunk(DELETE_LOGS_QUERY, deletion) > 0) {
+          LOGGER.debug("Chunk of logs of the project {} has been deleted", deletion.projectId);
+        }
+        return true;
+      case ATTACHMENTS:
+        purgeAttachments(deletion);
+        return true;
+      case INDEX:
+        logIndexer.deleteIndex(deletion.projectId);
+        analyzerServiceClient.removeSuggest(deletion.projectId);
+        return true;
+      case PROJECT:
+        transactionTemplate.executeWithoutResult(
+            status -> projectRepository.findById(deletion.projectId).ifPresent(this::deleteProject));
+        return true;
+      default:
+        return true;
+    }
+  }
+
+  /**
+   * Passes the next batch of the launches to {@link LaunchDeletionService}, the stage is completed
+   * when the project has no launches and fails when a launch can't be deleted
+   */
+  private boolean deleteLaunches(Deletion deletion) {
+    MapSqlParameterSource params = new MapSqlParameterSource("projectId", deletion.projectId);
+    Long launches = jdbcTemplate.queryForObject(COUNT_LAUNCHES_QUERY, params, Long.class);
+    if (launches == null || launches == 0) {
+      return true;
+    }
+    launchDeletionService.getFailure(deletion.projectId).ifPresent(error -> {
+      throw new LaunchesFailedException(error);
+    });
+    int queued = launchDeletionService.scheduleByProject(deletion.projectId, launchBatch);
+    LOGGER.debug("{} of {} launches of the project {} have been queued for deletion", queued,
+        launches, deletion.projectId);
+    return false;
+  }
+
+  private int deleteChunk(String query, Deletion deletion) {
+    checkStopping();
+    return transactionTemplate.execute(status -> {
+      int deleted = jdbcTemplate.update(query, new MapSqlParameterSource()
+          .addValue("projectId", deletion.projectId)
+          .addValue("limit", chunkSize));
+      advance(deletion, deletion.stage);
+      return deleted;
+    });
+  }
+
+  /**
+   * Deletes the folder of the project from the data store, or the files of the project page by
+   * page if all projects share the bucket. Every page is deleted along with its attachments, the
+   * pages are deleted in parallel by 'parallelism' at a time.
+   */
+  private void purgeAttachments(Deletion deletion) {
+    String folder = String.valueOf(deletion.projectId);
+    if (!featureFlagHandler.isEnabled(FeatureFlag.SINGLE_BUCKET)) {
+      dataStoreService.deleteContainer(folder);
+      while (deleteChunk(DELETE_PROJECT_ATTACHMENTS_QUERY, deletion) > 0) {
+        LOGGER.debug("Chunk of attachments of the project {} has been deleted",
+            deletion.projectId);
+      }
+      return;
+    }
+    long after = 0;
+    List<AttachmentPage> wave = new ArrayList<>(parallelism);
+    AttachmentPage page;
+    do {
+      page = loadAttachments(deletion.projectId, after);
+      if (!page.ids.isEmpty()) {
+        wave.add(page);
+        after = page.ids.get(page.ids.size() - 1);
+      }
+      if (wave.size() == parallelism || (page.ids.isEmpty() && !wave.isEmpty())) {
+        CompletableFuture.allOf(wave.stream()
+            .map(pending -> CompletableFuture.runAsync(() -> purge(pending, folder), executor))
+            .toArray(CompletableFuture[]::new)).join();
+        wave.clear();
+        advance(deletion, deletion.stage);
+      }
+    } while (!page.ids.isEmpty());
+  }
+
+  private AttachmentPage loadAttachments(Long projectId, long after) {
+    AttachmentPage page = new AttachmentPage();
+    jdbcTemplate.query(ATTACHMENTS_PAGE_QUERY, new MapSqlParameterSource()
+        .addValue("projectId", projectId)
+        .addValue("after", after)
+        .addValue("limit", chunkSize), rs -> {
+      page.ids.add(rs.getLong("id"));
+      Stream.of(rs.getString("file_id"), rs.getString("thumbnail_id"))
+          .filter(Objects::nonNull)
+          .forEach(page.paths::add);
+    });
+    return page;
+  }
+
+  private void purge(AttachmentPage page, String folder) {
+    if (!page.paths.isEmpty()) {
+      dataStoreService.deleteAll(page.paths, folder);
+    }
+    jdbcTemplate.update(DELETE_ATTACHMENTS_QUERY, new MapSqlParameterSource("ids", page.ids));
+  }
+
+  private void deleteProject(Project project) {
+    Set<Long> defaultIssueTypeIds = issueTypeRepository.getDefaultIssueTypes().stream()
+        .map(IssueType::getId)
+        .collect(Collectors.toSet());
+    Set<IssueType> issueTypesToRemove = project.getProjectIssueTypes().stream()
+        .map(ProjectIssueType::getIssueType)
+        .filter(issueType -> !defaultIssueTypeIds.contains(issueType.getId()))
+        .collect(Collectors.toSet());
+    projectContentRemover.remove(project);
+    projectRepository.delete(project);
+    issueTypeRepository.deleteAll(issueTypesToRemove);
+  }
+
+  private void checkStopping() {
+    if (stopping) {
+      throw new StoppedException();
+    }
+  }
+
+  private void advance(Deletion deletion, Stage stage) {
+    int advanced = jdbcTemplate.update(ADVANCE_QUERY, new MapSqlParameterSource()
+        .addValue("stage", stage.name())
+        .addValue("lease", leaseSeconds)
+        .addValue("projectId", deletion.projectId)
+        .addValue("owner", owner));
+    if (advanced == 0) {
+      throw new LeaseLostException();
+    }
+  }
+
+  private void finish(Deletion deletion, State state, String error) {
+    jdbcTemplate.update(FINISH_QUERY, new MapSqlParameterSource()
+        .addValue("state", state.name())
+        .addValue("error", error)
+        .addValue("projectId", deletion.projectId)
+        .addValue("owner", owner));
+  }
+
+  private static class Deletion {
+
+    private final Long projectId;
+
+    private Stage stage;
+
+    private Deletion(Long projectId, Stage stage) {
+      this.projectId = projectId;
+      this.stage = stage;
+    }
+  }
+
+  private static class AttachmentPage {
+
+    private final List<Long> ids = new ArrayList<>();
+
+    private final List<String> paths = new ArrayList<>();
+  }
+
+  private static class LeaseLostException extends RuntimeException {
+
+  }
+
+  private static class StoppedException extends RuntimeException {
+
+  }
+
+  private static class LaunchesFailedException extends RuntimeException {
+
+    private LaunchesFailedException(String message) {
+      super(message);
+    }
+  }
+}
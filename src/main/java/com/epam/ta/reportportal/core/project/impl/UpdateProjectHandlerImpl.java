@@ -33,7 +33,7 @@ import static com.epam.ta.reportportal.commons.Predicates.isNull;
 import static com.epam.ta.reportportal.commons.Predicates.isPresent;
 import static com.epam.ta.reportportal.commons.Predicates.not;
 import static com.epam.ta.reportportal.commons.Predicates.notNull;
-import static com.epam.ta.reportportal.core.analyzer.auto.impl.AnalyzerStatusCache.AUTO_ANALYZER_KEY;
+import static com.epam.ta.reportportal.core.analyzer.auto.impl.AnalysisStateRegistry.AUTO_ANALYZER_KEY;
 import static com.epam.ta.reportportal.entity.enums.ProjectAttributeEnum.AUTO_PATTERN_ANALYZER_ENABLED;
 import static com.epam.ta.reportportal.entity.enums.SendCase.findByName;
 import static com.epam.ta.reportportal.ws.converter.converters.ProjectActivityConverter.TO_ACTIVITY_RESOURCE;
@@ -49,7 +49,7 @@ import com.epam.ta.reportportal.commons.Preconditions;
 import com.epam.ta.reportportal.commons.ReportPortalUser;
 import com.epam.ta.reportportal.core.analyzer.auto.LogIndexer;
 import com.epam.ta.reportportal.core.analyzer.auto.client.AnalyzerServiceClient;
-import com.epam.ta.reportportal.core.analyzer.auto.impl.AnalyzerStatusCache;
+import com.epam.ta.reportportal.core.analyzer.auto.impl.AnalysisStateRegistry;
 import com.epam.ta.reportportal.core.analyzer.auto.impl.AnalyzerUtils;
 import com.epam.ta.reportportal.core.analyzer.auto.indexer.IndexerStatusCache;
 import com.epam.ta.reportportal.core.events.MessageBus;
@@ -96,7 +96,6 @@ import com.epam.ta.reportportal.ws.converter.converters.ProjectConverter;
 import com.epam.ta.reportportal.ws.converter.converters.UserConverter;
 import com.epam.ta.reportportal.ws.reporting.ItemAttributeResource;
 import com.epam.ta.reportportal.ws.reporting.OperationCompletionRS;
-import com.google.common.cache.Cache;
 import com.google.common.collect.Lists;
 import java.util.List;
 import java.util.Map;
@@ -138,7 +137,7 @@ public class UpdateProjectHandlerImpl implements UpdateProjectHandler {
 
   private final MailServiceFactory mailServiceFactory;
 
-  private final AnalyzerStatusCache analyzerStatusCache;
+  private final AnalysisStateRegistry analysisStateRegistry;
 
   private final IndexerStatusCache indexerStatusCache;
 
@@ -154,7 +153,7 @@ public class UpdateProjectHandlerImpl implements UpdateProjectHandler {
       UserRepository userRepository, UserPreferenceRepository preferenceRepository,
       MessageBus messageBus, ProjectUserRepository projectUserRepository,
       ApplicationEventPublisher applicationEventPublisher, MailServiceFactory mailServiceFactory,
-      AnalyzerStatusCache analyzerStatusCache, IndexerStatusCache indexerStatusCache,
+      AnalysisStateRegistry analysisStateRegistry, IndexerStatusCache indexerStatusCache,
       AnalyzerServiceClient analyzerServiceClient, LogIndexer logIndexer,
       ProjectConverter projectConverter) {
     this.projectExtractor = projectExtractor;
@@ -166,7 +165,7 @@ public class UpdateProjectHandlerImpl implements UpdateProjectHandler {
     this.projectUserRepository = projectUserRepository;
     this.applicationEventPublisher = applicationEventPublisher;
     this.mailServiceFactory = mailServiceFactory;
-    this.analyzerStatusCache = analyzerStatusCache;
+    this.analysisStateRegistry = analysisStateRegistry;
     this.indexerStatusCache = indexerStatusCache;
     this.analyzerServiceClient = analyzerServiceClient;
     this.logIndexer = logIndexer;
@@ -299,10 +298,8 @@ public class UpdateProjectHandlerImpl implements UpdateProjectHandler {
         "Index can not be removed until index generation proceeds."
     );
 
-    Cache<Long, Long> analyzeStatus = analyzerStatusCache.getAnalyzeStatus(AUTO_ANALYZER_KEY)
-        .orElseThrow(
-            () -> new ReportPortalException(ErrorType.ANALYZER_NOT_FOUND, AUTO_ANALYZER_KEY));
-    expect(analyzeStatus.asMap().containsValue(project.getId()), equalTo(false)).verify(
+    expect(analysisStateRegistry.containsProjectId(AUTO_ANALYZER_KEY, project.getId()),
+        equalTo(false)).verify(
         ErrorType.FORBIDDEN_OPERATION, "Index can not be removed until auto-analysis proceeds.");
 
     logIndexer.deleteIndex(project.getId());
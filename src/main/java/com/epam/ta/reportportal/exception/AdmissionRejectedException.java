@@ -0,0 +1,47 @@
+/*
+ * Copyright 2024 EPAM Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.ta.reportportal.exception;
+
+import com.epam.reportportal.rules.exception.ErrorType;
+import com.epam.reportportal.rules.exception.ReportPortalException;
+import org.springframework.http.HttpStatus;
+
+/**
+ * Request is not admitted because of the load, the client should retry it later
+ */
+public class AdmissionRejectedException extends ReportPortalException {
+
+  private static final long serialVersionUID = 4136617298463823950L;
+
+  private final HttpStatus status;
+
+  private final long retryAfterSeconds;
+
+  public AdmissionRejectedException(HttpStatus status, long retryAfterSeconds, String message) {
+    super(ErrorType.BINARY_DATA_CANNOT_BE_SAVED, message);
+    this.status = status;
+    this.retryAfterSeconds = retryAfterSeconds;
+  }
+
+  public HttpStatus getStatus() {
+    return status;
+  }
+
+  public long getRetryAfterSeconds() {
+    return retryAfterSeconds;
+  }
+}
@@ -0,0 +1,32 @@
+/*
+ * Copyright 2024 EPAM Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.ta.reportportal.exception;
+
+import com.epam.reportportal.rules.exception.ReportPortalException;
+
+/**
+ * Analysis is not completed because the analyzers of the project are busy with the other
+ * launches, the analysis should be run again later
+ */
+public class AnalysisRejectedException extends ReportPortalException {
+
+  private static final long serialVersionUID = -3406385632512407166L;
+
+  public AnalysisRejectedException(String message) {
+    super(message);
+  }
+}
@@ -0,0 +1,44 @@
+/*
+ * Copyright 2024 EPAM Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.ta.reportportal.health;
+
+import com.epam.ta.reportportal.core.analyzer.auto.impl.AnalysisStateRegistry;
+import java.util.List;
+import java.util.Map;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+/**
+ * Actuator endpoint with the analyses running on all the instances: launch, project, analyzer,
+ * instance running the analysis, start time and lease expiration time.
+ */
+@Component
+@Endpoint(id = "analyses")
+public class AnalysesEndpoint {
+
+  private final AnalysisStateRegistry analysisStateRegistry;
+
+  public AnalysesEndpoint(AnalysisStateRegistry analysisStateRegistry) {
+    this.analysisStateRegistry = analysisStateRegistry;
+  }
+
+  @ReadOperation
+  public List<Map<String, Object>> runningAnalyses() {
+    return analysisStateRegistry.getRunning();
+  }
+}
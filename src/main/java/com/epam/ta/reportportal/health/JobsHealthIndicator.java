@@ -16,6 +16,8 @@
 
 package com.epam.ta.reportportal.health;
 
+import com.epam.ta.reportportal.core.analyzer.auto.client.AnalyzerTopologyRegistry;
+import com.epam.ta.reportportal.job.JobRunStatistics;
 import java.util.Map;
 import java.util.Optional;
 import org.slf4j.Logger;
@@ -30,7 +32,9 @@ import org.springframework.web.client.RestTemplate;
 
 
 /**
- * Health Indicator for jobs service.
+ * Health Indicator for jobs service. Details contain the statistics of the last runs of the jobs
+ * executed by the service api and the staleness of the analyzer exchanges refreshed in the
+ * background.
  *
  * @author Siarhei Hrabko
  */
@@ -39,18 +43,29 @@ public class JobsHealthIndicator extends AbstractHealthIndicator {
 
   private static Logger LOGGER = LoggerFactory.getLogger(JobsHealthIndicator.class);
   private static final String ERROR_MESSAGE = "Jobs service health check failed";
+  private static final String LAST_RUNS_DETAIL = "lastRuns";
+  private static final String ANALYZER_TOPOLOGY_DETAIL = "analyzerTopology";
   RestTemplate restTemplate;
 
   @Value("${rp.jobs.baseUrl}")
   private String jobsBaseUrl;
 
-  public JobsHealthIndicator() {
+  private final JobRunStatistics jobRunStatistics;
+
+  private final AnalyzerTopologyRegistry analyzerTopologyRegistry;
+
+  public JobsHealthIndicator(JobRunStatistics jobRunStatistics,
+      AnalyzerTopologyRegistry analyzerTopologyRegistry) {
     super(ERROR_MESSAGE);
     this.restTemplate = new RestTemplate();
+    this.jobRunStatistics = jobRunStatistics;
+    this.analyzerTopologyRegistry = analyzerTopologyRegistry;
   }
 
   @Override
   protected void doHealthCheck(Builder builder) {
+    builder.withDetail(LAST_RUNS_DETAIL, jobRunStatistics.getLastRuns());
+    builder.withDetail(ANALYZER_TOPOLOGY_DETAIL, analyzerTopologyRegistry.getDetails());
     try {
       var jobsHealthRs = restTemplate.getForObject(jobsBaseUrl + "/health", Map.class);
 
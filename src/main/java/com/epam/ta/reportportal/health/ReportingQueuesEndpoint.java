@@ -0,0 +1,102 @@
+/*
+ * Copyright 2024 EPAM Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.ta.reportportal.health;
+
+import static com.epam.ta.reportportal.core.configs.rabbit.ReportingConfiguration.QUEUE_DLQ;
+
+import com.epam.ta.reportportal.core.configs.Conditions;
+import com.epam.ta.reportportal.ws.rabbit.ReportingPrefetchTuner;
+import com.epam.ta.reportportal.ws.rabbit.ReportingQueueMetrics;
+import com.epam.ta.reportportal.ws.rabbit.ReportingQueueMetrics.QueueStats;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import org.springframework.amqp.core.AmqpAdmin;
+import org.springframework.amqp.core.Queue;
+import org.springframework.amqp.core.QueueInformation;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.context.annotation.Conditional;
+import org.springframework.stereotype.Component;
+
+/**
+ * Actuator endpoint with the state of the reporting queues: depth, consumers, consume rate,
+ * processing time percentiles, retried and dropped messages of every queue, and depths of its retry
+ * queue and of the DLQ. Stats are collected by this instance only, while depths are shared.
+ */
+@Component
+@Endpoint(id = "reporting")
+@Conditional(Conditions.NotTestCondition.class)
+public class ReportingQueuesEndpoint {
+
+  private final List<Queue> queues;
+
+  private final List<Queue> retryQueues;
+
+  private final AmqpAdmin amqpAdmin;
+
+  private final ReportingQueueMetrics metrics;
+
+  private final ObjectProvider<ReportingPrefetchTuner> prefetchTuner;
+
+  public ReportingQueuesEndpoint(@Qualifier("queues") List<Queue> queues,
+      @Qualifier("retryQueues") List<Queue> retryQueues, AmqpAdmin amqpAdmin,
+      ReportingQueueMetrics metrics, ObjectProvider<ReportingPrefetchTuner> prefetchTuner) {
+    this.queues = queues;
+    this.retryQueues = retryQueues;
+    this.amqpAdmin = amqpAdmin;
+    this.metrics = metrics;
+    this.prefetchTuner = prefetchTuner;
+  }
+
+  @ReadOperation
+  public Map<String, Object> reportingQueues() {
+    Map<String, Object> result = new LinkedHashMap<>();
+    for (int i = 0; i < queues.size(); i++) {
+      String queue = queues.get(i).getName();
+      Optional<QueueInformation> info = Optional.ofNullable(amqpAdmin.getQueueInfo(queue));
+      QueueStats stats = metrics.sample(queue);
+
+      Map<String, Object> queueDetails = new LinkedHashMap<>();
+      queueDetails.put("depth", info.map(QueueInformation::getMessageCount).orElse(null));
+      queueDetails.put("consumers", info.map(QueueInformation::getConsumerCount).orElse(null));
+      queueDetails.put("retryDepth", getDepth(retryQueues.get(i).getName()));
+      queueDetails.put("consumeRate", stats.getConsumeRate());
+      queueDetails.put("processingP50Millis", stats.getProcessingP50Millis());
+      queueDetails.put("processingP99Millis", stats.getProcessingP99Millis());
+      queueDetails.put("consumed", stats.getConsumed());
+      queueDetails.put("retried", stats.getRetried());
+      queueDetails.put("dropped", stats.getDropped());
+      Optional.ofNullable(prefetchTuner.getIfAvailable())
+          .flatMap(tuner -> tuner.getPrefetch(queue))
+          .ifPresent(prefetch -> queueDetails.put("prefetch", prefetch));
+      result.put(queue, queueDetails);
+    }
+    result.put(QUEUE_DLQ, Collections.singletonMap("depth", getDepth(QUEUE_DLQ)));
+    return result;
+  }
+
+  private Integer getDepth(String queue) {
+    return Optional.ofNullable(amqpAdmin.getQueueInfo(queue))
+        .map(QueueInformation::getMessageCount)
+        .orElse(null);
+  }
+}
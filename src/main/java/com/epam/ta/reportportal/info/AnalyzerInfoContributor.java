@@ -16,7 +16,7 @@
 
 package com.epam.ta.reportportal.info;
 
-import com.epam.ta.reportportal.core.analyzer.auto.client.RabbitMqManagementClient;
+import com.epam.ta.reportportal.core.analyzer.auto.client.AnalyzerTopologyRegistry;
 import com.google.common.collect.ImmutableMap;
 import com.rabbitmq.http.client.domain.ExchangeInfo;
 import java.util.Map;
@@ -34,16 +34,16 @@ import org.springframework.stereotype.Component;
 @Component
 public class AnalyzerInfoContributor implements ExtensionContributor {
 
-  private final RabbitMqManagementClient managementClient;
+  private final AnalyzerTopologyRegistry analyzerTopologyRegistry;
 
   @Autowired
-  public AnalyzerInfoContributor(RabbitMqManagementClient managementClient) {
-    this.managementClient = managementClient;
+  public AnalyzerInfoContributor(AnalyzerTopologyRegistry analyzerTopologyRegistry) {
+    this.analyzerTopologyRegistry = analyzerTopologyRegistry;
   }
 
   @Override
   public Map<String, ?> contribute() {
-    Set<Object> analyzersInfo = managementClient.getAnalyzerExchangesInfo()
+    Set<Object> analyzersInfo = analyzerTopologyRegistry.getAnalyzerExchangesInfo()
         .stream()
         .map((Function<ExchangeInfo, Object>) ExchangeInfo::getArguments)
         .collect(Collectors.toSet());
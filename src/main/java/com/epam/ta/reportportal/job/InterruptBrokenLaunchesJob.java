@@ -16,138 +16,193 @@
 
 package com.epam.ta.reportportal.job;
 
-import static com.epam.ta.reportportal.commons.querygen.constant.GeneralCriteriaConstant.CRITERIA_ID;
-import static com.epam.ta.reportportal.job.PageUtil.iterateOverPages;
+import static com.epam.ta.reportportal.job.PageUtil.iterateOverKeyset;
 import static java.time.Duration.ofSeconds;
 
 import com.epam.reportportal.extension.event.LaunchFinishedPluginEvent;
 import com.epam.ta.reportportal.core.events.activity.LaunchFinishedEvent;
-import com.epam.ta.reportportal.dao.LaunchRepository;
-import com.epam.ta.reportportal.dao.LogRepository;
-import com.epam.ta.reportportal.dao.ProjectRepository;
-import com.epam.ta.reportportal.dao.TestItemRepository;
+import com.epam.ta.reportportal.entity.enums.LaunchModeEnum;
 import com.epam.ta.reportportal.entity.enums.ProjectAttributeEnum;
 import com.epam.ta.reportportal.entity.enums.StatusEnum;
 import com.epam.ta.reportportal.entity.launch.Launch;
-import com.epam.ta.reportportal.entity.project.ProjectUtils;
+import java.sql.Timestamp;
 import java.time.Duration;
 import java.time.Instant;
-import java.time.temporal.ChronoUnit;
-import java.util.stream.Stream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.LongAdder;
 import org.apache.commons.lang3.math.NumberUtils;
+import org.apache.commons.lang3.tuple.Pair;
 import org.quartz.Job;
 import org.quartz.JobExecutionContext;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.context.ApplicationEventPublisher;
-import org.springframework.data.domain.Sort;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 /**
  * Finds jobs witn duration more than defined and finishes them with interrupted
- * {@link StatusEnum#INTERRUPTED} status
+ * {@link StatusEnum#INTERRUPTED} status.
+ * <p>
+ * Launches of every project are classified by a single query and interrupted in bulk in a
+ * transaction of the project. Projects are processed in parallel by the
+ * interruptLaunchesTaskExecutor.
  *
  * @author Andrei Varabyeu
  */
 @Service
 public class InterruptBrokenLaunchesJob implements Job {
 
+  public static final String JOB_NAME = "interruptBrokenLaunches";
+
   private static final Logger LOGGER = LoggerFactory.getLogger(InterruptBrokenLaunchesJob.class);
 
+  private static final int PROJECT_PAGE_SIZE = 50;
+
+  /**
+   * Projects with the interrupt time, paged by id
+   */
+  private static final String SELECT_PROJECTS_QUERY =
+      "SELECT pa.project_id, pa.value FROM project_attribute pa "
+          + "JOIN attribute a ON pa.attribute_id = a.id "
+          + "WHERE a.name = :attribute AND pa.project_id > :lastId "
+          + "ORDER BY pa.project_id LIMIT :limit";
+
+  private static final String IN_PROGRESS_ITEM_CONDITION =
+      "FROM test_item ti JOIN test_item_results tir ON ti.item_id = tir.result_id ";
+
+  /**
+   * Launch is broken if none of its items in progress was started lately, and its items in
+   * progress have no logs or none of the logs was added lately
+   */
+  private static final String SELECT_LAUNCHES_QUERY =
+      "SELECT l.id, NOT EXISTS (SELECT 1 " + IN_PROGRESS_ITEM_CONDITION
+          + "WHERE ti.launch_id = l.id AND tir.status = 'IN_PROGRESS' "
+          + "AND ti.start_time > :activeSince) "
+          + "AND NOT (EXISTS (SELECT 1 " + IN_PROGRESS_ITEM_CONDITION
+          + "JOIN log lg ON lg.item_id = ti.item_id "
+          + "WHERE ti.launch_id = l.id AND tir.status = 'IN_PROGRESS' "
+          + "AND ti.start_time < :activeSince) "
+          + "AND EXISTS (SELECT 1 " + IN_PROGRESS_ITEM_CONDITION
+          + "JOIN log lg ON lg.item_id = ti.item_id "
+          + "WHERE ti.launch_id = l.id AND tir.status = 'IN_PROGRESS' "
+          + "AND lg.log_time > :activeSince)) AS broken "
+          + "FROM launch l WHERE l.project_id = :projectId AND l.status = 'IN_PROGRESS' "
+          + "AND l.start_time < :activeSince";
+
+  private static final String INTERRUPT_ITEMS_QUERY =
+      "UPDATE test_item_results SET status = 'INTERRUPTED', end_time = CURRENT_TIMESTAMP, "
+          + "duration = EXTRACT(EPOCH FROM CURRENT_TIMESTAMP - i.start_time) FROM test_item i "
+          + "WHERE i.item_id = result_id AND i.launch_id IN (:launchIds) "
+          + "AND status = 'IN_PROGRESS'";
+
+  private static final String INTERRUPT_LAUNCHES_QUERY =
+      "UPDATE launch SET status = 'INTERRUPTED', end_time = :endTime "
+          + "WHERE id IN (:launchIds) AND status = 'IN_PROGRESS' "
+          + "RETURNING id, name, mode, project_id";
+
   private final ApplicationEventPublisher eventPublisher;
 
-  private final LaunchRepository launchRepository;
+  private final NamedParameterJdbcTemplate jdbcTemplate;
 
-  private final TestItemRepository testItemRepository;
+  private final TransactionTemplate transactionTemplate;
 
-  private final LogRepository logRepository;
+  private final TaskExecutor taskExecutor;
 
-  private final ProjectRepository projectRepository;
+  private final JobRunStatistics jobRunStatistics;
 
   @Autowired
   public InterruptBrokenLaunchesJob(ApplicationEventPublisher eventPublisher,
-      LaunchRepository launchRepository, TestItemRepository testItemRepository,
-      LogRepository logRepository,
-      ProjectRepository projectRepository) {
+      NamedParameterJdbcTemplate jdbcTemplate,
+      PlatformTransactionManager transactionManager,
+      @Qualifier("interruptLaunchesTaskExecutor") TaskExecutor taskExecutor,
+      JobRunStatistics jobRunStatistics) {
     this.eventPublisher = eventPublisher;
-    this.launchRepository = launchRepository;
-    this.testItemRepository = testItemRepository;
-    this.logRepository = logRepository;
-    this.projectRepository = projectRepository;
+    this.jdbcTemplate = jdbcTemplate;
+    this.transactionTemplate = new TransactionTemplate(transactionManager);
+    this.taskExecutor = taskExecutor;
+    this.jobRunStatistics = jobRunStatistics;
   }
 
   @Override
-  @Transactional
   public void execute(JobExecutionContext context) {
     LOGGER.info("Interrupt broken launches job has been started");
-    iterateOverPages(
-        Sort.by(Sort.Order.asc(CRITERIA_ID)),
-        projectRepository::findAllIdsAndProjectAttributes,
-        projects -> projects.forEach(project -> {
-          ProjectUtils.extractAttributeValue(project, ProjectAttributeEnum.INTERRUPT_JOB_TIME)
-              .ifPresent(it -> {
-                Duration maxDuration = ofSeconds(NumberUtils.toLong(it, 0L));
-                try (Stream<Long> ids = launchRepository.streamIdsWithStatusAndStartTimeBefore(
-                    project.getId(),
-                    StatusEnum.IN_PROGRESS,
-                    Instant.now().minus(maxDuration.toSeconds(), ChronoUnit.SECONDS)
-                )) {
-                  ids.forEach(launchId -> {
-                    if (!testItemRepository.hasItemsInStatusByLaunch(launchId,
-                        StatusEnum.IN_PROGRESS)) {
-                      /*
-                       * There are no test items for this launch. Just INTERRUPT
-                       * this launch
-                       */
-                      interruptLaunch(launchId);
-                    } else {
-                      /*
-                       * Well, there are some test items started for specified
-                       * launch
-                       */
-                      if (!testItemRepository.hasItemsInStatusAddedLately(launchId, maxDuration,
-                          StatusEnum.IN_PROGRESS)) {
-                        /*
-                         * If there are logs, we have to check whether them
-                         * expired
-                         */
-                        if (testItemRepository.hasLogs(launchId, maxDuration,
-                            StatusEnum.IN_PROGRESS)) {
-                          /*
-                           * If there are logs which are still valid
-                           * (probably automation project keep writing
-                           * something)
-                           */
-                          if (!logRepository.hasLogsAddedLately(maxDuration, launchId,
-                              StatusEnum.IN_PROGRESS)) {
-                            interruptItems(launchId);
-                          }
-                        } else {
-                          /*
-                           * If not just INTERRUPT all found items and launch
-                           */
-                          interruptItems(launchId);
-                        }
-                      }
-                    }
-                  });
-                } catch (Exception ex) {
-                  LOGGER.error("Interrupting broken launches has been failed", ex);
-                  //do nothing
-                }
-              });
-        })
-    );
+    Instant start = Instant.now();
+    LongAdder scanned = new LongAdder();
+    LongAdder interrupted = new LongAdder();
+    iterateOverKeyset(PROJECT_PAGE_SIZE, this::selectProjects, Pair::getKey, projects -> {
+      List<CompletableFuture<Void>> tasks = new ArrayList<>(projects.size());
+      projects.forEach(project -> tasks.add(CompletableFuture.runAsync(
+          () -> interruptBrokenLaunches(project.getKey(), project.getValue(), scanned,
+              interrupted), taskExecutor)));
+      CompletableFuture.allOf(tasks.toArray(CompletableFuture[]::new)).join();
+    });
+    jobRunStatistics.record(JOB_NAME, Duration.between(start, Instant.now()),
+        Map.of("launchesScanned", scanned.sum(), "launchesInterrupted", interrupted.sum()));
+    LOGGER.info("Interrupt broken launches job has been finished, {} of {} launches interrupted",
+        interrupted.sum(), scanned.sum());
+  }
+
+  /**
+   * @return Ids of the projects with their interrupt time
+   */
+  private List<Pair<Long, Duration>> selectProjects(Long lastId, int limit) {
+    return jdbcTemplate.query(SELECT_PROJECTS_QUERY, new MapSqlParameterSource()
+            .addValue("attribute", ProjectAttributeEnum.INTERRUPT_JOB_TIME.getAttribute())
+            .addValue("lastId", lastId)
+            .addValue("limit", limit),
+        (rs, rowNum) -> Pair.of(rs.getLong("project_id"),
+            ofSeconds(NumberUtils.toLong(rs.getString("value"), 0L))));
   }
 
-  private void interruptLaunch(Long launchId) {
-    launchRepository.findById(launchId).ifPresent(launch -> {
+  private void interruptBrokenLaunches(Long projectId, Duration maxDuration, LongAdder scanned,
+      LongAdder interrupted) {
+    try {
+      transactionTemplate.executeWithoutResult(status -> {
+        Timestamp activeSince = Timestamp.from(Instant.now().minus(maxDuration));
+        List<Long> brokenIds = new ArrayList<>();
+        jdbcTemplate.query(SELECT_LAUNCHES_QUERY, new MapSqlParameterSource()
+            .addValue("projectId", projectId)
+            .addValue("activeSince", activeSince), rs -> {
+          scanned.increment();
+          if (rs.getBoolean("broken")) {
+            brokenIds.add(rs.getLong("id"));
+          }
+        });
+        if (!brokenIds.isEmpty()) {
+          interruptLaunches(brokenIds).forEach(launch -> {
+            interrupted.increment();
+            publishFinishEvent(launch);
+          });
+        }
+      });
+    } catch (Exception ex) {
+      LOGGER.error("Interrupting broken launches of the project {} has been failed", projectId,
+          ex);
+      //do nothing
+    }
+  }
+
+  private List<Launch> interruptLaunches(List<Long> launchIds) {
+    jdbcTemplate.update(INTERRUPT_ITEMS_QUERY, new MapSqlParameterSource("launchIds", launchIds));
+    return jdbcTemplate.query(INTERRUPT_LAUNCHES_QUERY, new MapSqlParameterSource()
+        .addValue("launchIds", launchIds)
+        .addValue("endTime", Timestamp.from(Instant.now())), (rs, rowNum) -> {
+      Launch launch = new Launch(rs.getLong("id"));
+      launch.setName(rs.getString("name"));
+      launch.setMode(LaunchModeEnum.valueOf(rs.getString("mode")));
+      launch.setProjectId(rs.getLong("project_id"));
       launch.setStatus(StatusEnum.INTERRUPTED);
-      launch.setEndTime(Instant.now());
-      launchRepository.save(launch);
-      publishFinishEvent(launch);
+      return launch;
     });
   }
 
@@ -157,9 +212,4 @@ public class InterruptBrokenLaunchesJob implements Job {
     eventPublisher.publishEvent(launchFinishedEvent);
     eventPublisher.publishEvent(finishedPluginEvent);
   }
-
-  private void interruptItems(Long launchId) {
-    testItemRepository.interruptInProgressItems(launchId);
-    interruptLaunch(launchId);
-  }
 }
@@ -0,0 +1,53 @@
+/*
+ * Copyright 2024 EPAM Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.epam.ta.reportportal.job;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.springframework.stereotype.Component;
+
+/**
+ * Keeps the statistics of the last run of every job, they are shown in the details of
+ * {@link com.epam.ta.reportportal.health.JobsHealthIndicator}
+ */
+@Component
+public class JobRunStatistics {
+
+  private final Map<String, Map<String, Object>> lastRuns = new ConcurrentHashMap<>();
+
+  /**
+   * @param jobName  Job name
+   * @param duration Duration of the run
+   * @param counters Numbers of the elements processed in the run, by name
+   */
+  public void record(String jobName, Duration duration, Map<String, Long> counters) {
+    Map<String, Object> run = new LinkedHashMap<>();
+    run.put("finishedAt", Instant.now().toString());
+    run.put("durationMillis", duration.toMillis());
+    run.putAll(counters);
+    lastRuns.put(jobName, Collections.unmodifiableMap(run));
+  }
+
+  public Map<String, Map<String, Object>> getLastRuns() {
+    return Collections.unmodifiableMap(lastRuns);
+  }
+}
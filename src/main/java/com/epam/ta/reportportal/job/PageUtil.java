@@ -16,6 +16,7 @@
 package com.epam.ta.reportportal.job;
 
 import java.util.List;
+import java.util.function.BiFunction;
 import java.util.function.Consumer;
 import java.util.function.Function;
 import org.springframework.data.domain.Page;
@@ -91,4 +92,51 @@ public class PageUtil {
     }
   }
 
+  /**
+   * Iterates over all pages found ordered by id. Every page is requested after the last id of the
+   * previous one (WHERE id > :lastId ORDER BY id LIMIT :pageSize), so unlike the offset the
+   * request doesn't slow down with the page number and doesn't skip or repeat entities when the
+   * processed ones are changed or removed.
+   *
+   * @param pageSize page size
+   * @param getFunc  Get {@link List} content function by the last id of the previous page and
+   *                 the page size, has to return the entities ordered by id
+   * @param idFunc   Id of the entity
+   * @param consumer Page processor
+   * @param <T>      Type of {@link List} entity
+   */
+  public static <T> void iterateOverKeyset(int pageSize,
+      BiFunction<Long, Integer, List<T>> getFunc, Function<T, Long> idFunc,
+      Consumer<List<T>> consumer) {
+    iterateOverKeyset(0L, pageSize, getFunc, idFunc, consumer);
+  }
+
+  /**
+   * Iterates over the pages found after the id, e.g. to continue the iteration from the last
+   * processed page
+   *
+   * @param startId  id after which the first page is requested
+   * @param pageSize page size
+   * @param getFunc  Get {@link List} content function by the last id of the previous page and
+   *                 the page size, has to return the entities ordered by id
+   * @param idFunc   Id of the entity
+   * @param consumer Page processor
+   * @param <T>      Type of {@link List} entity
+   * @see #iterateOverKeyset(int, BiFunction, Function, Consumer)
+   */
+  public static <T> void iterateOverKeyset(long startId, int pageSize,
+      BiFunction<Long, Integer, List<T>> getFunc, Function<T, Long> idFunc,
+      Consumer<List<T>> consumer) {
+    long lastId = startId;
+    List<T> content = getFunc.apply(lastId, pageSize);
+    while (!content.isEmpty()) {
+      consumer.accept(content);
+      if (content.size() < pageSize) {
+        return;
+      }
+      lastId = idFunc.apply(content.get(content.size() - 1));
+      content = getFunc.apply(lastId, pageSize);
+    }
+  }
+
 }
@@ -0,0 +1,101 @@
+/*
+ * Copyright 2024 EPAM Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.epam.ta.reportportal.model.launch;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * Progress of the launch deletion
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class LaunchDeletionRS {
+
+	@JsonProperty("launchId")
+	private Long launchId;
+
+	@JsonProperty("state")
+	private String state;
+
+	@JsonProperty("itemsTotal")
+	private Long itemsTotal;
+
+	@JsonProperty("itemsDeleted")
+	private Long itemsDeleted;
+
+	@JsonProperty("error")
+	private String error;
+
+	public LaunchDeletionRS() {
+	}
+
+	public LaunchDeletionRS(Long launchId, String state, Long itemsTotal, Long itemsDeleted,
+			String error) {
+		this.launchId = launchId;
+		this.state = state;
+		this.itemsTotal = itemsTotal;
+		this.itemsDeleted = itemsDeleted;
+		this.error = error;
+	}
+
+	public Long getLaunchId() {
+		return launchId;
+	}
+
+	public void setLaunchId(Long launchId) {
+		this.launchId = launchId;
+	}
+
+	public String getState() {
+		return state;
+	}
+
+	public void setState(String state) {
+		this.state = state;
+	}
+
+	public Long getItemsTotal() {
+		return itemsTotal;
+	}
+
+	public void setItemsTotal(Long itemsTotal) {
+		this.itemsTotal = itemsTotal;
+	}
+
+	public Long getItemsDeleted() {
+		return itemsDeleted;
+	}
+
+	public void setItemsDeleted(Long itemsDeleted) {
+		this.itemsDeleted = itemsDeleted;
+	}
+
+	public String getError() {
+		return error;
+	}
+
+	public void setError(String error) {
+		this.error = error;
+	}
+
+	@Override
+	public String toString() {
+		return "LaunchDeletionRS{" + "launchId=" + launchId + ", state='" + state + '\''
+				+ ", itemsTotal=" + itemsTotal + ", itemsDeleted=" + itemsDeleted + '}';
+	}
+}
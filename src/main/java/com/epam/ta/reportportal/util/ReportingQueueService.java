@@ -16,7 +16,13 @@
 
 package com.epam.ta.reportportal.util;
 
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
 import java.util.UUID;
+import org.apache.commons.codec.digest.DigestUtils;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
@@ -30,6 +36,12 @@ public class ReportingQueueService {
 
   private int queueAmount;
 
+  private boolean consistentHashEnabled;
+
+  private int virtualNodes = 100;
+
+  private volatile NavigableMap<Integer, Integer> ring = new TreeMap<>();
+
   public int getQueueAmount() {
     return queueAmount;
   }
@@ -37,6 +49,19 @@ public class ReportingQueueService {
   @Value("${rp.amqp.queues}")
   public void setQueueAmount(int queueAmount) {
     this.queueAmount = queueAmount;
+    buildRing();
+  }
+
+  @Value("${rp.amqp.reporting.consistent-hash.enabled:false}")
+  public void setConsistentHashEnabled(boolean consistentHashEnabled) {
+    this.consistentHashEnabled = consistentHashEnabled;
+    buildRing();
+  }
+
+  @Value("${rp.amqp.reporting.consistent-hash.virtual-nodes:100}")
+  public void setVirtualNodes(int virtualNodes) {
+    this.virtualNodes = virtualNodes;
+    buildRing();
   }
 
   /**
@@ -48,10 +73,45 @@ public class ReportingQueueService {
    * @return
    */
   public String getReportingQueueKey(String launchUuid) {
+    if (consistentHashEnabled) {
+      return String.valueOf(getRingQueueIndex(launchUuid));
+    }
     int value = launchUuid.matches(UUID_REGEX) ? UUID.fromString(launchUuid).hashCode()
         : launchUuid.hashCode();
     value = value & 0x7fffffff;
     return String.valueOf(value % queueAmount);
   }
 
+  /**
+   * Maps launch to a queue with a consistent hash ring. Every queue is placed on the ring as
+   * {@link #virtualNodes} points, so launches are spread evenly and a change of the queue amount
+   * moves only about 1/n of the launches to other queues, while modulo remaps almost all of them.
+   * The hash doesn't depend on the JVM, so all the instances route launches the same way.
+   *
+   * @param launchUuid Launch uuid
+   * @return Index of the reporting queue
+   */
+  private int getRingQueueIndex(String launchUuid) {
+    NavigableMap<Integer, Integer> currentRing = ring;
+    Map.Entry<Integer, Integer> node = currentRing.ceilingEntry(hash(launchUuid));
+    return (node != null ? node : currentRing.firstEntry()).getValue();
+  }
+
+  private void buildRing() {
+    if (!consistentHashEnabled || queueAmount <= 0) {
+      return;
+    }
+    NavigableMap<Integer, Integer> newRing = new TreeMap<>();
+    for (int queue = 0; queue < queueAmount; queue++) {
+      for (int node = 0; node < virtualNodes; node++) {
+        newRing.putIfAbsent(hash(queue + "#" + node), queue);
+      }
+    }
+    ring = newRing;
+  }
+
+  private static int hash(String key) {
+    return ByteBuffer.wrap(DigestUtils.md5(key.getBytes(StandardCharsets.UTF_8))).getInt();
+  }
+
 }
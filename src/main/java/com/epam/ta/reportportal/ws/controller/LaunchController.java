@@ -45,6 +45,7 @@ import com.epam.ta.reportportal.model.BulkRQ;
 import com.epam.ta.reportportal.model.DeleteBulkRS;
 import com.epam.ta.reportportal.model.launch.AnalyzeLaunchRQ;
 import com.epam.ta.reportportal.model.launch.FinishLaunchRS;
+import com.epam.ta.reportportal.model.launch.LaunchDeletionRS;
 import com.epam.ta.reportportal.model.launch.LaunchImportRQ;
 import com.epam.ta.reportportal.model.launch.UpdateLaunchRQ;
 import com.epam.ta.reportportal.model.launch.cluster.CreateClustersRQ;
@@ -458,6 +459,16 @@ public class LaunchController {
     );
   }
 
+  @Transactional(readOnly = true)
+  @GetMapping("/deletion")
+  @ResponseStatus(OK)
+  @Operation(summary = "Get progress of the launches deletion")
+  public List<LaunchDeletionRS> getDeletionProgress(@PathVariable String projectName,
+      @RequestParam(value = "ids") List<Long> ids, @AuthenticationPrincipal ReportPortalUser user) {
+    return deleteLaunchMessageHandler.getDeletionProgress(ids,
+        projectExtractor.extractProjectDetails(user, normalizeId(projectName)));
+  }
+
   @PostMapping(value = "/import", consumes = { MediaType.MULTIPART_FORM_DATA_VALUE })
   @ResponseStatus(OK)
   @Operation(summary = "Import junit xml report",
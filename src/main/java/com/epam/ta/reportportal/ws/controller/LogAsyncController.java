@@ -28,6 +28,8 @@ import com.epam.ta.reportportal.commons.ReportPortalUser;
 import com.epam.reportportal.rules.commons.validation.BusinessRule;
 import com.epam.reportportal.rules.commons.validation.Suppliers;
 import com.epam.ta.reportportal.core.log.CreateLogHandler;
+import com.epam.ta.reportportal.core.log.impl.AttachmentSaveAdmission;
+import com.epam.ta.reportportal.core.log.impl.StreamingCreateLogHandler;
 import com.epam.ta.reportportal.core.logging.HttpLogging;
 import com.epam.ta.reportportal.util.ProjectExtractor;
 import com.epam.ta.reportportal.ws.reporting.BatchElementCreatedRS;
@@ -70,14 +72,20 @@ public class LogAsyncController {
 
   private final ProjectExtractor projectExtractor;
   private final CreateLogHandler createLogHandler;
+  private final StreamingCreateLogHandler streamingCreateLogHandler;
   private final Validator validator;
+  private final AttachmentSaveAdmission attachmentSaveAdmission;
 
   @Autowired
   public LogAsyncController(ProjectExtractor projectExtractor,
-      @Qualifier("asyncCreateLogHandler") CreateLogHandler createLogHandler, Validator validator) {
+      @Qualifier("asyncCreateLogHandler") CreateLogHandler createLogHandler,
+      StreamingCreateLogHandler streamingCreateLogHandler, Validator validator,
+      AttachmentSaveAdmission attachmentSaveAdmission) {
     this.projectExtractor = projectExtractor;
     this.createLogHandler = createLogHandler;
+    this.streamingCreateLogHandler = streamingCreateLogHandler;
     this.validator = validator;
+    this.attachmentSaveAdmission = attachmentSaveAdmission;
   }
 
   /**
@@ -130,6 +138,10 @@ public class LogAsyncController {
      * attachments
      */
     MultiValuedMap<String, MultipartFile> uploadedFiles = getUploadedFiles(request);
+    if (!uploadedFiles.isEmpty()) {
+      attachmentSaveAdmission.check(
+          projectExtractor.extractProjectDetails(user, projectName).getProjectId());
+    }
     BatchSaveOperatingRS response = new BatchSaveOperatingRS();
     EntryCreatedAsyncRS responseItem;
     /* Go through all provided save log request items */
@@ -168,4 +180,14 @@ public class LogAsyncController {
     }
     return new ResponseEntity<>(response, CREATED);
   }
+
+  @PostMapping(value = "/stream", consumes = {MediaType.MULTIPART_FORM_DATA_VALUE})
+  @Operation(summary = "Create log (batching operation), streaming attachments to the storage",
+      description = "The json_request_part should be the first part of the request")
+  @PreAuthorize(ALLOWED_TO_REPORT)
+  public ResponseEntity<BatchSaveOperatingRS> createLogStreaming(@PathVariable String projectName,
+      HttpServletRequest request, @AuthenticationPrincipal ReportPortalUser user) {
+    return new ResponseEntity<>(streamingCreateLogHandler.createLogs(request,
+        projectExtractor.extractProjectDetails(user, projectName)), CREATED);
+  }
 }
@@ -36,6 +36,7 @@ import com.epam.ta.reportportal.core.analyzer.auto.SearchLogService;
 import com.epam.ta.reportportal.core.log.CreateLogHandler;
 import com.epam.ta.reportportal.core.log.DeleteLogHandler;
 import com.epam.ta.reportportal.core.log.GetLogHandler;
+import com.epam.ta.reportportal.core.log.impl.AttachmentSaveAdmission;
 import com.epam.ta.reportportal.core.log.impl.PagedLogResource;
 import com.epam.ta.reportportal.entity.log.Log;
 import com.epam.ta.reportportal.model.log.GetLogsUnderRq;
@@ -100,17 +101,20 @@ public class LogController {
   private final GetLogHandler getLogHandler;
   private final SearchLogService searchLogService;
   private final Validator validator;
+  private final AttachmentSaveAdmission attachmentSaveAdmission;
 
   @Autowired
   public LogController(ProjectExtractor projectExtractor,
       @Autowired CreateLogHandler createLogHandler, DeleteLogHandler deleteLogHandler,
-      GetLogHandler getLogHandler, SearchLogService searchLogService, Validator validator) {
+      GetLogHandler getLogHandler, SearchLogService searchLogService, Validator validator,
+      AttachmentSaveAdmission attachmentSaveAdmission) {
     this.projectExtractor = projectExtractor;
     this.createLogHandler = createLogHandler;
     this.deleteLogHandler = deleteLogHandler;
     this.getLogHandler = getLogHandler;
     this.searchLogService = searchLogService;
     this.validator = validator;
+    this.attachmentSaveAdmission = attachmentSaveAdmission;
   }
 
   /**
@@ -159,6 +163,10 @@ public class LogController {
      * attachments
      */
     MultiValuedMap<String, MultipartFile> uploadedFiles = getUploadedFiles(request);
+    if (!uploadedFiles.isEmpty()) {
+      attachmentSaveAdmission.check(
+          projectExtractor.extractProjectDetails(user, projectName).getProjectId());
+    }
     BatchSaveOperatingRS response = new BatchSaveOperatingRS();
     EntryCreatedAsyncRS responseItem;
     /* Go through all provided save log request items */
@@ -20,7 +20,7 @@ import static java.util.Optional.ofNullable;
 import static java.util.stream.Collectors.groupingBy;
 import static java.util.stream.Collectors.toSet;
 
-import com.epam.ta.reportportal.core.analyzer.auto.impl.AnalyzerStatusCache;
+import com.epam.ta.reportportal.core.analyzer.auto.impl.AnalysisStateRegistry;
 import com.epam.ta.reportportal.dao.UserRepository;
 import com.epam.ta.reportportal.entity.ItemAttribute;
 import com.epam.ta.reportportal.entity.launch.Launch;
@@ -46,7 +46,7 @@ import org.springframework.stereotype.Service;
 public class LaunchConverter {
 
   @Autowired
-  private AnalyzerStatusCache analyzerStatusCache;
+  private AnalysisStateRegistry analysisStateRegistry;
 
   @Autowired
   private UserRepository userRepository;
@@ -86,7 +86,7 @@ public class LaunchConverter {
     resource.setMode(db.getMode() == null ? null : Mode.valueOf(db.getMode().name()));
     resource.setRetentionPolicy(db.getRetentionPolicy() == null ? null :
         RetentionPolicy.valueOf(db.getRetentionPolicy().name()));
-    resource.setAnalyzers(analyzerStatusCache.getStartedAnalyzers(db.getId()));
+    resource.setAnalyzers(analysisStateRegistry.getStartedAnalyzers(db.getId()));
     resource.setStatisticsResource(StatisticsConverter.TO_RESOURCE.apply(db.getStatistics()));
     resource.setApproximateDuration(db.getApproximateDuration());
     resource.setHasRetries(db.isHasRetries());
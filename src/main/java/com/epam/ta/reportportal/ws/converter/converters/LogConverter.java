@@ -74,6 +74,18 @@ public final class LogConverter {
     return pagedLog;
   };
 
+  public static final BiFunction<LogResource, PagedLogResource, PagedLogResource> FILL_WITH_RESOURCE_CONTENT = (resource, pagedLog) -> {
+    pagedLog.setId(resource.getId());
+    pagedLog.setUuid(resource.getUuid());
+    pagedLog.setMessage(resource.getMessage());
+    pagedLog.setLogTime(resource.getLogTime());
+    pagedLog.setBinaryContent(resource.getBinaryContent());
+    pagedLog.setItemId(resource.getItemId());
+    pagedLog.setLaunchId(resource.getLaunchId());
+    pagedLog.setLevel(resource.getLevel());
+    return pagedLog;
+  };
+
   public static final Function<LogFull, SearchLogRs.LogEntry> TO_LOG_ENTRY = log -> {
     SearchLogRs.LogEntry logEntry = new SearchLogRs.LogEntry();
     logEntry.setMessage(log.getLogMessage());
@@ -44,6 +44,8 @@ public final class ProjectConverter {
 
   private final static String INDEXING_RUN = "analyzer.indexingRunning";
 
+  private final static String INDEXED_LOGS = "analyzer.indexedLogs";
+
   @Autowired
   private IndexerStatusCache indexerStatusCache;
 
@@ -81,6 +83,8 @@ public final class ProjectConverter {
         INDEXING_RUN, String.valueOf(
             ofNullable(indexerStatusCache.getIndexingStatus().getIfPresent(project.getId())).orElse(
                 false)));
+    indexerStatusCache.getIndexingProgress(project.getId())
+        .ifPresent(indexedLogs -> attributes.put(INDEXED_LOGS, String.valueOf(indexedLogs)));
 
     projectConfiguration.setProjectAttributes(attributes);
 
@@ -0,0 +1,149 @@
+/*
+ * Copyright 2024 EPAM Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.ta.reportportal.ws.rabbit;
+
+import com.epam.ta.reportportal.core.log.impl.BatchLogSaver;
+import com.epam.ta.reportportal.ws.reporting.SaveLogRQ;
+import com.rabbitmq.client.Channel;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.rabbit.listener.api.ChannelAwareBatchMessageListener;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Batching consumer of the reporting queues. Messages drained by the listener container (up to the
+ * configured batch size or receive timeout) are applied in a single transaction, in the order they
+ * were received, so per-launch ordering within a queue is preserved.
+ * <p>
+ * If any message of the batch fails, the whole transaction is rolled back and the batch is replayed
+ * message by message, each in its own transaction. Failed messages are rejected one by one and go
+ * through the usual dead-letter retry path, while the rest of the batch is acknowledged.
+ * <p>
+ * Consecutive LOG messages without attachments are saved in bulk by {@link BatchLogSaver} right
+ * before the next message of another type, so they never overtake the items they belong to.
+ */
+public class AsyncReportingBatchListener implements ChannelAwareBatchMessageListener {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(AsyncReportingBatchListener.class);
+
+  private final AsyncReportingListener reportingListener;
+
+  private final BatchLogSaver batchLogSaver;
+
+  private final TransactionTemplate transactionTemplate;
+
+  public AsyncReportingBatchListener(AsyncReportingListener reportingListener,
+      BatchLogSaver batchLogSaver, PlatformTransactionManager transactionManager) {
+    this.reportingListener = reportingListener;
+    this.batchLogSaver = batchLogSaver;
+    this.transactionTemplate = new TransactionTemplate(transactionManager);
+  }
+
+  @Override
+  public void onMessageBatch(List<Message> messages, Channel channel) {
+    List<Message> accepted = new ArrayList<>(messages.size());
+    for (Message message : messages) {
+      try {
+        if (reportingListener.breakRetrying(message)) {
+          ack(channel, message);
+        } else {
+          accepted.add(message);
+        }
+      } catch (Exception e) {
+        LOGGER.error("Unable to check retry count of the reporting message: {}", e.getMessage());
+        reject(channel, message);
+      }
+    }
+
+    if (accepted.isEmpty()) {
+      return;
+    }
+
+    try {
+      transactionTemplate.executeWithoutResult(status -> processBatch(accepted));
+    } catch (Exception e) {
+      LOGGER.debug("Batch of {} reporting messages failed, processing them one by one. Cause: {}",
+          accepted.size(),
+          e.getMessage()
+      );
+      processOneByOne(accepted, channel);
+      return;
+    }
+    accepted.forEach(message -> ack(channel, message));
+  }
+
+  private void processBatch(List<Message> messages) {
+    Map<Long, List<SaveLogRQ>> pendingLogs = new LinkedHashMap<>();
+    for (Message message : messages) {
+      Optional<SaveLogRQ> logRequest = reportingListener.getBulkLogRequest(message);
+      if (logRequest.isPresent()) {
+        Long projectId = (Long) message.getMessageProperties().getHeaders()
+            .get(MessageHeaders.PROJECT_ID);
+        pendingLogs.computeIfAbsent(projectId, id -> new ArrayList<>()).add(logRequest.get());
+      } else {
+        savePendingLogs(pendingLogs);
+        reportingListener.onMessage(message);
+      }
+    }
+    savePendingLogs(pendingLogs);
+  }
+
+  private void savePendingLogs(Map<Long, List<SaveLogRQ>> pendingLogs) {
+    pendingLogs.forEach(batchLogSaver::saveLogs);
+    pendingLogs.clear();
+  }
+
+  private void processOneByOne(List<Message> messages, Channel channel) {
+    for (Message message : messages) {
+      try {
+        transactionTemplate.executeWithoutResult(status -> reportingListener.onMessage(message));
+        ack(channel, message);
+      } catch (Exception e) {
+        reject(channel, message);
+      }
+    }
+  }
+
+  private void ack(Channel channel, Message message) {
+    try {
+      channel.basicAck(message.getMessageProperties().getDeliveryTag(), false);
+    } catch (IOException e) {
+      throw new IllegalStateException("Unable to acknowledge reporting message", e);
+    }
+  }
+
+  /**
+   * Rejects the message without requeue, so the broker routes it to the retry exchange configured
+   * as the dead-letter exchange of the reporting queue.
+   */
+  private void reject(Channel channel, Message message) {
+    try {
+      channel.basicReject(message.getMessageProperties().getDeliveryTag(), false);
+    } catch (IOException e) {
+      throw new IllegalStateException("Unable to reject reporting message", e);
+    }
+  }
+
+}
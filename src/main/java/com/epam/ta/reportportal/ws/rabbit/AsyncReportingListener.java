@@ -16,22 +16,24 @@
 
 package com.epam.ta.reportportal.ws.rabbit;
 
-import static com.epam.ta.reportportal.commons.EntityUtils.normalizeId;
 import static com.epam.ta.reportportal.core.configs.rabbit.ReportingConfiguration.DEAD_LETTER_MAX_RETRY;
 import static com.epam.ta.reportportal.core.configs.rabbit.ReportingConfiguration.EXCHANGE_REPORTING_RETRY;
 import static com.epam.ta.reportportal.core.configs.rabbit.ReportingConfiguration.QUEUE_DLQ;
+import static com.epam.ta.reportportal.core.log.impl.BatchLogSaver.LOGS_SAVED_METRIC;
+import static com.epam.ta.reportportal.core.log.impl.BatchLogSaver.MODE_TAG;
 import static com.epam.ta.reportportal.ws.converter.converters.LogConverter.LOG_FULL_TO_LOG;
 
-import com.epam.ta.reportportal.auth.basic.DatabaseUserDetailsService;
 import com.epam.ta.reportportal.binary.AttachmentBinaryDataService;
 import com.epam.ta.reportportal.commons.BinaryDataMetaInfo;
 import com.epam.ta.reportportal.commons.ReportPortalUser;
+import com.epam.ta.reportportal.commons.ReportPortalUser.ProjectDetails;
 import com.epam.ta.reportportal.core.configs.rabbit.DeserializablePair;
 import com.epam.ta.reportportal.core.item.FinishTestItemHandler;
 import com.epam.ta.reportportal.core.item.StartTestItemHandler;
 import com.epam.ta.reportportal.core.item.TestItemService;
 import com.epam.ta.reportportal.core.launch.FinishLaunchHandler;
 import com.epam.ta.reportportal.core.launch.StartLaunchHandler;
+import com.epam.ta.reportportal.core.log.LogFullCache;
 import com.epam.ta.reportportal.core.log.LogService;
 import com.epam.ta.reportportal.core.logging.RabbitMessageLogging;
 import com.epam.ta.reportportal.dao.LaunchRepository;
@@ -43,7 +45,6 @@ import com.epam.ta.reportportal.entity.launch.Launch;
 import com.epam.ta.reportportal.entity.log.Log;
 import com.epam.ta.reportportal.entity.log.LogFull;
 import com.epam.reportportal.rules.exception.ReportPortalException;
-import com.epam.ta.reportportal.util.ProjectExtractor;
 import com.epam.ta.reportportal.ws.converter.builders.LogFullBuilder;
 import com.epam.reportportal.rules.exception.ErrorType;
 import com.epam.ta.reportportal.ws.reporting.FinishExecutionRQ;
@@ -52,12 +53,14 @@ import com.epam.ta.reportportal.ws.reporting.SaveLogRQ;
 import com.epam.ta.reportportal.ws.reporting.StartLaunchRQ;
 import com.epam.ta.reportportal.ws.reporting.StartTestItemRQ;
 import com.google.common.base.Strings;
+import io.micrometer.core.instrument.MeterRegistry;
 import java.time.Instant;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.tuple.Pair;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.amqp.AmqpRejectAndDontRequeueException;
@@ -97,7 +100,7 @@ public class AsyncReportingListener implements MessageListener {
   private FinishTestItemHandler finishTestItemHandler;
 
   @Autowired
-  private DatabaseUserDetailsService userDetailsService;
+  private ReportingIdentityCache identityCache;
 
   @Autowired
   private LogRepository logRepository;
@@ -115,10 +118,16 @@ public class AsyncReportingListener implements MessageListener {
   private AttachmentBinaryDataService attachmentBinaryDataService;
 
   @Autowired
-  private ProjectExtractor projectExtractor;
+  private LogService logService;
 
   @Autowired
-  private LogService logService;
+  private LogFullCache logFullCache;
+
+  @Autowired
+  private MeterRegistry meterRegistry;
+
+  @Autowired
+  private ReportingQueueMetrics reportingQueueMetrics;
 
   @Override
   @RabbitMessageLogging
@@ -162,11 +171,7 @@ public class AsyncReportingListener implements MessageListener {
           );
           break;
         case LOG:
-          Jackson2JsonMessageConverter converter = (Jackson2JsonMessageConverter) messageConverter;
-          onLogCreate((DeserializablePair) converter.fromMessage(message,
-              new ParameterizedTypeReference<DeserializablePair<SaveLogRQ, BinaryDataMetaInfo>>() {
-              }
-          ), (Long) headers.get(MessageHeaders.PROJECT_ID));
+          onLogCreate(convertLogPayload(message), (Long) headers.get(MessageHeaders.PROJECT_ID));
           break;
         default:
           LOGGER.error("Unknown message type");
@@ -192,40 +197,37 @@ public class AsyncReportingListener implements MessageListener {
   }
 
   public void onStartLaunch(StartLaunchRQ rq, String username, String projectName) {
-    ReportPortalUser user = (ReportPortalUser) userDetailsService.loadUserByUsername(username);
-    startLaunchHandler.startLaunch(user, extractProjectDetails(user, projectName), rq);
+    Pair<ReportPortalUser, ProjectDetails> identity = identityCache.getIdentity(username,
+        projectName);
+    startLaunchHandler.startLaunch(identity.getLeft(), identity.getRight(), rq);
   }
 
   public void onFinishLaunch(FinishExecutionRQ rq, String username, String projectName,
       String launchId, String baseUrl) {
-    ReportPortalUser user = (ReportPortalUser) userDetailsService.loadUserByUsername(username);
-    finishLaunchHandler.finishLaunch(launchId, rq, extractProjectDetails(user, projectName), user,
+    Pair<ReportPortalUser, ProjectDetails> identity = identityCache.getIdentity(username,
+        projectName);
+    finishLaunchHandler.finishLaunch(launchId, rq, identity.getRight(), identity.getLeft(),
         baseUrl);
   }
 
   public void onStartItem(StartTestItemRQ rq, String username, String projectName,
       String parentId) {
-    ReportPortalUser user = (ReportPortalUser) userDetailsService.loadUserByUsername(username);
-    ReportPortalUser.ProjectDetails projectDetails = extractProjectDetails(user,
-        normalizeId(projectName));
+    Pair<ReportPortalUser, ProjectDetails> identity = identityCache.getIdentity(username,
+        projectName);
     if (!Strings.isNullOrEmpty(parentId)) {
-      startTestItemHandler.startChildItem(user, projectDetails, rq, parentId);
+      startTestItemHandler.startChildItem(identity.getLeft(), identity.getRight(), rq, parentId);
     } else {
-      startTestItemHandler.startRootItem(user, projectDetails, rq);
+      startTestItemHandler.startRootItem(identity.getLeft(), identity.getRight(), rq);
     }
   }
 
   public void onFinishItem(FinishTestItemRQ rq, String username, String projectName,
       String itemId) {
-    ReportPortalUser user = (ReportPortalUser) userDetailsService.loadUserByUsername(username);
-    finishTestItemHandler.finishTestItem(user,
-        extractProjectDetails(user, normalizeId(projectName)), itemId, rq);
+    Pair<ReportPortalUser, ProjectDetails> identity = identityCache.getIdentity(username,
+        projectName);
+    finishTestItemHandler.finishTestItem(identity.getLeft(), identity.getRight(), itemId, rq);
   }
 
-	private ReportPortalUser.ProjectDetails extractProjectDetails(ReportPortalUser user, String projectName) {
-    return projectExtractor.extractProjectDetails(user, projectName);
-	}
-
   public void onLogCreate(DeserializablePair<SaveLogRQ, BinaryDataMetaInfo> payload,
       Long projectId) {
     SaveLogRQ request = payload.getLeft();
@@ -254,7 +256,7 @@ public class AsyncReportingListener implements MessageListener {
    * @param message
    * @return -
    */
-  private boolean breakRetrying(Message message) {
+  public boolean breakRetrying(Message message) {
     List<Map<String, ?>> xdHeader = (List<Map<String, ?>>) message.getMessageProperties()
         .getHeaders().get(MessageHeaders.XD_HEADER);
 
@@ -270,12 +272,35 @@ public class AsyncReportingListener implements MessageListener {
         // cleanup(payload);
 
         amqpTemplate.send(EXCHANGE_REPORTING_RETRY, QUEUE_DLQ, message);
+        reportingQueueMetrics.dropped(message);
         return true;
       }
     }
     return false;
   }
 
+  /**
+   * Extracts log request of the LOG message, that can be saved in bulk with other logs
+   *
+   * @param message Reporting message
+   * @return {@link SaveLogRQ} of the LOG message without file, otherwise {@link Optional#empty()}
+   */
+  public Optional<SaveLogRQ> getBulkLogRequest(Message message) {
+    if (RequestType.LOG != getRequestType(message)) {
+      return Optional.empty();
+    }
+    return Optional.ofNullable(convertLogPayload(message).getLeft())
+        .filter(request -> Objects.isNull(request.getFile()));
+  }
+
+  private DeserializablePair<SaveLogRQ, BinaryDataMetaInfo> convertLogPayload(Message message) {
+    Jackson2JsonMessageConverter converter = (Jackson2JsonMessageConverter) messageConverter;
+    return (DeserializablePair<SaveLogRQ, BinaryDataMetaInfo>) converter.fromMessage(message,
+        new ParameterizedTypeReference<DeserializablePair<SaveLogRQ, BinaryDataMetaInfo>>() {
+        }
+    );
+  }
+
   private String getTargetId(Message message) {
     try {
       switch (getRequestType(message)) {
@@ -288,11 +313,7 @@ public class AsyncReportingListener implements MessageListener {
         case FINISH_TEST:
           return (String) message.getMessageProperties().getHeaders().get(MessageHeaders.ITEM_ID);
         case LOG:
-          Jackson2JsonMessageConverter converter = (Jackson2JsonMessageConverter) messageConverter;
-          return ((SaveLogRQ) ((DeserializablePair) converter.fromMessage(message,
-              new ParameterizedTypeReference<DeserializablePair<SaveLogRQ, BinaryDataMetaInfo>>() {
-              }
-          )).getLeft()).getUuid();
+          return convertLogPayload(message).getLeft().getUuid();
         default:
           return "";
       }
@@ -308,6 +329,7 @@ public class AsyncReportingListener implements MessageListener {
     Log log = LOG_FULL_TO_LOG.apply(logFull);
     logRepository.save(log);
     logFull.setId(log.getId());
+    meterRegistry.counter(LOGS_SAVED_METRIC, MODE_TAG, "single").increment();
     Launch effectiveLaunch = testItemService.getEffectiveLaunch(item);
     logService.saveLogMessage(logFull, effectiveLaunch.getId());
 
@@ -321,6 +343,7 @@ public class AsyncReportingListener implements MessageListener {
           logFull.getUuid()
       );
     }
+    logFullCache.evict(logFull);
   }
 
   private void createLaunchLog(SaveLogRQ request, Launch launch, BinaryDataMetaInfo metaInfo,
@@ -330,6 +353,7 @@ public class AsyncReportingListener implements MessageListener {
     Log log = LOG_FULL_TO_LOG.apply(logFull);
     logRepository.save(log);
     logFull.setId(log.getId());
+    meterRegistry.counter(LOGS_SAVED_METRIC, MODE_TAG, "single").increment();
     logService.saveLogMessage(logFull, launch.getId());
 
     if (Objects.nonNull(request.getFile())) {
@@ -338,6 +362,7 @@ public class AsyncReportingListener implements MessageListener {
           null, launch.getUuid(),
           logFull.getUuid());
     }
+    logFullCache.evict(logFull);
   }
 
   private void saveAttachment(String fileName, BinaryDataMetaInfo metaInfo, Long logId,
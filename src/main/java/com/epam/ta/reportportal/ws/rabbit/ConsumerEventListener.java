@@ -31,6 +31,7 @@ import org.springframework.amqp.rabbit.listener.AbstractMessageListenerContainer
 import org.springframework.amqp.rabbit.listener.ListenerContainerConsumerFailedEvent;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.ApplicationListener;
 import org.springframework.context.annotation.Conditional;
 import org.springframework.stereotype.Component;
@@ -55,8 +56,17 @@ public class ConsumerEventListener implements
   @Autowired
   private ConnectionFactory connectionFactory;
 
+  /**
+   * With leases every container is bound to its queue, see {@link ReportingQueueCoordinator}
+   */
+  @Value("${rp.amqp.reporting.lease.enabled:false}")
+  private boolean leaseEnabled;
+
   @Override
   public void onApplicationEvent(ListenerContainerConsumerFailedEvent event) {
+    if (leaseEnabled) {
+      return;
+    }
     Object source = event.getSource();
     if (source instanceof AbstractMessageListenerContainer) {
       AbstractMessageListenerContainer listenerContainer = (AbstractMessageListenerContainer) source;
@@ -0,0 +1,77 @@
+/*
+ * Copyright 2024 EPAM Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.ta.reportportal.ws.rabbit;
+
+import static com.epam.ta.reportportal.core.configs.rabbit.InternalConfiguration.EXCHANGE_EVENTS;
+
+import com.epam.ta.reportportal.core.configs.Conditions;
+import com.epam.ta.reportportal.core.log.LogCacheEviction;
+import com.epam.ta.reportportal.core.log.LogFullCache;
+import java.util.UUID;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.core.AmqpTemplate;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.annotation.Conditional;
+import org.springframework.messaging.handler.annotation.Payload;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Broadcasts the evictions of {@link LogFullCache} to the other instances over the events fanout
+ * exchange and applies the evictions received from them, so a log changed on one instance isn't
+ * read stale from the cache of another one for longer than the broadcast interval.
+ */
+@Component
+@Conditional(Conditions.NotTestCondition.class)
+public class LogCacheEvictionBroadcaster {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(LogCacheEvictionBroadcaster.class);
+
+  private final LogFullCache logFullCache;
+
+  private final AmqpTemplate amqpTemplate;
+
+  private final String origin = UUID.randomUUID().toString();
+
+  public LogCacheEvictionBroadcaster(LogFullCache logFullCache,
+      @Qualifier("rabbitTemplate") AmqpTemplate amqpTemplate) {
+    this.logFullCache = logFullCache;
+    this.amqpTemplate = amqpTemplate;
+  }
+
+  @Scheduled(fixedDelayString = "${rp.log.cache.broadcast-interval:1000}")
+  public void broadcast() {
+    logFullCache.drainEvictions().ifPresent(eviction -> {
+      eviction.setOrigin(origin);
+      try {
+        amqpTemplate.convertAndSend(EXCHANGE_EVENTS, "", eviction);
+      } catch (Exception e) {
+        LOGGER.warn("Unable to broadcast the log cache evictions: {}", e.getMessage());
+      }
+    });
+  }
+
+  @RabbitListener(queues = "#{ @logCacheEvictionQueue.name }",
+      containerFactory = "rabbitListenerContainerFactory")
+  public void onEviction(@Payload LogCacheEviction eviction) {
+    if (!origin.equals(eviction.getOrigin())) {
+      logFullCache.apply(eviction);
+    }
+  }
+}
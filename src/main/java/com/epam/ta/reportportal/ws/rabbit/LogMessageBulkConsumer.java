@@ -0,0 +1,122 @@
+/*
+ * Copyright 2024 EPAM Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.ta.reportportal.ws.rabbit;
+
+import static com.epam.ta.reportportal.core.configs.rabbit.BackgroundProcessingConfiguration.LOG_MESSAGE_BULK_PARKING_ROUTING_KEY;
+import static com.epam.ta.reportportal.core.configs.rabbit.BackgroundProcessingConfiguration.LOG_MESSAGE_BULK_SAVING_QUEUE_NAME;
+import static com.epam.ta.reportportal.core.configs.rabbit.BackgroundProcessingConfiguration.PROCESSING_EXCHANGE_NAME;
+import static com.epam.ta.reportportal.core.log.LogMessageBulkAggregator.FAILED_METRIC;
+import static com.epam.ta.reportportal.core.log.LogMessageBulkAggregator.FLUSH_METRIC;
+import static com.epam.ta.reportportal.core.log.LogMessageBulkAggregator.INDEX_STAGE;
+import static com.epam.ta.reportportal.core.log.LogMessageBulkAggregator.PARKED_METRIC;
+import static com.epam.ta.reportportal.core.log.LogMessageBulkAggregator.SIZE_METRIC;
+import static com.epam.ta.reportportal.core.log.LogMessageBulkAggregator.STAGE_TAG;
+
+import com.epam.ta.reportportal.core.log.LogMessageBulk;
+import com.epam.ta.reportportal.dao.custom.ElasticSearchClient;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.util.List;
+import java.util.Map;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.core.AmqpTemplate;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.messaging.handler.annotation.Header;
+import org.springframework.messaging.handler.annotation.Payload;
+import org.springframework.stereotype.Component;
+
+/**
+ * Indexes bulks of log messages with a single bulk request to the search engine. A bulk failed to
+ * be indexed is rejected, so it's dead-lettered to the retry queue and consumed again after the
+ * retry delay. A bulk rejected 'max-retry' times, according to its 'x-death' header, is moved to
+ * the parking queue instead.
+ */
+@Component
+@ConditionalOnProperty(prefix = "rp.searchengine", name = {"host", "bulk.enabled"})
+public class LogMessageBulkConsumer {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(LogMessageBulkConsumer.class);
+
+  private final ElasticSearchClient elasticSearchClient;
+
+  private final AmqpTemplate amqpTemplate;
+
+  private final long maxRetry;
+
+  private final DistributionSummary bulkSize;
+
+  private final Timer indexTimer;
+
+  private final Counter failed;
+
+  private final Counter parked;
+
+  public LogMessageBulkConsumer(ElasticSearchClient elasticSearchClient,
+      @Qualifier("rabbitTemplate") AmqpTemplate amqpTemplate,
+      @Value("${rp.searchengine.bulk.max-retry:10}") long maxRetry, MeterRegistry meterRegistry) {
+    this.elasticSearchClient = elasticSearchClient;
+    this.amqpTemplate = amqpTemplate;
+    this.maxRetry = maxRetry;
+    this.bulkSize = meterRegistry.summary(SIZE_METRIC, STAGE_TAG, INDEX_STAGE);
+    this.indexTimer = meterRegistry.timer(FLUSH_METRIC, STAGE_TAG, INDEX_STAGE);
+    this.failed = meterRegistry.counter(FAILED_METRIC, STAGE_TAG, INDEX_STAGE);
+    this.parked = meterRegistry.counter(PARKED_METRIC, STAGE_TAG, INDEX_STAGE);
+  }
+
+  @RabbitListener(queues = LOG_MESSAGE_BULK_SAVING_QUEUE_NAME,
+      containerFactory = "rabbitListenerContainerFactory")
+  public void onBulk(@Payload LogMessageBulk bulk,
+      @Header(name = MessageHeaders.XD_HEADER, required = false) List<Map<String, ?>> xDeath) {
+    long rejected = getRejectedCount(xDeath);
+    if (rejected >= maxRetry) {
+      LOGGER.error("Parking the bulk of {} logs failed to be indexed {} times",
+          bulk.getLogs().size(), rejected);
+      amqpTemplate.convertAndSend(PROCESSING_EXCHANGE_NAME, LOG_MESSAGE_BULK_PARKING_ROUTING_KEY,
+          bulk);
+      parked.increment();
+      return;
+    }
+    try {
+      indexTimer.record(() -> elasticSearchClient.save(bulk.toLogMessages()));
+    } catch (RuntimeException e) {
+      failed.increment();
+      throw e;
+    }
+    bulkSize.record(bulk.getLogs().size());
+  }
+
+  /**
+   * @return Number of the times the bulk was rejected by this consumer
+   */
+  private static long getRejectedCount(List<Map<String, ?>> xDeath) {
+    if (xDeath == null) {
+      return 0L;
+    }
+    return xDeath.stream()
+        .filter(death -> LOG_MESSAGE_BULK_SAVING_QUEUE_NAME.equals(death.get("queue")))
+        .map(death -> death.get("count"))
+        .filter(Number.class::isInstance)
+        .mapToLong(count -> ((Number) count).longValue())
+        .sum();
+  }
+}
@@ -0,0 +1,157 @@
+/*
+ * Copyright 2024 EPAM Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.ta.reportportal.ws.rabbit;
+
+import static com.epam.ta.reportportal.commons.EntityUtils.normalizeId;
+
+import com.epam.ta.reportportal.auth.basic.DatabaseUserDetailsService;
+import com.epam.ta.reportportal.commons.ReportPortalUser;
+import com.epam.ta.reportportal.commons.ReportPortalUser.ProjectDetails;
+import com.epam.ta.reportportal.core.events.activity.AssignUserEvent;
+import com.epam.ta.reportportal.core.events.activity.ChangeRoleEvent;
+import com.epam.ta.reportportal.core.events.activity.ChangeUserTypeEvent;
+import com.epam.ta.reportportal.core.events.activity.UnassignUserEvent;
+import com.epam.ta.reportportal.core.events.activity.UserDeletedEvent;
+import com.epam.ta.reportportal.core.events.activity.UsersDeletedEvent;
+import com.epam.ta.reportportal.model.activity.UserActivityResource;
+import com.epam.ta.reportportal.util.ProjectExtractor;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.google.common.collect.Maps;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import java.time.Duration;
+import java.util.Objects;
+import java.util.Optional;
+import org.apache.commons.lang3.tuple.Pair;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Cache of the reporter identities resolved by the reporting queue consumers. Every reporting
+ * message carries username and project name, so without the cache each of them costs a user and a
+ * project membership lookup.
+ * <p>
+ * Entries are keyed by (username, project name), bounded by size and expire after the configured
+ * TTL. Entries of a user are evicted after commit of the membership, project role, user role and
+ * user deletion changes. The events are local to the instance, so the TTL bounds the staleness of
+ * the changes made through other API instances. Hit and miss counts are exposed as
+ * {@code cache.gets} meters with {@code cache=reporting.identity} tag.
+ */
+@Component
+public class ReportingIdentityCache {
+
+  public static final String CACHE_NAME = "reporting.identity";
+
+  private final DatabaseUserDetailsService userDetailsService;
+
+  private final ProjectExtractor projectExtractor;
+
+  private final Cache<Pair<String, String>, Pair<ReportPortalUser, ProjectDetails>> cache;
+
+  public ReportingIdentityCache(DatabaseUserDetailsService userDetailsService,
+      ProjectExtractor projectExtractor, MeterRegistry meterRegistry,
+      @Value("${rp.amqp.reporting.identity-cache.size:10000}") long size,
+      @Value("${rp.amqp.reporting.identity-cache.ttl:60}") long ttl) {
+    this.userDetailsService = userDetailsService;
+    this.projectExtractor = projectExtractor;
+    this.cache = Caffeine.newBuilder()
+        .maximumSize(size)
+        .expireAfterWrite(Duration.ofSeconds(ttl))
+        .recordStats()
+        .build();
+    CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+  }
+
+  /**
+   * Resolves user and its project details. Failed resolutions are not cached.
+   *
+   * @param username    Username of the reporter
+   * @param projectName Project name
+   * @return {@link Pair} of the {@link ReportPortalUser} and its {@link ProjectDetails} of the
+   * project. The user is a copy owned by the caller
+   */
+  public Pair<ReportPortalUser, ProjectDetails> getIdentity(String username, String projectName) {
+    Pair<ReportPortalUser, ProjectDetails> identity = cache.get(
+        Pair.of(normalizeId(username), normalizeId(projectName)),
+        key -> load(username, key.getRight())
+    );
+    return Pair.of(copy(identity.getLeft()), identity.getRight());
+  }
+
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onAssignUser(AssignUserEvent event) {
+    evictUser(event.getUserActivityResource());
+  }
+
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onUnassignUser(UnassignUserEvent event) {
+    evictUser(event.getUserActivityResource());
+  }
+
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onChangeRole(ChangeRoleEvent event) {
+    evictUser(event.getUserActivityResource());
+  }
+
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onUserDeleted(UserDeletedEvent event) {
+    evictUser(event.getBefore());
+  }
+
+  /**
+   * Events of the bulk user deletion and user role change don't carry the affected user ids.
+   * Both are rare, so the whole cache is dropped.
+   */
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onUsersDeleted(UsersDeletedEvent event) {
+    cache.invalidateAll();
+  }
+
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onChangeUserType(ChangeUserTypeEvent event) {
+    cache.invalidateAll();
+  }
+
+  private Pair<ReportPortalUser, ProjectDetails> load(String username, String projectName) {
+    ReportPortalUser user = (ReportPortalUser) userDetailsService.loadUserByUsername(username);
+    return Pair.of(user, projectExtractor.extractProjectDetails(user, projectName));
+  }
+
+  private void evictUser(UserActivityResource user) {
+    Optional.ofNullable(user).map(UserActivityResource::getId).ifPresentOrElse(
+        userId -> cache.asMap().values()
+            .removeIf(identity -> Objects.equals(userId, identity.getLeft().getUserId())),
+        cache::invalidateAll
+    );
+  }
+
+  /**
+   * Handlers may add details of other projects to the user, so the cached instance is never
+   * shared between the consumers.
+   */
+  private ReportPortalUser copy(ReportPortalUser user) {
+    return ReportPortalUser.userBuilder()
+        .withUserDetails(user)
+        .withUserId(user.getUserId())
+        .withUserRole(user.getUserRole())
+        .withProjectDetails(Maps.newHashMap(user.getProjectDetails()))
+        .withEmail(user.getEmail())
+        .build();
+  }
+}
@@ -0,0 +1,136 @@
+/*
+ * Copyright 2024 EPAM Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.ta.reportportal.ws.rabbit;
+
+import com.epam.ta.reportportal.ws.rabbit.ReportingQueueMetrics.QueueStats;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import javax.sql.DataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.core.AmqpAdmin;
+import org.springframework.amqp.core.QueueInformation;
+import org.springframework.amqp.rabbit.listener.AbstractMessageListenerContainer;
+import org.springframework.amqp.rabbit.listener.SimpleMessageListenerContainer;
+import org.springframework.scheduling.annotation.Scheduled;
+
+/**
+ * Adapts prefetch of the reporting consumers to the processing latency and to the saturation of
+ * the database connection pool.
+ * <p>
+ * Prefetch is halved when the pool is saturated or p99 of the processing time exceeds the target,
+ * so less messages wait on a slow consumer, and doubled when the consumer keeps up but the queue
+ * has more messages than are prefetched. Concurrency is not adapted: reporting queues are consumed
+ * by a single exclusive consumer to keep messages of a launch in order.
+ * <p>
+ * A new prefetch is applied by restarting the consumer, which returns prefetched messages to the
+ * queue, so the order of messages is preserved.
+ */
+public class ReportingPrefetchTuner {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(ReportingPrefetchTuner.class);
+
+  private final List<AbstractMessageListenerContainer> containers;
+
+  private final ReportingQueueMetrics metrics;
+
+  private final AmqpAdmin amqpAdmin;
+
+  private final DataSource dataSource;
+
+  private final int minPrefetch;
+
+  private final int maxPrefetch;
+
+  private final double latencyTargetMillis;
+
+  private final double poolSaturation;
+
+  private final Map<String, Integer> prefetches = new ConcurrentHashMap<>();
+
+  public ReportingPrefetchTuner(List<AbstractMessageListenerContainer> containers,
+      ReportingQueueMetrics metrics, AmqpAdmin amqpAdmin, DataSource dataSource, int minPrefetch,
+      int maxPrefetch, double latencyTargetMillis, double poolSaturation) {
+    this.containers = containers;
+    this.metrics = metrics;
+    this.amqpAdmin = amqpAdmin;
+    this.dataSource = dataSource;
+    this.minPrefetch = minPrefetch;
+    this.maxPrefetch = maxPrefetch;
+    this.latencyTargetMillis = latencyTargetMillis;
+    this.poolSaturation = poolSaturation;
+  }
+
+  /**
+   * @param queue Queue name
+   * @return Prefetch count set by the tuner, if it was changed
+   */
+  public Optional<Integer> getPrefetch(String queue) {
+    return Optional.ofNullable(prefetches.get(queue));
+  }
+
+  @Scheduled(fixedDelayString = "${rp.amqp.reporting.prefetch.interval:30000}")
+  public void tune() {
+    boolean saturated = isPoolSaturated();
+    for (AbstractMessageListenerContainer container : containers) {
+      if (!container.isRunning() || !(container instanceof SimpleMessageListenerContainer)) {
+        continue;
+      }
+      String queue = container.getQueueNames()[0];
+      int current = prefetches.getOrDefault(queue, maxPrefetch);
+      int target = getTarget(queue, current, saturated);
+      if (target != current) {
+        LOGGER.debug("Changing prefetch of the queue {} from {} to {}", queue, current, target);
+        ((SimpleMessageListenerContainer) container).setPrefetchCount(target);
+        prefetches.put(queue, target);
+        container.stop();
+        container.start();
+      }
+    }
+  }
+
+  private int getTarget(String queue, int current, boolean saturated) {
+    QueueStats stats = metrics.stats(queue);
+    if (saturated || stats.getProcessingP99Millis() > latencyTargetMillis) {
+      return Math.max(minPrefetch, current / 2);
+    }
+    QueueInformation queueInfo = amqpAdmin.getQueueInfo(queue);
+    if (queueInfo != null && queueInfo.getMessageCount() > current) {
+      return Math.min(maxPrefetch, current * 2);
+    }
+    return current;
+  }
+
+  private boolean isPoolSaturated() {
+    try {
+      if (!dataSource.isWrapperFor(HikariDataSource.class)) {
+        return false;
+      }
+      HikariPoolMXBean pool = dataSource.unwrap(HikariDataSource.class).getHikariPoolMXBean();
+      int maxPoolSize = dataSource.unwrap(HikariDataSource.class).getMaximumPoolSize();
+      return pool != null && (pool.getThreadsAwaitingConnection() > 0
+          || pool.getActiveConnections() >= maxPoolSize * poolSaturation);
+    } catch (SQLException e) {
+      return false;
+    }
+  }
+}
@@ -0,0 +1,190 @@
+/*
+ * Copyright 2024 EPAM Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.ta.reportportal.ws.rabbit;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+import javax.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.rabbit.listener.AbstractMessageListenerContainer;
+import org.springframework.amqp.rabbit.listener.SimpleMessageListenerContainer;
+import org.springframework.scheduling.annotation.Scheduled;
+
+/**
+ * Distributes the reporting queues between the service instances. Every instance keeps a
+ * heartbeat and holds leases of its fair share of the queues, so queues are rebalanced as
+ * instances come and go.
+ * <p>
+ * A queue changes its owner only after it's drained: the consumer of the releasing instance is
+ * stopped, the messages in process are finished and the prefetched ones are returned to the queue,
+ * and only then the lease is released. Consumers stay exclusive, so a queue is never consumed by
+ * two instances even if a lease expires while its owner is still alive.
+ * <p>
+ * Consumers are stopped asynchronously, so a rebalance never waits for the messages in process and
+ * doesn't hold the scheduler thread. The lease of a draining queue is kept and released by the
+ * first rebalance after the consumer has stopped.
+ */
+public class ReportingQueueCoordinator {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(ReportingQueueCoordinator.class);
+
+  private final ReportingQueueLeaseService leaseService;
+
+  private final Map<String, AbstractMessageListenerContainer> containers;
+
+  private final int queuesPerPod;
+
+  private final Set<String> draining = ConcurrentHashMap.newKeySet();
+
+  private final Set<String> drained = ConcurrentHashMap.newKeySet();
+
+  public ReportingQueueCoordinator(ReportingQueueLeaseService leaseService,
+      List<AbstractMessageListenerContainer> listenerContainers, int queuesPerPod) {
+    this.leaseService = leaseService;
+    this.containers = listenerContainers.stream().collect(
+        Collectors.toMap(container -> container.getQueueNames()[0], container -> container,
+            (first, second) -> first, LinkedHashMap::new
+        ));
+    this.queuesPerPod = queuesPerPod;
+  }
+
+  @Scheduled(fixedDelayString = "${rp.amqp.reporting.lease.rebalance-interval:10000}")
+  public synchronized void rebalance() {
+    try {
+      int consumers = leaseService.heartbeat();
+      int fairShare = Math.min(queuesPerPod,
+          (containers.size() + consumers - 1) / Math.max(consumers, 1));
+
+      Set<String> leased = leaseService.renew();
+      stopLost(leased);
+      List<String> extra = releaseExtra(leased, fairShare);
+      claimMissing(leased, fairShare);
+
+      leased.stream().filter(queue -> !extra.contains(queue)).forEach(this::start);
+    } catch (Exception e) {
+      LOGGER.error("Unable to rebalance reporting queues: {}", e.getMessage());
+    }
+  }
+
+  @PreDestroy
+  public synchronized void leave() {
+    List<String> released = new ArrayList<>();
+    containers.forEach((queue, container) -> {
+      if (container.isRunning()) {
+        container.stop();
+        drained.add(queue);
+      }
+      if (isDrained(queue, container)) {
+        released.add(queue);
+      }
+    });
+    leaseService.leave(released);
+    LOGGER.info("Consumer {} released reporting queues {}", leaseService.getConsumerId(), released);
+  }
+
+  /**
+   * Stops consumers of the queues, which leases were taken over after expiration
+   */
+  private void stopLost(Set<String> leased) {
+    containers.forEach((queue, container) -> {
+      if (container.isRunning() && !leased.contains(queue) && !draining.contains(queue)) {
+        LOGGER.warn("Lease of the queue {} is lost, stopping consumer", queue);
+        drain(queue, container);
+      }
+    });
+  }
+
+  /**
+   * Drains and releases queues above the fair share. Queues with consumers still stopping keep
+   * their leases until a later rebalance.
+   *
+   * @return Queues above the fair share
+   */
+  private List<String> releaseExtra(Set<String> leased, int fairShare) {
+    List<String> extra = leased.stream().sorted().skip(fairShare).collect(Collectors.toList());
+    for (String queue : extra) {
+      AbstractMessageListenerContainer container = containers.get(queue);
+      if (container != null && !drained.contains(queue)) {
+        drain(queue, container);
+      }
+      if (container == null || isDrained(queue, container)) {
+        leaseService.release(queue);
+        leased.remove(queue);
+        drained.remove(queue);
+        LOGGER.info("Queue {} is drained and released", queue);
+      }
+    }
+    return extra;
+  }
+
+  private void claimMissing(Set<String> leased, int fairShare) {
+    if (leased.size() >= fairShare) {
+      return;
+    }
+    Set<String> taken = leaseService.getLeasedQueues();
+    for (String queue : containers.keySet()) {
+      if (leased.size() >= fairShare) {
+        return;
+      }
+      if (!taken.contains(queue) && leaseService.claim(queue)) {
+        leased.add(queue);
+        LOGGER.info("Queue {} is claimed by consumer {}", queue, leaseService.getConsumerId());
+      }
+    }
+  }
+
+  /**
+   * Starts the consumer of a leased queue unless it's still stopping
+   */
+  private void start(String queue) {
+    AbstractMessageListenerContainer container = containers.get(queue);
+    if (container == null || draining.contains(queue)) {
+      return;
+    }
+    drained.remove(queue);
+    if (!container.isRunning()) {
+      container.start();
+    }
+  }
+
+  /**
+   * Stops the consumer without waiting for the messages in process, the queue is marked as drained
+   * when the consumer has stopped
+   */
+  private void drain(String queue, AbstractMessageListenerContainer container) {
+    if (draining.add(queue)) {
+      container.stop(() -> {
+        drained.add(queue);
+        draining.remove(queue);
+      });
+    }
+  }
+
+  /**
+   * @return true if the consumer has stopped and no message is in process anymore
+   */
+  private boolean isDrained(String queue, AbstractMessageListenerContainer container) {
+    return drained.contains(queue) && (!(container instanceof SimpleMessageListenerContainer)
+        || ((SimpleMessageListenerContainer) container).getActiveConsumerCount() == 0);
+  }
+}
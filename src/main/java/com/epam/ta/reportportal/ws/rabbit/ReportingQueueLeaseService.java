@@ -0,0 +1,128 @@
+/*
+ * Copyright 2024 EPAM Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.ta.reportportal.ws.rabbit;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * Leases of the reporting queues stored in the database. An instance consumes a queue only while it
+ * holds the lease of the queue, and keeps its own heartbeat so the other instances know how many
+ * consumers share the queues. All the timestamps are taken from the database clock.
+ */
+public class ReportingQueueLeaseService {
+
+  private static final String HEARTBEAT_QUERY =
+      "INSERT INTO reporting_consumer (consumer_id, alive_until) "
+          + "VALUES (?, now() + make_interval(secs => ?)) "
+          + "ON CONFLICT (consumer_id) DO UPDATE SET alive_until = excluded.alive_until";
+
+  private static final String ALIVE_CONSUMERS_QUERY =
+      "SELECT count(*) FROM reporting_consumer WHERE alive_until > now()";
+
+  private static final String REMOVE_CONSUMER_QUERY =
+      "DELETE FROM reporting_consumer WHERE consumer_id = ? "
+          + "OR alive_until < now() - interval '1 day'";
+
+  private static final String CLAIM_QUERY =
+      "INSERT INTO reporting_queue_lease (queue_name, owner, lease_until) "
+          + "VALUES (?, ?, now() + make_interval(secs => ?)) "
+          + "ON CONFLICT (queue_name) DO UPDATE "
+          + "SET owner = excluded.owner, lease_until = excluded.lease_until "
+          + "WHERE reporting_queue_lease.owner = excluded.owner "
+          + "OR reporting_queue_lease.lease_until < now()";
+
+  private static final String RENEW_QUERY =
+      "UPDATE reporting_queue_lease SET lease_until = now() + make_interval(secs => ?) "
+          + "WHERE owner = ? AND lease_until >= now() RETURNING queue_name";
+
+  private static final String HELD_QUEUES_QUERY =
+      "SELECT queue_name FROM reporting_queue_lease WHERE lease_until >= now()";
+
+  private static final String RELEASE_QUERY =
+      "DELETE FROM reporting_queue_lease WHERE queue_name = ? AND owner = ?";
+
+  private final JdbcTemplate jdbcTemplate;
+
+  private final String consumerId;
+
+  private final long leaseSeconds;
+
+  public ReportingQueueLeaseService(JdbcTemplate jdbcTemplate, String consumerId,
+      long leaseSeconds) {
+    this.jdbcTemplate = jdbcTemplate;
+    this.consumerId = consumerId;
+    this.leaseSeconds = leaseSeconds;
+  }
+
+  public String getConsumerId() {
+    return consumerId;
+  }
+
+  /**
+   * Prolongs the heartbeat of this instance
+   *
+   * @return Number of the alive consumer instances, including this one
+   */
+  public int heartbeat() {
+    jdbcTemplate.update(HEARTBEAT_QUERY, consumerId, leaseSeconds);
+    return jdbcTemplate.queryForObject(ALIVE_CONSUMERS_QUERY, Integer.class);
+  }
+
+  /**
+   * Prolongs leases of this instance
+   *
+   * @return Names of the queues still leased by this instance
+   */
+  public Set<String> renew() {
+    return new HashSet<>(
+        jdbcTemplate.queryForList(RENEW_QUERY, String.class, leaseSeconds, consumerId));
+  }
+
+  /**
+   * @return Names of the queues leased by any alive instance
+   */
+  public Set<String> getLeasedQueues() {
+    return new HashSet<>(jdbcTemplate.queryForList(HELD_QUEUES_QUERY, String.class));
+  }
+
+  /**
+   * Claims the queue, if it's free or its lease is expired
+   *
+   * @param queueName Queue name
+   * @return true if the lease is acquired
+   */
+  public boolean claim(String queueName) {
+    return jdbcTemplate.update(CLAIM_QUERY, queueName, consumerId, leaseSeconds) > 0;
+  }
+
+  public void release(String queueName) {
+    jdbcTemplate.update(RELEASE_QUERY, queueName, consumerId);
+  }
+
+  /**
+   * Releases all the leases and removes heartbeat of this instance
+   *
+   * @param queueNames Queues leased by this instance
+   */
+  public void leave(List<String> queueNames) {
+    queueNames.forEach(this::release);
+    jdbcTemplate.update(REMOVE_CONSUMER_QUERY, consumerId);
+  }
+}
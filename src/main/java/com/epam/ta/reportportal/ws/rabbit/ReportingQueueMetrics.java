@@ -0,0 +1,226 @@
+/*
+ * Copyright 2024 EPAM Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.ta.reportportal.ws.rabbit;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageListener;
+import org.springframework.amqp.rabbit.listener.api.ChannelAwareBatchMessageListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Per-queue metrics of the reporting consumers: processing time of a message, consumed, retried
+ * and dropped messages and the consume rate. In the batch mode the processing time of a batch is
+ * divided between its messages, so the latency is comparable in both modes.
+ */
+@Component
+public class ReportingQueueMetrics {
+
+  public static final String PROCESSING_METRIC = "rp.reporting.queue.processing";
+  public static final String CONSUMED_METRIC = "rp.reporting.queue.consumed";
+  public static final String RETRIED_METRIC = "rp.reporting.queue.retried";
+  public static final String DROPPED_METRIC = "rp.reporting.queue.dropped";
+  public static final String QUEUE_TAG = "queue";
+
+  private static final String UNKNOWN_QUEUE = "unknown";
+
+  private final MeterRegistry meterRegistry;
+
+  private final Map<String, QueueMeters> queues = new ConcurrentHashMap<>();
+
+  public ReportingQueueMetrics(MeterRegistry meterRegistry) {
+    this.meterRegistry = meterRegistry;
+  }
+
+  /**
+   * Wraps the listener to measure every delivery
+   */
+  public MessageListener measured(MessageListener listener) {
+    return message -> {
+      QueueMeters meters = received(message);
+      long start = System.nanoTime();
+      try {
+        listener.onMessage(message);
+      } finally {
+        meters.processing.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+      }
+    };
+  }
+
+  /**
+   * Wraps the batch listener to measure every batch, each message of the batch is recorded with
+   * its share of the batch processing time
+   */
+  public ChannelAwareBatchMessageListener measured(ChannelAwareBatchMessageListener listener) {
+    return (messages, channel) -> {
+      if (messages.isEmpty()) {
+        return;
+      }
+      QueueMeters meters = getMeters(messages.get(0));
+      messages.forEach(this::received);
+      long start = System.nanoTime();
+      try {
+        listener.onMessageBatch(messages, channel);
+      } finally {
+        long perMessage = (System.nanoTime() - start) / messages.size();
+        messages.forEach(
+            message -> meters.processing.record(perMessage, TimeUnit.NANOSECONDS));
+      }
+    };
+  }
+
+  /**
+   * Counts the message dropped to the DLQ on the retry limit
+   */
+  public void dropped(Message message) {
+    getMeters(message).dropped.increment();
+  }
+
+  /**
+   * Takes the snapshot of the queue metrics and starts a new consume rate window. The window is
+   * reset by every sample, so only one reader should sample a queue.
+   *
+   * @param queue Queue name
+   * @return {@link QueueStats}
+   */
+  public QueueStats sample(String queue) {
+    return getMeters(queue).sample(true);
+  }
+
+  /**
+   * Takes the snapshot of the queue metrics with the consume rate of the last sample, the rate
+   * window is kept
+   *
+   * @param queue Queue name
+   * @return {@link QueueStats}
+   */
+  public QueueStats stats(String queue) {
+    return getMeters(queue).sample(false);
+  }
+
+  private QueueMeters received(Message message) {
+    QueueMeters meters = getMeters(message);
+    meters.consumed.increment();
+    if (message.getMessageProperties().getHeaders().containsKey(MessageHeaders.XD_HEADER)) {
+      meters.retried.increment();
+    }
+    return meters;
+  }
+
+  private QueueMeters getMeters(Message message) {
+    return getMeters(Objects.requireNonNullElse(message.getMessageProperties().getConsumerQueue(),
+        UNKNOWN_QUEUE
+    ));
+  }
+
+  private QueueMeters getMeters(String queue) {
+    return queues.computeIfAbsent(queue, QueueMeters::new);
+  }
+
+  private class QueueMeters {
+
+    private final Timer processing;
+    private final Counter consumed;
+    private final Counter retried;
+    private final Counter dropped;
+
+    private double lastConsumed;
+    private long lastSampleNanos = System.nanoTime();
+    private double consumeRate;
+
+    private QueueMeters(String queue) {
+      this.processing = Timer.builder(PROCESSING_METRIC)
+          .tag(QUEUE_TAG, queue)
+          .publishPercentiles(0.5, 0.99)
+          .register(meterRegistry);
+      this.consumed = meterRegistry.counter(CONSUMED_METRIC, QUEUE_TAG, queue);
+      this.retried = meterRegistry.counter(RETRIED_METRIC, QUEUE_TAG, queue);
+      this.dropped = meterRegistry.counter(DROPPED_METRIC, QUEUE_TAG, queue);
+    }
+
+    private synchronized QueueStats sample(boolean newWindow) {
+      double total = consumed.count();
+      if (newWindow) {
+        long now = System.nanoTime();
+        double seconds = (now - lastSampleNanos) / 1e9;
+        if (seconds > 0) {
+          consumeRate = (total - lastConsumed) / seconds;
+        }
+        lastConsumed = total;
+        lastSampleNanos = now;
+      }
+
+      QueueStats stats = new QueueStats();
+      stats.consumed = (long) total;
+      stats.retried = (long) retried.count();
+      stats.dropped = (long) dropped.count();
+      stats.consumeRate = consumeRate;
+      for (ValueAtPercentile percentile : processing.takeSnapshot().percentileValues()) {
+        if (percentile.percentile() == 0.5) {
+          stats.processingP50Millis = percentile.value(TimeUnit.MILLISECONDS);
+        } else if (percentile.percentile() == 0.99) {
+          stats.processingP99Millis = percentile.value(TimeUnit.MILLISECONDS);
+        }
+      }
+      return stats;
+    }
+  }
+
+  public static class QueueStats {
+
+    private long consumed;
+    private long retried;
+    private long dropped;
+    private double consumeRate;
+    private double processingP50Millis;
+    private double processingP99Millis;
+
+    public long getConsumed() {
+      return consumed;
+    }
+
+    public long getRetried() {
+      return retried;
+    }
+
+    public long getDropped() {
+      return dropped;
+    }
+
+    /**
+     * @return Messages per second since the previous sample
+     */
+    public double getConsumeRate() {
+      return consumeRate;
+    }
+
+    public double getProcessingP50Millis() {
+      return processingP50Millis;
+    }
+
+    public double getProcessingP99Millis() {
+      return processingP99Millis;
+    }
+  }
+}
@@ -22,6 +22,7 @@ import javax.annotation.PostConstruct;
 import org.springframework.amqp.rabbit.listener.AbstractMessageListenerContainer;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Conditional;
 import org.springframework.stereotype.Component;
 
@@ -36,8 +37,17 @@ public class ReportingStartupService {
   @Qualifier("reportingListenerContainers")
   private List<AbstractMessageListenerContainer> listenerContainers;
 
+  /**
+   * With leases containers are started by {@link ReportingQueueCoordinator} for the leased queues
+   */
+  @Value("${rp.amqp.reporting.lease.enabled:false}")
+  private boolean leaseEnabled;
+
   @PostConstruct
   public void init() {
+    if (leaseEnabled) {
+      return;
+    }
     for (AbstractMessageListenerContainer listenerContainer : listenerContainers) {
       listenerContainer.start();
     }
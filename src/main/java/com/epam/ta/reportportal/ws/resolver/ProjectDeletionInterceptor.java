@@ -0,0 +1,69 @@
+/*
+ * Copyright 2024 EPAM Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.ta.reportportal.ws.resolver;
+
+import static com.epam.reportportal.rules.commons.validation.BusinessRule.expect;
+import static com.epam.reportportal.rules.commons.validation.Suppliers.formattedSupplier;
+
+import com.epam.reportportal.rules.exception.ErrorType;
+import com.epam.ta.reportportal.core.project.impl.ProjectDeletionService;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Predicate;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+/**
+ * Rejects the changes of the projects being deleted, so nothing is reported, started or analyzed
+ * in a project while its content is deleted. The project is taken from the 'projectName' path
+ * variable, the reading requests are passed.
+ */
+public class ProjectDeletionInterceptor implements HandlerInterceptor {
+
+  private static final String PROJECT_NAME_VARIABLE = "projectName";
+
+  private static final Set<String> READ_METHODS =
+      Set.of(HttpMethod.GET.name(), HttpMethod.HEAD.name(), HttpMethod.OPTIONS.name());
+
+  private final ProjectDeletionService projectDeletionService;
+
+  public ProjectDeletionInterceptor(ProjectDeletionService projectDeletionService) {
+    this.projectDeletionService = projectDeletionService;
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public boolean preHandle(HttpServletRequest request, HttpServletResponse response,
+      Object handler) {
+    if (READ_METHODS.contains(request.getMethod())) {
+      return true;
+    }
+    Map<String, String> variables = (Map<String, String>) request.getAttribute(
+        HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE);
+    String projectName = variables == null ? null : variables.get(PROJECT_NAME_VARIABLE);
+    if (projectName != null) {
+      expect(projectDeletionService.isDeleting(projectName), Predicate.isEqual(false)).verify(
+          ErrorType.FORBIDDEN_OPERATION,
+          formattedSupplier("Project '{}' is being deleted", projectName)
+      );
+    }
+    return true;
+  }
+}
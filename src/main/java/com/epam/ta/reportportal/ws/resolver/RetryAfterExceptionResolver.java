@@ -0,0 +1,81 @@
+/*
+ * Copyright 2024 EPAM Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.ta.reportportal.ws.resolver;
+
+import com.epam.reportportal.rules.exception.ErrorRS;
+import com.epam.reportportal.rules.exception.ErrorType;
+import com.epam.ta.reportportal.exception.AdmissionRejectedException;
+import java.io.IOException;
+import java.util.concurrent.RejectedExecutionException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServletServerHttpResponse;
+import org.springframework.web.servlet.ModelAndView;
+import org.springframework.web.servlet.handler.AbstractHandlerExceptionResolver;
+
+/**
+ * Responds to the requests rejected because of the load with 429 or 503 status and the
+ * 'Retry-After' header, so the clients back off instead of failing.
+ */
+public class RetryAfterExceptionResolver extends AbstractHandlerExceptionResolver {
+
+  private final HttpMessageConverter<Object> messageConverter;
+
+  private final long defaultRetryAfterSeconds;
+
+  public RetryAfterExceptionResolver(HttpMessageConverter<Object> messageConverter,
+      long defaultRetryAfterSeconds) {
+    this.messageConverter = messageConverter;
+    this.defaultRetryAfterSeconds = defaultRetryAfterSeconds;
+  }
+
+  @Override
+  protected ModelAndView doResolveException(HttpServletRequest request,
+      HttpServletResponse response, Object handler, Exception ex) {
+    ErrorRS errorRS = new ErrorRS();
+    errorRS.setMessage(ex.getMessage());
+    if (ex instanceof AdmissionRejectedException) {
+      AdmissionRejectedException rejected = (AdmissionRejectedException) ex;
+      errorRS.setErrorType(rejected.getErrorType());
+      return respond(response, rejected.getStatus(), rejected.getRetryAfterSeconds(), errorRS);
+    }
+    if (ex instanceof RejectedExecutionException) {
+      errorRS.setErrorType(ErrorType.UNCLASSIFIED_ERROR);
+      errorRS.setMessage("The service is overloaded, try again later");
+      return respond(response, HttpStatus.SERVICE_UNAVAILABLE, defaultRetryAfterSeconds, errorRS);
+    }
+    return null;
+  }
+
+  private ModelAndView respond(HttpServletResponse response, HttpStatus status,
+      long retryAfterSeconds, ErrorRS errorRS) {
+    try {
+      response.setStatus(status.value());
+      response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+      messageConverter.write(errorRS, MediaType.APPLICATION_JSON,
+          new ServletServerHttpResponse(response));
+      return new ModelAndView();
+    } catch (IOException e) {
+      logger.warn("Unable to write the error response", e);
+      return null;
+    }
+  }
+}
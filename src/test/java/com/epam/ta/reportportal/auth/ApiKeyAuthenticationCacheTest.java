@@ -0,0 +1,132 @@
+/*
+ * Copyright 2024 EPAM Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.ta.reportportal.auth;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.epam.ta.reportportal.commons.ReportPortalUser;
+import com.epam.ta.reportportal.core.events.activity.UserDeletedEvent;
+import com.epam.ta.reportportal.dao.ApiKeyRepository;
+import com.epam.ta.reportportal.dao.UserRepository;
+import com.epam.ta.reportportal.entity.user.ApiKey;
+import com.epam.ta.reportportal.model.activity.UserActivityResource;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.LocalDate;
+import java.util.Optional;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
+
+class ApiKeyAuthenticationCacheTest {
+
+  private static final String HASH = "HASH";
+  private static final Long KEY_ID = 1L;
+  private static final Long USER_ID = 2L;
+
+  private final ApiKeyRepository apiKeyRepository = mock(ApiKeyRepository.class);
+  private final UserRepository userRepository = mock(UserRepository.class);
+  private final PlatformTransactionManager transactionManager = mock(
+      PlatformTransactionManager.class);
+
+  private ApiKeyAuthenticationCache cache;
+
+  @BeforeEach
+  void setUp() {
+    when(transactionManager.getTransaction(any())).thenReturn(mock(TransactionStatus.class));
+    cache = new ApiKeyAuthenticationCache(apiKeyRepository, userRepository, transactionManager,
+        new SimpleMeterRegistry(), 100, 30);
+  }
+
+  @Test
+  void keyIsVerifiedOnceAndUsageIsFlushedOncePerDay() {
+    mockApiKey(LocalDate.now().minusDays(1));
+
+    assertTrue(cache.getUser(HASH).isPresent());
+    assertTrue(cache.getUser(HASH).isPresent());
+    verify(apiKeyRepository, never()).updateLastUsedAt(any(), any(), any());
+
+    cache.flushUsages();
+    cache.getUser(HASH);
+    cache.flushUsages();
+
+    verify(apiKeyRepository, times(1)).findByHash(HASH);
+    verify(userRepository, times(1)).findReportPortalUser(USER_ID);
+    verify(apiKeyRepository, times(1)).updateLastUsedAt(KEY_ID, HASH, LocalDate.now());
+  }
+
+  @Test
+  void usageIsNotFlushedWhenKeyWasAlreadyUsedToday() {
+    mockApiKey(LocalDate.now());
+
+    cache.getUser(HASH);
+    cache.flushUsages();
+
+    verify(apiKeyRepository, never()).updateLastUsedAt(any(), any(), any());
+  }
+
+  @Test
+  void unknownKeyIsNotCached() {
+    assertFalse(cache.getUser(HASH).isPresent());
+    assertFalse(cache.getUser(HASH).isPresent());
+
+    verify(apiKeyRepository, times(2)).findByHash(HASH);
+  }
+
+  @Test
+  void deletedKeyIsEvicted() {
+    mockApiKey(LocalDate.now());
+    cache.getUser(HASH);
+
+    cache.evictApiKey(KEY_ID);
+    when(apiKeyRepository.findByHash(HASH)).thenReturn(null);
+
+    assertFalse(cache.getUser(HASH).isPresent());
+  }
+
+  @Test
+  void keysOfDeletedUserAreEvicted() {
+    mockApiKey(LocalDate.now());
+    cache.getUser(HASH);
+
+    UserActivityResource user = new UserActivityResource();
+    user.setId(USER_ID);
+    cache.onUserDeleted(new UserDeletedEvent(user, 3L, "admin"));
+    cache.getUser(HASH);
+
+    verify(apiKeyRepository, times(2)).findByHash(HASH);
+  }
+
+  private void mockApiKey(LocalDate lastUsedAt) {
+    ApiKey apiKey = new ApiKey();
+    apiKey.setId(KEY_ID);
+    apiKey.setHash(HASH);
+    apiKey.setUserId(USER_ID);
+    apiKey.setLastUsedAt(lastUsedAt);
+    when(apiKeyRepository.findByHash(HASH)).thenReturn(apiKey);
+    ReportPortalUser user = mock(ReportPortalUser.class);
+    when(user.getUserId()).thenReturn(USER_ID);
+    when(userRepository.findReportPortalUser(USER_ID)).thenReturn(Optional.of(user));
+  }
+}
@@ -0,0 +1,139 @@
+/*
+ * Copyright 2024 EPAM Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.ta.reportportal.core.analyzer.auto.client;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.rabbitmq.http.client.domain.ExchangeInfo;
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+import org.springframework.amqp.AmqpException;
+import org.springframework.amqp.AmqpIOException;
+
+class AnalyzerTopologyRegistryTest {
+
+  private final RabbitMqManagementClient managementClient = mock(RabbitMqManagementClient.class);
+
+  private final AnalyzerTopologyRegistry registry =
+      new AnalyzerTopologyRegistry(managementClient, 30000);
+
+  @Test
+  void exchangesAreReadFromMemory() {
+    List<ExchangeInfo> exchanges = List.of(exchange("analyzer"));
+    when(managementClient.getAnalyzerExchangesInfo()).thenReturn(exchanges);
+
+    assertEquals(exchanges, registry.getAnalyzerExchangesInfo());
+    assertEquals(exchanges, registry.getAnalyzerExchangesInfo());
+
+    verify(managementClient, times(1)).getAnalyzerExchangesInfo();
+    assertFalse(registry.isStale());
+  }
+
+  @Test
+  void exchangesAreLoadedOnStartup() {
+    List<ExchangeInfo> exchanges = List.of(exchange("analyzer"));
+    when(managementClient.getAnalyzerExchangesInfo()).thenReturn(exchanges);
+
+    registry.onApplicationReady();
+
+    verify(managementClient, times(1)).getAnalyzerExchangesInfo();
+    assertFalse(registry.isStale());
+    assertEquals(exchanges, registry.getAnalyzerExchangesInfo());
+    verify(managementClient, times(1)).getAnalyzerExchangesInfo();
+  }
+
+  @Test
+  void failedRefreshKeepsExchanges() {
+    List<ExchangeInfo> exchanges = List.of(exchange("analyzer"));
+    when(managementClient.getAnalyzerExchangesInfo()).thenReturn(exchanges)
+        .thenThrow(new IllegalStateException("management API is unavailable"));
+
+    registry.refresh();
+    registry.refresh();
+
+    assertEquals(exchanges, registry.getAnalyzerExchangesInfo());
+    Map<String, Object> details = registry.getDetails();
+    assertEquals(1, details.get("exchanges"));
+    assertEquals("management API is unavailable", details.get("lastError"));
+  }
+
+  @Test
+  void exchangesAreRefreshedOnPublishFailure() {
+    List<ExchangeInfo> redeployed = List.of(exchange("analyzer-2"));
+    when(managementClient.getAnalyzerExchangesInfo())
+        .thenReturn(List.of(exchange("analyzer")))
+        .thenReturn(redeployed);
+    registry.refresh();
+
+    AmqpException failure = new AmqpIOException(new IOException("channel is closed"));
+    assertThrows(AmqpException.class, () -> registry.send(() -> {
+      throw failure;
+    }));
+
+    assertEquals(redeployed, registry.getAnalyzerExchangesInfo());
+  }
+
+  @Test
+  void exchangesAreRefreshedOnMissingReply() {
+    List<ExchangeInfo> redeployed = List.of(exchange("analyzer-2"));
+    when(managementClient.getAnalyzerExchangesInfo())
+        .thenReturn(List.of(exchange("analyzer")))
+        .thenReturn(redeployed);
+    registry.refresh();
+
+    assertNull(registry.call(() -> null));
+
+    assertEquals(redeployed, registry.getAnalyzerExchangesInfo());
+  }
+
+  @Test
+  void noExchangesUntilFirstLoadSucceeds() {
+    List<ExchangeInfo> exchanges = List.of(exchange("analyzer"));
+    when(managementClient.getAnalyzerExchangesInfo())
+        .thenThrow(new IllegalStateException("management API is unavailable"))
+        .thenReturn(exchanges);
+
+    assertTrue(registry.getAnalyzerExchangesInfo().isEmpty());
+    assertEquals("management API is unavailable", registry.getDetails().get("lastError"));
+
+    registry.refresh();
+
+    assertEquals(exchanges, registry.getAnalyzerExchangesInfo());
+  }
+
+  @Test
+  void registryIsStaleUntilLoaded() {
+    assertTrue(registry.isStale());
+    assertEquals(0, registry.getDetails().get("exchanges"));
+  }
+
+  private static ExchangeInfo exchange(String name) {
+    ExchangeInfo exchangeInfo = new ExchangeInfo();
+    exchangeInfo.setName(name);
+    return exchangeInfo;
+  }
+}
@@ -6,13 +6,15 @@ import static com.epam.ta.reportportal.core.analyzer.auto.client.impl.IndexerSer
 import static com.epam.ta.reportportal.core.analyzer.auto.client.impl.IndexerServiceClientImpl.DELETE_ROUTE;
 import static com.epam.ta.reportportal.core.analyzer.auto.client.impl.IndexerServiceClientImpl.ITEM_REMOVE_ROUTE;
 import static com.epam.ta.reportportal.core.analyzer.auto.client.impl.IndexerServiceClientImpl.LAUNCH_REMOVE_ROUTE;
-import static com.epam.ta.reportportal.core.analyzer.auto.impl.AnalyzerStatusCache.AUTO_ANALYZER_KEY;
+import static com.epam.ta.reportportal.core.analyzer.auto.impl.AnalysisStateRegistry.AUTO_ANALYZER_KEY;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.mockito.internal.verification.VerificationModeFactory.times;
 
+import com.epam.ta.reportportal.core.analyzer.auto.client.AnalyzerTopologyRegistry;
 import com.epam.ta.reportportal.core.analyzer.auto.client.RabbitMqManagementClient;
 import com.epam.ta.reportportal.core.analyzer.auto.client.model.IndexDefectsUpdate;
 import com.epam.ta.reportportal.core.analyzer.auto.client.model.IndexItemsRemove;
@@ -34,7 +36,8 @@ class IndexerServiceClientImplTest {
   private RabbitMqManagementClient rabbitMqManagementClient = mock(RabbitMqManagementClient.class);
 
   private IndexerServiceClientImpl indexerServiceClient = new IndexerServiceClientImpl(
-      rabbitMqManagementClient, rabbitTemplate);
+      new AnalyzerTopologyRegistry(rabbitMqManagementClient, 30000), rabbitTemplate,
+      rabbitMqManagementClient);
 
   @Test
   void deleteIndex() {
@@ -51,6 +54,13 @@ class IndexerServiceClientImplTest {
     );
   }
 
+  @Test
+  void getIndexQueueDepth() {
+    when(rabbitMqManagementClient.getAnalyzerExchangesInfo()).thenReturn(getExchanges());
+    when(rabbitMqManagementClient.getQueueDepth(AUTO_ANALYZER_KEY, "index")).thenReturn(42L);
+    assertEquals(42L, indexerServiceClient.getIndexQueueDepth());
+  }
+
   @Test
   void indexDefectsUpdate() {
     Map<Long, String> update = Maps.newHashMap(1L, "pb001");
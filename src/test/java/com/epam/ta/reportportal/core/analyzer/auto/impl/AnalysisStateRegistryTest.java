@@ -0,0 +1,110 @@
+/*
+ * Copyright 2024 EPAM Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.ta.reportportal.core.analyzer.auto.impl;
+
+import static com.epam.ta.reportportal.core.analyzer.auto.impl.AnalysisStateRegistry.AUTO_ANALYZER_KEY;
+import static com.epam.ta.reportportal.core.analyzer.auto.impl.AnalysisStateRegistry.CLUSTER_KEY;
+import static com.epam.ta.reportportal.core.analyzer.auto.impl.AnalysisStateRegistry.PATTERN_ANALYZER_KEY;
+import static com.epam.ta.reportportal.util.SqlMatchers.sql;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import java.sql.ResultSet;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+
+class AnalysisStateRegistryTest {
+
+  private static final Long LAUNCH_ID = 3L;
+  private static final Long PROJECT_ID = 5L;
+
+  private final NamedParameterJdbcTemplate jdbcTemplate = mock(NamedParameterJdbcTemplate.class);
+
+  private final AnalysisStateRegistry registry = new AnalysisStateRegistry(jdbcTemplate, 60);
+
+  @Test
+  void analyzeStartedRegistersAnalysis() {
+    when(jdbcTemplate.update(sql("INSERT INTO analysis_state"), any(SqlParameterSource.class)))
+        .thenReturn(1);
+
+    assertTrue(registry.analyzeStarted(AUTO_ANALYZER_KEY, LAUNCH_ID, PROJECT_ID));
+    assertEquals(Set.of(AUTO_ANALYZER_KEY), registry.getStartedAnalyzers(LAUNCH_ID));
+
+    registry.analyzeFinished(AUTO_ANALYZER_KEY, LAUNCH_ID);
+
+    verify(jdbcTemplate).update(sql("AND owner = :owner"), any(SqlParameterSource.class));
+    assertTrue(registry.getStartedAnalyzers(LAUNCH_ID).isEmpty());
+  }
+
+  @Test
+  void analyzeStartedRejectsRunningAnalysis() {
+    when(jdbcTemplate.update(sql("INSERT INTO analysis_state"), any(SqlParameterSource.class)))
+        .thenReturn(0);
+
+    assertFalse(registry.analyzeStarted(CLUSTER_KEY, LAUNCH_ID, PROJECT_ID));
+    assertTrue(registry.getStartedAnalyzers(LAUNCH_ID).isEmpty());
+  }
+
+  @Test
+  void unknownAnalyzerIsNotRegistered() {
+    assertFalse(registry.analyzeStarted("unknown", LAUNCH_ID, PROJECT_ID));
+    assertFalse(registry.containsProjectId("unknown", PROJECT_ID));
+
+    verifyNoInteractions(jdbcTemplate);
+  }
+
+  @Test
+  void containsProjectIdQueriesLiveAnalyses() {
+    when(jdbcTemplate.queryForObject(sql("WHERE project_id = :projectId"),
+        any(SqlParameterSource.class), eq(Boolean.class))).thenReturn(true);
+
+    assertTrue(registry.containsProjectId(AUTO_ANALYZER_KEY, PROJECT_ID));
+  }
+
+  @Test
+  void heartbeatRenewsLeasesAndRefreshesSnapshot() throws Exception {
+    ResultSet running = mock(ResultSet.class);
+    when(running.getLong("launch_id")).thenReturn(LAUNCH_ID);
+    when(running.getString("analyzer")).thenReturn(AUTO_ANALYZER_KEY, PATTERN_ANALYZER_KEY);
+    doAnswer(invocation -> {
+      RowCallbackHandler handler = invocation.getArgument(2);
+      handler.processRow(running);
+      handler.processRow(running);
+      return null;
+    }).when(jdbcTemplate).query(sql("FROM analysis_state WHERE lease_until >= now()"),
+        any(SqlParameterSource.class), any(RowCallbackHandler.class));
+
+    registry.heartbeat();
+
+    verify(jdbcTemplate).update(sql("UPDATE analysis_state SET lease_until"),
+        any(SqlParameterSource.class));
+    verify(jdbcTemplate).update(sql("WHERE lease_until < now()"), any(SqlParameterSource.class));
+    assertEquals(Set.of(AUTO_ANALYZER_KEY, PATTERN_ANALYZER_KEY),
+        registry.getStartedAnalyzers(LAUNCH_ID));
+  }
+}
@@ -0,0 +1,187 @@
+/*
+ * Copyright 2024 EPAM Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.ta.reportportal.core.analyzer.auto.impl;
+
+import static com.epam.ta.reportportal.entity.enums.TestItemIssueGroup.PRODUCT_BUG;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.epam.reportportal.model.analyzer.IndexLaunch;
+import com.epam.reportportal.model.analyzer.IndexTestItem;
+import com.epam.reportportal.model.project.AnalyzerConfig;
+import com.epam.ta.reportportal.core.analyzer.auto.client.AnalyzerServiceClient;
+import com.epam.ta.reportportal.core.analyzer.auto.impl.preparer.LaunchPreparerService;
+import com.epam.ta.reportportal.core.events.MessageBus;
+import com.epam.ta.reportportal.core.item.impl.IssueTypeHandler;
+import com.epam.ta.reportportal.dao.LaunchRepository;
+import com.epam.ta.reportportal.dao.TestItemRepository;
+import com.epam.ta.reportportal.entity.AnalyzeMode;
+import com.epam.ta.reportportal.entity.enums.StatusEnum;
+import com.epam.ta.reportportal.entity.item.TestItem;
+import com.epam.ta.reportportal.entity.item.TestItemResults;
+import com.epam.ta.reportportal.entity.item.issue.IssueEntity;
+import com.epam.ta.reportportal.entity.item.issue.IssueType;
+import com.epam.ta.reportportal.entity.launch.Launch;
+import com.epam.ta.reportportal.model.analyzer.AnalyzedItemRs;
+import com.google.common.collect.Iterables;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import javax.persistence.EntityManager;
+import org.hibernate.Session;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.task.SyncTaskExecutor;
+
+/**
+ * Compares the lookup of the analyzed items by a linear scan of the batch with the lookup by id,
+ * and measures applying the results of 10k analyzed items. Run with {@code RP_BENCHMARK=true}.
+ */
+@EnabledIfEnvironmentVariable(named = "RP_BENCHMARK", matches = "true")
+class AnalyzedResultsBenchmarkTest {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(AnalyzedResultsBenchmarkTest.class);
+
+  private static final int ITEMS = 10_000;
+
+  @Test
+  void resultsLookup() {
+    List<TestItem> items = testItems();
+    List<AnalyzedItemRs> results = analyzedItems();
+
+    long start = System.nanoTime();
+    long found = results.stream().filter(analyzed -> items.stream()
+        .anyMatch(item -> item.getItemId().equals(analyzed.getItemId()))).count();
+    LOGGER.info("Linear lookup of {} results: {} ms", found, millisSince(start));
+
+    start = System.nanoTime();
+    Map<Long, TestItem> itemsById = items.stream()
+        .collect(Collectors.toMap(TestItem::getItemId, Function.identity()));
+    found = results.stream().filter(analyzed -> itemsById.containsKey(analyzed.getItemId()))
+        .count();
+    LOGGER.info("Lookup of {} results by id: {} ms", found, millisSince(start));
+
+    List<Long> analyzedIds = results.stream().map(AnalyzedItemRs::getItemId)
+        .collect(Collectors.toList());
+    List<IndexTestItem> rqItems = indexItems();
+    start = System.nanoTime();
+    rqItems.removeIf(it -> analyzedIds.contains(it.getTestItemId()));
+    LOGGER.info("Removing analyzed from the request by list: {} ms", millisSince(start));
+
+    Set<Long> analyzedIdSet = new HashSet<>(analyzedIds);
+    rqItems = indexItems();
+    start = System.nanoTime();
+    rqItems.removeIf(it -> analyzedIdSet.contains(it.getTestItemId()));
+    LOGGER.info("Removing analyzed from the request by set: {} ms", millisSince(start));
+    assertEquals(0, rqItems.size());
+  }
+
+  @Test
+  void resultsApplying() {
+    List<TestItem> items = testItems();
+    TestItemRepository testItemRepository = mock(TestItemRepository.class);
+    LaunchPreparerService launchPreparerService = mock(LaunchPreparerService.class);
+    AnalyzerServiceClient analyzerServiceClient = mock(AnalyzerServiceClient.class);
+    IssueTypeHandler issueTypeHandler = mock(IssueTypeHandler.class);
+    when(testItemRepository.findAllById(anyList())).thenReturn(items);
+    when(launchPreparerService.prepare(any(Launch.class), anyList(), any(AnalyzerConfig.class)))
+        .thenReturn(Optional.of(new IndexLaunch()));
+    when(analyzerServiceClient.analyze(any())).thenReturn(Map.of("analyzer", analyzedItems()));
+    when(issueTypeHandler.defineIssueType(anyLong(), anyString()))
+        .thenReturn(issueType(PRODUCT_BUG.getLocator()));
+    EntityManager entityManager = mock(EntityManager.class);
+    when(entityManager.unwrap(Session.class)).thenReturn(mock(Session.class));
+    AnalyzerServiceImpl analyzerService = new AnalyzerServiceImpl(ITEMS,
+        mock(AnalysisStateRegistry.class), launchPreparerService, analyzerServiceClient,
+        issueTypeHandler, testItemRepository, mock(MessageBus.class),
+        mock(LaunchRepository.class), entityManager, new SyncTaskExecutor(),
+        new SimpleMeterRegistry(), 2, 4, 30000);
+    Launch launch = new Launch(1L);
+    launch.setProjectId(1L);
+    AnalyzerConfig analyzerConfig = new AnalyzerConfig();
+    analyzerConfig.setAnalyzerMode(AnalyzeMode.ALL_LAUNCHES.getValue());
+
+    long start = System.nanoTime();
+    analyzerService.runAnalyzers(launch,
+        items.stream().map(TestItem::getItemId).collect(Collectors.toList()), analyzerConfig);
+    LOGGER.info("Applying {} results: {} ms", ITEMS, millisSince(start));
+    verify(testItemRepository).saveAll(argThat(saved -> Iterables.size(saved) == ITEMS));
+  }
+
+  private static List<TestItem> testItems() {
+    List<TestItem> items = new ArrayList<>(ITEMS);
+    for (long id = 1; id <= ITEMS; id++) {
+      TestItem item = new TestItem(id);
+      item.setName("test" + id);
+      item.setLaunchId(1L);
+      item.setItemResults(new TestItemResults());
+      item.getItemResults().setStatus(StatusEnum.FAILED);
+      IssueEntity issue = new IssueEntity();
+      issue.setIssueType(issueType("ti001"));
+      item.getItemResults().setIssue(issue);
+      items.add(item);
+    }
+    return items;
+  }
+
+  private static List<AnalyzedItemRs> analyzedItems() {
+    List<AnalyzedItemRs> results = new ArrayList<>(ITEMS);
+    for (long id = ITEMS; id >= 1; id--) {
+      AnalyzedItemRs analyzed = new AnalyzedItemRs();
+      analyzed.setItemId(id);
+      analyzed.setLocator(PRODUCT_BUG.getLocator());
+      results.add(analyzed);
+    }
+    return results;
+  }
+
+  private static List<IndexTestItem> indexItems() {
+    List<IndexTestItem> indexItems = new ArrayList<>(ITEMS);
+    for (long id = 1; id <= ITEMS; id++) {
+      IndexTestItem indexItem = new IndexTestItem();
+      indexItem.setTestItemId(id);
+      indexItems.add(indexItem);
+    }
+    return indexItems;
+  }
+
+  private static IssueType issueType(String locator) {
+    IssueType issueType = new IssueType();
+    issueType.setLocator(locator);
+    return issueType;
+  }
+
+  private static long millisSince(long start) {
+    return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+  }
+}
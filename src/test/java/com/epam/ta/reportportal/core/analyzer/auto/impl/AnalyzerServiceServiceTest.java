@@ -16,20 +16,26 @@
 
 package com.epam.ta.reportportal.core.analyzer.auto.impl;
 
+import static com.epam.ta.reportportal.core.analyzer.auto.impl.AnalysisStateRegistry.AUTO_ANALYZER_KEY;
 import static com.epam.ta.reportportal.entity.AnalyzeMode.ALL_LAUNCHES;
 import static com.epam.ta.reportportal.entity.enums.TestItemIssueGroup.PRODUCT_BUG;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.any;
 import static org.mockito.Mockito.anyList;
 import static org.mockito.Mockito.anyLong;
 import static org.mockito.Mockito.eq;
+import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.mockito.internal.verification.VerificationModeFactory.times;
 
 import com.epam.ta.reportportal.core.analyzer.auto.client.AnalyzerServiceClient;
 import com.epam.ta.reportportal.core.analyzer.auto.impl.preparer.LaunchPreparerService;
+import com.epam.ta.reportportal.core.events.ActivityEvent;
 import com.epam.ta.reportportal.core.events.MessageBus;
 import com.epam.ta.reportportal.core.item.impl.IssueTypeHandler;
 import com.epam.ta.reportportal.dao.LaunchRepository;
@@ -41,21 +47,34 @@ import com.epam.ta.reportportal.entity.item.TestItemResults;
 import com.epam.ta.reportportal.entity.item.issue.IssueEntity;
 import com.epam.ta.reportportal.entity.item.issue.IssueType;
 import com.epam.ta.reportportal.entity.launch.Launch;
+import com.epam.ta.reportportal.exception.AnalysisRejectedException;
 import com.epam.ta.reportportal.entity.project.Project;
 import com.epam.ta.reportportal.model.analyzer.AnalyzedItemRs;
 import com.epam.reportportal.model.analyzer.IndexLaunch;
 import com.epam.reportportal.model.analyzer.IndexLog;
 import com.epam.reportportal.model.analyzer.IndexTestItem;
 import com.epam.reportportal.model.project.AnalyzerConfig;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.stream.Collectors;
+import javax.persistence.EntityManager;
+import org.hibernate.Session;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.springframework.core.task.SyncTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 
 /**
  * @author Pavel Bortnik
@@ -72,15 +91,29 @@ class AnalyzerServiceServiceTest {
 
   private MessageBus messageBus = mock(MessageBus.class);
 
+  private Session session = mock(Session.class);
+
+  private EntityManager entityManager = mock(EntityManager.class);
+
   private LaunchPreparerService launchPreparerService = mock(LaunchPreparerService.class);
 
-  private AnalyzerStatusCache analyzerStatusCache = mock(AnalyzerStatusCache.class);
+  private AnalysisStateRegistry analysisStateRegistry = mock(AnalysisStateRegistry.class);
+
+  private SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
 
   private AnalyzerServiceImpl issuesAnalyzer =
-      new AnalyzerServiceImpl(100, analyzerStatusCache, launchPreparerService,
-          analyzerServiceClient, issueTypeHandler, testItemRepository, messageBus, launchRepository
+      new AnalyzerServiceImpl(100, analysisStateRegistry, launchPreparerService,
+          analyzerServiceClient, issueTypeHandler, testItemRepository, messageBus, launchRepository,
+          entityManager, new SyncTaskExecutor(), meterRegistry, 2, 4, 30000
       );
 
+  @BeforeEach
+  void setUp() {
+    when(entityManager.unwrap(Session.class)).thenReturn(session);
+    //no batch size configured for the session
+    when(session.getJdbcBatchSize()).thenReturn(null);
+  }
+
   @Test
   void hasAnalyzers() {
     when(analyzerServiceClient.hasClients()).thenReturn(true);
@@ -88,6 +121,7 @@ class AnalyzerServiceServiceTest {
   }
 
   @Test
+  @SuppressWarnings("unchecked")
   void analyze() {
     int itemsCount = 2;
 
@@ -125,8 +159,144 @@ class AnalyzerServiceServiceTest {
     );
 
     verify(analyzerServiceClient, times(1)).analyze(any());
-    verify(testItemRepository, times(itemsCount)).save(any());
-    verify(messageBus, times(4)).publishActivity(any());
+    ArgumentCaptor<List<TestItem>> saved = ArgumentCaptor.forClass(List.class);
+    verify(testItemRepository, times(1)).saveAll(saved.capture());
+    assertEquals(itemsCount, saved.getValue().size());
+    InOrder batched = inOrder(session, testItemRepository);
+    batched.verify(session).setJdbcBatchSize(AnalyzerServiceImpl.SAVE_BATCH_SIZE);
+    batched.verify(testItemRepository).saveAll(anyList());
+    batched.verify(session).flush();
+    batched.verify(session).setJdbcBatchSize(null);
+    ArgumentCaptor<List<ActivityEvent>> events = ArgumentCaptor.forClass(List.class);
+    verify(messageBus, times(1)).publishActivities(events.capture());
+    assertEquals(4, events.getValue().size());
+  }
+
+  @Test
+  void nextPartitionIsPreparedWhileAnalyzersProcessPrevious() {
+    Launch launch = launch();
+    List<TestItem> items = testItemsTI(3);
+    CountDownLatch secondPrepared = new CountDownLatch(1);
+    AtomicBoolean overlapped = new AtomicBoolean();
+    ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+    executor.initialize();
+    AnalyzerServiceImpl pipelinedAnalyzer = new AnalyzerServiceImpl(1, analysisStateRegistry,
+        launchPreparerService, analyzerServiceClient, issueTypeHandler, testItemRepository,
+        messageBus, launchRepository, entityManager, executor, meterRegistry, 2, 4, 30000
+    );
+
+    when(testItemRepository.findAllById(anyList())).thenAnswer(invocation -> {
+      List<Long> ids = invocation.getArgument(0);
+      return items.stream().filter(item -> ids.contains(item.getItemId()))
+          .collect(Collectors.toList());
+    });
+    when(launchPreparerService.prepare(any(Launch.class), anyList(),
+        any(AnalyzerConfig.class))).thenAnswer(invocation -> {
+      List<TestItem> partition = invocation.getArgument(1);
+      if (partition.get(0).getItemId() == 2L) {
+        secondPrepared.countDown();
+      }
+      IndexLaunch indexLaunch = new IndexLaunch();
+      indexLaunch.setTestItems(partition.stream().map(AnalyzerUtils::fromTestItem)
+          .collect(Collectors.toList()));
+      return Optional.of(indexLaunch);
+    });
+    when(analyzerServiceClient.analyze(any())).thenAnswer(invocation -> {
+      IndexLaunch rq = invocation.getArgument(0);
+      if (rq.getTestItems().get(0).getTestItemId() == 1L) {
+        overlapped.set(secondPrepared.await(5, TimeUnit.SECONDS));
+      }
+      return Collections.emptyMap();
+    });
+
+    try {
+      pipelinedAnalyzer.runAnalyzers(launch,
+          items.stream().map(TestItem::getItemId).collect(Collectors.toList()),
+          analyzerConfig());
+    } finally {
+      executor.shutdown();
+    }
+
+    assertTrue(overlapped.get());
+    verify(analyzerServiceClient, times(3)).analyze(any());
+    assertEquals(3, meterRegistry.get(AnalyzerServiceImpl.STAGE_METRIC)
+        .tag(AnalyzerServiceImpl.STAGE_TAG, "analyze").timer().count());
+  }
+
+  @Test
+  void runFailsWhenProjectHasNoFreePermit() {
+    Launch launch = launch();
+    List<TestItem> items = testItemsTI(2);
+    CountDownLatch never = new CountDownLatch(1);
+    ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+    executor.setWaitForTasksToCompleteOnShutdown(true);
+    executor.setAwaitTerminationSeconds(5);
+    executor.initialize();
+    AnalyzerServiceImpl limitedAnalyzer = new AnalyzerServiceImpl(1, analysisStateRegistry,
+        launchPreparerService, analyzerServiceClient, issueTypeHandler, testItemRepository,
+        messageBus, launchRepository, entityManager, executor, meterRegistry, 2, 1, 50
+    );
+
+    when(testItemRepository.findAllById(anyList())).thenAnswer(invocation -> {
+      List<Long> ids = invocation.getArgument(0);
+      return items.stream().filter(item -> ids.contains(item.getItemId()))
+          .collect(Collectors.toList());
+    });
+    when(launchPreparerService.prepare(any(Launch.class), anyList(),
+        any(AnalyzerConfig.class))).thenAnswer(invocation -> {
+      List<TestItem> partition = invocation.getArgument(1);
+      IndexLaunch indexLaunch = new IndexLaunch();
+      indexLaunch.setTestItems(partition.stream().map(AnalyzerUtils::fromTestItem)
+          .collect(Collectors.toList()));
+      return Optional.of(indexLaunch);
+    });
+    when(analyzerServiceClient.analyze(any())).thenAnswer(invocation -> {
+      //holds the only permit of the project longer than the second partition waits for it
+      never.await(500, TimeUnit.MILLISECONDS);
+      return Collections.emptyMap();
+    });
+
+    when(analysisStateRegistry.analyzeStarted(any(), any(), any())).thenReturn(true);
+
+    try {
+      assertThrows(AnalysisRejectedException.class, () -> limitedAnalyzer.runAnalyzers(launch,
+          items.stream().map(TestItem::getItemId).collect(Collectors.toList()),
+          analyzerConfig()));
+    } finally {
+      //waits for the first partition which still holds the permit
+      executor.shutdown();
+    }
+
+    ArgumentCaptor<IndexLaunch> analyzed = ArgumentCaptor.forClass(IndexLaunch.class);
+    verify(analyzerServiceClient, times(1)).analyze(analyzed.capture());
+    assertEquals(1L, analyzed.getValue().getTestItems().get(0).getTestItemId());
+    verify(testItemRepository, never()).saveAll(anyList());
+    verify(analysisStateRegistry).analyzeFinished(AUTO_ANALYZER_KEY, launch.getId());
+    assertEquals(0, limitedAnalyzer.trackedProjects());
+  }
+
+  @Test
+  void permitsOfIdleProjectsAreDropped() {
+    Launch launch = launch();
+    List<TestItem> items = testItemsTI(2);
+    IndexLaunch indexLaunch = new IndexLaunch();
+    indexLaunch.setTestItems(items.stream().map(AnalyzerUtils::fromTestItem)
+        .collect(Collectors.toList()));
+
+    when(testItemRepository.findAllById(anyList())).thenReturn(items);
+    when(launchPreparerService.prepare(any(Launch.class), anyList(),
+        any(AnalyzerConfig.class))).thenReturn(Optional.of(indexLaunch));
+    when(analyzerServiceClient.analyze(any())).thenReturn(Collections.emptyMap());
+
+    for (long projectId = 1; projectId <= 3; projectId++) {
+      launch.setProjectId(projectId);
+      issuesAnalyzer.runAnalyzers(launch,
+          items.stream().map(TestItem::getItemId).collect(Collectors.toList()),
+          analyzerConfig());
+    }
+
+    verify(analyzerServiceClient, times(3)).analyze(any());
+    assertEquals(0, issuesAnalyzer.trackedProjects());
   }
 
   private AnalyzerConfig analyzerConfig() {
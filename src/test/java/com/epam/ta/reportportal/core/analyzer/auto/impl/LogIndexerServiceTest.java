@@ -26,12 +26,14 @@ import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import com.epam.ta.reportportal.core.analyzer.auto.client.AnalyzerServiceClient;
 import com.epam.ta.reportportal.core.analyzer.auto.client.IndexerServiceClient;
 import com.epam.ta.reportportal.core.analyzer.auto.impl.preparer.LaunchPreparerService;
 import com.epam.ta.reportportal.core.analyzer.auto.indexer.BatchLogIndexer;
 import com.epam.ta.reportportal.core.analyzer.auto.indexer.IndexerStatusCache;
 import com.epam.ta.reportportal.dao.LaunchRepository;
 import com.epam.ta.reportportal.dao.LogRepository;
+import com.epam.ta.reportportal.dao.ProjectRepository;
 import com.epam.ta.reportportal.dao.TestItemRepository;
 import com.epam.ta.reportportal.entity.enums.LaunchModeEnum;
 import com.epam.ta.reportportal.entity.enums.LogLevel;
@@ -42,6 +44,7 @@ import com.epam.ta.reportportal.entity.item.issue.IssueEntity;
 import com.epam.ta.reportportal.entity.item.issue.IssueType;
 import com.epam.ta.reportportal.entity.launch.Launch;
 import com.epam.ta.reportportal.entity.log.Log;
+import com.epam.ta.reportportal.entity.project.Project;
 import com.epam.ta.reportportal.model.analyzer.IndexRs;
 import com.epam.ta.reportportal.model.analyzer.IndexRsIndex;
 import com.epam.ta.reportportal.model.analyzer.IndexRsItem;
@@ -51,6 +54,7 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import org.assertj.core.util.Lists;
 import org.assertj.core.util.Maps;
 import org.junit.jupiter.api.Test;
@@ -80,9 +84,14 @@ class LogIndexerServiceTest {
 
   private LaunchPreparerService launchPreparerService = mock(LaunchPreparerService.class);
 
+  private ProjectRepository projectRepository = mock(ProjectRepository.class);
+
+  private AnalyzerServiceClient analyzerServiceClient = mock(AnalyzerServiceClient.class);
+
   private LogIndexerService logIndexerService =
       new LogIndexerService(batchLogIndexer, taskExecutor, launchRepository, testItemRepository,
-          indexerServiceClient, launchPreparerService, indexerStatusCache
+          indexerServiceClient, launchPreparerService, indexerStatusCache, projectRepository,
+          analyzerServiceClient
       );
 
   @Test
@@ -96,6 +105,30 @@ class LogIndexerServiceTest {
     verify(indexerStatusCache, times(1)).indexingFinished(1L);
   }
 
+  @Test
+  void resumeInterruptedIndexing() {
+    Project project = new Project();
+    project.setId(1L);
+    when(analyzerServiceClient.hasClients()).thenReturn(true);
+    when(batchLogIndexer.findInterrupted()).thenReturn(List.of(1L, 2L));
+    when(projectRepository.findById(1L)).thenReturn(Optional.of(project));
+    when(projectRepository.findById(2L)).thenReturn(Optional.empty());
+
+    logIndexerService.resumeInterrupted();
+
+    verify(batchLogIndexer, times(1)).index(eq(1L), any(AnalyzerConfig.class));
+    verify(batchLogIndexer, times(1)).reset(2L);
+    verify(indexerStatusCache, times(1)).indexingFinished(1L);
+  }
+
+  @Test
+  void deleteIndexResetsIndexingProgress() {
+    logIndexerService.deleteIndex(1L);
+
+    verify(batchLogIndexer, times(1)).reset(1L);
+    verify(indexerServiceClient, times(1)).deleteIndex(1L);
+  }
+
   @Test
   void testIndexDefectsUpdate() {
     final Map<Long, String> toUpdate = Maps.newHashMap(1L, "pb001");
@@ -1,11 +1,17 @@
 package com.epam.ta.reportportal.core.analyzer.auto.indexer;
 
 import static com.epam.ta.reportportal.entity.AnalyzeMode.ALL_LAUNCHES;
+import static com.epam.ta.reportportal.util.SqlMatchers.sql;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -17,14 +23,24 @@ import com.epam.ta.reportportal.dao.TestItemRepository;
 import com.epam.ta.reportportal.jooq.enums.JLaunchModeEnum;
 import com.epam.ta.reportportal.jooq.enums.JStatusEnum;
 import com.epam.reportportal.model.analyzer.IndexLaunch;
+import com.epam.reportportal.model.analyzer.IndexLog;
 import com.epam.reportportal.model.analyzer.IndexTestItem;
 import com.epam.reportportal.model.project.AnalyzerConfig;
 import java.math.BigDecimal;
 import java.math.RoundingMode;
+import java.sql.ResultSet;
 import java.util.Collection;
 import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
 import java.util.stream.Stream;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.core.task.SyncTaskExecutor;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
 
 class BatchLogIndexerTest {
 
@@ -34,40 +50,50 @@ class BatchLogIndexerTest {
   private LaunchRepository launchRepository = mock(LaunchRepository.class);
   private TestItemRepository testItemRepository = mock(TestItemRepository.class);
   private LaunchPreparerService launchPreparerService = mock(LaunchPreparerService.class);
+  private NamedParameterJdbcTemplate jdbcTemplate = mock(NamedParameterJdbcTemplate.class);
+  private IndexerStatusCache indexerStatusCache = mock(IndexerStatusCache.class);
 
   private final BatchLogIndexer batchLogIndexer = new BatchLogIndexer(batchSize,
       batchSize,
       launchRepository,
       testItemRepository,
       launchPreparerService,
-      indexerServiceClient
+      indexerServiceClient,
+      jdbcTemplate,
+      indexerStatusCache,
+      new SyncTaskExecutor(),
+      2,
+      1000,
+      1,
+      60
   );
 
   @Test
-  void indexWhenHasErrorLogs() {
+  void indexWhenHasErrorLogs() throws Exception {
+    claim(0L, 0L);
+    withErrorLogs(Set.of(1L, 2L, 3L));
+    when(jdbcTemplate.update(sql("UPDATE project_reindex"), any(SqlParameterSource.class)))
+        .thenReturn(1);
 
     final List<Long> firstPortionIds = List.of(1L, 2L);
     final List<Long> secondPortionIds = List.of(3L);
-    when(launchRepository.findIdsByProjectIdAndModeAndStatusNotEq(eq(1L),
+    when(launchRepository.findIdsByProjectIdAndModeAndStatusNotEqAfterId(eq(1L),
         any(JLaunchModeEnum.class),
         any(JStatusEnum.class),
+        eq(0L),
         anyInt()
     )).thenReturn(firstPortionIds);
-    when(launchRepository.hasItemsWithLogsWithLogLevel(eq(1L), anyList(), anyInt())).thenReturn(
-        true);
-    when(launchRepository.hasItemsWithLogsWithLogLevel(eq(2L), anyList(), anyInt())).thenReturn(
-        true);
-    when(launchRepository.hasItemsWithLogsWithLogLevel(eq(3L), anyList(), anyInt())).thenReturn(
-        true);
 
     final IndexLaunch firstIndex = new IndexLaunch();
-    final List<IndexTestItem> firstIndexItems = List.of(new IndexTestItem());
+    final List<IndexTestItem> firstIndexItems = List.of(indexTestItem(2));
     firstIndex.setTestItems(firstIndexItems);
     final IndexLaunch secondIndex = new IndexLaunch();
     final List<IndexTestItem> secondIndexItems = List.of(new IndexTestItem());
     secondIndex.setTestItems(secondIndexItems);
-    when(launchPreparerService.prepare(eq(firstPortionIds), any(AnalyzerConfig.class))).thenReturn(
-        List.of(firstIndex, secondIndex));
+    when(launchPreparerService.prepare(eq(List.of(1L)), any(AnalyzerConfig.class))).thenReturn(
+        List.of(firstIndex));
+    when(launchPreparerService.prepare(eq(List.of(2L)), any(AnalyzerConfig.class))).thenReturn(
+        List.of(secondIndex));
 
     when(launchRepository.findIdsByProjectIdAndModeAndStatusNotEqAfterId(eq(1L),
         any(JLaunchModeEnum.class),
@@ -77,13 +103,13 @@ class BatchLogIndexerTest {
     )).thenReturn(secondPortionIds);
 
     final IndexLaunch thirdIndex = new IndexLaunch();
-    final List<IndexTestItem> thirdIndexItems = List.of(new IndexTestItem(), new IndexTestItem(),
+    final List<IndexTestItem> thirdIndexItems = List.of(indexTestItem(1), indexTestItem(1),
         new IndexTestItem());
     thirdIndex.setTestItems(thirdIndexItems);
     when(launchPreparerService.prepare(eq(secondPortionIds), any(AnalyzerConfig.class))).thenReturn(
         List.of(thirdIndex));
 
-    batchLogIndexer.index(1L, analyzerConfig());
+    final Long indexed = batchLogIndexer.index(1L, analyzerConfig());
 
     final int expectedIndexedTimes = Stream.of(firstIndexItems, secondIndexItems, thirdIndexItems)
         .map(Collection::size)
@@ -91,7 +117,13 @@ class BatchLogIndexerTest {
         .sum();
 
     verify(indexerServiceClient, times(expectedIndexedTimes)).index(anyList());
-
+    assertEquals(4L, indexed);
+    verify(jdbcTemplate).update(sql("UPDATE project_reindex"),
+        argThat((SqlParameterSource advance) -> Long.valueOf(3L)
+            .equals(advance.getValue("lastLaunchId")) && Long.valueOf(4L)
+            .equals(advance.getValue("indexed"))));
+    verify(jdbcTemplate).update(sql("DELETE FROM project_reindex"), any(SqlParameterSource.class));
+    verify(indexerStatusCache).indexingProgress(1L, 4L);
   }
 
   private int getIndexedTimes(int expectedIndexedItems) {
@@ -100,18 +132,19 @@ class BatchLogIndexerTest {
   }
 
   @Test
-  void indexWhenLaunchHasNoErrorLogs() {
+  void indexWhenLaunchHasNoErrorLogs() throws Exception {
+    claim(0L, 0L);
+    withErrorLogs(Set.of());
+    when(jdbcTemplate.update(sql("UPDATE project_reindex"), any(SqlParameterSource.class)))
+        .thenReturn(1);
 
     final List<Long> ids = List.of(1L, 2L);
-    when(launchRepository.findIdsByProjectIdAndModeAndStatusNotEq(eq(1L),
+    when(launchRepository.findIdsByProjectIdAndModeAndStatusNotEqAfterId(eq(1L),
         any(JLaunchModeEnum.class),
         any(JStatusEnum.class),
+        eq(0L),
         anyInt()
     )).thenReturn(ids);
-    when(launchRepository.hasItemsWithLogsWithLogLevel(eq(1L), anyList(), anyInt())).thenReturn(
-        false);
-    when(launchRepository.hasItemsWithLogsWithLogLevel(eq(2L), anyList(), anyInt())).thenReturn(
-        false);
 
     batchLogIndexer.index(1L, analyzerConfig());
 
@@ -120,9 +153,171 @@ class BatchLogIndexerTest {
 
   }
 
+  @Test
+  void indexResumesAfterLastIndexedLaunch() throws Exception {
+    claim(2L, 10L);
+    withErrorLogs(Set.of());
+    when(jdbcTemplate.update(sql("UPDATE project_reindex"), any(SqlParameterSource.class)))
+        .thenReturn(1);
+    when(launchRepository.findIdsByProjectIdAndModeAndStatusNotEqAfterId(eq(1L),
+        any(JLaunchModeEnum.class),
+        any(JStatusEnum.class),
+        eq(2L),
+        anyInt()
+    )).thenReturn(List.of(3L));
+
+    final Long indexed = batchLogIndexer.index(1L, analyzerConfig());
+
+    assertEquals(10L, indexed);
+    verify(launchRepository, never()).findIdsByProjectIdAndModeAndStatusNotEqAfterId(eq(1L),
+        any(JLaunchModeEnum.class), any(JStatusEnum.class), eq(0L), anyInt());
+    verify(jdbcTemplate).update(sql("DELETE FROM project_reindex"), any(SqlParameterSource.class));
+  }
+
+  @Test
+  void indexIsSkippedWhenInProgressOnAnotherInstance() {
+    when(jdbcTemplate.query(sql("INSERT INTO project_reindex"), any(SqlParameterSource.class),
+        any(RowMapper.class))).thenReturn(List.of());
+
+    final Long indexed = batchLogIndexer.index(1L, analyzerConfig());
+
+    assertEquals(0L, indexed);
+    verify(launchRepository, never()).findIdsByProjectIdAndModeAndStatusNotEqAfterId(anyLong(),
+        any(JLaunchModeEnum.class), any(JStatusEnum.class), anyLong(), anyInt());
+  }
+
+  @Test
+  void indexIsPausedWhileAnalyzerQueueIsDeep() throws Exception {
+    claim(0L, 0L);
+    withErrorLogs(Set.of());
+    when(jdbcTemplate.update(sql("UPDATE project_reindex"), any(SqlParameterSource.class)))
+        .thenReturn(1);
+    when(indexerServiceClient.getIndexQueueDepth()).thenReturn(5000L, 0L);
+    when(launchRepository.findIdsByProjectIdAndModeAndStatusNotEqAfterId(eq(1L),
+        any(JLaunchModeEnum.class),
+        any(JStatusEnum.class),
+        eq(0L),
+        anyInt()
+    )).thenReturn(List.of(1L));
+
+    batchLogIndexer.index(1L, analyzerConfig());
+
+    verify(indexerServiceClient, times(2)).getIndexQueueDepth();
+    verify(jdbcTemplate, times(2)).update(sql("UPDATE project_reindex"),
+        any(SqlParameterSource.class));
+  }
+
+  @Test
+  void indexStopsWhenLeaseIsLost() throws Exception {
+    claim(0L, 0L);
+    withErrorLogs(Set.of());
+    when(jdbcTemplate.update(sql("UPDATE project_reindex"), any(SqlParameterSource.class)))
+        .thenReturn(0);
+    when(launchRepository.findIdsByProjectIdAndModeAndStatusNotEqAfterId(eq(1L),
+        any(JLaunchModeEnum.class),
+        any(JStatusEnum.class),
+        eq(0L),
+        anyInt()
+    )).thenReturn(List.of(1L, 2L));
+
+    batchLogIndexer.index(1L, analyzerConfig());
+
+    verify(launchRepository, times(1)).findIdsByProjectIdAndModeAndStatusNotEqAfterId(anyLong(),
+        any(JLaunchModeEnum.class), any(JStatusEnum.class), anyLong(), anyInt());
+    verify(jdbcTemplate, never()).update(sql("DELETE FROM project_reindex"),
+        any(SqlParameterSource.class));
+  }
+
+  @Test
+  void indexStopsWhenHeartbeatLosesLease() throws Exception {
+    claim(0L, 0L);
+    withErrorLogs(Set.of(1L));
+    when(jdbcTemplate.update(sql("SET lease_until"), any(SqlParameterSource.class)))
+        .thenReturn(0);
+    when(launchRepository.findIdsByProjectIdAndModeAndStatusNotEqAfterId(eq(1L),
+        any(JLaunchModeEnum.class),
+        any(JStatusEnum.class),
+        eq(0L),
+        anyInt()
+    )).thenReturn(List.of(1L));
+    when(launchPreparerService.prepare(eq(List.of(1L)), any(AnalyzerConfig.class))).thenAnswer(
+        invocation -> {
+          batchLogIndexer.heartbeat();
+          return List.of();
+        });
+
+    batchLogIndexer.index(1L, analyzerConfig());
+
+    ArgumentCaptor<SqlParameterSource> claimed = ArgumentCaptor.forClass(SqlParameterSource.class);
+    verify(jdbcTemplate).query(sql("INSERT INTO project_reindex"), claimed.capture(),
+        any(RowMapper.class));
+    verify(jdbcTemplate).update(sql("SET lease_until"), argThat(
+        (SqlParameterSource renew) -> claimed.getValue().getValue("owner")
+            .equals(renew.getValue("owner"))));
+    verify(jdbcTemplate, never()).update(sql("SET last_launch_id"),
+        any(SqlParameterSource.class));
+    verify(jdbcTemplate, never()).update(sql("DELETE FROM project_reindex"),
+        any(SqlParameterSource.class));
+  }
+
+  @Test
+  void projectIndexedByThisInstanceIsNotClaimedAgain() throws Exception {
+    claim(0L, 0L);
+    withErrorLogs(Set.of(1L));
+    when(jdbcTemplate.update(sql("UPDATE project_reindex"), any(SqlParameterSource.class)))
+        .thenReturn(1);
+    when(launchRepository.findIdsByProjectIdAndModeAndStatusNotEqAfterId(eq(1L),
+        any(JLaunchModeEnum.class),
+        any(JStatusEnum.class),
+        eq(0L),
+        anyInt()
+    )).thenReturn(List.of(1L));
+    when(launchPreparerService.prepare(eq(List.of(1L)), any(AnalyzerConfig.class))).thenAnswer(
+        invocation -> {
+          assertEquals(0L, batchLogIndexer.index(1L, analyzerConfig()));
+          return List.of();
+        });
+
+    batchLogIndexer.index(1L, analyzerConfig());
+
+    verify(jdbcTemplate, times(1)).query(sql("INSERT INTO project_reindex"),
+        any(SqlParameterSource.class), any(RowMapper.class));
+    verify(jdbcTemplate).update(sql("DELETE FROM project_reindex"), any(SqlParameterSource.class));
+  }
+
+  @SuppressWarnings("unchecked")
+  private void claim(long lastLaunchId, long indexed) throws Exception {
+    ResultSet checkpoint = mock(ResultSet.class);
+    when(checkpoint.getLong("last_launch_id")).thenReturn(lastLaunchId);
+    when(checkpoint.getLong("indexed")).thenReturn(indexed);
+    doAnswer(invocation -> List.of(
+        ((RowMapper<?>) invocation.getArgument(2)).mapRow(checkpoint, 0))).when(jdbcTemplate)
+        .query(sql("INSERT INTO project_reindex"), any(SqlParameterSource.class),
+            any(RowMapper.class));
+  }
+
+  @SuppressWarnings("unchecked")
+  private void withErrorLogs(Set<Long> launchIds) {
+    doAnswer(invocation -> ((Collection<Long>) ((SqlParameterSource) invocation.getArgument(1))
+        .getValue("ids")).stream().filter(launchIds::contains).sorted()
+        .collect(Collectors.toList())).when(jdbcTemplate)
+        .queryForList(sql("FROM launch l"), any(SqlParameterSource.class), eq(Long.class));
+  }
+
+  private IndexTestItem indexTestItem(int logs) {
+    IndexTestItem item = new IndexTestItem();
+    item.setLogs(LongStream.range(0, logs).mapToObj(id -> {
+      IndexLog log = new IndexLog();
+      log.setLogId(id);
+      log.setMessage("error " + id);
+      return log;
+    }).collect(Collectors.toSet()));
+    return item;
+  }
+
   private AnalyzerConfig analyzerConfig() {
     AnalyzerConfig analyzerConfig = new AnalyzerConfig();
     analyzerConfig.setAnalyzerMode(ALL_LAUNCHES.getValue());
     return analyzerConfig;
   }
-}
\ No newline at end of file
+}
@@ -0,0 +1,137 @@
+/*
+ * Copyright 2024 EPAM Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.epam.ta.reportportal.core.analyzer.pattern.handler.impl;
+
+import static com.epam.ta.reportportal.util.SqlMatchers.sql;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.epam.ta.reportportal.core.events.MessageBus;
+import com.epam.ta.reportportal.core.events.activity.PatternMatchedEvent;
+import com.epam.ta.reportportal.dao.PatternTemplateRepository;
+import com.epam.ta.reportportal.entity.pattern.PatternTemplate;
+import com.epam.ta.reportportal.entity.pattern.PatternTemplateTestItemPojo;
+import com.epam.ta.reportportal.entity.pattern.PatternTemplateType;
+import java.sql.Array;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+
+class ItemsPatternAnalyzerImplTest {
+
+  private final PatternTemplateRepository patternTemplateRepository =
+      mock(PatternTemplateRepository.class);
+  private final NamedParameterJdbcTemplate jdbcTemplate = mock(NamedParameterJdbcTemplate.class);
+  private final MessageBus messageBus = mock(MessageBus.class);
+
+  private final ItemsPatternAnalyzerImpl analyzer =
+      new ItemsPatternAnalyzerImpl(patternTemplateRepository, jdbcTemplate, messageBus);
+
+  @Test
+  void logsAreReadOnceForAllPatterns() throws SQLException {
+    PatternTemplate npe = pattern(10L, PatternTemplateType.STRING, "NullPointerException");
+    PatternTemplate timeout = pattern(20L, PatternTemplateType.REGEX, "timeout \\d+s");
+    ResultSet matched = row(1L, null);
+    when(matched.getLong("pattern_id")).thenReturn(10L);
+    rows("FROM pattern_template_test_item", matched);
+    rows("JOIN log", row(1L, "java.lang.NullPointerException"),
+        regexRow(1L, "timeout 30s", 0), row(2L, "java.lang.NullPointerException"),
+        row(3L, "passed"));
+    rows("SELECT item_id, name", row(1L, "first"), row(2L, "second"));
+
+    analyzer.analyze(100L, List.of(1L, 2L, 3L), List.of(npe, timeout));
+
+    verify(jdbcTemplate, times(1)).query(sql("log.log_message ~ regex.value"),
+        argThat((SqlParameterSource params) -> {
+          List<?> regexes = (List<?>) params.getValue("regexes");
+          return regexes.size() == 1 && Arrays.equals(new Object[] { 0, "timeout \\d+s" },
+              (Object[]) regexes.get(0));
+        }),
+        any(RowCallbackHandler.class));
+    verify(patternTemplateRepository).saveInBatch(List.of(
+        new PatternTemplateTestItemPojo(20L, 1L),
+        new PatternTemplateTestItemPojo(10L, 2L)
+    ));
+    verify(messageBus, times(2)).publishActivity(any(PatternMatchedEvent.class));
+  }
+
+  @Test
+  void nothingIsSavedWithoutMatches() throws SQLException {
+    rows("JOIN log", row(1L, "passed"));
+
+    analyzer.analyze(100L, List.of(1L),
+        List.of(pattern(10L, PatternTemplateType.STRING, "NullPointerException")));
+
+    verify(patternTemplateRepository, never()).saveInBatch(any());
+    verify(messageBus, never()).publishActivity(any());
+    verify(jdbcTemplate, never()).query(sql("regex_matches"), any(SqlParameterSource.class),
+        any(RowCallbackHandler.class));
+  }
+
+  private void rows(String fragment, ResultSet... rows) {
+    doAnswer(invocation -> {
+      RowCallbackHandler handler = invocation.getArgument(2);
+      for (ResultSet rs : rows) {
+        handler.processRow(rs);
+      }
+      return null;
+    }).when(jdbcTemplate).query(sql(fragment), any(SqlParameterSource.class),
+        any(RowCallbackHandler.class));
+  }
+
+  private static ResultSet row(Long itemId, String value) throws SQLException {
+    ResultSet rs = mock(ResultSet.class);
+    Array noMatches = mock(Array.class);
+    when(noMatches.getArray()).thenReturn(new Integer[0]);
+    when(rs.getArray(3)).thenReturn(noMatches);
+    when(rs.getLong(1)).thenReturn(itemId);
+    when(rs.getLong("item_id")).thenReturn(itemId);
+    when(rs.getString(2)).thenReturn(value);
+    when(rs.getString("name")).thenReturn(value);
+    return rs;
+  }
+
+  private static ResultSet regexRow(Long itemId, String value, Integer... regexPositions)
+      throws SQLException {
+    ResultSet rs = row(itemId, value);
+    Array regexMatches = mock(Array.class);
+    when(regexMatches.getArray()).thenReturn(regexPositions);
+    when(rs.getArray(3)).thenReturn(regexMatches);
+    return rs;
+  }
+
+  private static PatternTemplate pattern(Long id, PatternTemplateType type, String value) {
+    PatternTemplate pattern = new PatternTemplate();
+    pattern.setId(id);
+    pattern.setTemplateType(type);
+    pattern.setValue(value);
+    pattern.setName(value);
+    return pattern;
+  }
+}
@@ -0,0 +1,47 @@
+/*
+ * Copyright 2024 EPAM Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.epam.ta.reportportal.core.analyzer.pattern.matcher;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class AhoCorasickTest {
+
+  @Test
+  void allOverlappingOccurrencesAreFound() {
+    AhoCorasick automaton = new AhoCorasick(List.of("he", "she", "his", "hers"));
+    List<Integer> found = new ArrayList<>();
+
+    automaton.match("ushers", found::add);
+
+    assertEquals(List.of(1, 0, 3), found);
+  }
+
+  @Test
+  void matchIsCaseSensitive() {
+    AhoCorasick automaton = new AhoCorasick(List.of("Timeout"));
+    List<Integer> found = new ArrayList<>();
+
+    automaton.match("connection timeout, Timeout", found::add);
+
+    assertEquals(List.of(0), found);
+  }
+}
@@ -0,0 +1,92 @@
+/*
+ * Copyright 2024 EPAM Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.epam.ta.reportportal.core.analyzer.pattern.matcher;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.epam.ta.reportportal.entity.pattern.PatternTemplate;
+import com.epam.ta.reportportal.entity.pattern.PatternTemplateType;
+import java.util.BitSet;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class PatternMatcherTest {
+
+  private final PatternMatcher matcher = new PatternMatcher(List.of(
+      pattern(1L, PatternTemplateType.STRING, "NullPointerException"),
+      pattern(2L, PatternTemplateType.REGEX, "timed? ?out after \\d+ ?ms"),
+      pattern(3L, PatternTemplateType.REGEX, "^Caused by"),
+      pattern(4L, PatternTemplateType.STRING, "Exception")
+  ));
+
+  @Test
+  void stringPatternsAreMatchedInOnePass() {
+    BitSet matched = new BitSet();
+
+    matcher.match("java.lang.NullPointerException", matched);
+    matcher.match("Request timed out after 300 ms", matched);
+
+    assertEquals(BitSet.valueOf(new long[] { 0b1001 }), matched);
+    assertFalse(matcher.isCompleted(matched));
+  }
+
+  @Test
+  void regexesAreLeftToDatabase() {
+    BitSet matched = new BitSet();
+
+    matcher.matchRegex(1, matched);
+
+    assertEquals(List.of("timed? ?out after \\d+ ?ms", "^Caused by"), matcher.getRegexes());
+    assertEquals(BitSet.valueOf(new long[] { 0b0100 }), matched);
+  }
+
+  @Test
+  void likeWildcardsAreMatchedLiterally() {
+    PatternMatcher literal = new PatternMatcher(List.of(
+        pattern(1L, PatternTemplateType.STRING, "100%"),
+        pattern(2L, PatternTemplateType.STRING, "user_id")
+    ));
+    BitSet matched = new BitSet();
+
+    literal.match("progress 1000, userXid", matched);
+    assertTrue(matched.isEmpty());
+
+    literal.match("progress 100%, user_id", matched);
+    assertTrue(literal.isCompleted(matched));
+  }
+
+  @Test
+  void nothingIsMatchedByEmptyMessage() {
+    BitSet matched = new BitSet();
+
+    matcher.match(null, matched);
+    matcher.match("", matched);
+
+    assertTrue(matched.isEmpty());
+  }
+
+  private static PatternTemplate pattern(Long id, PatternTemplateType type, String value) {
+    PatternTemplate pattern = new PatternTemplate();
+    pattern.setId(id);
+    pattern.setTemplateType(type);
+    pattern.setValue(value);
+    return pattern;
+  }
+}
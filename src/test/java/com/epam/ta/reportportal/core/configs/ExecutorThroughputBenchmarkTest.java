@@ -0,0 +1,77 @@
+/*
+ * Copyright 2024 EPAM Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.ta.reportportal.core.configs;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+/**
+ * Compares the throughput of the thread pool and the virtual thread executors on tasks blocked on
+ * I/O, with the concurrency of both limited to the database pool size. Run with
+ * {@code RP_BENCHMARK=true}.
+ */
+@EnabledIfEnvironmentVariable(named = "RP_BENCHMARK", matches = "true")
+class ExecutorThroughputBenchmarkTest {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(
+      ExecutorThroughputBenchmarkTest.class);
+
+  private static final int DB_POOL_SIZE = 27;
+  private static final int TASKS = 5_000;
+  private static final long IO_MILLIS = 20;
+
+  @Test
+  void blockingIoThroughput() throws InterruptedException {
+    ThreadPoolTaskExecutor pool = new ThreadPoolTaskExecutor();
+    pool.setCorePoolSize(DB_POOL_SIZE);
+    pool.setMaxPoolSize(DB_POOL_SIZE);
+    pool.setQueueCapacity(TASKS);
+    pool.initialize();
+    try {
+      LOGGER.info("Thread pool: {} tasks/s", throughput(pool));
+    } finally {
+      pool.shutdown();
+    }
+    LOGGER.info("Virtual threads: {} tasks/s",
+        throughput(new VirtualThreadTaskExecutor("benchmark-vt-exec", DB_POOL_SIZE, TASKS)));
+  }
+
+  private long throughput(TaskExecutor executor) throws InterruptedException {
+    CountDownLatch finished = new CountDownLatch(TASKS);
+    long start = System.nanoTime();
+    for (int i = 0; i < TASKS; i++) {
+      executor.execute(() -> {
+        try {
+          Thread.sleep(IO_MILLIS);
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+        }
+        finished.countDown();
+      });
+    }
+    assertTrue(finished.await(5, TimeUnit.MINUTES));
+    return TASKS * TimeUnit.SECONDS.toNanos(1) / (System.nanoTime() - start);
+  }
+}
@@ -0,0 +1,108 @@
+/*
+ * Copyright 2024 EPAM Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.ta.reportportal.core.configs;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+class VirtualThreadTaskExecutorTest {
+
+  private final CountDownLatch blocker = new CountDownLatch(1);
+
+  private final VirtualThreadTaskExecutor executor =
+      new VirtualThreadTaskExecutor("test-vt-exec", 2, 1);
+
+  @AfterEach
+  void tearDown() {
+    blocker.countDown();
+  }
+
+  @Test
+  void tasksRunningAtTheSameTimeAreLimitedByPermits() throws InterruptedException {
+    CountDownLatch started = new CountDownLatch(2);
+    for (int i = 0; i < 3; i++) {
+      executor.execute(() -> {
+        started.countDown();
+        block();
+      });
+    }
+    assertTrue(started.await(10, TimeUnit.SECONDS));
+
+    assertEquals(2, executor.getActiveCount());
+    assertEquals(1, executor.getQueueSize());
+  }
+
+  @Test
+  void tasksAboveQueueCapacityAreRejected() {
+    for (int i = 0; i < 3; i++) {
+      executor.execute(this::block);
+    }
+
+    assertThrows(RejectedExecutionException.class, () -> executor.execute(this::block));
+    assertEquals(1, executor.getRejectedCount());
+  }
+
+  @Test
+  void tasksSubmittedByExecutorThreadsAreNotRejected() throws InterruptedException {
+    CountDownLatch finished = new CountDownLatch(1);
+    AtomicInteger continuations = new AtomicInteger();
+    for (int i = 0; i < 2; i++) {
+      executor.execute(this::block);
+    }
+    executor.execute(() -> {
+      executor.execute(() -> {
+        continuations.incrementAndGet();
+        finished.countDown();
+      });
+    });
+    blocker.countDown();
+
+    assertTrue(finished.await(10, TimeUnit.SECONDS));
+    assertEquals(1, continuations.get());
+    assertEquals(0, executor.getRejectedCount());
+  }
+
+  @Test
+  void waitTimeAndRejectionsAreMeasured() throws InterruptedException {
+    SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    new ExecutorMetrics(meterRegistry).monitor("test", executor);
+    CountDownLatch finished = new CountDownLatch(1);
+
+    executor.execute(finished::countDown);
+
+    assertTrue(finished.await(10, TimeUnit.SECONDS));
+    assertEquals(1, meterRegistry.get(ExecutorMetrics.WAIT_METRIC).timer().count());
+    assertEquals(2, meterRegistry.get(ExecutorMetrics.POOL_SIZE_METRIC).gauge().value());
+  }
+
+  private void block() {
+    try {
+      blocker.await();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+}
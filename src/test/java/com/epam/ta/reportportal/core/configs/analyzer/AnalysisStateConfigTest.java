@@ -0,0 +1,37 @@
+/*
+ * Copyright 2024 EPAM Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.ta.reportportal.core.configs.analyzer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.Test;
+
+class AnalysisStateConfigTest {
+
+  @Test
+  void registryPoolIsSmallAndCommitsRightAway() {
+    try (HikariDataSource dataSource = new AnalysisStateConfig().analysisStateDataSource(
+        "org.postgresql.Driver", "jdbc:postgresql://localhost:5432/reportportal", "rpuser",
+        "rppass", 2)) {
+      assertEquals("analysis-state", dataSource.getPoolName());
+      assertEquals(2, dataSource.getMaximumPoolSize());
+      assertTrue(dataSource.isAutoCommit());
+    }
+  }
+}
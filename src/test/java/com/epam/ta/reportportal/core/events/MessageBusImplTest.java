@@ -5,11 +5,13 @@ import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.lenient;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import com.epam.ta.reportportal.entity.activity.Activity;
 import com.epam.ta.reportportal.entity.activity.EventObject;
+import java.util.List;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -17,6 +19,8 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.amqp.core.AmqpTemplate;
+import org.springframework.amqp.rabbit.core.RabbitOperations;
+import org.springframework.amqp.rabbit.core.RabbitOperations.OperationsCallback;
 
 @ExtendWith(MockitoExtension.class)
 public class MessageBusImplTest {
@@ -93,4 +97,43 @@ public class MessageBusImplTest {
     verify(amqpTemplate).convertAndSend(EXCHANGE_ACTIVITY, activityKey, activity);
   }
 
+  @Test
+  public void whenPublishActivities_thenCallConvertAndSendForEveryActivity() {
+    ActivityEvent activityEvent = mock(ActivityEvent.class);
+    when(activityEvent.toActivity()).thenReturn(activity);
+    ActivityEvent emptyEvent = mock(ActivityEvent.class);
+    messageBus.publishActivities(List.of(activityEvent, emptyEvent, activityEvent));
+
+    verify(amqpTemplate, times(2)).convertAndSend(EXCHANGE_ACTIVITY, activityKey, activity);
+  }
+
+  @Test
+  @SuppressWarnings("unchecked")
+  public void whenPublishActivities_withRabbitOperations_thenSendOnOneChannel() {
+    RabbitOperations rabbitOperations = mock(RabbitOperations.class);
+    RabbitOperations channelOperations = mock(RabbitOperations.class);
+    when(rabbitOperations.invoke(any(OperationsCallback.class))).thenAnswer(
+        invocation -> invocation.<OperationsCallback<?>>getArgument(0)
+            .doInRabbit(channelOperations));
+    ActivityEvent activityEvent = mock(ActivityEvent.class);
+    when(activityEvent.toActivity()).thenReturn(activity);
+    ActivityEvent emptyEvent = mock(ActivityEvent.class);
+
+    new MessageBusImpl(rabbitOperations).publishActivities(
+        List.of(activityEvent, emptyEvent, activityEvent));
+
+    verify(rabbitOperations).invoke(any(OperationsCallback.class));
+    verify(rabbitOperations, never()).convertAndSend(any(), any(), any(Object.class));
+    verify(channelOperations, times(2)).convertAndSend(EXCHANGE_ACTIVITY, activityKey, activity);
+  }
+
+  @Test
+  public void whenPublishActivities_andNoActivities_thenDoNotOpenChannel() {
+    RabbitOperations rabbitOperations = mock(RabbitOperations.class);
+
+    new MessageBusImpl(rabbitOperations).publishActivities(List.of(mock(ActivityEvent.class)));
+
+    verify(rabbitOperations, never()).invoke(any());
+  }
+
 }
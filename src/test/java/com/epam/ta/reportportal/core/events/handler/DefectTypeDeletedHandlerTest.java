@@ -27,7 +27,7 @@ import static org.mockito.Mockito.when;
 
 import com.epam.ta.reportportal.core.analyzer.auto.LogIndexer;
 import com.epam.ta.reportportal.core.analyzer.auto.client.AnalyzerServiceClient;
-import com.epam.ta.reportportal.core.analyzer.auto.impl.AnalyzerStatusCache;
+import com.epam.ta.reportportal.core.analyzer.auto.impl.AnalysisStateRegistry;
 import com.epam.ta.reportportal.core.events.activity.DefectTypeDeletedEvent;
 import com.epam.ta.reportportal.dao.LaunchRepository;
 import com.epam.ta.reportportal.dao.ProjectRepository;
@@ -37,8 +37,6 @@ import com.epam.ta.reportportal.entity.project.ProjectAttribute;
 import com.epam.reportportal.rules.exception.ReportPortalException;
 import com.epam.ta.reportportal.model.activity.IssueTypeActivityResource;
 import com.epam.reportportal.model.project.AnalyzerConfig;
-import com.google.common.cache.Cache;
-import com.google.common.cache.CacheBuilder;
 import com.google.common.collect.Sets;
 import java.util.Arrays;
 import java.util.List;
@@ -56,7 +54,7 @@ import org.mockito.junit.jupiter.MockitoExtension;
 class DefectTypeDeletedHandlerTest {
 
   @Mock
-  private AnalyzerStatusCache analyzerStatusCache;
+  private AnalysisStateRegistry analysisStateRegistry;
 
   @Mock
   private AnalyzerServiceClient analyzerServiceClient;
@@ -107,10 +105,9 @@ class DefectTypeDeletedHandlerTest {
 
     when(projectRepository.findById(projectId)).thenReturn(Optional.of(new Project()));
     when(analyzerServiceClient.hasClients()).thenReturn(true);
-    Cache<Long, Long> cache = CacheBuilder.newBuilder().build();
-    cache.put(2L, projectId);
-    when(analyzerStatusCache.getAnalyzeStatus(AnalyzerStatusCache.AUTO_ANALYZER_KEY)).thenReturn(
-        Optional.of(cache));
+    when(analysisStateRegistry.containsProjectId(AnalysisStateRegistry.AUTO_ANALYZER_KEY,
+        projectId
+    )).thenReturn(true);
 
     ReportPortalException exception =
         assertThrows(ReportPortalException.class, () -> handler.handleDefectTypeDeleted(
@@ -127,8 +124,9 @@ class DefectTypeDeletedHandlerTest {
     when(projectRepository.findById(projectId)).thenReturn(
         Optional.of(getProjectWithAnalyzerAttributes(projectId)));
     when(analyzerServiceClient.hasClients()).thenReturn(true);
-    when(analyzerStatusCache.getAnalyzeStatus(AnalyzerStatusCache.AUTO_ANALYZER_KEY)).thenReturn(
-        Optional.of(CacheBuilder.newBuilder().build()));
+    when(analysisStateRegistry.containsProjectId(AnalysisStateRegistry.AUTO_ANALYZER_KEY,
+        projectId
+    )).thenReturn(false);
     List<Long> launchIds = Arrays.asList(1L, 2L, 3L);
 
     handler.handleDefectTypeDeleted(
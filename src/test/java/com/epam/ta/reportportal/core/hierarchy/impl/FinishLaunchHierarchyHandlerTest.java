@@ -3,12 +3,17 @@ package com.epam.ta.reportportal.core.hierarchy.impl;
 import static com.epam.ta.reportportal.ReportPortalUserUtil.TEST_PROJECT_NAME;
 import static com.epam.ta.reportportal.ReportPortalUserUtil.getRpUser;
 import static com.epam.ta.reportportal.core.item.impl.status.ToSkippedStatusChangingStrategy.SKIPPED_ISSUE_KEY;
+import static com.epam.ta.reportportal.util.SqlMatchers.sql;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -24,22 +29,31 @@ import com.epam.ta.reportportal.dao.TestItemRepository;
 import com.epam.ta.reportportal.entity.ItemAttribute;
 import com.epam.ta.reportportal.entity.enums.StatusEnum;
 import com.epam.ta.reportportal.entity.enums.TestItemIssueGroup;
-import com.epam.ta.reportportal.entity.enums.TestItemTypeEnum;
 import com.epam.ta.reportportal.entity.item.TestItem;
 import com.epam.ta.reportportal.entity.item.TestItemResults;
+import com.epam.ta.reportportal.entity.item.issue.IssueEntity;
 import com.epam.ta.reportportal.entity.item.issue.IssueGroup;
 import com.epam.ta.reportportal.entity.item.issue.IssueType;
 import com.epam.ta.reportportal.entity.launch.Launch;
 import com.epam.ta.reportportal.entity.project.ProjectRole;
 import com.epam.ta.reportportal.entity.user.UserRole;
 import com.google.common.collect.Lists;
+import java.sql.ResultSet;
 import java.time.Instant;
 import java.time.LocalDate;
 import java.time.Month;
 import java.time.ZoneId;
 import java.util.List;
-import java.util.Optional;
+import javax.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
 
 /**
  * @author <a href="mailto:ivan_budayeu@epam.com">Ivan Budayeu</a>
@@ -54,6 +68,8 @@ class FinishLaunchHierarchyHandlerTest {
   private final IssueTypeHandler issueTypeHandler = mock(IssueTypeHandler.class);
   private final IssueEntityRepository issueEntityRepository = mock(IssueEntityRepository.class);
   private final ChangeStatusHandler changeStatusHandler = mock(ChangeStatusHandler.class);
+  private final NamedParameterJdbcTemplate jdbcTemplate = mock(NamedParameterJdbcTemplate.class);
+  private final EntityManager entityManager = mock(EntityManager.class);
 
   private final FinishLaunchHierarchyHandler finishLaunchHierarchyHandler = new FinishLaunchHierarchyHandler(
       launchRepository,
@@ -62,51 +78,44 @@ class FinishLaunchHierarchyHandlerTest {
       retryHandler,
       issueTypeHandler,
       issueEntityRepository,
-      changeStatusHandler
+      changeStatusHandler,
+      jdbcTemplate,
+      entityManager
   );
 
+  @BeforeEach
+  void setUp() {
+    when(entityManager.getReference(eq(TestItem.class), anyLong())).thenAnswer(
+        invocation -> new TestItem(invocation.getArgument(1)));
+  }
+
   @Test
   void finishWithPassedStatus() {
 
     Launch launch = getLaunch();
-
-    List<Long> idsWithChildren = Lists.newArrayList(2L, 1L);
-    List<Long> idsWithoutChildren = Lists.newArrayList(3L, 4L);
-
-    when(testItemRepository.findIdsByHasChildrenAndLaunchIdAndStatusOrderedByPathLevel(
-        eq(launch.getId()),
-        eq(StatusEnum.IN_PROGRESS),
-        anyInt(),
-        anyLong()
-    )).thenReturn(idsWithChildren);
-    when(testItemRepository.findIdsByNotHasChildrenAndLaunchIdAndStatus(eq(launch.getId()),
-        eq(StatusEnum.IN_PROGRESS),
-        anyInt(),
-        anyLong()
-    )).thenReturn(idsWithoutChildren);
+    mockItemIds(launch);
+    mockChildPerParent();
 
     Instant endTime  = LocalDate.of(2020, Month.OCTOBER, 30)
         .atStartOfDay(ZoneId.systemDefault())
         .toInstant();
     ReportPortalUser rpUser = getRpUser("test", UserRole.USER, ProjectRole.MEMBER, 1L);
 
-    when(testItemRepository.findAllById(idsWithChildren)).thenReturn(
-        getTestItemsWithChildren(launch));
-    when(testItemRepository.findAllById(idsWithoutChildren)).thenReturn(
-        getTestItemsWithoutChildren(launch));
-
-    when(issueEntityRepository.findById(3L)).thenReturn(Optional.empty());
-    when(issueEntityRepository.findById(4L)).thenReturn(Optional.empty());
-
-    finishLaunchHierarchyHandler.finishDescendants(launch,
+    int finished = finishLaunchHierarchyHandler.finishDescendants(launch,
         StatusEnum.PASSED,
         endTime,
         rpUser,
         rpUser.getProjectDetails().get(TEST_PROJECT_NAME)
     );
 
-    verify(changeStatusHandler, times(2)).changeParentStatus(any(TestItem.class), any(), any());
-    verify(issueEntityRepository, times(0)).save(any());
+    assertEquals(4, finished);
+    verify(changeStatusHandler).changeParentsStatus(argThat(children -> children.size() == 2),
+        any(), any());
+    verify(jdbcTemplate, never()).update(sql("INSERT INTO issue"), any(SqlParameterSource.class));
+    ArgumentCaptor<SqlParameterSource> params = ArgumentCaptor.forClass(SqlParameterSource.class);
+    verify(jdbcTemplate).update(sql("SET status = CAST(:status"), params.capture());
+    assertEquals(Lists.newArrayList(3L, 4L), params.getValue().getValue("itemIds"));
+    assertEquals(StatusEnum.PASSED.name(), params.getValue().getValue("status"));
   }
 
   @Test
@@ -121,30 +130,13 @@ class FinishLaunchHierarchyHandlerTest {
 
     when(issueTypeHandler.defineIssueType(anyLong(), anyString())).thenReturn(
         getToInvestigateIssueType());
-
-    List<Long> idsWithChildren = Lists.newArrayList(2L, 1L);
-    List<Long> idsWithoutChildren = Lists.newArrayList(3L, 4L);
-    when(testItemRepository.findIdsByHasChildrenAndLaunchIdAndStatusOrderedByPathLevel(
-        eq(launch.getId()),
-        eq(StatusEnum.IN_PROGRESS),
-        anyInt(),
-        anyLong()
-    )).thenReturn(idsWithChildren);
-    when(testItemRepository.findIdsByNotHasChildrenAndLaunchIdAndStatus(eq(launch.getId()),
-        eq(StatusEnum.IN_PROGRESS),
-        anyInt(),
-        anyLong()
-    )).thenReturn(idsWithoutChildren);
+    mockItemIds(launch);
+    mockChildPerParent();
 
     Instant endTime = LocalDate.of(2020, Month.OCTOBER, 30)
         .atStartOfDay(ZoneId.systemDefault()).toInstant();
     ReportPortalUser rpUser = getRpUser("test", UserRole.USER, ProjectRole.MEMBER, 1L);
 
-    when(testItemRepository.findAllById(idsWithChildren)).thenReturn(
-        getTestItemsWithChildren(launch));
-    when(testItemRepository.findAllById(idsWithoutChildren)).thenReturn(
-        getTestItemsWithoutChildren(launch));
-
     finishLaunchHierarchyHandler.finishDescendants(launch,
         StatusEnum.SKIPPED,
         endTime,
@@ -152,9 +144,101 @@ class FinishLaunchHierarchyHandlerTest {
         rpUser.getProjectDetails().get(TEST_PROJECT_NAME)
     );
 
-    verify(changeStatusHandler, times(2)).changeParentStatus(any(TestItem.class), any(), any());
-    verify(issueEntityRepository, times(2)).save(any());
+    verify(changeStatusHandler).changeParentsStatus(argThat(children -> children.size() == 2),
+        any(), any());
+    ArgumentCaptor<SqlParameterSource> params = ArgumentCaptor.forClass(SqlParameterSource.class);
+    verify(jdbcTemplate).update(sql("INSERT INTO issue"), params.capture());
+    assertEquals(1L, params.getValue().getValue("issueTypeId"));
+    assertEquals(Lists.newArrayList(3L, 4L), params.getValue().getValue("itemIds"));
+  }
+
+  @Test
+  void parentsAreFinishedFromTheDeepestLevel() throws Exception {
+
+    Launch launch = getLaunch();
+    mockItemIds(launch);
+    doAnswer(invocation -> {
+      RowCallbackHandler handler = invocation.getArgument(2);
+      handler.processRow(levelRow(2L, 2));
+      handler.processRow(levelRow(1L, 1));
+      return null;
+    }).when(jdbcTemplate).query(sql("nlevel"), any(SqlParameterSource.class),
+        any(RowCallbackHandler.class));
+
+    ReportPortalUser rpUser = getRpUser("test", UserRole.USER, ProjectRole.MEMBER, 1L);
+    finishLaunchHierarchyHandler.finishDescendants(launch,
+        StatusEnum.INTERRUPTED,
+        Instant.now(),
+        rpUser,
+        rpUser.getProjectDetails().get(TEST_PROJECT_NAME)
+    );
+
+    ArgumentCaptor<SqlParameterSource> params = ArgumentCaptor.forClass(SqlParameterSource.class);
+    InOrder inOrder = inOrder(jdbcTemplate);
+    inOrder.verify(jdbcTemplate, times(2)).update(sql("CASE WHEN EXISTS"), params.capture());
+    assertEquals(List.of(2L), params.getAllValues().get(0).getValue("itemIds"));
+    assertEquals(List.of(1L), params.getAllValues().get(1).getValue("itemIds"));
+  }
+
+  @Test
+  void finishedItemsAreDetachedFromPersistenceContext() {
+
+    Launch launch = getLaunch();
+    mockItemIds(launch);
+    mockChildPerParent();
+    TestItem managed = new TestItem(3L);
+    TestItemResults results = new TestItemResults();
+    IssueEntity issue = new IssueEntity();
+    results.setIssue(issue);
+    managed.setItemResults(results);
+    when(entityManager.getReference(TestItem.class, 3L)).thenReturn(managed);
+
+    ReportPortalUser rpUser = getRpUser("test", UserRole.USER, ProjectRole.MEMBER, 1L);
+    finishLaunchHierarchyHandler.finishDescendants(launch,
+        StatusEnum.PASSED,
+        Instant.now(),
+        rpUser,
+        rpUser.getProjectDetails().get(TEST_PROJECT_NAME)
+    );
 
+    InOrder inOrder = inOrder(jdbcTemplate, entityManager, changeStatusHandler);
+    inOrder.verify(jdbcTemplate).update(sql("SET status = CAST(:status"),
+        any(SqlParameterSource.class));
+    inOrder.verify(entityManager).detach(issue);
+    inOrder.verify(entityManager).detach(managed);
+    inOrder.verify(changeStatusHandler).changeParentsStatus(any(), any(), any());
+    verify(entityManager, times(2)).getReference(eq(TestItem.class), anyLong());
+  }
+
+  private void mockItemIds(Launch launch) {
+    List<Long> idsWithChildren = Lists.newArrayList(1L, 2L);
+    List<Long> idsWithoutChildren = Lists.newArrayList(3L, 4L);
+    when(jdbcTemplate.queryForList(sql("ti.item_id > :lastId"), itemIdsParams(launch, true),
+        eq(Long.class))).thenReturn(idsWithChildren);
+    when(jdbcTemplate.queryForList(sql("ti.item_id > :lastId"), itemIdsParams(launch, false),
+        eq(Long.class))).thenReturn(idsWithoutChildren);
+  }
+
+  private static SqlParameterSource itemIdsParams(Launch launch, boolean hasChildren) {
+    return argThat(params -> params != null
+        && launch.getId().equals(params.getValue("launchId"))
+        && Boolean.valueOf(hasChildren).equals(params.getValue("hasChildren"))
+        && StatusEnum.IN_PROGRESS.name().equals(params.getValue("status"))
+        && Long.valueOf(0L).equals(params.getValue("lastId")));
+  }
+
+  @SuppressWarnings("unchecked")
+  private void mockChildPerParent() {
+    when(jdbcTemplate.query(sql("DISTINCT ON"), any(MapSqlParameterSource.class),
+        any(RowMapper.class))).thenReturn(Lists.newArrayList(getChild(3L, 2L, "1.2.3"),
+        getChild(4L, 1L, "1.4")));
+  }
+
+  private static ResultSet levelRow(Long itemId, int level) throws Exception {
+    ResultSet resultSet = mock(ResultSet.class);
+    when(resultSet.getLong("item_id")).thenReturn(itemId);
+    when(resultSet.getInt("level")).thenReturn(level);
+    return resultSet;
   }
 
   private Launch getLaunch() {
@@ -175,59 +259,11 @@ class FinishLaunchHierarchyHandlerTest {
     return issueType;
   }
 
-  private List<TestItem> getTestItemsWithChildren(Launch launch) {
-
-    TestItem parent = new TestItem();
-    parent.setItemId(1L);
-    parent.setType(TestItemTypeEnum.SUITE);
-    parent.setLaunchId(launch.getId());
-    parent.setPath("1");
-    parent.setHasStats(true);
-    parent.setHasChildren(true);
-    TestItemResults parentResults = new TestItemResults();
-    parentResults.setStatus(StatusEnum.IN_PROGRESS);
-    parent.setItemResults(parentResults);
-
-    TestItem child = new TestItem();
-    child.setItemId(2L);
-    child.setType(TestItemTypeEnum.TEST);
-    child.setLaunchId(launch.getId());
-    child.setPath("1.2");
-    child.setParentId(parent.getItemId());
-    child.setHasStats(true);
-    child.setHasChildren(true);
-    TestItemResults childResults = new TestItemResults();
-    childResults.setStatus(StatusEnum.IN_PROGRESS);
-    child.setItemResults(childResults);
-
-    return Lists.newArrayList(child, parent);
-  }
-
-  private List<TestItem> getTestItemsWithoutChildren(Launch launch) {
-
-    TestItem firstChild = new TestItem();
-    firstChild.setItemId(3L);
-    firstChild.setType(TestItemTypeEnum.STEP);
-    firstChild.setLaunchId(launch.getId());
-    firstChild.setPath("1.2.3");
-    firstChild.setHasStats(true);
-    firstChild.setHasChildren(false);
-    TestItemResults parentResults = new TestItemResults();
-    parentResults.setStatus(StatusEnum.IN_PROGRESS);
-    firstChild.setItemResults(parentResults);
-
-    TestItem secondChild = new TestItem();
-    secondChild.setItemId(4L);
-    secondChild.setType(TestItemTypeEnum.STEP);
-    secondChild.setLaunchId(launch.getId());
-    secondChild.setPath("1.2.4");
-    secondChild.setHasStats(true);
-    secondChild.setHasChildren(true);
-    TestItemResults childResults = new TestItemResults();
-    childResults.setStatus(StatusEnum.IN_PROGRESS);
-    secondChild.setItemResults(childResults);
-
-    return Lists.newArrayList(firstChild, secondChild);
+  private TestItem getChild(Long itemId, Long parentId, String path) {
+    TestItem child = new TestItem(itemId);
+    child.setParentId(parentId);
+    child.setPath(path);
+    return child;
   }
 
 }
@@ -0,0 +1,67 @@
+/*
+ * Copyright 2024 EPAM Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.epam.ta.reportportal.core.item.impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import com.epam.ta.reportportal.core.events.activity.LaunchFinishedEvent;
+import com.epam.ta.reportportal.core.item.identity.ItemPathNameCache;
+import com.epam.ta.reportportal.dao.TestItemRepository;
+import com.epam.ta.reportportal.entity.item.TestItem;
+import com.epam.ta.reportportal.entity.launch.Launch;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class ItemPathNameCacheTest {
+
+  private final TestItemRepository testItemRepository = mock(TestItemRepository.class);
+
+  private final ItemPathNameCache cache = new ItemPathNameCache(testItemRepository, 10, 60);
+
+  @Test
+  void savedParentsAreNotRead() {
+    cache.put(item(1L, "suite"));
+    cache.put(item(2L, "test"));
+
+    assertEquals(List.of("suite", "test"), cache.getPathNames(10L, List.of(1L, 2L)));
+    verifyNoInteractions(testItemRepository);
+  }
+
+  @Test
+  void launchIsDroppedWhenFinished() {
+    cache.put(item(1L, "suite"));
+    Launch launch = new Launch(10L);
+    when(testItemRepository.findAllById(List.of(1L))).thenReturn(List.of(item(1L, "suite")));
+
+    cache.onLaunchFinished(new LaunchFinishedEvent(launch));
+
+    assertEquals(List.of("suite"), cache.getPathNames(10L, List.of(1L)));
+    verify(testItemRepository).findAllById(List.of(1L));
+  }
+
+  private static TestItem item(Long id, String name) {
+    TestItem item = new TestItem(id);
+    item.setName(name);
+    item.setLaunchId(10L);
+    return item;
+  }
+}
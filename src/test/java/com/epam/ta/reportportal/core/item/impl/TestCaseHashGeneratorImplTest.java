@@ -18,9 +18,12 @@ package com.epam.ta.reportportal.core.item.impl;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import com.epam.ta.reportportal.core.item.identity.IdentityUtil;
+import com.epam.ta.reportportal.core.item.identity.ItemPathNameCache;
 import com.epam.ta.reportportal.core.item.identity.TestCaseHashGeneratorImpl;
 import com.epam.ta.reportportal.dao.TestItemRepository;
 import com.epam.ta.reportportal.entity.item.Parameter;
@@ -30,9 +33,9 @@ import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
@@ -45,9 +48,14 @@ class TestCaseHashGeneratorImplTest {
   @Mock
   private TestItemRepository testItemRepository;
 
-  @InjectMocks
   private TestCaseHashGeneratorImpl testCaseHashGenerator;
 
+  @BeforeEach
+  void setUp() {
+    testCaseHashGenerator = new TestCaseHashGeneratorImpl(
+        new ItemPathNameCache(testItemRepository, 10, 60));
+  }
+
   @Test
   void sameHashesForSameObjectsTest() {
     TestItem item = getItem();
@@ -77,6 +85,38 @@ class TestCaseHashGeneratorImplTest {
     assertEquals(first, second);
   }
 
+  @Test
+  void hashIsGeneratedFromPathNames() {
+    TestItem item = getItem();
+    item.setItemId(3L);
+    TestItem suite = new TestItem(1L);
+    suite.setName("suite");
+    TestItem test = new TestItem(2L);
+    test.setName("");
+    final List<Long> parentIds = IdentityUtil.getParentIds(item);
+    when(testItemRepository.findAllById(parentIds)).thenReturn(List.of(test, suite));
+
+    assertEquals("100;suite;item;key=value".hashCode(),
+        testCaseHashGenerator.generate(item, parentIds, 100L));
+  }
+
+  @Test
+  void ancestorsAreReadOncePerLaunch() {
+    TestItem item = getItem();
+    item.setItemId(3L);
+    TestItem suite = new TestItem(1L);
+    suite.setName("suite");
+    TestItem test = new TestItem(2L);
+    test.setName("test");
+    final List<Long> parentIds = IdentityUtil.getParentIds(item);
+    when(testItemRepository.findAllById(parentIds)).thenReturn(List.of(suite, test));
+
+    testCaseHashGenerator.generate(item, parentIds, 100L);
+    testCaseHashGenerator.generate(item, parentIds, 100L);
+
+    verify(testItemRepository, times(1)).findAllById(parentIds);
+  }
+
   private TestItem getItem() {
     TestItem item = new TestItem();
     item.setName("item");
@@ -0,0 +1,146 @@
+/*
+ * Copyright 2024 EPAM Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.epam.ta.reportportal.core.item.impl.status;
+
+import static com.epam.ta.reportportal.ReportPortalUserUtil.getRpUser;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.epam.ta.reportportal.commons.ReportPortalUser;
+import com.epam.ta.reportportal.core.events.MessageBus;
+import com.epam.ta.reportportal.core.events.activity.item.TestItemStatusChangedEvent;
+import com.epam.ta.reportportal.dao.IssueEntityRepository;
+import com.epam.ta.reportportal.dao.LaunchRepository;
+import com.epam.ta.reportportal.dao.TestItemRepository;
+import com.epam.ta.reportportal.entity.enums.StatusEnum;
+import com.epam.ta.reportportal.entity.item.TestItem;
+import com.epam.ta.reportportal.entity.item.TestItemResults;
+import com.epam.ta.reportportal.entity.launch.Launch;
+import com.epam.ta.reportportal.entity.project.ProjectRole;
+import com.epam.ta.reportportal.entity.user.UserRole;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+class ParentStatusRollupTest {
+
+  private final TestItemRepository testItemRepository = mock(TestItemRepository.class);
+  private final IssueEntityRepository issueEntityRepository = mock(IssueEntityRepository.class);
+  private final MessageBus messageBus = mock(MessageBus.class);
+  private final LaunchRepository launchRepository = mock(LaunchRepository.class);
+
+  private final ParentStatusRollup parentStatusRollup = new ParentStatusRollup(
+      testItemRepository, issueEntityRepository, messageBus, launchRepository, Map.of());
+
+  private final ReportPortalUser user = getRpUser("test", UserRole.USER, ProjectRole.MEMBER, 1L);
+
+  @AfterEach
+  void clearSynchronization() {
+    if (TransactionSynchronizationManager.isSynchronizationActive()) {
+      TransactionSynchronizationManager.clearSynchronization();
+    }
+    TransactionSynchronizationManager.unbindResourceIfPossible(parentStatusRollup);
+  }
+
+  @Test
+  void parentIsResolvedRightAwayWithoutTransaction() {
+    TestItem suite = item(1L, null, "1");
+    TestItem test = item(2L, 1L, "1.2");
+    when(testItemRepository.findAllById(List.of(2L))).thenReturn(List.of(test));
+    when(testItemRepository.findById(1L)).thenReturn(Optional.of(suite));
+    when(testItemRepository.hasDescendantsNotInStatus(eq(2L), anyString(), anyString(),
+        anyString())).thenReturn(true);
+    when(testItemRepository.hasDescendantsNotInStatus(eq(1L), anyString(), anyString(),
+        anyString())).thenReturn(true);
+
+    parentStatusRollup.addParent(item(3L, 2L, "1.2.3"), 1L, user);
+
+    assertEquals(StatusEnum.FAILED, test.getItemResults().getStatus());
+    assertEquals(StatusEnum.FAILED, suite.getItemResults().getStatus());
+    verify(messageBus, times(2)).publishActivity(any(TestItemStatusChangedEvent.class));
+  }
+
+  @Test
+  void parentsAreResolvedOnceBeforeCommit() {
+    TransactionSynchronizationManager.initSynchronization();
+    TestItem suite = item(1L, null, "1");
+    TestItem test = item(2L, 1L, "1.2");
+    TestItem step = item(3L, 2L, "1.2.3");
+    Launch launch = new Launch(10L);
+    launch.setStatus(StatusEnum.INTERRUPTED);
+    when(testItemRepository.findAllById(any())).thenReturn(List.of(test, step));
+    when(testItemRepository.findById(1L)).thenReturn(Optional.of(suite));
+
+    parentStatusRollup.addParent(item(4L, 3L, "1.2.3.4"), 1L, user);
+    parentStatusRollup.addParent(item(5L, 3L, "1.2.3.5"), 1L, user);
+    parentStatusRollup.addParent(item(6L, 2L, "1.2.6"), 1L, user);
+    parentStatusRollup.addLaunch(launch);
+    verify(testItemRepository, never()).hasDescendantsNotInStatus(any(), anyString(), anyString(),
+        anyString());
+
+    TransactionSynchronizationManager.getSynchronizations()
+        .forEach(synchronization -> synchronization.beforeCommit(false));
+
+    InOrder inOrder = inOrder(testItemRepository, launchRepository);
+    inOrder.verify(testItemRepository).hasDescendantsNotInStatus(eq(3L), anyString(),
+        anyString(), anyString());
+    inOrder.verify(testItemRepository).hasDescendantsNotInStatus(eq(2L), anyString(),
+        anyString(), anyString());
+    inOrder.verify(launchRepository).hasRootItemsWithStatusNotEqual(eq(10L), anyString(),
+        anyString(), anyString());
+    verify(testItemRepository).findAllById(any());
+    verify(testItemRepository).findById(1L);
+    assertEquals(StatusEnum.PASSED, step.getItemResults().getStatus());
+    assertEquals(StatusEnum.PASSED, test.getItemResults().getStatus());
+    assertEquals(StatusEnum.PASSED, suite.getItemResults().getStatus());
+    assertEquals(StatusEnum.PASSED, launch.getStatus());
+
+    TransactionSynchronizationManager.getSynchronizations()
+        .forEach(synchronization -> synchronization.afterCompletion(
+            TransactionSynchronization.STATUS_COMMITTED));
+    assertNull(TransactionSynchronizationManager.getResource(parentStatusRollup));
+  }
+
+  private static TestItem item(Long id, Long parentId, String path) {
+    TestItem item = new TestItem(id);
+    item.setName("item " + id);
+    item.setParentId(parentId);
+    item.setLaunchId(10L);
+    item.setPath(path);
+    item.setHasChildren(true);
+    item.setHasStats(true);
+    TestItemResults results = new TestItemResults();
+    results.setStatus(StatusEnum.INTERRUPTED);
+    item.setItemResults(results);
+    return item;
+  }
+}
@@ -30,7 +30,7 @@ import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
-import com.epam.ta.reportportal.core.analyzer.auto.impl.AnalyzerStatusCache;
+import com.epam.ta.reportportal.core.analyzer.auto.impl.AnalysisStateRegistry;
 import com.epam.ta.reportportal.core.launch.cluster.config.ClusterEntityContext;
 import com.epam.ta.reportportal.core.launch.cluster.config.GenerateClustersConfig;
 import com.epam.reportportal.rules.exception.ReportPortalException;
@@ -46,7 +46,7 @@ class UniqueErrorGeneratorAsyncTest {
 
   private final SyncTaskExecutor logClusterExecutor = mock(SyncTaskExecutor.class);
 
-  private final AnalyzerStatusCache analyzerStatusCache = mock(AnalyzerStatusCache.class);
+  private final AnalysisStateRegistry analysisStateRegistry = mock(AnalysisStateRegistry.class);
 
   private final PipelineConstructor<GenerateClustersConfig> pipelineConstructor = (PipelineConstructor<GenerateClustersConfig>) mock(
       PipelineConstructor.class);
@@ -54,7 +54,7 @@ class UniqueErrorGeneratorAsyncTest {
   private final TransactionalPipeline transactionalPipeline = mock(TransactionalPipeline.class);
 
   private final UniqueErrorGeneratorAsync clusterGenerator = new UniqueErrorGeneratorAsync(
-      analyzerStatusCache,
+      analysisStateRegistry,
       pipelineConstructor,
       transactionalPipeline,
       logClusterExecutor
@@ -62,7 +62,7 @@ class UniqueErrorGeneratorAsyncTest {
 
   @Test
   void shouldFailWhenCacheContainsLaunchId() {
-    when(analyzerStatusCache.containsLaunchId(anyString(), anyLong())).thenReturn(true);
+    when(analysisStateRegistry.analyzeStarted(anyString(), anyLong(), anyLong())).thenReturn(false);
 
     final GenerateClustersConfig config = getConfig(false);
 
@@ -72,15 +72,13 @@ class UniqueErrorGeneratorAsyncTest {
         exception.getMessage());
 
     final ClusterEntityContext entityContext = config.getEntityContext();
-    verify(analyzerStatusCache, times(0)).analyzeStarted(AnalyzerStatusCache.CLUSTER_KEY,
-        entityContext.getLaunchId(),
-        entityContext.getProjectId()
-    );
+    verify(analysisStateRegistry, times(0)).analyzeFinished(AnalysisStateRegistry.CLUSTER_KEY,
+        entityContext.getLaunchId());
   }
 
   @Test
   void shouldGenerate() {
-    when(analyzerStatusCache.containsLaunchId(anyString(), anyLong())).thenReturn(false);
+    when(analysisStateRegistry.analyzeStarted(anyString(), anyLong(), anyLong())).thenReturn(true);
     doCallRealMethod().when(logClusterExecutor).execute(any(Runnable.class));
 
     final GenerateClustersConfig config = getConfig(false);
@@ -88,19 +86,19 @@ class UniqueErrorGeneratorAsyncTest {
     clusterGenerator.generate(config);
 
     final ClusterEntityContext entityContext = config.getEntityContext();
-    verify(analyzerStatusCache, times(1)).analyzeStarted(AnalyzerStatusCache.CLUSTER_KEY,
+    verify(analysisStateRegistry, times(1)).analyzeStarted(AnalysisStateRegistry.CLUSTER_KEY,
         entityContext.getLaunchId(),
         entityContext.getProjectId()
     );
     verify(pipelineConstructor, times(1)).construct(config);
     verify(transactionalPipeline, times(1)).run(anyList());
-    verify(analyzerStatusCache, times(1)).analyzeFinished(AnalyzerStatusCache.CLUSTER_KEY,
+    verify(analysisStateRegistry, times(1)).analyzeFinished(AnalysisStateRegistry.CLUSTER_KEY,
         entityContext.getLaunchId());
   }
 
   @Test
   void shouldCleanCacheWhenExceptionThrown() {
-    when(analyzerStatusCache.containsLaunchId(anyString(), anyLong())).thenReturn(false);
+    when(analysisStateRegistry.analyzeStarted(anyString(), anyLong(), anyLong())).thenReturn(true);
     doCallRealMethod().when(logClusterExecutor).execute(any(Runnable.class));
 
     final GenerateClustersConfig config = getConfig(false);
@@ -111,19 +109,19 @@ class UniqueErrorGeneratorAsyncTest {
     clusterGenerator.generate(config);
 
     final ClusterEntityContext entityContext = config.getEntityContext();
-    verify(analyzerStatusCache, times(1)).analyzeStarted(AnalyzerStatusCache.CLUSTER_KEY,
+    verify(analysisStateRegistry, times(1)).analyzeStarted(AnalysisStateRegistry.CLUSTER_KEY,
         entityContext.getLaunchId(),
         entityContext.getProjectId()
     );
     verify(pipelineConstructor, times(1)).construct(config);
     verify(transactionalPipeline, times(1)).run(anyList());
-    verify(analyzerStatusCache, times(1)).analyzeFinished(AnalyzerStatusCache.CLUSTER_KEY,
+    verify(analysisStateRegistry, times(1)).analyzeFinished(AnalysisStateRegistry.CLUSTER_KEY,
         entityContext.getLaunchId());
   }
 
   @Test
   void shouldCleanCacheWhenExceptionThrownDuringTaskSubmit() {
-    when(analyzerStatusCache.containsLaunchId(anyString(), anyLong())).thenReturn(false);
+    when(analysisStateRegistry.analyzeStarted(anyString(), anyLong(), anyLong())).thenReturn(true);
 
     final GenerateClustersConfig config = getConfig(false);
 
@@ -133,13 +131,13 @@ class UniqueErrorGeneratorAsyncTest {
     clusterGenerator.generate(config);
 
     final ClusterEntityContext entityContext = config.getEntityContext();
-    verify(analyzerStatusCache, times(1)).analyzeStarted(AnalyzerStatusCache.CLUSTER_KEY,
+    verify(analysisStateRegistry, times(1)).analyzeStarted(AnalysisStateRegistry.CLUSTER_KEY,
         entityContext.getLaunchId(),
         entityContext.getProjectId()
     );
     verify(pipelineConstructor, times(0)).construct(any(GenerateClustersConfig.class));
     verify(transactionalPipeline, times(0)).run(anyList());
-    verify(analyzerStatusCache, times(1)).analyzeFinished(AnalyzerStatusCache.CLUSTER_KEY,
+    verify(analysisStateRegistry, times(1)).analyzeFinished(AnalysisStateRegistry.CLUSTER_KEY,
         entityContext.getLaunchId());
   }
 
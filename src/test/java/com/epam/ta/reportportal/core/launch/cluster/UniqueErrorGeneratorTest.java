@@ -28,7 +28,7 @@ import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
-import com.epam.ta.reportportal.core.analyzer.auto.impl.AnalyzerStatusCache;
+import com.epam.ta.reportportal.core.analyzer.auto.impl.AnalysisStateRegistry;
 import com.epam.ta.reportportal.core.launch.cluster.config.ClusterEntityContext;
 import com.epam.ta.reportportal.core.launch.cluster.config.GenerateClustersConfig;
 import com.epam.reportportal.rules.exception.ReportPortalException;
@@ -41,7 +41,7 @@ import org.junit.jupiter.api.Test;
  */
 class UniqueErrorGeneratorTest {
 
-  private final AnalyzerStatusCache analyzerStatusCache = mock(AnalyzerStatusCache.class);
+  private final AnalysisStateRegistry analysisStateRegistry = mock(AnalysisStateRegistry.class);
 
   private final PipelineConstructor<GenerateClustersConfig> pipelineConstructor = (PipelineConstructor<GenerateClustersConfig>) mock(
       PipelineConstructor.class);
@@ -49,14 +49,14 @@ class UniqueErrorGeneratorTest {
   private final TransactionalPipeline transactionalPipeline = mock(TransactionalPipeline.class);
 
   private final UniqueErrorGenerator clusterGenerator = new UniqueErrorGenerator(
-      analyzerStatusCache,
+      analysisStateRegistry,
       pipelineConstructor,
       transactionalPipeline
   );
 
   @Test
   void shouldFailWhenCacheContainsLaunchId() {
-    when(analyzerStatusCache.containsLaunchId(anyString(), anyLong())).thenReturn(true);
+    when(analysisStateRegistry.analyzeStarted(anyString(), anyLong(), anyLong())).thenReturn(false);
 
     final GenerateClustersConfig config = getConfig(false);
 
@@ -66,34 +66,32 @@ class UniqueErrorGeneratorTest {
         exception.getMessage());
 
     final ClusterEntityContext entityContext = config.getEntityContext();
-    verify(analyzerStatusCache, times(0)).analyzeStarted(AnalyzerStatusCache.CLUSTER_KEY,
-        entityContext.getLaunchId(),
-        entityContext.getProjectId()
-    );
+    verify(analysisStateRegistry, times(0)).analyzeFinished(AnalysisStateRegistry.CLUSTER_KEY,
+        entityContext.getLaunchId());
   }
 
   @Test
   void shouldGenerate() {
-    when(analyzerStatusCache.containsLaunchId(anyString(), anyLong())).thenReturn(false);
+    when(analysisStateRegistry.analyzeStarted(anyString(), anyLong(), anyLong())).thenReturn(true);
 
     final GenerateClustersConfig config = getConfig(false);
 
     clusterGenerator.generate(config);
 
     final ClusterEntityContext entityContext = config.getEntityContext();
-    verify(analyzerStatusCache, times(1)).analyzeStarted(AnalyzerStatusCache.CLUSTER_KEY,
+    verify(analysisStateRegistry, times(1)).analyzeStarted(AnalysisStateRegistry.CLUSTER_KEY,
         entityContext.getLaunchId(),
         entityContext.getProjectId()
     );
     verify(pipelineConstructor, times(1)).construct(config);
     verify(transactionalPipeline, times(1)).run(anyList());
-    verify(analyzerStatusCache, times(1)).analyzeFinished(AnalyzerStatusCache.CLUSTER_KEY,
+    verify(analysisStateRegistry, times(1)).analyzeFinished(AnalysisStateRegistry.CLUSTER_KEY,
         entityContext.getLaunchId());
   }
 
   @Test
   void shouldCleanCacheWhenExceptionThrown() {
-    when(analyzerStatusCache.containsLaunchId(anyString(), anyLong())).thenReturn(false);
+    when(analysisStateRegistry.analyzeStarted(anyString(), anyLong(), anyLong())).thenReturn(true);
 
     final GenerateClustersConfig config = getConfig(false);
 
@@ -103,13 +101,13 @@ class UniqueErrorGeneratorTest {
     clusterGenerator.generate(config);
 
     final ClusterEntityContext entityContext = config.getEntityContext();
-    verify(analyzerStatusCache, times(1)).analyzeStarted(AnalyzerStatusCache.CLUSTER_KEY,
+    verify(analysisStateRegistry, times(1)).analyzeStarted(AnalysisStateRegistry.CLUSTER_KEY,
         entityContext.getLaunchId(),
         entityContext.getProjectId()
     );
     verify(pipelineConstructor, times(1)).construct(config);
     verify(transactionalPipeline, times(1)).run(anyList());
-    verify(analyzerStatusCache, times(1)).analyzeFinished(AnalyzerStatusCache.CLUSTER_KEY,
+    verify(analysisStateRegistry, times(1)).analyzeFinished(AnalysisStateRegistry.CLUSTER_KEY,
         entityContext.getLaunchId());
   }
 
@@ -21,9 +21,17 @@ import static com.epam.ta.reportportal.core.launch.impl.LaunchTestUtil.getLaunch
 import static com.epam.ta.reportportal.util.TestProjectExtractor.extractProjectDetails;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import com.epam.ta.reportportal.commons.ReportPortalUser;
+import com.epam.ta.reportportal.core.ElementsCounterService;
+import com.epam.ta.reportportal.core.events.MessageBus;
+import com.epam.ta.reportportal.core.events.activity.LaunchDeletedEvent;
 import com.epam.ta.reportportal.dao.AttachmentRepository;
 import com.epam.ta.reportportal.dao.LaunchRepository;
 import com.epam.ta.reportportal.entity.enums.LaunchModeEnum;
@@ -31,6 +39,8 @@ import com.epam.ta.reportportal.entity.enums.StatusEnum;
 import com.epam.ta.reportportal.entity.project.ProjectRole;
 import com.epam.ta.reportportal.entity.user.UserRole;
 import com.epam.reportportal.rules.exception.ReportPortalException;
+import com.epam.ta.reportportal.model.DeleteBulkRS;
+import java.util.List;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
@@ -49,9 +59,37 @@ class DeleteLaunchHandlerImplTest {
   @Mock
   private AttachmentRepository attachmentRepository;
 
+  @Mock
+  private ElementsCounterService elementsCounterService;
+
+  @Mock
+  private MessageBus messageBus;
+
+  @Mock
+  private LaunchDeletionService launchDeletionService;
+
   @InjectMocks
   private DeleteLaunchHandlerImpl handler;
 
+  @Test
+  void deleteLaunchesInBackground() {
+    final ReportPortalUser rpUser =
+        getRpUser("test", UserRole.USER, ProjectRole.PROJECT_MANAGER, 1L);
+    when(launchRepository.findById(1L)).thenReturn(
+        getLaunch(StatusEnum.PASSED, LaunchModeEnum.DEFAULT));
+    when(elementsCounterService.countNumberOfLaunchElements(1L)).thenReturn(10L);
+
+    DeleteBulkRS response = handler.deleteLaunches(List.of(1L),
+        extractProjectDetails(rpUser, "test_project"), rpUser);
+
+    assertEquals(List.of(1L), response.getDeleted());
+    verify(launchDeletionService).schedule(argThat(launches -> launches.size() == 1
+        && launches.entrySet().stream().allMatch(
+        entry -> entry.getKey().getId().equals(1L) && entry.getValue().equals(10L))), eq(rpUser));
+    verify(messageBus, never()).publishActivity(any(LaunchDeletedEvent.class));
+    verify(launchRepository, never()).deleteAll(any());
+  }
+
   @Test
   void deleteNotOwnLaunch() {
     final ReportPortalUser rpUser = getRpUser("not owner", UserRole.USER, ProjectRole.MEMBER, 1L);
@@ -91,6 +91,9 @@ class GetLaunchHandlerImplTest {
   @Mock
   private LaunchConverter launchConverter;
 
+  @Mock
+  private LaunchDeletionService launchDeletionService;
+
   @InjectMocks
   private GetLaunchHandlerImpl handler;
 
@@ -0,0 +1,197 @@
+/*
+ * Copyright 2024 EPAM Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.epam.ta.reportportal.core.launch.impl;
+
+import static com.epam.ta.reportportal.util.SqlMatchers.sql;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.epam.reportportal.events.ElementsDeletedEvent;
+import com.epam.reportportal.rules.exception.ReportPortalException;
+import com.epam.ta.reportportal.core.analyzer.auto.LogIndexer;
+import com.epam.ta.reportportal.core.events.MessageBus;
+import com.epam.ta.reportportal.core.events.activity.LaunchDeletedEvent;
+import com.epam.ta.reportportal.core.log.LogService;
+import com.epam.ta.reportportal.core.remover.ContentRemover;
+import com.epam.ta.reportportal.dao.AttachmentRepository;
+import com.epam.ta.reportportal.entity.launch.Launch;
+import java.sql.ResultSet;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.task.SyncTaskExecutor;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.transaction.PlatformTransactionManager;
+
+class LaunchDeletionServiceTest {
+
+  private final NamedParameterJdbcTemplate jdbcTemplate = mock(NamedParameterJdbcTemplate.class);
+  @SuppressWarnings("unchecked")
+  private final ContentRemover<Launch> launchContentRemover = mock(ContentRemover.class);
+  private final LogIndexer logIndexer = mock(LogIndexer.class);
+  private final LogService logService = mock(LogService.class);
+  private final AttachmentRepository attachmentRepository = mock(AttachmentRepository.class);
+  private final ApplicationEventPublisher eventPublisher = mock(ApplicationEventPublisher.class);
+  private final MessageBus messageBus = mock(MessageBus.class);
+
+  private final LaunchDeletionService launchDeletionService = new LaunchDeletionService(
+      jdbcTemplate, mock(PlatformTransactionManager.class), launchContentRemover, logIndexer,
+      logService, attachmentRepository, eventPublisher, messageBus, new SyncTaskExecutor(), 2, 60,
+      10, 3, 300);
+
+  private final ResultSet claimed = mock(ResultSet.class);
+
+  @BeforeEach
+  @SuppressWarnings("unchecked")
+  void setUp() throws Exception {
+    when(claimed.getLong("launch_id")).thenReturn(1L);
+    when(claimed.getLong("project_id")).thenReturn(10L);
+    when(claimed.getLong("elements")).thenReturn(5L);
+    when(claimed.getString("launch_name")).thenReturn("launch #1");
+    when(claimed.getObject("user_id")).thenReturn(7L);
+    when(claimed.getString("user_login")).thenReturn("user");
+    doAnswer(invocation -> List.of(
+        ((RowMapper<?>) invocation.getArgument(2)).mapRow(claimed, 0))).doAnswer(
+        invocation -> List.of()).when(jdbcTemplate).query(sql("FOR UPDATE SKIP LOCKED"),
+        any(SqlParameterSource.class), any(RowMapper.class));
+    when(jdbcTemplate.queryForList(sql("DISTINCT nlevel(path)"), any(SqlParameterSource.class),
+        eq(Integer.class))).thenReturn(List.of(3));
+    when(jdbcTemplate.queryForList(sql("nlevel(path) = :level"), any(SqlParameterSource.class),
+        eq(Long.class))).thenReturn(List.of(3L, 2L));
+    when(jdbcTemplate.queryForList(sql("retry_of"), any(SqlParameterSource.class),
+        eq(Long.class))).thenReturn(List.of(4L));
+  }
+
+  @Test
+  void launchIsDeletedInChunks() {
+    when(jdbcTemplate.update(sql("items_deleted = items_deleted"),
+        any(SqlParameterSource.class))).thenReturn(1);
+
+    launchDeletionService.deleteQueued();
+
+    verify(logIndexer).indexLaunchesRemove(10L, List.of(1L));
+    verify(launchContentRemover).remove(argThat(launch -> launch.getId().equals(1L)));
+    verify(attachmentRepository).moveForDeletionByItems(List.of(3L, 2L, 4L));
+    ArgumentCaptor<SqlParameterSource> params = ArgumentCaptor.forClass(SqlParameterSource.class);
+    verify(jdbcTemplate).update(sql("DELETE FROM test_item"), params.capture());
+    assertEquals(List.of(3L, 2L, 4L), params.getValue().getValue("itemIds"));
+    verify(jdbcTemplate).update(sql("DELETE FROM launch WHERE"), any(SqlParameterSource.class));
+    verify(attachmentRepository).moveForDeletionByLaunchId(1L);
+    verify(jdbcTemplate).update(sql("SET state = :state"),
+        argThat((SqlParameterSource finish) -> "DONE".equals(finish.getValue("state"))));
+    verify(eventPublisher).publishEvent(any(ElementsDeletedEvent.class));
+    verify(messageBus).publishActivity(argThat(event -> event instanceof LaunchDeletedEvent
+        && ((LaunchDeletedEvent) event).getUserId().equals(7L)));
+  }
+
+  @Test
+  void itemsAreDeletedLevelByLevel() {
+    when(jdbcTemplate.update(sql("items_deleted = items_deleted"),
+        any(SqlParameterSource.class))).thenReturn(1);
+    when(jdbcTemplate.queryForList(sql("DISTINCT nlevel(path)"), any(SqlParameterSource.class),
+        eq(Integer.class))).thenReturn(List.of(3, 2, 1));
+
+    launchDeletionService.deleteQueued();
+
+    InOrder order = inOrder(jdbcTemplate);
+    for (int level : List.of(3, 2, 1)) {
+      order.verify(jdbcTemplate).queryForList(sql("nlevel(path) = :level"),
+          argThat((SqlParameterSource params) -> params.getValue("level").equals(level)),
+          eq(Long.class));
+    }
+  }
+
+  @Test
+  void deletionIsStoppedWhenLeaseIsLost() {
+    launchDeletionService.deleteQueued();
+
+    verify(jdbcTemplate, never()).update(sql("DELETE FROM launch WHERE"),
+        any(SqlParameterSource.class));
+    verify(jdbcTemplate, never()).update(sql("SET state = :state"),
+        any(SqlParameterSource.class));
+    verify(eventPublisher, never()).publishEvent(any());
+    verify(messageBus, never()).publishActivity(any());
+  }
+
+  @Test
+  void failedDeletionIsCountedAsAttempt() {
+    doAnswer(invocation -> {
+      throw new IllegalStateException("failed");
+    }).when(logService).deleteLogMessageByLaunch(10L, 1L);
+
+    launchDeletionService.deleteQueued();
+
+    verify(jdbcTemplate).update(sql("attempts = attempts + :failed"),
+        argThat((SqlParameterSource finish) -> "FAILED".equals(finish.getValue("state"))
+            && Integer.valueOf(1).equals(finish.getValue("failed"))));
+    verify(messageBus, never()).publishActivity(any());
+  }
+
+  @Test
+  void stoppedDeletionIsReleased() {
+    doAnswer(invocation -> {
+      launchDeletionService.stop();
+      return null;
+    }).when(logService).deleteLogMessageByLaunch(10L, 1L);
+
+    launchDeletionService.deleteQueued();
+
+    verify(jdbcTemplate, never()).update(sql("DELETE FROM test_item"),
+        any(SqlParameterSource.class));
+    verify(jdbcTemplate).update(sql("SET state = 'QUEUED', owner = NULL"),
+        any(SqlParameterSource.class));
+    verify(jdbcTemplate, never()).update(sql("SET state = :state"),
+        any(SqlParameterSource.class));
+  }
+
+  @Test
+  void launchOfDeletedProjectHasNoActivity() throws Exception {
+    when(claimed.getObject("user_id")).thenReturn(null);
+    when(jdbcTemplate.update(sql("items_deleted = items_deleted"),
+        any(SqlParameterSource.class))).thenReturn(1);
+
+    launchDeletionService.deleteQueued();
+
+    verify(eventPublisher).publishEvent(any(ElementsDeletedEvent.class));
+    verify(messageBus, never()).publishActivity(any());
+  }
+
+  @Test
+  void deletingLaunchCanNotBeChanged() {
+    when(jdbcTemplate.queryForList(sql("launch_id IN (:launchIds)"),
+        any(SqlParameterSource.class), eq(Long.class))).thenReturn(List.of(1L));
+
+    ReportPortalException exception = assertThrows(ReportPortalException.class,
+        () -> launchDeletionService.verifyNotDeleting(List.of(1L, 2L)));
+    assertEquals("Forbidden operation. Launches '[1]' are being deleted", exception.getMessage());
+  }
+}
@@ -23,7 +23,9 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.eq;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -43,10 +45,12 @@ import com.epam.ta.reportportal.entity.launch.Launch;
 import com.epam.ta.reportportal.entity.project.Project;
 import com.epam.ta.reportportal.entity.project.ProjectRole;
 import com.epam.ta.reportportal.entity.user.UserRole;
+import com.epam.reportportal.rules.exception.ErrorType;
 import com.epam.reportportal.rules.exception.ReportPortalException;
 import com.epam.ta.reportportal.model.launch.UpdateLaunchRQ;
 import com.epam.ta.reportportal.model.launch.cluster.CreateClustersRQ;
 import com.epam.ta.reportportal.ws.reporting.Mode;
+import java.util.List;
 import java.util.Map;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -79,6 +83,9 @@ class UpdateLaunchHandlerImplTest {
   @Mock
   private UniqueErrorAnalysisStarter starter;
 
+  @Mock
+  private LaunchDeletionService launchDeletionService;
+
   @InjectMocks
   private UpdateLaunchHandlerImpl handler;
 
@@ -117,6 +124,27 @@ class UpdateLaunchHandlerImplTest {
     assertEquals("You do not have enough permissions.", exception.getMessage());
   }
 
+  @Test
+  void updateDeletingLaunch() {
+    final ReportPortalUser rpUser =
+        getRpUser("test", UserRole.USER, ProjectRole.PROJECT_MANAGER, 1L);
+    when(getProjectHandler.get(any(ReportPortalUser.ProjectDetails.class))).thenReturn(
+        new Project());
+    when(launchRepository.findById(1L)).thenReturn(
+        getLaunch(StatusEnum.PASSED, LaunchModeEnum.DEFAULT));
+    doThrow(new ReportPortalException(ErrorType.FORBIDDEN_OPERATION,
+        "Launches '[1]' are being deleted")).when(launchDeletionService)
+        .verifyNotDeleting(List.of(1L));
+
+    final ReportPortalException exception = assertThrows(ReportPortalException.class,
+        () -> handler.updateLaunch(1L, extractProjectDetails(rpUser, "test_project"), rpUser,
+            new UpdateLaunchRQ()
+        )
+    );
+    assertEquals("Forbidden operation. Launches '[1]' are being deleted", exception.getMessage());
+    verify(launchRepository, never()).save(any());
+  }
+
   @Test
   void createClustersLaunchInProgress() {
 
@@ -34,6 +34,7 @@ import com.epam.ta.reportportal.core.item.identity.UniqueIdGenerator;
 import com.epam.ta.reportportal.core.item.impl.rerun.RerunSearcher;
 import com.epam.ta.reportportal.core.item.impl.retry.RetryHandler;
 import com.epam.ta.reportportal.core.item.validator.parent.ParentItemValidator;
+import com.epam.ta.reportportal.core.launch.impl.LaunchDeletionService;
 import com.epam.ta.reportportal.dao.LaunchRepository;
 import com.epam.ta.reportportal.dao.TestItemRepository;
 import com.epam.ta.reportportal.entity.enums.StatusEnum;
@@ -91,6 +92,9 @@ class RerunHandlerImplTest {
   @Mock
   private RetryHandler retryHandler;
 
+  @Mock
+  private LaunchDeletionService launchDeletionService;
+
   @InjectMocks
   private RerunHandlerImpl rerunHandler;
 
@@ -0,0 +1,130 @@
+/*
+ * Copyright 2024 EPAM Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.ta.reportportal.core.log;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.epam.ta.reportportal.commons.querygen.Queryable;
+import com.epam.ta.reportportal.dao.LaunchRepository;
+import com.epam.ta.reportportal.dao.LogRepository;
+import com.epam.ta.reportportal.dao.TestItemRepository;
+import com.epam.ta.reportportal.dao.custom.ElasticSearchClient;
+import com.epam.ta.reportportal.entity.log.Log;
+import com.epam.ta.reportportal.entity.log.LogMessage;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.core.AmqpTemplate;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+
+/**
+ * Compares load time of a log page with a search engine request per log and with the messages
+ * loaded by {@link LogMessageHydrator}, against a search engine responding in 2 milliseconds. Run
+ * with {@code RP_BENCHMARK=true}.
+ */
+@EnabledIfEnvironmentVariable(named = "RP_BENCHMARK", matches = "true")
+class ElasticLogServiceBenchmarkTest {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(
+      ElasticLogServiceBenchmarkTest.class);
+
+  private static final int PAGE_SIZE = 300;
+  private static final long LATENCY_MILLIS = 2;
+  private static final int ITERATIONS = 10;
+
+  private final ElasticSearchClient elasticSearchClient = new SlowElasticSearchClient();
+
+  @Test
+  void logPageLoadTime() {
+    PageRequest pageable = PageRequest.of(0, PAGE_SIZE);
+    List<Log> logs = LongStream.rangeClosed(1, PAGE_SIZE).mapToObj(id -> {
+      Log log = new Log();
+      log.setId(id);
+      log.setProjectId(1L);
+      return log;
+    }).collect(Collectors.toList());
+    LogRepository logRepository = mock(LogRepository.class);
+    when(logRepository.findByFilter(any(Queryable.class), any(PageRequest.class))).thenReturn(
+        new PageImpl<>(logs, pageable, PAGE_SIZE));
+    ElasticLogService elasticLogService = new ElasticLogService(mock(AmqpTemplate.class),
+        elasticSearchClient, logRepository, mock(LaunchRepository.class),
+        mock(TestItemRepository.class),
+        new LogMessageHydrator(elasticSearchClient, new SimpleMeterRegistry(), 0, 60));
+    Queryable filter = mock(Queryable.class);
+
+    long perLog = measure(() -> logs.forEach(
+        log -> elasticSearchClient.getLogMessageByProjectIdAndId(log.getProjectId(),
+            log.getId())));
+    long batched = measure(() -> elasticLogService.findByFilter(filter, pageable));
+
+    LOGGER.info("Page of {} logs: {} ms with request per log, {} ms with batched requests",
+        PAGE_SIZE, perLog, batched);
+  }
+
+  private static long measure(Runnable pageLoad) {
+    pageLoad.run();
+    long start = System.nanoTime();
+    for (int i = 0; i < ITERATIONS; i++) {
+      pageLoad.run();
+    }
+    return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) / ITERATIONS;
+  }
+
+  private static class SlowElasticSearchClient extends ElasticSearchClient {
+
+    SlowElasticSearchClient() {
+      super("http://localhost:9200", "", "");
+    }
+
+    @Override
+    public LogMessage getLogMessageByProjectIdAndId(Long projectId, Long id) {
+      respond();
+      return logMessage(projectId, id);
+    }
+
+    @Override
+    public Map<Long, LogMessage> getLogMessagesByProjectIdAndIds(Long projectId, List<Long> ids) {
+      respond();
+      return ids.stream().collect(Collectors.toMap(Function.identity(),
+          id -> logMessage(projectId, id)));
+    }
+
+    private static void respond() {
+      try {
+        Thread.sleep(LATENCY_MILLIS);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+    }
+
+    private static LogMessage logMessage(Long projectId, Long id) {
+      return new LogMessage(id, Instant.now(), "message", 1L, 1L, projectId);
+    }
+  }
+}
@@ -2,15 +2,24 @@ package com.epam.ta.reportportal.core.log;
 
 import static com.epam.ta.reportportal.core.configs.rabbit.BackgroundProcessingConfiguration.LOG_MESSAGE_SAVING_ROUTING_KEY;
 import static com.epam.ta.reportportal.core.configs.rabbit.BackgroundProcessingConfiguration.PROCESSING_EXCHANGE_NAME;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 
+import com.epam.ta.reportportal.commons.querygen.Queryable;
+import com.epam.ta.reportportal.dao.LogRepository;
 import com.epam.ta.reportportal.entity.item.TestItem;
 import com.epam.ta.reportportal.entity.launch.Launch;
+import com.epam.ta.reportportal.entity.log.Log;
 import com.epam.ta.reportportal.entity.log.LogFull;
 import com.epam.ta.reportportal.entity.log.LogMessage;
 import java.util.List;
+import java.util.Map;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -18,6 +27,10 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.amqp.core.AmqpTemplate;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.util.ReflectionTestUtils;
 
 @ExtendWith(MockitoExtension.class)
 class ElasticLogServiceTest {
@@ -25,6 +38,12 @@ class ElasticLogServiceTest {
   @Mock
   private AmqpTemplate amqpTemplate;
 
+  @Mock
+  private LogRepository logRepository;
+
+  @Mock
+  private LogMessageHydrator logMessageHydrator;
+
   @InjectMocks
   private ElasticLogService elasticLogService;
 
@@ -59,4 +78,39 @@ class ElasticLogServiceTest {
     verify(amqpTemplate, times(1)).convertAndSend(eq(PROCESSING_EXCHANGE_NAME),
         eq(LOG_MESSAGE_SAVING_ROUTING_KEY), eq(logMessage));
   }
-}
\ No newline at end of file
+
+  @Test
+  void saveLogMessageListInBulks() {
+    LogMessageBulkAggregator aggregator = mock(LogMessageBulkAggregator.class);
+    ReflectionTestUtils.setField(elasticLogService, "logMessageBulkAggregator", aggregator);
+
+    elasticLogService.saveLogMessageList(List.of(logFull), logFull.getLaunch().getId());
+
+    verify(aggregator).add(logMessage);
+    verify(amqpTemplate, never()).convertAndSend(any(), any(), any(Object.class));
+  }
+
+  @Test
+  void findByFilterLoadsMessagesOfPageAtOnce() {
+    Queryable filter = mock(Queryable.class);
+    PageRequest pageable = PageRequest.of(0, 2);
+    when(logRepository.findByFilter(filter, pageable)).thenReturn(
+        new PageImpl<>(List.of(log(1L, 1L), log(2L, 1L)), pageable, 2));
+    when(logMessageHydrator.getMessages(Map.of(1L, List.of(1L, 2L)))).thenReturn(
+        Map.of(1L, "message from search engine"));
+
+    Page<LogFull> page = elasticLogService.findByFilter(filter, pageable);
+
+    assertEquals("message from search engine", page.getContent().get(0).getLogMessage());
+    assertEquals("message 2", page.getContent().get(1).getLogMessage());
+    verify(logMessageHydrator, times(1)).getMessages(any());
+  }
+
+  private static Log log(Long id, Long projectId) {
+    Log log = new Log();
+    log.setId(id);
+    log.setProjectId(projectId);
+    log.setLogMessage("message " + id);
+    return log;
+  }
+}
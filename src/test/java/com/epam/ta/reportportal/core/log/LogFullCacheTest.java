@@ -0,0 +1,180 @@
+/*
+ * Copyright 2024 EPAM Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.epam.ta.reportportal.core.log;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+
+import com.epam.reportportal.events.ElementsDeletedEvent;
+import com.epam.ta.reportportal.core.log.LogFullCache.CachedLog;
+import com.epam.ta.reportportal.entity.item.TestItem;
+import com.epam.ta.reportportal.entity.log.LogFull;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import org.junit.jupiter.api.Test;
+
+class LogFullCacheTest {
+
+  private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+  private final LogFullCache cache = new LogFullCache(meterRegistry, 1 << 20, 1 << 20, 60);
+
+  @Test
+  @SuppressWarnings("unchecked")
+  void logIsLoadedOnce() {
+    Function<Long, Optional<LogFull>> loader = mock(Function.class);
+    LogFull log = log(1L, null);
+    when(loader.apply(1L)).thenReturn(Optional.of(log));
+
+    Optional<CachedLog> loaded = cache.getLog(1L, loader);
+    Optional<CachedLog> cached = cache.getLog(1L, loader);
+
+    assertSame(loaded.orElseThrow(), cached.orElseThrow());
+    assertEquals("message 1", cached.get().getResource().getMessage());
+    verify(loader).apply(1L);
+    assertEquals(0.5, hitRatio("logs"));
+  }
+
+  @Test
+  @SuppressWarnings("unchecked")
+  void onlyMissingLogsAreLoaded() {
+    Function<Set<Long>, List<LogFull>> loader = mock(Function.class);
+    when(loader.apply(Set.of(1L))).thenReturn(List.of(log(1L, null)));
+    when(loader.apply(Set.of(2L))).thenReturn(List.of(log(2L, null)));
+    cache.getLogs(List.of(1L), loader);
+
+    Map<Long, CachedLog> logs = cache.getLogs(List.of(1L, 2L), loader);
+
+    assertEquals(Set.of(1L, 2L), logs.keySet());
+    verify(loader).apply(Set.of(1L));
+    verify(loader).apply(Set.of(2L));
+    verifyNoMoreInteractions(loader);
+  }
+
+  @Test
+  @SuppressWarnings("unchecked")
+  void latestLogsOfAncestorsAreEvictedWithLog() {
+    TestItem item = new TestItem(3L);
+    item.setPath("1.2.3");
+    LogFull log = log(10L, item);
+    Supplier<List<LogFull>> parentLoader = mock(Supplier.class);
+    Supplier<List<LogFull>> siblingLoader = mock(Supplier.class);
+    when(parentLoader.get()).thenReturn(List.of(log));
+    when(siblingLoader.get()).thenReturn(List.of());
+    cache.getLatestLogs(2L, 40000, parentLoader);
+    cache.getLatestLogs(4L, 40000, siblingLoader);
+
+    cache.evict(log);
+    cache.getLatestLogs(2L, 40000, parentLoader);
+    cache.getLatestLogs(4L, 40000, siblingLoader);
+
+    verify(parentLoader, times(2)).get();
+    verify(siblingLoader).get();
+  }
+
+  @Test
+  @SuppressWarnings("unchecked")
+  void latestLogsAreCachedByLevel() {
+    Supplier<List<LogFull>> errorLoader = mock(Supplier.class);
+    Supplier<List<LogFull>> infoLoader = mock(Supplier.class);
+    when(errorLoader.get()).thenReturn(List.of(log(1L, null)));
+    when(infoLoader.get()).thenReturn(List.of(log(1L, null), log(2L, null)));
+
+    cache.getLatestLogs(5L, 40000, errorLoader);
+    cache.getLatestLogs(5L, 20000, infoLoader);
+
+    assertEquals(1, cache.getLatestLogs(5L, 40000, errorLoader).size());
+    assertEquals(2, cache.getLatestLogs(5L, 20000, infoLoader).size());
+    verify(errorLoader).get();
+    verify(infoLoader).get();
+  }
+
+  @Test
+  @SuppressWarnings("unchecked")
+  void everythingIsEvictedOnElementsDeletion() {
+    Function<Long, Optional<LogFull>> loader = mock(Function.class);
+    when(loader.apply(1L)).thenReturn(Optional.of(log(1L, null)));
+    cache.getLog(1L, loader);
+
+    cache.onElementsDeleted(new ElementsDeletedEvent(this, 1L, 10L));
+    cache.getLog(1L, loader);
+
+    verify(loader, times(2)).apply(1L);
+  }
+
+  @Test
+  void evictionsAreCollectedForOtherInstances() {
+    TestItem item = new TestItem(3L);
+    item.setPath("1.3");
+
+    cache.evict(log(10L, item));
+    LogCacheEviction eviction = cache.drainEvictions().orElseThrow();
+
+    assertEquals(Set.of(10L), eviction.getLogIds());
+    assertEquals(Set.of(1L, 3L), eviction.getItemIds());
+    assertFalse(eviction.isAll());
+    assertTrue(cache.drainEvictions().isEmpty());
+
+    cache.onElementsDeleted(new ElementsDeletedEvent(this, 1L, 10L));
+    assertTrue(cache.drainEvictions().orElseThrow().isAll());
+  }
+
+  @Test
+  @SuppressWarnings("unchecked")
+  void evictionOfOtherInstanceIsApplied() {
+    Function<Long, Optional<LogFull>> loader = mock(Function.class);
+    when(loader.apply(1L)).thenReturn(Optional.of(log(1L, null)));
+    Supplier<List<LogFull>> latestLoader = mock(Supplier.class);
+    when(latestLoader.get()).thenReturn(List.of());
+    cache.getLog(1L, loader);
+    cache.getLatestLogs(3L, 40000, latestLoader);
+
+    cache.apply(new LogCacheEviction(Set.of(1L), Set.of(3L)));
+    cache.getLog(1L, loader);
+    cache.getLatestLogs(3L, 40000, latestLoader);
+
+    verify(loader, times(2)).apply(1L);
+    verify(latestLoader, times(2)).get();
+    assertTrue(cache.drainEvictions().isEmpty());
+  }
+
+  private double hitRatio(String cacheName) {
+    return meterRegistry.get(LogFullCache.HIT_RATIO_METRIC).tag(LogFullCache.CACHE_TAG, cacheName)
+        .gauge().value();
+  }
+
+  private static LogFull log(Long id, TestItem item) {
+    LogFull log = new LogFull();
+    log.setId(id);
+    log.setTestItem(item);
+    log.setLogMessage("message " + id);
+    return log;
+  }
+}
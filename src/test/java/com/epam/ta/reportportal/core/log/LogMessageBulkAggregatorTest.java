@@ -0,0 +1,116 @@
+/*
+ * Copyright 2024 EPAM Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.ta.reportportal.core.log;
+
+import static com.epam.ta.reportportal.core.configs.rabbit.BackgroundProcessingConfiguration.LOG_MESSAGE_BULK_SAVING_ROUTING_KEY;
+import static com.epam.ta.reportportal.core.configs.rabbit.BackgroundProcessingConfiguration.PROCESSING_EXCHANGE_NAME;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import com.epam.ta.reportportal.entity.log.LogMessage;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Instant;
+import java.util.List;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.amqp.AmqpConnectException;
+import org.springframework.amqp.core.AmqpTemplate;
+
+class LogMessageBulkAggregatorTest {
+
+  private final AmqpTemplate amqpTemplate = mock(AmqpTemplate.class);
+
+  private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+  private final LogMessageBulkAggregator aggregator =
+      new LogMessageBulkAggregator(amqpTemplate, meterRegistry, 3, 1024);
+
+  @Test
+  void bulkIsPublishedWhenFull() {
+    aggregator.add(logMessage(1L, 1L));
+    aggregator.add(logMessage(2L, 1L));
+    aggregator.add(logMessage(3L, 2L));
+    verify(amqpTemplate, never()).convertAndSend(any(), any(), any(Object.class));
+
+    aggregator.add(logMessage(4L, 1L));
+
+    assertEquals(List.of(1L, 2L, 4L), publishedIds(1).get(0));
+    assertEquals(1, meterRegistry.get(LogMessageBulkAggregator.BUFFERED_METRIC).gauge().value());
+  }
+
+  @Test
+  void bulkIsPublishedWhenSizeInBytesIsReached() {
+    LogMessage large = logMessage(1L, 1L);
+    large.setLogMessage("x".repeat(1024));
+
+    aggregator.add(large);
+
+    assertEquals(List.of(1L), publishedIds(1).get(0));
+  }
+
+  @Test
+  void collectedMessagesArePublishedOnFlush() {
+    aggregator.add(logMessage(1L, 1L));
+    aggregator.add(logMessage(2L, 2L));
+
+    aggregator.flush();
+
+    List<List<Long>> published = publishedIds(2);
+    assertEquals(2, published.size());
+    assertEquals(2,
+        meterRegistry.get(LogMessageBulkAggregator.SIZE_METRIC).summary().count());
+  }
+
+  @Test
+  void messagesFailedToBePublishedAreKeptForNextFlush() {
+    doThrow(new AmqpConnectException(new RuntimeException("down"))).doNothing()
+        .when(amqpTemplate).convertAndSend(any(), any(), any(Object.class));
+    aggregator.add(logMessage(1L, 1L));
+    aggregator.add(logMessage(2L, 1L));
+
+    aggregator.flush();
+    aggregator.add(logMessage(3L, 1L));
+    aggregator.add(logMessage(4L, 1L));
+    aggregator.shutdown();
+
+    List<List<Long>> published = publishedIds(3);
+    assertEquals(List.of(1L, 2L, 3L), published.get(1));
+    assertEquals(List.of(4L), published.get(2));
+    assertEquals(0, meterRegistry.get(LogMessageBulkAggregator.BUFFERED_METRIC).gauge().value());
+  }
+
+  private List<List<Long>> publishedIds(int times) {
+    ArgumentCaptor<LogMessageBulk> captor = ArgumentCaptor.forClass(LogMessageBulk.class);
+    verify(amqpTemplate, times(times)).convertAndSend(eq(PROCESSING_EXCHANGE_NAME),
+        eq(LOG_MESSAGE_BULK_SAVING_ROUTING_KEY), captor.capture());
+    return captor.getAllValues().stream()
+        .map(bulk -> bulk.toLogMessages().stream().map(LogMessage::getId)
+            .collect(Collectors.toList()))
+        .collect(Collectors.toList());
+  }
+
+  private static LogMessage logMessage(Long id, Long projectId) {
+    return new LogMessage(id, Instant.now(), "message", 1L, 1L, projectId);
+  }
+}
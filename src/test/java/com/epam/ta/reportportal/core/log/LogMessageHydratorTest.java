@@ -0,0 +1,87 @@
+/*
+ * Copyright 2024 EPAM Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.ta.reportportal.core.log;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+
+import com.epam.ta.reportportal.dao.custom.ElasticSearchClient;
+import com.epam.ta.reportportal.entity.log.LogMessage;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+class LogMessageHydratorTest {
+
+  private final ElasticSearchClient elasticSearchClient = mock(ElasticSearchClient.class);
+
+  private final LogMessageHydrator hydrator =
+      new LogMessageHydrator(elasticSearchClient, new SimpleMeterRegistry(), 100, 60);
+
+  @Test
+  void messagesAreLoadedWithSingleRequestPerProject() {
+    when(elasticSearchClient.getLogMessagesByProjectIdAndIds(eq(1L), anyList())).thenReturn(
+        Map.of(1L, logMessage(1L, 1L), 2L, logMessage(2L, 1L)));
+    when(elasticSearchClient.getLogMessagesByProjectIdAndIds(eq(2L), anyList())).thenReturn(
+        Map.of(3L, logMessage(3L, 2L)));
+
+    Map<Long, String> messages = hydrator.getMessages(Map.of(1L, List.of(1L, 2L), 2L, List.of(3L)));
+
+    assertEquals(Map.of(1L, "message 1", 2L, "message 2", 3L, "message 3"), messages);
+    verify(elasticSearchClient).getLogMessagesByProjectIdAndIds(1L, List.of(1L, 2L));
+    verify(elasticSearchClient).getLogMessagesByProjectIdAndIds(2L, List.of(3L));
+  }
+
+  @Test
+  void onlyMissingMessagesAreRequested() {
+    when(elasticSearchClient.getLogMessagesByProjectIdAndIds(eq(1L), anyList())).thenReturn(
+        Map.of(1L, logMessage(1L, 1L)));
+    hydrator.getMessages(1L, List.of(1L, 2L));
+
+    Map<Long, String> messages = hydrator.getMessages(1L, List.of(1L, 2L));
+
+    assertEquals(Map.of(1L, "message 1"), messages);
+    verify(elasticSearchClient).getLogMessagesByProjectIdAndIds(1L, List.of(1L, 2L));
+    verify(elasticSearchClient).getLogMessagesByProjectIdAndIds(1L, List.of(2L));
+    verifyNoMoreInteractions(elasticSearchClient);
+  }
+
+  @Test
+  void evictedMessageIsRequestedAgain() {
+    when(elasticSearchClient.getLogMessagesByProjectIdAndIds(eq(1L), anyList())).thenReturn(
+        Map.of(1L, logMessage(1L, 1L)));
+    hydrator.getMessages(1L, List.of(1L));
+
+    hydrator.evict(1L);
+    hydrator.getMessages(1L, List.of(1L));
+
+    verify(elasticSearchClient, times(2))
+        .getLogMessagesByProjectIdAndIds(1L, List.of(1L));
+  }
+
+  private static LogMessage logMessage(Long id, Long projectId) {
+    return new LogMessage(id, Instant.now(), "message " + id, 1L, 1L, projectId);
+  }
+}
@@ -0,0 +1,117 @@
+/*
+ * Copyright 2024 EPAM Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.ta.reportportal.core.log.impl;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.epam.ta.reportportal.core.configs.VirtualThreadTaskExecutor;
+import com.epam.ta.reportportal.exception.AdmissionRejectedException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.concurrent.CountDownLatch;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+class AttachmentSaveAdmissionTest {
+
+  private static final Long PROJECT_ID = 1L;
+
+  private final CountDownLatch blocker = new CountDownLatch(1);
+
+  private ThreadPoolTaskExecutor executor;
+
+  private AttachmentSaveAdmission admission;
+
+  @BeforeEach
+  void setUp() {
+    executor = new ThreadPoolTaskExecutor();
+    executor.setCorePoolSize(1);
+    executor.setMaxPoolSize(1);
+    executor.setQueueCapacity(2);
+    executor.initialize();
+    admission = new AttachmentSaveAdmission(executor, new SimpleMeterRegistry(), 2, 0.5, 7);
+  }
+
+  @AfterEach
+  void tearDown() {
+    blocker.countDown();
+    executor.shutdown();
+  }
+
+  @Test
+  void projectQuotaIsReleasedWhenAttachmentIsSaved() {
+    admission.acquire(PROJECT_ID);
+    admission.acquire(PROJECT_ID);
+
+    AdmissionRejectedException exception = assertThrows(AdmissionRejectedException.class,
+        () -> admission.acquire(PROJECT_ID));
+    assertEquals(HttpStatus.TOO_MANY_REQUESTS, exception.getStatus());
+    assertEquals(7, exception.getRetryAfterSeconds());
+    assertThrows(AdmissionRejectedException.class, () -> admission.check(PROJECT_ID));
+    assertDoesNotThrow(() -> admission.acquire(2L));
+
+    admission.release(PROJECT_ID);
+    assertDoesNotThrow(() -> admission.check(PROJECT_ID));
+    assertDoesNotThrow(() -> admission.acquire(PROJECT_ID));
+  }
+
+  @Test
+  void requestIsRejectedWhenExecutorIsSaturated() {
+    assertDoesNotThrow(() -> admission.check(PROJECT_ID));
+
+    for (int i = 0; i < 2; i++) {
+      executor.execute(this::block);
+    }
+    while (executor.getActiveCount() < 1) {
+      Thread.onSpinWait();
+    }
+
+    AdmissionRejectedException exception = assertThrows(AdmissionRejectedException.class,
+        () -> admission.check(PROJECT_ID));
+    assertEquals(HttpStatus.SERVICE_UNAVAILABLE, exception.getStatus());
+  }
+
+  @Test
+  void requestIsRejectedWhenVirtualThreadExecutorIsSaturated() {
+    VirtualThreadTaskExecutor virtualThreads = new VirtualThreadTaskExecutor("test-vt-exec", 1, 2);
+    AttachmentSaveAdmission virtualThreadsAdmission = new AttachmentSaveAdmission(virtualThreads,
+        new SimpleMeterRegistry(), 2, 0.5, 7);
+
+    virtualThreads.execute(this::block);
+    assertDoesNotThrow(() -> virtualThreadsAdmission.check(PROJECT_ID));
+    virtualThreads.execute(this::block);
+    while (virtualThreads.getActiveCount() < 1) {
+      Thread.onSpinWait();
+    }
+
+    AdmissionRejectedException exception = assertThrows(AdmissionRejectedException.class,
+        () -> virtualThreadsAdmission.check(PROJECT_ID));
+    assertEquals(HttpStatus.SERVICE_UNAVAILABLE, exception.getStatus());
+  }
+
+  private void block() {
+    try {
+      blocker.await();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+}
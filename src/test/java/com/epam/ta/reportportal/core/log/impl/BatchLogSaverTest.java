@@ -0,0 +1,121 @@
+/*
+ * Copyright 2024 EPAM Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.ta.reportportal.core.log.impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.epam.reportportal.rules.exception.ReportPortalException;
+import com.epam.ta.reportportal.core.item.TestItemService;
+import com.epam.ta.reportportal.core.log.LogFullCache;
+import com.epam.ta.reportportal.core.log.LogService;
+import com.epam.ta.reportportal.dao.LaunchRepository;
+import com.epam.ta.reportportal.dao.LogRepository;
+import com.epam.ta.reportportal.dao.TestItemRepository;
+import com.epam.ta.reportportal.entity.item.TestItem;
+import com.epam.ta.reportportal.entity.launch.Launch;
+import com.epam.ta.reportportal.entity.log.LogFull;
+import com.epam.ta.reportportal.ws.reporting.SaveLogRQ;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+class BatchLogSaverTest {
+
+  private static final Long PROJECT_ID = 1L;
+  private static final Long LAUNCH_ID = 2L;
+  private static final String ITEM_UUID = "item-uuid";
+  private static final String LAUNCH_UUID = "launch-uuid";
+
+  private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+  private final TestItemRepository testItemRepository = mock(TestItemRepository.class);
+  private final TestItemService testItemService = mock(TestItemService.class);
+  private final LaunchRepository launchRepository = mock(LaunchRepository.class);
+  private final LogRepository logRepository = mock(LogRepository.class);
+  private final LogService logService = mock(LogService.class);
+  private final LogFullCache logFullCache = mock(LogFullCache.class);
+  private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+  private final BatchLogSaver batchLogSaver = new BatchLogSaver(jdbcTemplate, testItemRepository,
+      testItemService, launchRepository, logRepository, logService, logFullCache, meterRegistry);
+
+  @Test
+  void itemAndLaunchAreResolvedOncePerGroup() {
+    TestItem item = new TestItem(10L);
+    Launch launch = new Launch(LAUNCH_ID);
+    when(testItemRepository.findByUuid(ITEM_UUID)).thenReturn(Optional.of(item));
+    when(testItemService.getEffectiveLaunch(item)).thenReturn(launch);
+    when(launchRepository.findByUuid(LAUNCH_UUID)).thenReturn(Optional.of(launch));
+    when(jdbcTemplate.queryForList(anyString(), eq(Long.class), eq(3))).thenReturn(
+        List.of(100L, 101L, 102L));
+
+    batchLogSaver.saveLogs(PROJECT_ID,
+        List.of(itemLog(), itemLog(), launchLog())
+    );
+
+    verify(testItemRepository, times(1)).findByUuid(ITEM_UUID);
+    verify(testItemService, times(1)).getEffectiveLaunch(item);
+    verify(launchRepository, times(1)).findByUuid(LAUNCH_UUID);
+    verify(jdbcTemplate, times(1)).batchUpdate(anyString(),
+        argThat((BatchPreparedStatementSetter setter) -> setter.getBatchSize() == 3));
+    verify(logService, times(3)).saveLogMessage(argThat(log -> log.getId() != null),
+        eq(LAUNCH_ID));
+    assertEquals(3,
+        meterRegistry.counter(BatchLogSaver.LOGS_SAVED_METRIC, BatchLogSaver.MODE_TAG, "batch")
+            .count()
+    );
+  }
+
+  @Test
+  void missingItemFailsWholeBatch() {
+    when(testItemRepository.findByUuid(ITEM_UUID)).thenReturn(Optional.empty());
+
+    assertThrows(ReportPortalException.class,
+        () -> batchLogSaver.saveLogs(PROJECT_ID, List.of(itemLog()))
+    );
+    verify(jdbcTemplate, never()).batchUpdate(anyString(), any(BatchPreparedStatementSetter.class));
+    verify(logService, never()).saveLogMessage(any(LogFull.class), any());
+  }
+
+  private SaveLogRQ itemLog() {
+    SaveLogRQ rq = launchLog();
+    rq.setItemUuid(ITEM_UUID);
+    return rq;
+  }
+
+  private SaveLogRQ launchLog() {
+    SaveLogRQ rq = new SaveLogRQ();
+    rq.setLaunchUuid(LAUNCH_UUID);
+    rq.setLevel("error");
+    rq.setMessage("message");
+    rq.setLogTime(Instant.now());
+    return rq;
+  }
+}
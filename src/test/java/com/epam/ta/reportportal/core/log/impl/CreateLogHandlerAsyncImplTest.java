@@ -56,6 +56,9 @@ class CreateLogHandlerAsyncImplTest {
   @Mock
   TaskExecutor taskExecutor;
 
+  @Mock
+  AttachmentSaveAdmission attachmentSaveAdmission;
+
   @InjectMocks
   CreateLogHandlerAsyncImpl createLogHandlerAsync;
 
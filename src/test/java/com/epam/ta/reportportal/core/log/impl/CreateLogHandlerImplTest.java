@@ -0,0 +1,156 @@
+/*
+ * Copyright 2024 EPAM Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.epam.ta.reportportal.core.log.impl;
+
+import static com.epam.ta.reportportal.ReportPortalUserUtil.TEST_PROJECT_NAME;
+import static com.epam.ta.reportportal.ReportPortalUserUtil.getRpUser;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import com.epam.ta.reportportal.binary.AttachmentBinaryDataService;
+import com.epam.ta.reportportal.commons.ReportPortalUser;
+import com.epam.ta.reportportal.core.item.TestItemService;
+import com.epam.ta.reportportal.core.log.LogFullCache;
+import com.epam.ta.reportportal.core.log.LogService;
+import com.epam.ta.reportportal.dao.LaunchRepository;
+import com.epam.ta.reportportal.dao.LogRepository;
+import com.epam.ta.reportportal.dao.TestItemRepository;
+import com.epam.ta.reportportal.entity.item.TestItem;
+import com.epam.ta.reportportal.entity.launch.Launch;
+import com.epam.ta.reportportal.entity.log.Log;
+import com.epam.ta.reportportal.entity.project.ProjectRole;
+import com.epam.ta.reportportal.entity.user.UserRole;
+import com.epam.ta.reportportal.ws.reporting.SaveLogRQ;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.RejectedExecutionException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.web.multipart.MultipartFile;
+
+@ExtendWith(MockitoExtension.class)
+class CreateLogHandlerImplTest {
+
+  @Mock
+  private TestItemRepository testItemRepository;
+
+  @Mock
+  private TestItemService testItemService;
+
+  @Mock
+  private LaunchRepository launchRepository;
+
+  @Mock
+  private LogRepository logRepository;
+
+  @Mock
+  private AttachmentBinaryDataService attachmentBinaryDataService;
+
+  @Mock
+  private LogService logService;
+
+  @Mock
+  private LogFullCache logFullCache;
+
+  @Mock
+  private TaskExecutor taskExecutor;
+
+  @Mock
+  private AttachmentSaveAdmission attachmentSaveAdmission;
+
+  @Mock
+  private MultipartFile file;
+
+  @InjectMocks
+  private CreateLogHandlerImpl handler;
+
+  private final ReportPortalUser user =
+      getRpUser("test", UserRole.ADMINISTRATOR, ProjectRole.PROJECT_MANAGER, 1L);
+
+  @Test
+  void logMessageAndAttachmentAreSavedByOneTask() {
+    mockItem();
+    List<Runnable> tasks = new ArrayList<>();
+    doAnswer(invocation -> tasks.add(invocation.getArgument(0)))
+        .when(taskExecutor).execute(any(Runnable.class));
+    when(logRepository.saveAndFlush(any(Log.class))).thenAnswer(invocation -> {
+      Log log = invocation.getArgument(0);
+      log.setId(10L);
+      return log;
+    });
+
+    handler.createLog(request(), file, user.getProjectDetails().get(TEST_PROJECT_NAME));
+
+    assertEquals(1, tasks.size());
+    verifyNoInteractions(logRepository, logService, attachmentBinaryDataService);
+
+    tasks.get(0).run();
+
+    verify(logRepository).saveAndFlush(any(Log.class));
+    verify(logService).saveLogMessage(any(), anyLong());
+    verify(attachmentBinaryDataService).saveFileAndAttachToLog(any(), any());
+    verify(attachmentSaveAdmission).release(1L);
+  }
+
+  @Test
+  void rejectedTaskSavesNothing() {
+    mockItem();
+    doThrow(new RejectedExecutionException()).when(taskExecutor).execute(any(Runnable.class));
+
+    assertThrows(RejectedExecutionException.class,
+        () -> handler.createLog(request(), file, user.getProjectDetails().get(TEST_PROJECT_NAME)));
+
+    verify(logRepository, never()).saveAndFlush(any());
+    verifyNoInteractions(logService, attachmentBinaryDataService);
+    verify(attachmentSaveAdmission).acquire(1L);
+    verify(attachmentSaveAdmission).release(1L);
+  }
+
+  private void mockItem() {
+    TestItem item = new TestItem(2L);
+    Launch launch = new Launch(3L);
+    launch.setProjectId(1L);
+    launch.setUuid("launch");
+    when(testItemRepository.findByUuid("item")).thenReturn(Optional.of(item));
+    when(testItemService.getEffectiveLaunch(item)).thenReturn(launch);
+  }
+
+  private SaveLogRQ request() {
+    SaveLogRQ request = new SaveLogRQ();
+    request.setUuid("log");
+    request.setItemUuid("item");
+    request.setLevel("ERROR");
+    request.setMessage("message");
+    request.setLogTime(Instant.now());
+    return request;
+  }
+}
@@ -29,6 +29,7 @@ import static org.mockito.Mockito.when;
 import com.epam.ta.reportportal.commons.ReportPortalUser;
 import com.epam.ta.reportportal.core.analyzer.auto.LogIndexer;
 import com.epam.ta.reportportal.core.item.TestItemService;
+import com.epam.ta.reportportal.core.log.LogFullCache;
 import com.epam.ta.reportportal.core.log.LogService;
 import com.epam.ta.reportportal.dao.AttachmentRepository;
 import com.epam.ta.reportportal.dao.LogRepository;
@@ -76,6 +77,9 @@ class DeleteLogHandlerTest {
   @Mock
   private LogService logService;
 
+  @Mock
+  private LogFullCache logFullCache;
+
   @InjectMocks
   private DeleteLogHandlerImpl handler;
 
@@ -0,0 +1,132 @@
+/*
+ * Copyright 2024 EPAM Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.ta.reportportal.core.log.impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.epam.ta.reportportal.commons.BinaryDataMetaInfo;
+import com.epam.ta.reportportal.commons.ReportPortalUser;
+import com.epam.ta.reportportal.core.configs.MvcConfig;
+import com.epam.ta.reportportal.entity.attachment.AttachmentMetaInfo;
+import com.epam.ta.reportportal.ws.reporting.BatchElementCreatedRS;
+import com.epam.ta.reportportal.ws.reporting.BatchSaveOperatingRS;
+import com.epam.ta.reportportal.ws.reporting.EntryCreatedAsyncRS;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import javax.validation.Validator;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+class StreamingCreateLogHandlerTest {
+
+  private static final String BOUNDARY = "boundary";
+
+  private final CreateLogHandlerAsyncImpl createLogHandler = mock(CreateLogHandlerAsyncImpl.class);
+  private final AttachmentStreamSaver attachmentStreamSaver = mock(AttachmentStreamSaver.class);
+  private final ReportPortalUser.ProjectDetails projectDetails = mock(
+      ReportPortalUser.ProjectDetails.class);
+
+  private final StreamingCreateLogHandler handler = new StreamingCreateLogHandler(createLogHandler,
+      attachmentStreamSaver, mock(AttachmentSaveAdmission.class), new ObjectMapper(),
+      mock(Validator.class), new MvcConfig.MultipartConfig(), 2, 1000
+  );
+
+  @Test
+  void attachmentsAreMatchedToRequestsAsTheyArrive() throws Exception {
+    when(projectDetails.getProjectId()).thenReturn(1L);
+    when(createLogHandler.createLog(any(), isNull(), eq(projectDetails))).thenReturn(
+        new EntryCreatedAsyncRS("text-log"));
+    BinaryDataMetaInfo metaInfo = mock(BinaryDataMetaInfo.class);
+    when(attachmentStreamSaver.save(any(), any(), any(), any(), any())).thenAnswer(invocation -> {
+      String content = new String(invocation.<InputStream>getArgument(4).readAllBytes(),
+          StandardCharsets.UTF_8);
+      assertEquals("content of " + invocation.getArgument(2), content);
+      return metaInfo;
+    });
+
+    MockHttpServletRequest request = multipartRequest(
+        jsonPart(logRequest(null), logRequest("screen.png"), logRequest("trace.txt")),
+        filePart("file", "trace.txt"), filePart("file", "screen.png")
+    );
+    BatchSaveOperatingRS response = handler.createLogs(request, projectDetails);
+
+    List<BatchElementCreatedRS> responses = response.getResponses();
+    assertEquals(3, responses.size());
+    assertEquals("text-log", responses.get(0).getId());
+    responses.forEach(rs -> assertNull(rs.getMessage()));
+    verify(attachmentStreamSaver).save(any(AttachmentMetaInfo.class), eq("file"),
+        eq("screen.png"), eq("image/png"), any());
+    verify(createLogHandler, times(2)).sendMessage(any(), eq(metaInfo), eq(1L));
+  }
+
+  @Test
+  void missingAttachmentIsReportedInResponse() throws Exception {
+    MockHttpServletRequest request = multipartRequest(filePart("file", "screen.png"),
+        jsonPart(logRequest("screen.png"))
+    );
+    BatchSaveOperatingRS response = handler.createLogs(request, projectDetails);
+
+    assertEquals(1, response.getResponses().size());
+    assertNotNull(response.getResponses().get(0).getMessage());
+    assertTrue(response.getResponses().get(0).getMessage().contains("screen.png"));
+    verify(attachmentStreamSaver, never()).save(any(), any(), any(), any(), any());
+  }
+
+  private static String logRequest(String fileName) {
+    String file = fileName == null ? "" : ", \"file\": {\"name\": \"" + fileName + "\"}";
+    return "{\"launchUuid\": \"launch\", \"itemUuid\": \"item\", \"level\": \"INFO\", "
+        + "\"message\": \"message\"" + file + "}";
+  }
+
+  private static String jsonPart(String... requests) {
+    return "Content-Disposition: form-data; name=\"json_request_part\"\r\n"
+        + "Content-Type: application/json\r\n\r\n[" + String.join(",", requests) + "]";
+  }
+
+  private static String filePart(String name, String fileName) {
+    String contentType = fileName.endsWith(".png") ? "image/png" : "text/plain";
+    return "Content-Disposition: form-data; name=\"" + name + "\"; filename=\"" + fileName
+        + "\"\r\nContent-Type: " + contentType + "\r\n\r\ncontent of " + fileName;
+  }
+
+  private static MockHttpServletRequest multipartRequest(String... parts) {
+    StringBuilder body = new StringBuilder();
+    for (String part : parts) {
+      body.append("--").append(BOUNDARY).append("\r\n").append(part).append("\r\n");
+    }
+    body.append("--").append(BOUNDARY).append("--\r\n");
+
+    MockHttpServletRequest request = new MockHttpServletRequest("POST",
+        "/v2/project/log/stream");
+    request.setContentType("multipart/form-data; boundary=" + BOUNDARY);
+    request.setContent(body.toString().getBytes(StandardCharsets.UTF_8));
+    return request;
+  }
+}
@@ -20,21 +20,18 @@ import static com.epam.ta.reportportal.ReportPortalUserUtil.getRpUser;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.Mockito.any;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
-import com.epam.ta.reportportal.binary.AttachmentBinaryDataService;
 import com.epam.ta.reportportal.commons.ReportPortalUser;
 import com.epam.ta.reportportal.core.analyzer.auto.LogIndexer;
 import com.epam.ta.reportportal.core.analyzer.auto.client.AnalyzerServiceClient;
-import com.epam.ta.reportportal.core.analyzer.auto.impl.AnalyzerStatusCache;
+import com.epam.ta.reportportal.core.analyzer.auto.impl.AnalysisStateRegistry;
 import com.epam.ta.reportportal.core.events.MessageBus;
+import com.epam.ta.reportportal.core.events.activity.ProjectDeletedEvent;
 import com.epam.ta.reportportal.core.events.activity.ProjectIndexEvent;
-import com.epam.ta.reportportal.core.remover.ContentRemover;
-import com.epam.ta.reportportal.dao.AttachmentRepository;
-import com.epam.ta.reportportal.dao.IssueTypeRepository;
-import com.epam.ta.reportportal.dao.LogRepository;
 import com.epam.ta.reportportal.dao.ProjectRepository;
 import com.epam.ta.reportportal.dao.UserRepository;
 import com.epam.ta.reportportal.entity.attribute.Attribute;
@@ -45,10 +42,7 @@ import com.epam.ta.reportportal.entity.user.User;
 import com.epam.ta.reportportal.entity.user.UserRole;
 import com.epam.reportportal.rules.exception.ReportPortalException;
 import com.epam.ta.reportportal.ws.reporting.OperationCompletionRS;
-import com.google.common.cache.Cache;
-import com.google.common.cache.CacheBuilder;
 import com.google.common.collect.Sets;
-import java.util.ArrayList;
 import java.util.Optional;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -75,22 +69,13 @@ class DeleteProjectHandlerImplTest {
 	private AnalyzerServiceClient analyzerServiceClient;
 
 	@Mock
-	private AnalyzerStatusCache analyzerStatusCache;
+	private AnalysisStateRegistry analysisStateRegistry;
 
 	@Mock
 	private MessageBus messageBus;
 
 	@Mock
-	private IssueTypeRepository issueTypeRepository;
-
-	@Mock
-	private ContentRemover<Project> projectContentRemover;
-
-	@Mock
-	private LogRepository logRepository;
-
-	@Mock
-	private AttachmentBinaryDataService attachmentBinaryDataService;
+	private ProjectDeletionService projectDeletionService;
 
 	@InjectMocks
 	private DeleteProjectHandlerImpl handler;
@@ -155,9 +140,7 @@ class DeleteProjectHandlerImplTest {
 		when(analyzerServiceClient.hasClients()).thenReturn(true);
 		when(projectRepository.findByName(projectName)).thenReturn(Optional.of(getProjectWithAnalyzerAttributes(projectId, false)));
 		when(userRepository.findByLogin(userName)).thenReturn(Optional.of(new User()));
-		Cache<Long, Long> cache = CacheBuilder.newBuilder().build();
-		cache.put(2L, projectId);
-		when(analyzerStatusCache.getAnalyzeStatus(AnalyzerStatusCache.AUTO_ANALYZER_KEY)).thenReturn(Optional.of(cache));
+		when(analysisStateRegistry.containsProjectId(AnalysisStateRegistry.AUTO_ANALYZER_KEY, projectId)).thenReturn(true);
 
 		ReportPortalException exception = assertThrows(ReportPortalException.class, () -> handler.deleteProjectIndex(projectName, "user"));
 
@@ -183,8 +166,7 @@ class DeleteProjectHandlerImplTest {
 		project.setName(projectName);
 		when(projectRepository.findByName(projectName)).thenReturn(Optional.of(project));
 		when(userRepository.findByLogin(userName)).thenReturn(Optional.of(new User()));
-		when(analyzerStatusCache.getAnalyzeStatus(AnalyzerStatusCache.AUTO_ANALYZER_KEY)).thenReturn(Optional.of(CacheBuilder.newBuilder()
-				.build()));
+		when(analysisStateRegistry.containsProjectId(AnalysisStateRegistry.AUTO_ANALYZER_KEY, projectId)).thenReturn(false);
 		when(analyzerServiceClient.hasClients()).thenReturn(true);
 
 		OperationCompletionRS response = handler.deleteProjectIndex(projectName, "user");
@@ -205,18 +187,15 @@ class DeleteProjectHandlerImplTest {
     ReportPortalUser user =
         getRpUser("test", UserRole.ADMINISTRATOR, ProjectRole.PROJECT_MANAGER, 1L);
 
-		when(issueTypeRepository.getDefaultIssueTypes()).thenReturn(new ArrayList<>());
 		when(projectRepository.findById(1L)).thenReturn(Optional.of(project));
-		when(logRepository.deleteByProjectId(1L)).thenReturn(10);
 
     OperationCompletionRS response = handler.deleteProject(1L, user);
 
-		verify(projectContentRemover, times(1)).remove(project);
-		verify(logIndexer, times(1)).deleteIndex(projectId);
-		verify(analyzerServiceClient, times(1)).removeSuggest(projectId);
-		verify(projectContentRemover, times(1)).remove(any(Project.class));
+		verify(projectDeletionService, times(1)).schedule(project);
+		verify(logIndexer, never()).deleteIndex(projectId);
+		verify(messageBus, times(1)).publishActivity(any(ProjectDeletedEvent.class));
 
-		assertEquals(response.getResultMessage(), "Project with id = '" + project.getId() + "' has been successfully deleted.");
+		assertEquals(response.getResultMessage(), "Project with id = '" + project.getId() + "' has been scheduled for deletion.");
 
 	}
 
@@ -0,0 +1,185 @@
+/*
+ * Copyright 2024 EPAM Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.epam.ta.reportportal.core.project.impl;
+
+import static com.epam.ta.reportportal.util.SqlMatchers.sql;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.epam.ta.reportportal.binary.DataStoreService;
+import com.epam.ta.reportportal.core.analyzer.auto.LogIndexer;
+import com.epam.ta.reportportal.core.analyzer.auto.client.AnalyzerServiceClient;
+import com.epam.ta.reportportal.core.launch.impl.LaunchDeletionService;
+import com.epam.ta.reportportal.core.remover.ContentRemover;
+import com.epam.ta.reportportal.dao.IssueTypeRepository;
+import com.epam.ta.reportportal.dao.ProjectRepository;
+import com.epam.ta.reportportal.entity.enums.FeatureFlag;
+import com.epam.ta.reportportal.entity.project.Project;
+import com.epam.ta.reportportal.util.FeatureFlagHandler;
+import java.sql.ResultSet;
+import java.util.List;
+import java.util.Optional;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.task.SyncTaskExecutor;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.transaction.PlatformTransactionManager;
+
+class ProjectDeletionServiceTest {
+
+  private static final Long PROJECT_ID = 5L;
+
+  private final NamedParameterJdbcTemplate jdbcTemplate = mock(NamedParameterJdbcTemplate.class);
+  private final LaunchDeletionService launchDeletionService = mock(LaunchDeletionService.class);
+  private final ProjectRepository projectRepository = mock(ProjectRepository.class);
+  private final IssueTypeRepository issueTypeRepository = mock(IssueTypeRepository.class);
+  @SuppressWarnings("unchecked")
+  private final ContentRemover<Project> projectContentRemover = mock(ContentRemover.class);
+  private final LogIndexer logIndexer = mock(LogIndexer.class);
+  private final AnalyzerServiceClient analyzerServiceClient = mock(AnalyzerServiceClient.class);
+  private final DataStoreService dataStoreService = mock(DataStoreService.class);
+  private final FeatureFlagHandler featureFlagHandler = mock(FeatureFlagHandler.class);
+
+  private final ProjectDeletionService projectDeletionService = new ProjectDeletionService(
+      jdbcTemplate, mock(PlatformTransactionManager.class), launchDeletionService,
+      projectRepository, issueTypeRepository, projectContentRemover, logIndexer,
+      analyzerServiceClient, dataStoreService, featureFlagHandler, new SyncTaskExecutor(),
+      new SyncTaskExecutor(), 100, 20, 2, 60);
+
+  @BeforeEach
+  @SuppressWarnings("unchecked")
+  void setUp() throws Exception {
+    ResultSet claimed = mock(ResultSet.class);
+    when(claimed.getLong("project_id")).thenReturn(PROJECT_ID);
+    when(claimed.getString("stage")).thenReturn("LAUNCHES");
+    doAnswer(invocation -> List.of(
+        ((RowMapper<?>) invocation.getArgument(2)).mapRow(claimed, 0))).doAnswer(
+        invocation -> List.of()).when(jdbcTemplate).query(sql("FOR UPDATE SKIP LOCKED"),
+        any(SqlParameterSource.class), any(RowMapper.class));
+    when(jdbcTemplate.update(sql("SET stage = :stage"), any(SqlParameterSource.class)))
+        .thenReturn(1);
+  }
+
+  @Test
+  void projectWaitsForItsLaunches() {
+    when(jdbcTemplate.queryForObject(sql("FROM launch"), any(SqlParameterSource.class),
+        eq(Long.class))).thenReturn(3L);
+
+    projectDeletionService.deleteQueued();
+
+    verify(launchDeletionService).scheduleByProject(PROJECT_ID, 20);
+    verify(jdbcTemplate).update(sql("SET state = :state"), argThat(
+        (SqlParameterSource finish) -> "WAITING".equals(finish.getValue("state"))));
+    verify(jdbcTemplate, never()).update(sql("SET stage = :stage"),
+        any(SqlParameterSource.class));
+    verify(projectRepository, never()).delete(any());
+  }
+
+  @Test
+  void projectIsDeletedStageByStage() throws Exception {
+    when(jdbcTemplate.queryForObject(sql("FROM launch"), any(SqlParameterSource.class),
+        eq(Long.class))).thenReturn(0L);
+    when(featureFlagHandler.isEnabled(FeatureFlag.SINGLE_BUCKET)).thenReturn(true);
+    ResultSet attachment = mock(ResultSet.class);
+    when(attachment.getLong("id")).thenReturn(7L);
+    when(attachment.getString("file_id")).thenReturn("file");
+    when(attachment.getString("thumbnail_id")).thenReturn(null);
+    doAnswer(invocation -> {
+      RowCallbackHandler handler = invocation.getArgument(2);
+      handler.processRow(attachment);
+      return null;
+    }).doAnswer(invocation -> null).when(jdbcTemplate).query(sql("FROM attachment"),
+        any(SqlParameterSource.class), any(RowCallbackHandler.class));
+    Project project = new Project();
+    project.setId(PROJECT_ID);
+    when(projectRepository.findById(PROJECT_ID)).thenReturn(Optional.of(project));
+
+    projectDeletionService.deleteQueued();
+
+    verify(launchDeletionService, never()).scheduleByProject(any(), any(Integer.class));
+    verify(jdbcTemplate).update(sql("DELETE FROM log"), any(SqlParameterSource.class));
+    verify(dataStoreService).deleteAll(List.of("file"), String.valueOf(PROJECT_ID));
+    verify(jdbcTemplate).update(sql("DELETE FROM attachment WHERE id IN (:ids)"),
+        argThat((SqlParameterSource params) -> List.of(7L).equals(params.getValue("ids"))));
+    verify(logIndexer).deleteIndex(PROJECT_ID);
+    verify(analyzerServiceClient).removeSuggest(PROJECT_ID);
+    verify(projectContentRemover).remove(project);
+    verify(projectRepository).delete(project);
+    verify(jdbcTemplate).update(sql("SET state = :state"), argThat(
+        (SqlParameterSource finish) -> "DONE".equals(finish.getValue("state"))));
+  }
+
+  @Test
+  void projectDeletionFailsOnFailedLaunch() {
+    when(jdbcTemplate.queryForObject(sql("FROM launch"), any(SqlParameterSource.class),
+        eq(Long.class))).thenReturn(3L);
+    when(launchDeletionService.getFailure(PROJECT_ID)).thenReturn(
+        Optional.of("Deletion of the launch 3 has failed: error"));
+
+    projectDeletionService.deleteQueued();
+
+    verify(launchDeletionService, never()).scheduleByProject(any(), any(Integer.class));
+    verify(jdbcTemplate).update(sql("SET state = :state"), argThat(
+        (SqlParameterSource finish) -> "FAILED".equals(finish.getValue("state"))
+            && "Deletion of the launch 3 has failed: error".equals(finish.getValue("error"))));
+  }
+
+  @Test
+  void scheduledProjectIsLocked() {
+    Project project = new Project();
+    project.setId(PROJECT_ID);
+    project.setName("Deleted_Project");
+
+    projectDeletionService.schedule(project);
+
+    verify(launchDeletionService).retryFailed(PROJECT_ID);
+    assertTrue(projectDeletionService.isDeleting("deleted_project"));
+    assertFalse(projectDeletionService.isDeleting("other_project"));
+  }
+
+  @Test
+  void deletingProjectsAreRefreshed() {
+    when(jdbcTemplate.queryForList(sql("JOIN project"), any(SqlParameterSource.class),
+        eq(String.class))).thenReturn(List.of("deleted_project"));
+
+    projectDeletionService.refreshDeleting();
+
+    assertTrue(projectDeletionService.isDeleting("Deleted_Project"));
+  }
+
+  @Test
+  void stoppedServiceDoesNotClaim() {
+    projectDeletionService.stop();
+
+    projectDeletionService.deleteQueued();
+
+    verify(jdbcTemplate, never()).query(sql("FOR UPDATE SKIP LOCKED"),
+        any(SqlParameterSource.class), any(RowMapper.class));
+  }
+}
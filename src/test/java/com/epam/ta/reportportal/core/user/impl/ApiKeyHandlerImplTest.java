@@ -4,6 +4,7 @@ import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
+import com.epam.ta.reportportal.auth.ApiKeyAuthenticationCache;
 import com.epam.ta.reportportal.dao.ApiKeyRepository;
 import com.epam.reportportal.rules.exception.ReportPortalException;
 import java.nio.ByteBuffer;
@@ -24,6 +25,9 @@ class ApiKeyHandlerImplTest {
   @Mock
   private ApiKeyRepository apiKeyRepository;
 
+  @Mock
+  private ApiKeyAuthenticationCache apiKeyAuthenticationCache;
+
   @InjectMocks
   private ApiKeyHandlerImpl handler;
 
@@ -16,119 +16,124 @@
 
 package com.epam.ta.reportportal.job;
 
+import static com.epam.ta.reportportal.util.SqlMatchers.sql;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
-import com.epam.ta.reportportal.dao.LaunchRepository;
-import com.epam.ta.reportportal.dao.LogRepository;
-import com.epam.ta.reportportal.dao.ProjectRepository;
-import com.epam.ta.reportportal.dao.TestItemRepository;
-import com.epam.ta.reportportal.entity.attribute.Attribute;
-import com.epam.ta.reportportal.entity.enums.StatusEnum;
+import com.epam.reportportal.extension.event.LaunchFinishedPluginEvent;
+import com.epam.ta.reportportal.core.events.activity.LaunchFinishedEvent;
 import com.epam.ta.reportportal.entity.launch.Launch;
-import com.epam.ta.reportportal.entity.project.Project;
-import com.epam.ta.reportportal.entity.project.ProjectAttribute;
-import com.google.common.collect.Sets;
+import java.sql.ResultSet;
 import java.time.Duration;
-import java.util.Collections;
-import java.util.Optional;
-import java.util.stream.Stream;
+import java.util.List;
+import java.util.Map;
+import org.apache.commons.lang3.tuple.Pair;
 import org.junit.jupiter.api.Test;
-import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
-import org.mockito.Mock;
-import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.data.domain.PageImpl;
+import org.mockito.ArgumentCaptor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.task.SyncTaskExecutor;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.transaction.PlatformTransactionManager;
 
 /**
  * @author <a href="mailto:ihar_kahadouski@epam.com">Ihar Kahadouski</a>
  */
-@ExtendWith(MockitoExtension.class)
 class InterruptBrokenLaunchesJobTest {
 
-  @Mock
-  private LaunchRepository launchRepository;
+  private final ApplicationEventPublisher eventPublisher = mock(ApplicationEventPublisher.class);
 
-  @Mock
-  private LogRepository logRepository;
+  private final NamedParameterJdbcTemplate jdbcTemplate = mock(NamedParameterJdbcTemplate.class);
 
-  @Mock
-  private TestItemRepository testItemRepository;
+  private final JobRunStatistics jobRunStatistics = new JobRunStatistics();
 
-  @Mock
-  private ProjectRepository projectRepository;
-
-  @InjectMocks
-  private InterruptBrokenLaunchesJob interruptBrokenLaunchesJob;
+  private final InterruptBrokenLaunchesJob interruptBrokenLaunchesJob =
+      new InterruptBrokenLaunchesJob(eventPublisher, jdbcTemplate,
+          mock(PlatformTransactionManager.class), new SyncTaskExecutor(), jobRunStatistics);
 
   @Test
-  void noInProgressItemsTest() {
-    String name = "name";
-    Project project = new Project();
-    final ProjectAttribute projectAttribute = new ProjectAttribute();
-    final Attribute attribute = new Attribute();
-    attribute.setName("job.interruptJobTime");
-    projectAttribute.setAttribute(attribute);
-
-    //1 day in seconds
-    projectAttribute.setValue(String.valueOf(3600 * 24));
-    project.setProjectAttributes(Sets.newHashSet(projectAttribute));
-    project.setName(name);
-
-    long launchId = 1L;
-
-    when(projectRepository.findAllIdsAndProjectAttributes(any())).thenReturn(
-        new PageImpl<>(Collections.singletonList(project)));
-    when(launchRepository.streamIdsWithStatusAndStartTimeBefore(any(), any(), any())).thenReturn(
-        Stream.of(launchId));
-    when(testItemRepository.hasItemsInStatusByLaunch(launchId, StatusEnum.IN_PROGRESS)).thenReturn(
-        false);
-    when(launchRepository.findById(launchId)).thenReturn(Optional.of(new Launch()));
+  @SuppressWarnings("unchecked")
+  void brokenLaunchesAreInterruptedInBulk() throws Exception {
+    mockProject();
+    mockLaunches(launchRow(1L, true), launchRow(2L, false), launchRow(3L, true));
+    when(jdbcTemplate.query(sql("UPDATE launch"), any(SqlParameterSource.class),
+        any(RowMapper.class))).thenReturn(List.of(launch(1L), launch(3L)));
 
     interruptBrokenLaunchesJob.execute(null);
 
-    verify(launchRepository, times(1)).findById(launchId);
-    verify(launchRepository, times(1)).save(any());
+    ArgumentCaptor<SqlParameterSource> params = ArgumentCaptor.forClass(SqlParameterSource.class);
+    verify(jdbcTemplate).update(sql("UPDATE test_item_results"), params.capture());
+    assertEquals(List.of(1L, 3L), params.getValue().getValue("launchIds"));
+    verify(eventPublisher, times(2)).publishEvent(any(LaunchFinishedEvent.class));
+    verify(eventPublisher, times(2)).publishEvent(any(LaunchFinishedPluginEvent.class));
 
+    Map<String, Object> lastRun =
+        jobRunStatistics.getLastRuns().get(InterruptBrokenLaunchesJob.JOB_NAME);
+    assertEquals(3L, lastRun.get("launchesScanned"));
+    assertEquals(2L, lastRun.get("launchesInterrupted"));
   }
 
   @Test
-  void interruptLaunchWithInProgressItemsTest() {
-    String name = "name";
-    Project project = new Project();
-    final ProjectAttribute projectAttribute = new ProjectAttribute();
-    final Attribute attribute = new Attribute();
-    attribute.setName("job.interruptJobTime");
-    projectAttribute.setAttribute(attribute);
-
-    //1 day in seconds
-    projectAttribute.setValue(String.valueOf(3600 * 24));
-    project.setProjectAttributes(Sets.newHashSet(projectAttribute));
-    project.setName(name);
-
-    long launchId = 1L;
-
-    when(projectRepository.findAllIdsAndProjectAttributes(any())).thenReturn(
-        new PageImpl<>(Collections.singletonList(project)));
-    when(launchRepository.streamIdsWithStatusAndStartTimeBefore(any(), any(), any())).thenReturn(
-        Stream.of(launchId));
-    when(testItemRepository.hasItemsInStatusByLaunch(launchId, StatusEnum.IN_PROGRESS)).thenReturn(
-        true);
-    when(testItemRepository.hasItemsInStatusAddedLately(launchId, Duration.ofSeconds(3600 * 24),
-        StatusEnum.IN_PROGRESS)).thenReturn(false);
-    when(testItemRepository.hasLogs(launchId, Duration.ofSeconds(3600 * 24),
-        StatusEnum.IN_PROGRESS)).thenReturn(true);
-    when(logRepository.hasLogsAddedLately(Duration.ofSeconds(3600 * 24), launchId,
-        StatusEnum.IN_PROGRESS)).thenReturn(false);
-    when(launchRepository.findById(launchId)).thenReturn(Optional.of(new Launch()));
+  void activeLaunchesAreNotInterrupted() throws Exception {
+    mockProject();
+    mockLaunches(launchRow(1L, false));
 
     interruptBrokenLaunchesJob.execute(null);
 
-    verify(testItemRepository, times(1)).interruptInProgressItems(launchId);
-    verify(launchRepository, times(1)).findById(launchId);
-    verify(launchRepository, times(1)).save(any());
+    verify(jdbcTemplate, never()).update(any(String.class), any(SqlParameterSource.class));
+    verify(eventPublisher, never()).publishEvent(any());
+    assertEquals(0L, jobRunStatistics.getLastRuns().get(InterruptBrokenLaunchesJob.JOB_NAME)
+        .get("launchesInterrupted"));
+  }
+
+  @Test
+  @SuppressWarnings("unchecked")
+  void onlyProjectsWithInterruptTimeAreProcessed() {
+    interruptBrokenLaunchesJob.execute(null);
+
+    ArgumentCaptor<SqlParameterSource> params = ArgumentCaptor.forClass(SqlParameterSource.class);
+    verify(jdbcTemplate).query(sql("project_attribute"), params.capture(), any(RowMapper.class));
+    assertEquals("job.interruptJobTime", params.getValue().getValue("attribute"));
+    assertEquals(0L, params.getValue().getValue("lastId"));
+    verify(jdbcTemplate, never()).query(any(String.class), any(SqlParameterSource.class),
+        any(RowCallbackHandler.class));
+  }
+
+  @SuppressWarnings("unchecked")
+  private void mockProject() {
+    when(jdbcTemplate.query(sql("project_attribute"), any(SqlParameterSource.class),
+        any(RowMapper.class))).thenReturn(List.of(Pair.of(1L, Duration.ofDays(1))));
+  }
+
+  private void mockLaunches(ResultSet... rows) {
+    doAnswer(invocation -> {
+      RowCallbackHandler handler = invocation.getArgument(2);
+      for (ResultSet row : rows) {
+        handler.processRow(row);
+      }
+      return null;
+    }).when(jdbcTemplate).query(sql("AS broken"), any(SqlParameterSource.class),
+        any(RowCallbackHandler.class));
+  }
+
+  private static ResultSet launchRow(Long launchId, boolean broken) throws Exception {
+    ResultSet resultSet = mock(ResultSet.class);
+    when(resultSet.getLong("id")).thenReturn(launchId);
+    when(resultSet.getBoolean("broken")).thenReturn(broken);
+    return resultSet;
+  }
 
+  private static Launch launch(Long launchId) {
+    Launch launch = new Launch(launchId);
+    launch.setProjectId(1L);
+    return launch;
   }
-}
\ No newline at end of file
+}
@@ -0,0 +1,103 @@
+/*
+ * Copyright 2024 EPAM Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.ta.reportportal.job;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+import org.junit.jupiter.api.Test;
+
+class PageUtilTest {
+
+  private static final List<Long> IDS = LongStream.rangeClosed(1, 25).map(id -> id * 2).boxed()
+      .collect(Collectors.toList());
+
+  @Test
+  void keysetPagesStartAfterLastId() {
+    List<Long> requestedAfter = new ArrayList<>();
+    List<List<Long>> pages = new ArrayList<>();
+
+    PageUtil.iterateOverKeyset(10, (lastId, limit) -> {
+      requestedAfter.add(lastId);
+      return page(lastId, limit);
+    }, Function.identity(), pages::add);
+
+    assertEquals(List.of(0L, 20L, 40L), requestedAfter);
+    assertEquals(List.of(10, 10, 5), pages.stream().map(List::size).collect(Collectors.toList()));
+    assertEquals(IDS, pages.stream().flatMap(List::stream).collect(Collectors.toList()));
+  }
+
+  @Test
+  void fullLastPageIsFollowedByEmptyOne() {
+    List<Long> requestedAfter = new ArrayList<>();
+    List<List<Long>> pages = new ArrayList<>();
+
+    PageUtil.iterateOverKeyset(5, (lastId, limit) -> {
+      requestedAfter.add(lastId);
+      return page(lastId, limit);
+    }, Function.identity(), pages::add);
+
+    assertEquals(List.of(0L, 10L, 20L, 30L, 40L, 50L), requestedAfter);
+    assertEquals(5, pages.size());
+  }
+
+  @Test
+  void emptyPageIsNotConsumed() {
+    List<List<Long>> pages = new ArrayList<>();
+
+    PageUtil.iterateOverKeyset(10, (lastId, limit) -> List.<Long>of(), Function.identity(),
+        pages::add);
+
+    assertEquals(0, pages.size());
+  }
+
+  /**
+   * Illustrates why the long loops page by id, it doesn't measure the database: an offset page
+   * reads all the rows before it to skip them, a keyset page reads its own rows only.
+   */
+  @Test
+  void keysetPagingReadsEveryRowOnce() {
+    AtomicLong offsetRows = new AtomicLong();
+    AtomicLong keysetRows = new AtomicLong();
+
+    PageUtil.iterateOverContent(5, pageable -> {
+      offsetRows.addAndGet(Math.min(IDS.size(), pageable.getOffset() + pageable.getPageSize()));
+      return IDS.stream().skip(pageable.getOffset()).limit(pageable.getPageSize())
+          .collect(Collectors.toList());
+    }, page -> {
+    });
+    PageUtil.iterateOverKeyset(5, (lastId, limit) -> {
+      List<Long> page = page(lastId, limit);
+      keysetRows.addAndGet(page.size());
+      return page;
+    }, Function.identity(), page -> {
+    });
+
+    //the offset pages read 5, 10, 15, 20, 25 rows and 25 more for the closing empty page
+    assertEquals(100, offsetRows.get());
+    assertEquals(IDS.size(), keysetRows.get());
+  }
+
+  private static List<Long> page(Long lastId, int limit) {
+    return IDS.stream().filter(id -> id > lastId).limit(limit).collect(Collectors.toList());
+  }
+}
@@ -16,10 +16,14 @@
 
 package com.epam.ta.reportportal.util;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.util.List;
 import java.util.UUID;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 import org.junit.jupiter.api.Test;
 
 class ReportingQueueServiceTest {
@@ -49,4 +53,53 @@ class ReportingQueueServiceTest {
     int integerKey = Integer.parseInt(reportingQueueKey);
     assertTrue(integerKey <= queueAmount);
   }
-}
\ No newline at end of file
+
+  @Test
+  void consistentHashSpreadsLaunchesOverAllQueues() {
+    reportingQueueService.setConsistentHashEnabled(true);
+    reportingQueueService.setQueueAmount(10);
+    List<String> uuids = randomUuids(10_000);
+
+    long[] perQueue = new long[10];
+    uuids.forEach(uuid -> perQueue[Integer.parseInt(
+        reportingQueueService.getReportingQueueKey(uuid))]++);
+
+    for (long count : perQueue) {
+      assertTrue(count > 500 && count < 1500, "Unbalanced queue with " + count + " launches");
+    }
+  }
+
+  @Test
+  void consistentHashMovesFewLaunchesWhenQueueIsAdded() {
+    reportingQueueService.setConsistentHashEnabled(true);
+    reportingQueueService.setQueueAmount(10);
+    List<String> uuids = randomUuids(10_000);
+    List<String> before = uuids.stream().map(reportingQueueService::getReportingQueueKey)
+        .collect(Collectors.toList());
+
+    reportingQueueService.setQueueAmount(11);
+    long moved = IntStream.range(0, uuids.size()).filter(
+        i -> !before.get(i).equals(reportingQueueService.getReportingQueueKey(uuids.get(i)))
+    ).count();
+
+    assertTrue(moved < 2_000, moved + " launches were moved");
+  }
+
+  @Test
+  void consistentHashRoutesLaunchEquallyOnAllInstances() {
+    String uuid = UUID.randomUUID().toString();
+    reportingQueueService.setConsistentHashEnabled(true);
+    reportingQueueService.setQueueAmount(10);
+    ReportingQueueService otherInstance = new ReportingQueueService();
+    otherInstance.setQueueAmount(10);
+    otherInstance.setConsistentHashEnabled(true);
+
+    assertEquals(reportingQueueService.getReportingQueueKey(uuid),
+        otherInstance.getReportingQueueKey(uuid));
+  }
+
+  private List<String> randomUuids(int count) {
+    return IntStream.range(0, count).mapToObj(i -> UUID.randomUUID().toString())
+        .collect(Collectors.toList());
+  }
+}
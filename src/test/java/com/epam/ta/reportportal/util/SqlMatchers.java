@@ -0,0 +1,41 @@
+/*
+ * Copyright 2024 EPAM Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.epam.ta.reportportal.util;
+
+import static org.mockito.ArgumentMatchers.argThat;
+
+/**
+ * Mockito matchers for statements passed to a mocked
+ * {@link org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate}.
+ */
+public final class SqlMatchers {
+
+  private SqlMatchers() {
+    //static only
+  }
+
+  /**
+   * Matches a statement that contains the given fragment.
+   *
+   * @param fragment Part of the expected statement
+   * @return {@code null}, the matcher is registered by Mockito
+   */
+  public static String sql(String fragment) {
+    return argThat(sql -> sql != null && sql.contains(fragment));
+  }
+}
@@ -0,0 +1,74 @@
+/*
+ * Copyright 2024 EPAM Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.ta.reportportal.ws.converter.converters;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+import com.epam.ta.reportportal.core.analyzer.auto.indexer.IndexerStatusCache;
+import com.epam.ta.reportportal.entity.enums.ProjectType;
+import com.epam.ta.reportportal.entity.project.Project;
+import com.epam.ta.reportportal.model.project.ProjectResource;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+class ProjectConverterTest {
+
+  private final IndexerStatusCache indexerStatusCache = new IndexerStatusCache();
+
+  private final ProjectConverter projectConverter = new ProjectConverter();
+
+  ProjectConverterTest() {
+    ReflectionTestUtils.setField(projectConverter, "indexerStatusCache", indexerStatusCache);
+  }
+
+  @Test
+  void indexingProgressIsExposed() {
+    indexerStatusCache.indexingStarted(1L);
+    indexerStatusCache.indexingProgress(1L, 1500L);
+
+    Map<String, String> attributes = attributes(project());
+
+    assertEquals("true", attributes.get("analyzer.indexingRunning"));
+    assertEquals("1500", attributes.get("analyzer.indexedLogs"));
+  }
+
+  @Test
+  void noProgressWhenIndexingIsFinished() {
+    indexerStatusCache.indexingProgress(1L, 1500L);
+    indexerStatusCache.indexingFinished(1L);
+
+    Map<String, String> attributes = attributes(project());
+
+    assertEquals("false", attributes.get("analyzer.indexingRunning"));
+    assertFalse(attributes.containsKey("analyzer.indexedLogs"));
+  }
+
+  private Map<String, String> attributes(Project project) {
+    ProjectResource resource = projectConverter.TO_PROJECT_RESOURCE.apply(project);
+    return resource.getConfiguration().getProjectAttributes();
+  }
+
+  private static Project project() {
+    Project project = new Project();
+    project.setId(1L);
+    project.setName("project");
+    project.setProjectType(ProjectType.INTERNAL);
+    return project;
+  }
+}
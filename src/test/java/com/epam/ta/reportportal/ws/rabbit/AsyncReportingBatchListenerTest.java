@@ -0,0 +1,143 @@
+/*
+ * Copyright 2024 EPAM Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.ta.reportportal.ws.rabbit;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.epam.ta.reportportal.core.log.impl.BatchLogSaver;
+import com.epam.ta.reportportal.ws.reporting.SaveLogRQ;
+import com.rabbitmq.client.Channel;
+import java.io.IOException;
+import java.util.List;
+import java.util.Optional;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.springframework.amqp.AmqpRejectAndDontRequeueException;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
+
+class AsyncReportingBatchListenerTest {
+
+  private final AsyncReportingListener reportingListener = mock(AsyncReportingListener.class);
+  private final BatchLogSaver batchLogSaver = mock(BatchLogSaver.class);
+  private final PlatformTransactionManager transactionManager = mock(
+      PlatformTransactionManager.class);
+  private final Channel channel = mock(Channel.class);
+
+  private static final Long PROJECT_ID = 1L;
+
+  private AsyncReportingBatchListener batchListener;
+
+  @BeforeEach
+  void setUp() {
+    when(transactionManager.getTransaction(any())).thenReturn(mock(TransactionStatus.class));
+    when(reportingListener.getBulkLogRequest(any())).thenReturn(Optional.empty());
+    batchListener = new AsyncReportingBatchListener(reportingListener, batchLogSaver,
+        transactionManager);
+  }
+
+  @Test
+  void wholeBatchIsAppliedInSingleTransaction() throws IOException {
+    Message first = message(1L);
+    Message second = message(2L);
+
+    batchListener.onMessageBatch(List.of(first, second), channel);
+
+    verify(transactionManager, times(1)).getTransaction(any());
+    verify(transactionManager, times(1)).commit(any());
+    verify(reportingListener).onMessage(first);
+    verify(reportingListener).onMessage(second);
+    verify(channel).basicAck(1L, false);
+    verify(channel).basicAck(2L, false);
+    verify(channel, never()).basicReject(anyLong(), eq(false));
+  }
+
+  @Test
+  void failedMessageIsSplitOutOfBatch() throws IOException {
+    Message first = message(1L);
+    Message failed = message(2L);
+    Message third = message(3L);
+    doThrow(new AmqpRejectAndDontRequeueException("failed")).when(reportingListener)
+        .onMessage(failed);
+
+    batchListener.onMessageBatch(List.of(first, failed, third), channel);
+
+    verify(transactionManager, times(4)).getTransaction(any());
+    verify(reportingListener, times(2)).onMessage(first);
+    verify(reportingListener, times(2)).onMessage(failed);
+    verify(reportingListener, times(1)).onMessage(third);
+    verify(channel).basicAck(1L, false);
+    verify(channel).basicReject(2L, false);
+    verify(channel).basicAck(3L, false);
+  }
+
+  @Test
+  void messageWithExceededRetryLimitIsNotProcessed() throws IOException {
+    Message dropped = message(1L);
+    Message processed = message(2L);
+    when(reportingListener.breakRetrying(dropped)).thenReturn(true);
+
+    batchListener.onMessageBatch(List.of(dropped, processed), channel);
+
+    verify(reportingListener, never()).onMessage(dropped);
+    verify(reportingListener).onMessage(processed);
+    verify(channel).basicAck(1L, false);
+    verify(channel).basicAck(2L, false);
+  }
+
+  @Test
+  void consecutiveLogsAreSavedInBulkBeforeNextMessage() throws IOException {
+    Message firstLog = message(1L);
+    Message secondLog = message(2L);
+    Message finishItem = message(3L);
+    SaveLogRQ firstRq = new SaveLogRQ();
+    SaveLogRQ secondRq = new SaveLogRQ();
+    when(reportingListener.getBulkLogRequest(firstLog)).thenReturn(Optional.of(firstRq));
+    when(reportingListener.getBulkLogRequest(secondLog)).thenReturn(Optional.of(secondRq));
+    when(reportingListener.getBulkLogRequest(finishItem)).thenReturn(Optional.empty());
+
+    batchListener.onMessageBatch(List.of(firstLog, secondLog, finishItem), channel);
+
+    InOrder inOrder = inOrder(batchLogSaver, reportingListener);
+    inOrder.verify(batchLogSaver).saveLogs(PROJECT_ID, List.of(firstRq, secondRq));
+    inOrder.verify(reportingListener).onMessage(finishItem);
+    verify(reportingListener, never()).onMessage(firstLog);
+    verify(reportingListener, never()).onMessage(secondLog);
+    verify(channel).basicAck(1L, false);
+    verify(channel).basicAck(2L, false);
+    verify(channel).basicAck(3L, false);
+  }
+
+  private Message message(long deliveryTag) {
+    MessageProperties properties = new MessageProperties();
+    properties.setHeader(MessageHeaders.PROJECT_ID, PROJECT_ID);
+    properties.setDeliveryTag(deliveryTag);
+    return new Message(String.valueOf(deliveryTag).getBytes(), properties);
+  }
+}
@@ -12,7 +12,6 @@ import static org.mockito.Mockito.spy;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
-import com.epam.ta.reportportal.auth.basic.DatabaseUserDetailsService;
 import com.epam.ta.reportportal.binary.AttachmentBinaryDataService;
 import com.epam.ta.reportportal.commons.BinaryDataMetaInfo;
 import com.epam.ta.reportportal.commons.ReportPortalUser;
@@ -22,6 +21,7 @@ import com.epam.ta.reportportal.core.item.StartTestItemHandler;
 import com.epam.ta.reportportal.core.item.TestItemService;
 import com.epam.ta.reportportal.core.launch.FinishLaunchHandler;
 import com.epam.ta.reportportal.core.launch.StartLaunchHandler;
+import com.epam.ta.reportportal.core.log.LogFullCache;
 import com.epam.ta.reportportal.core.log.LogService;
 import com.epam.ta.reportportal.dao.LaunchRepository;
 import com.epam.ta.reportportal.dao.LogRepository;
@@ -31,7 +31,6 @@ import com.epam.ta.reportportal.entity.item.TestItem;
 import com.epam.ta.reportportal.entity.launch.Launch;
 import com.epam.ta.reportportal.entity.log.Log;
 import com.epam.ta.reportportal.entity.log.LogFull;
-import com.epam.ta.reportportal.util.ProjectExtractor;
 import com.epam.ta.reportportal.ws.converter.builders.LogFullBuilder;
 import com.epam.ta.reportportal.ws.reporting.FinishExecutionRQ;
 import com.epam.ta.reportportal.ws.reporting.FinishTestItemRQ;
@@ -39,12 +38,16 @@ import com.epam.ta.reportportal.ws.reporting.SaveLogRQ;
 import com.epam.ta.reportportal.ws.reporting.SaveLogRQ.File;
 import com.epam.ta.reportportal.ws.reporting.StartLaunchRQ;
 import com.epam.ta.reportportal.ws.reporting.StartTestItemRQ;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import java.util.Optional;
+import org.apache.commons.lang3.tuple.Pair;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.amqp.core.AmqpTemplate;
 import org.springframework.amqp.core.Message;
@@ -73,7 +76,10 @@ class AsyncReportingListenerTest {
   private FinishTestItemHandler finishTestItemHandler;
 
   @Mock
-  private DatabaseUserDetailsService userDetailsService;
+  private ReportingIdentityCache identityCache;
+
+  @Mock
+  private LogFullCache logFullCache;
 
   @Mock
   private LogRepository logRepository;
@@ -90,9 +96,6 @@ class AsyncReportingListenerTest {
   @Mock
   private AttachmentBinaryDataService attachmentBinaryDataService;
 
-  @Mock
-  private ProjectExtractor projectExtractor;
-
   @Mock
   private LogService logService;
 
@@ -102,6 +105,9 @@ class AsyncReportingListenerTest {
   @Mock
   private AmqpTemplate amqpTemplate;
 
+  @Spy
+  private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
   private static final String USERNAME = "rpuser";
 
   private static final String PROJECT_NAME = "test";
@@ -126,9 +132,8 @@ class AsyncReportingListenerTest {
     userDetails = mock(ReportPortalUser.class);
     projectDetails = mock(ReportPortalUser.ProjectDetails.class);
 
-    lenient().when(userDetailsService.loadUserByUsername(USERNAME)).thenReturn(userDetails);
-    lenient().when(projectExtractor.extractProjectDetails(userDetails, PROJECT_NAME))
-        .thenReturn(projectDetails);
+    lenient().when(identityCache.getIdentity(USERNAME, PROJECT_NAME))
+        .thenReturn(Pair.of(userDetails, projectDetails));
 
     byte[] messageBody = "message body".getBytes();
     message = new Message(messageBody, messageProperties);
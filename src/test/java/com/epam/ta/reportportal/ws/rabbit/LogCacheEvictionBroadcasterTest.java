@@ -0,0 +1,65 @@
+/*
+ * Copyright 2024 EPAM Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.ta.reportportal.ws.rabbit;
+
+import static com.epam.ta.reportportal.core.configs.rabbit.InternalConfiguration.EXCHANGE_EVENTS;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.epam.ta.reportportal.core.log.LogCacheEviction;
+import com.epam.ta.reportportal.core.log.LogFullCache;
+import java.util.Optional;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.amqp.core.AmqpTemplate;
+
+class LogCacheEvictionBroadcasterTest {
+
+  private final LogFullCache logFullCache = mock(LogFullCache.class);
+  private final AmqpTemplate amqpTemplate = mock(AmqpTemplate.class);
+
+  private final LogCacheEvictionBroadcaster broadcaster =
+      new LogCacheEvictionBroadcaster(logFullCache, amqpTemplate);
+
+  @Test
+  void evictionsAreBroadcastAndOwnOnesAreSkipped() {
+    LogCacheEviction eviction = new LogCacheEviction(Set.of(1L), Set.of(2L));
+    when(logFullCache.drainEvictions()).thenReturn(Optional.of(eviction));
+
+    broadcaster.broadcast();
+
+    ArgumentCaptor<LogCacheEviction> sent = ArgumentCaptor.forClass(LogCacheEviction.class);
+    verify(amqpTemplate).convertAndSend(eq(EXCHANGE_EVENTS), eq(""), sent.capture());
+    broadcaster.onEviction(sent.getValue());
+    verify(logFullCache, never()).apply(any());
+  }
+
+  @Test
+  void evictionsOfOtherInstanceAreApplied() {
+    LogCacheEviction eviction = new LogCacheEviction(Set.of(1L), Set.of(2L));
+    eviction.setOrigin("other");
+
+    broadcaster.onEviction(eviction);
+
+    verify(logFullCache).apply(eviction);
+  }
+}
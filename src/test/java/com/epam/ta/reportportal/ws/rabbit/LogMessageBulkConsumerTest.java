@@ -0,0 +1,87 @@
+/*
+ * Copyright 2024 EPAM Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.ta.reportportal.ws.rabbit;
+
+import static com.epam.ta.reportportal.core.configs.rabbit.BackgroundProcessingConfiguration.LOG_MESSAGE_BULK_PARKING_ROUTING_KEY;
+import static com.epam.ta.reportportal.core.configs.rabbit.BackgroundProcessingConfiguration.LOG_MESSAGE_BULK_RETRY_QUEUE_NAME;
+import static com.epam.ta.reportportal.core.configs.rabbit.BackgroundProcessingConfiguration.LOG_MESSAGE_BULK_SAVING_QUEUE_NAME;
+import static com.epam.ta.reportportal.core.configs.rabbit.BackgroundProcessingConfiguration.PROCESSING_EXCHANGE_NAME;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+import com.epam.ta.reportportal.core.log.LogMessageBulk;
+import com.epam.ta.reportportal.core.log.LogMessageBulkAggregator;
+import com.epam.ta.reportportal.dao.custom.ElasticSearchClient;
+import com.epam.ta.reportportal.entity.log.LogMessage;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+import org.springframework.amqp.core.AmqpTemplate;
+
+class LogMessageBulkConsumerTest {
+
+  private final ElasticSearchClient elasticSearchClient = mock(ElasticSearchClient.class);
+  private final AmqpTemplate amqpTemplate = mock(AmqpTemplate.class);
+  private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+  private final LogMessageBulkConsumer consumer =
+      new LogMessageBulkConsumer(elasticSearchClient, amqpTemplate, 3, meterRegistry);
+
+  private final LogMessageBulk bulk = new LogMessageBulk(1L,
+      List.of(new LogMessage(1L, Instant.now(), "message", 1L, 1L, 1L)));
+
+  @Test
+  void failedBulkIsRejectedForRetry() {
+    doThrow(new IllegalStateException("unavailable")).when(elasticSearchClient).save(anyList());
+
+    assertThrows(IllegalStateException.class, () -> consumer.onBulk(bulk, xDeath(2L)));
+
+    verify(amqpTemplate, never()).convertAndSend(anyString(), anyString(), any(Object.class));
+  }
+
+  @Test
+  void bulkIsParkedAfterMaxRetry() {
+    consumer.onBulk(bulk, xDeath(3L));
+
+    verify(elasticSearchClient, never()).save(anyList());
+    verify(amqpTemplate).convertAndSend(PROCESSING_EXCHANGE_NAME,
+        LOG_MESSAGE_BULK_PARKING_ROUTING_KEY, bulk);
+    assertEquals(1, meterRegistry.get(LogMessageBulkAggregator.PARKED_METRIC).counter().count());
+  }
+
+  @Test
+  void bulkIsIndexedWithoutDeaths() {
+    consumer.onBulk(bulk, null);
+
+    verify(elasticSearchClient).save(anyList());
+  }
+
+  private static List<Map<String, ?>> xDeath(long count) {
+    return List.of(
+        Map.of("queue", LOG_MESSAGE_BULK_RETRY_QUEUE_NAME, "reason", "expired", "count", count),
+        Map.of("queue", LOG_MESSAGE_BULK_SAVING_QUEUE_NAME, "reason", "rejected", "count", count));
+  }
+}
@@ -0,0 +1,146 @@
+/*
+ * Copyright 2024 EPAM Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.ta.reportportal.ws.rabbit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.epam.reportportal.rules.exception.ErrorType;
+import com.epam.reportportal.rules.exception.ReportPortalException;
+import com.epam.ta.reportportal.auth.basic.DatabaseUserDetailsService;
+import com.epam.ta.reportportal.commons.ReportPortalUser;
+import com.epam.ta.reportportal.commons.ReportPortalUser.ProjectDetails;
+import com.epam.ta.reportportal.core.events.activity.ChangeRoleEvent;
+import com.epam.ta.reportportal.core.events.activity.UnassignUserEvent;
+import com.epam.ta.reportportal.entity.project.ProjectRole;
+import com.epam.ta.reportportal.entity.user.UserRole;
+import com.epam.ta.reportportal.model.activity.UserActivityResource;
+import com.epam.ta.reportportal.util.ProjectExtractor;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import org.apache.commons.lang3.tuple.Pair;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class ReportingIdentityCacheTest {
+
+  private static final Long USER_ID = 1L;
+  private static final String USERNAME = "default";
+  private static final String PROJECT_NAME = "default_personal";
+
+  private final DatabaseUserDetailsService userDetailsService = mock(
+      DatabaseUserDetailsService.class);
+  private final ProjectExtractor projectExtractor = mock(ProjectExtractor.class);
+  private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+  private final ProjectDetails projectDetails = new ProjectDetails(2L, PROJECT_NAME,
+      ProjectRole.MEMBER);
+
+  private ReportingIdentityCache identityCache;
+
+  @BeforeEach
+  void setUp() {
+    identityCache = new ReportingIdentityCache(userDetailsService, projectExtractor,
+        meterRegistry, 100, 60);
+    when(userDetailsService.loadUserByUsername(USERNAME)).thenAnswer(invocation -> user());
+    when(projectExtractor.extractProjectDetails(any(ReportPortalUser.class), eq(PROJECT_NAME)))
+        .thenReturn(projectDetails);
+  }
+
+  @Test
+  void identityIsLoadedOnceAndCopiedForEachConsumer() {
+    Pair<ReportPortalUser, ProjectDetails> first = identityCache.getIdentity(USERNAME,
+        PROJECT_NAME);
+    Pair<ReportPortalUser, ProjectDetails> second = identityCache.getIdentity(USERNAME,
+        PROJECT_NAME.toUpperCase());
+
+    verify(userDetailsService, times(1)).loadUserByUsername(USERNAME);
+    assertSame(projectDetails, second.getRight());
+    assertNotSame(first.getLeft(), second.getLeft());
+    assertNotSame(first.getLeft().getProjectDetails(), second.getLeft().getProjectDetails());
+    assertEquals(USER_ID, second.getLeft().getUserId());
+    assertEquals(1.0, meterRegistry.get("cache.gets").tag("result", "hit").functionCounter()
+        .count());
+    assertEquals(1.0, meterRegistry.get("cache.gets").tag("result", "miss").functionCounter()
+        .count());
+  }
+
+  @Test
+  void userEntriesAreEvictedOnMembershipChange() {
+    identityCache.getIdentity(USERNAME, PROJECT_NAME);
+
+    identityCache.onChangeRole(new ChangeRoleEvent(userResource(USER_ID), "MEMBER", "CUSTOMER",
+        3L, "admin"));
+    identityCache.getIdentity(USERNAME, PROJECT_NAME);
+
+    identityCache.onUnassignUser(new UnassignUserEvent(userResource(USER_ID)));
+    identityCache.getIdentity(USERNAME, PROJECT_NAME);
+
+    verify(userDetailsService, times(3)).loadUserByUsername(USERNAME);
+  }
+
+  @Test
+  void otherUsersEntriesAreKept() {
+    identityCache.getIdentity(USERNAME, PROJECT_NAME);
+
+    identityCache.onUnassignUser(new UnassignUserEvent(userResource(42L)));
+    identityCache.getIdentity(USERNAME, PROJECT_NAME);
+
+    verify(userDetailsService, times(1)).loadUserByUsername(USERNAME);
+  }
+
+  @Test
+  void failedResolutionIsNotCached() {
+    when(projectExtractor.extractProjectDetails(any(ReportPortalUser.class), eq("other")))
+        .thenThrow(new ReportPortalException(ErrorType.ACCESS_DENIED));
+
+    assertThrows(ReportPortalException.class, () -> identityCache.getIdentity(USERNAME, "other"));
+    assertThrows(ReportPortalException.class, () -> identityCache.getIdentity(USERNAME, "other"));
+
+    verify(userDetailsService, times(2)).loadUserByUsername(USERNAME);
+  }
+
+  private ReportPortalUser user() {
+    Map<String, ProjectDetails> details = new HashMap<>();
+    details.put(PROJECT_NAME, projectDetails);
+    return ReportPortalUser.userBuilder()
+        .withUserName(USERNAME)
+        .withPassword("")
+        .withAuthorities(Collections.emptyList())
+        .withUserId(USER_ID)
+        .withUserRole(UserRole.USER)
+        .withProjectDetails(details)
+        .withEmail("default@example.com")
+        .build();
+  }
+
+  private UserActivityResource userResource(Long userId) {
+    UserActivityResource resource = new UserActivityResource();
+    resource.setId(userId);
+    return resource;
+  }
+}
@@ -0,0 +1,98 @@
+/*
+ * Copyright 2024 EPAM Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.ta.reportportal.ws.rabbit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.epam.ta.reportportal.ws.rabbit.ReportingQueueMetrics.QueueStats;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.amqp.core.AmqpAdmin;
+import org.springframework.amqp.core.QueueInformation;
+import org.springframework.amqp.rabbit.listener.SimpleMessageListenerContainer;
+
+class ReportingPrefetchTunerTest {
+
+  private static final String QUEUE = "reporting.0";
+
+  private final SimpleMessageListenerContainer container = mock(
+      SimpleMessageListenerContainer.class);
+  private final ReportingQueueMetrics metrics = mock(ReportingQueueMetrics.class);
+  private final AmqpAdmin amqpAdmin = mock(AmqpAdmin.class);
+  private final HikariDataSource dataSource = mock(HikariDataSource.class);
+  private final HikariPoolMXBean pool = mock(HikariPoolMXBean.class);
+  private final QueueStats stats = mock(QueueStats.class);
+
+  private ReportingPrefetchTuner tuner;
+
+  @BeforeEach
+  void setUp() throws Exception {
+    when(container.isRunning()).thenReturn(true);
+    when(container.getQueueNames()).thenReturn(new String[] { QUEUE });
+    when(metrics.stats(QUEUE)).thenReturn(stats);
+    when(dataSource.isWrapperFor(HikariDataSource.class)).thenReturn(true);
+    when(dataSource.unwrap(HikariDataSource.class)).thenReturn(dataSource);
+    when(dataSource.getHikariPoolMXBean()).thenReturn(pool);
+    when(dataSource.getMaximumPoolSize()).thenReturn(10);
+    tuner = new ReportingPrefetchTuner(List.of(container), metrics, amqpAdmin, dataSource, 10,
+        100, 500, 0.9);
+  }
+
+  @Test
+  void prefetchIsReducedWhenPoolIsSaturated() {
+    when(pool.getActiveConnections()).thenReturn(10);
+
+    tuner.tune();
+
+    verify(container).setPrefetchCount(50);
+    verify(container).stop();
+    verify(container).start();
+    assertEquals(50, tuner.getPrefetch(QUEUE).orElseThrow());
+  }
+
+  @Test
+  void prefetchIsReducedOnSlowProcessingAndRestoredOnBacklog() {
+    when(stats.getProcessingP99Millis()).thenReturn(1000.0);
+    tuner.tune();
+    verify(container).setPrefetchCount(50);
+
+    when(stats.getProcessingP99Millis()).thenReturn(10.0);
+    when(amqpAdmin.getQueueInfo(QUEUE)).thenReturn(new QueueInformation(QUEUE, 1000, 1));
+    tuner.tune();
+    verify(container).setPrefetchCount(100);
+  }
+
+  @Test
+  void prefetchIsKeptWithinLimits() {
+    when(stats.getProcessingP99Millis()).thenReturn(10.0);
+    when(amqpAdmin.getQueueInfo(QUEUE)).thenReturn(new QueueInformation(QUEUE, 1000, 1));
+
+    tuner.tune();
+
+    verify(container, never()).setPrefetchCount(anyInt());
+    assertTrue(tuner.getPrefetch(QUEUE).isEmpty());
+  }
+}
@@ -0,0 +1,150 @@
+/*
+ * Copyright 2024 EPAM Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.ta.reportportal.ws.rabbit;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.amqp.rabbit.listener.SimpleMessageListenerContainer;
+
+class ReportingQueueCoordinatorTest {
+
+  private final ReportingQueueLeaseService leaseService = mock(ReportingQueueLeaseService.class);
+
+  private List<SimpleMessageListenerContainer> containers;
+
+  private ReportingQueueCoordinator coordinator;
+
+  @BeforeEach
+  void setUp() {
+    containers = IntStream.range(0, 4).mapToObj(i -> {
+      SimpleMessageListenerContainer container = mock(SimpleMessageListenerContainer.class);
+      when(container.getQueueNames()).thenReturn(new String[] { "reporting." + i });
+      return container;
+    }).collect(Collectors.toList());
+    coordinator = new ReportingQueueCoordinator(leaseService, List.copyOf(containers), 100);
+  }
+
+  @Test
+  void singleConsumerClaimsAllFreeQueues() {
+    when(leaseService.heartbeat()).thenReturn(1);
+    when(leaseService.renew()).thenReturn(new HashSet<>());
+    when(leaseService.getLeasedQueues()).thenReturn(Set.of());
+    when(leaseService.claim(anyString())).thenReturn(true);
+
+    coordinator.rebalance();
+
+    containers.forEach(container -> verify(container).start());
+  }
+
+  @Test
+  void queuesAboveFairShareAreReleasedAfterDrain() {
+    when(leaseService.heartbeat()).thenReturn(2);
+    when(leaseService.renew()).thenReturn(
+        new HashSet<>(Set.of("reporting.0", "reporting.1", "reporting.2", "reporting.3")));
+    containers.forEach(container -> {
+      when(container.isRunning()).thenReturn(true);
+      stopImmediately(container);
+    });
+
+    coordinator.rebalance();
+
+    verify(containers.get(2)).stop(any(Runnable.class));
+    verify(containers.get(3)).stop(any(Runnable.class));
+    verify(leaseService).release("reporting.2");
+    verify(leaseService).release("reporting.3");
+    verify(containers.get(0), never()).stop(any(Runnable.class));
+    verify(leaseService, never()).release("reporting.0");
+  }
+
+  @Test
+  void queueWithMessagesInProcessIsNotReleased() {
+    when(leaseService.heartbeat()).thenReturn(4);
+    when(leaseService.renew()).thenReturn(new HashSet<>(Set.of("reporting.0", "reporting.1")));
+    when(containers.get(1).getActiveConsumerCount()).thenReturn(1);
+    stopImmediately(containers.get(1));
+
+    coordinator.rebalance();
+
+    verify(containers.get(1)).stop(any(Runnable.class));
+    verify(leaseService, never()).release(anyString());
+    verify(containers.get(1), never()).start();
+  }
+
+  @Test
+  void consumerIsStoppedWhenLeaseIsLost() {
+    when(leaseService.heartbeat()).thenReturn(4);
+    when(leaseService.renew()).thenReturn(new HashSet<>());
+    when(leaseService.getLeasedQueues()).thenReturn(
+        Set.of("reporting.0", "reporting.1", "reporting.2", "reporting.3"));
+    when(containers.get(0).isRunning()).thenReturn(true);
+
+    coordinator.rebalance();
+
+    verify(containers.get(0)).stop(any(Runnable.class));
+    verify(containers.get(0), never()).stop();
+    verify(leaseService, never()).claim(anyString());
+  }
+
+  @Test
+  void leaseIsKeptUntilConsumerHasStopped() {
+    when(leaseService.heartbeat()).thenReturn(2);
+    when(leaseService.renew()).thenAnswer(invocation -> new HashSet<>(
+        Set.of("reporting.0", "reporting.1", "reporting.2")));
+    SimpleMessageListenerContainer container = containers.get(2);
+    when(container.isRunning()).thenReturn(true);
+    ArgumentCaptor<Runnable> stopped = ArgumentCaptor.forClass(Runnable.class);
+
+    coordinator.rebalance();
+
+    verify(container).stop(stopped.capture());
+    verify(container, never()).stop();
+    verify(leaseService, never()).release(anyString());
+
+    coordinator.rebalance();
+
+    verify(container, times(1)).stop(any(Runnable.class));
+    verify(leaseService, never()).release(anyString());
+
+    stopped.getValue().run();
+    coordinator.rebalance();
+
+    verify(leaseService).release("reporting.2");
+    verify(container, never()).start();
+  }
+
+  private static void stopImmediately(SimpleMessageListenerContainer container) {
+    doAnswer(invocation -> {
+      invocation.<Runnable>getArgument(0).run();
+      return null;
+    }).when(container).stop(any(Runnable.class));
+  }
+}
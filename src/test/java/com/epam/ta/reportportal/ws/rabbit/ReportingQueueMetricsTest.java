@@ -0,0 +1,112 @@
+/*
+ * Copyright 2024 EPAM Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.ta.reportportal.ws.rabbit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+
+import com.epam.ta.reportportal.ws.rabbit.ReportingQueueMetrics.QueueStats;
+import com.google.common.util.concurrent.Uninterruptibles;
+import com.rabbitmq.client.Channel;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageListener;
+import org.springframework.amqp.core.MessageProperties;
+
+class ReportingQueueMetricsTest {
+
+  private static final String QUEUE = "reporting.0";
+
+  private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+  private final ReportingQueueMetrics metrics = new ReportingQueueMetrics(meterRegistry);
+
+  @Test
+  void deliveriesAreCountedPerQueue() {
+    MessageListener listener = metrics.measured((MessageListener) message -> {
+    });
+
+    listener.onMessage(message(false));
+    listener.onMessage(message(true));
+    metrics.dropped(message(true));
+
+    QueueStats stats = metrics.sample(QUEUE);
+    assertEquals(2, stats.getConsumed());
+    assertEquals(1, stats.getRetried());
+    assertEquals(1, stats.getDropped());
+    assertTrue(stats.getConsumeRate() > 0);
+    assertEquals(2, meterRegistry.get(ReportingQueueMetrics.PROCESSING_METRIC)
+        .tag(ReportingQueueMetrics.QUEUE_TAG, QUEUE).timer().count());
+  }
+
+  @Test
+  void failedDeliveryIsMeasured() {
+    MessageListener listener = metrics.measured((MessageListener) message -> {
+      throw new IllegalStateException();
+    });
+
+    assertThrows(IllegalStateException.class, () -> listener.onMessage(message(false)));
+
+    assertEquals(1, meterRegistry.get(ReportingQueueMetrics.PROCESSING_METRIC).timer().count());
+  }
+
+  @Test
+  void batchTimeIsDividedBetweenItsMessages() throws Exception {
+    metrics.measured((List<Message> messages, Channel channel) ->
+            Uninterruptibles.sleepUninterruptibly(30, TimeUnit.MILLISECONDS))
+        .onMessageBatch(List.of(message(false), message(false), message(false)),
+            mock(Channel.class));
+
+    assertEquals(3, metrics.sample(QUEUE).getConsumed());
+    Timer processing = meterRegistry.get(ReportingQueueMetrics.PROCESSING_METRIC).timer();
+    assertEquals(3, processing.count());
+    assertTrue(processing.totalTime(TimeUnit.MILLISECONDS) >= 29);
+    assertTrue(processing.max(TimeUnit.MILLISECONDS) < 20);
+  }
+
+  @Test
+  void statsDoNotResetConsumeRateWindow() throws Exception {
+    MessageListener listener = metrics.measured((MessageListener) message -> {
+    });
+    metrics.sample(QUEUE);
+    listener.onMessage(message(false));
+    Thread.sleep(10);
+
+    double rate = metrics.sample(QUEUE).getConsumeRate();
+    listener.onMessage(message(false));
+
+    assertTrue(rate > 0);
+    assertEquals(rate, metrics.stats(QUEUE).getConsumeRate());
+    assertEquals(2, metrics.stats(QUEUE).getConsumed());
+  }
+
+  private Message message(boolean retried) {
+    MessageProperties properties = new MessageProperties();
+    properties.setConsumerQueue(QUEUE);
+    if (retried) {
+      properties.setHeader(MessageHeaders.XD_HEADER, List.of(Map.of("count", 1L)));
+    }
+    return new Message(new byte[0], properties);
+  }
+}
@@ -0,0 +1,75 @@
+/*
+ * Copyright 2024 EPAM Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.ta.reportportal.ws.resolver;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import com.epam.reportportal.rules.exception.ReportPortalException;
+import com.epam.ta.reportportal.core.project.impl.ProjectDeletionService;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+
+class ProjectDeletionInterceptorTest {
+
+  private final ProjectDeletionService projectDeletionService =
+      mock(ProjectDeletionService.class);
+
+  private final ProjectDeletionInterceptor interceptor =
+      new ProjectDeletionInterceptor(projectDeletionService);
+
+  @Test
+  void changeOfDeletingProjectIsRejected() {
+    when(projectDeletionService.isDeleting("test_project")).thenReturn(true);
+
+    ReportPortalException exception = assertThrows(ReportPortalException.class,
+        () -> interceptor.preHandle(request("POST", "test_project"),
+            new MockHttpServletResponse(), null));
+
+    assertEquals("Forbidden operation. Project 'test_project' is being deleted",
+        exception.getMessage());
+  }
+
+  @Test
+  void deletingProjectIsRead() {
+    assertTrue(interceptor.preHandle(request("GET", "test_project"),
+        new MockHttpServletResponse(), null));
+    verifyNoInteractions(projectDeletionService);
+  }
+
+  @Test
+  void changeOfOtherProjectIsPassed() {
+    when(projectDeletionService.isDeleting("other_project")).thenReturn(false);
+
+    assertTrue(interceptor.preHandle(request("PUT", "other_project"),
+        new MockHttpServletResponse(), null));
+  }
+
+  private static MockHttpServletRequest request(String method, String projectName) {
+    MockHttpServletRequest request = new MockHttpServletRequest(method, "/v1/" + projectName);
+    request.setAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE,
+        Map.of("projectName", projectName));
+    return request;
+  }
+}
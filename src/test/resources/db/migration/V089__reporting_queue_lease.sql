@@ -0,0 +1,12 @@
+CREATE TABLE IF NOT EXISTS reporting_consumer
+(
+    consumer_id VARCHAR(256) PRIMARY KEY,
+    alive_until TIMESTAMP NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS reporting_queue_lease
+(
+    queue_name  VARCHAR(256) PRIMARY KEY,
+    owner       VARCHAR(256) NOT NULL,
+    lease_until TIMESTAMP    NOT NULL
+);
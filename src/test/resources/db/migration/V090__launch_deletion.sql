@@ -0,0 +1,20 @@
+CREATE TABLE IF NOT EXISTS launch_deletion
+(
+    launch_id     BIGINT PRIMARY KEY,
+    project_id    BIGINT       NOT NULL,
+    elements      BIGINT       NOT NULL DEFAULT 0,
+    state         VARCHAR(16)  NOT NULL,
+    attempts      INTEGER      NOT NULL DEFAULT 0,
+    items_total   BIGINT,
+    items_deleted BIGINT       NOT NULL DEFAULT 0,
+    launch_name   VARCHAR(512),
+    user_id       BIGINT,
+    user_login    VARCHAR(256),
+    owner         VARCHAR(256),
+    lease_until   TIMESTAMP,
+    error         TEXT,
+    created_at    TIMESTAMP    NOT NULL DEFAULT now(),
+    updated_at    TIMESTAMP    NOT NULL DEFAULT now()
+);
+
+CREATE INDEX IF NOT EXISTS launch_deletion_project_idx ON launch_deletion (project_id);
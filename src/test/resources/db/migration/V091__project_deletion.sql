@@ -0,0 +1,11 @@
+CREATE TABLE IF NOT EXISTS project_deletion
+(
+    project_id    BIGINT PRIMARY KEY,
+    stage         VARCHAR(16)  NOT NULL,
+    state         VARCHAR(16)  NOT NULL,
+    owner         VARCHAR(256),
+    lease_until   TIMESTAMP,
+    error         TEXT,
+    created_at    TIMESTAMP    NOT NULL DEFAULT now(),
+    updated_at    TIMESTAMP    NOT NULL DEFAULT now()
+);
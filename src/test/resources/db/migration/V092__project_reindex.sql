@@ -0,0 +1,10 @@
+CREATE TABLE IF NOT EXISTS project_reindex
+(
+    project_id     BIGINT PRIMARY KEY,
+    last_launch_id BIGINT       NOT NULL DEFAULT 0,
+    indexed        BIGINT       NOT NULL DEFAULT 0,
+    owner          VARCHAR(256),
+    lease_until    TIMESTAMP,
+    created_at     TIMESTAMP    NOT NULL DEFAULT now(),
+    updated_at     TIMESTAMP    NOT NULL DEFAULT now()
+);
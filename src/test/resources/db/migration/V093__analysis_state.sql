@@ -0,0 +1,12 @@
+CREATE TABLE IF NOT EXISTS analysis_state
+(
+    launch_id   BIGINT       NOT NULL,
+    analyzer    VARCHAR(32)  NOT NULL,
+    project_id  BIGINT       NOT NULL,
+    owner       VARCHAR(256) NOT NULL,
+    started_at  TIMESTAMP    NOT NULL DEFAULT now(),
+    lease_until TIMESTAMP    NOT NULL,
+    PRIMARY KEY (launch_id, analyzer)
+);
+
+CREATE INDEX IF NOT EXISTS analysis_state_project_idx ON analysis_state (project_id, analyzer);